@@ -33,7 +33,53 @@ public enum AtlasConfiguration {
 
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
-    SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100);
+    SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100),
+    SEARCH_PLAN_CACHE_SIZE("atlas.search.plan.cache.size", 1000),
+
+    //entity store configuration
+    STORE_SKIP_UNCHANGED_ENTITY_UPDATES("atlas.entity.store.skip.unchanged.updates", true),
+
+    //entity cache configuration: weights are in number of attribute values
+    ENTITY_CACHE_HEADERS_MAX_WEIGHT("atlas.entity.cache.headers.max.weight", 500000),
+    ENTITY_CACHE_ENTITIES_MAX_WEIGHT("atlas.entity.cache.entities.max.weight", 500000),
+    ENTITY_CACHE_EXCLUDED_TYPES("atlas.entity.cache.excluded.types", ""),
+
+    //metrics configuration
+    METRICS_ENTITY_COUNTS_ENABLED("atlas.metric.entity.counts.enabled", true),
+    METRICS_ENTITY_COUNTS_PERSIST_INTERVAL_MS("atlas.metric.entity.counts.persist.interval.ms", 60000),
+    METRICS_ENTITY_COUNTS_RECONCILE_INTERVAL_MS("atlas.metric.entity.counts.reconcile.interval.ms", 0),
+    METRICS_ENTITY_COUNTS_RECONCILE_MAX_VERTICES_PER_SEC("atlas.metric.entity.counts.reconcile.max.vertices.per.sec", 1000),
+    METRICS_LATENCY_ENABLED("atlas.metric.latency.enabled", true),
+    METRICS_LATENCY_MAX_NAMES("atlas.metric.latency.max.names", 1000),
+
+    //graph transaction configuration
+    GRAPH_TRANSACTION_LOCK_TIMEOUT_MS("atlas.graph.transaction.lock.timeout.ms", 0),
+
+    //import configuration
+    IMPORT_WORKER_COUNT("atlas.import.worker.count", 1),
+    IMPORT_BATCH_SIZE("atlas.import.batch.size", 10),
+
+    //export configuration
+    EXPORT_WORKER_COUNT("atlas.export.worker.count", 4),
+    EXPORT_GUID_QUEUE_MEMORY_SIZE("atlas.export.guid.queue.memory.size", 10000),
+
+    //lineage configuration
+    LINEAGE_USE_GRAPH_TRAVERSAL("atlas.lineage.graph.traversal.enabled", true),
+    LINEAGE_MAX_NODE_COUNT("atlas.lineage.max.node.count", 0),
+
+    //entity change notification configuration: with async dispatch, updates to an entity within the coalesce window
+    //are sent to listeners as one notification, so listeners like the entity audit don't see intermediate updates
+    NOTIFICATION_ASYNC_DISPATCH_ENABLED("atlas.notification.entity.async.enabled", false),
+    NOTIFICATION_ASYNC_QUEUE_SIZE("atlas.notification.entity.async.queue.size", 10000),
+    NOTIFICATION_ASYNC_BATCH_SIZE("atlas.notification.entity.async.batch.size", 100),
+    NOTIFICATION_ASYNC_COALESCE_WINDOW_MS("atlas.notification.entity.async.coalesce.window.ms", 500),
+    NOTIFICATION_ASYNC_ENQUEUE_TIMEOUT_MS("atlas.notification.entity.async.enqueue.timeout.ms", 5000),
+
+    //re-index configuration
+    REINDEX_ENABLED("atlas.graph.reindex.enabled", true),
+    REINDEX_BATCH_SIZE("atlas.graph.reindex.batch.size", 100),
+    REINDEX_MAX_VERTICES_PER_SEC("atlas.graph.reindex.max.vertices.per.sec", 1000),
+    REINDEX_POLL_INTERVAL_MS("atlas.graph.reindex.poll.interval.ms", 30000);
 
     private static final Configuration APPLICATION_PROPERTIES;
 
@@ -61,10 +107,26 @@ public enum AtlasConfiguration {
         return APPLICATION_PROPERTIES.getLong(propertyName, Long.valueOf(defaultValue.toString()).longValue());
     }
 
+    public boolean getBoolean() {
+        return APPLICATION_PROPERTIES.getBoolean(propertyName, Boolean.valueOf(defaultValue.toString()).booleanValue());
+    }
+
     public String getString() {
         return APPLICATION_PROPERTIES.getString(propertyName, defaultValue.toString());
     }
 
+    public String[] getStringArray() {
+        String[] ret = APPLICATION_PROPERTIES.getStringArray(propertyName);
+
+        if (ret == null || ret.length == 0) {
+            String defaultStr = defaultValue.toString();
+
+            ret = defaultStr.isEmpty() ? new String[0] : defaultStr.split(",");
+        }
+
+        return ret;
+    }
+
     public Object get() {
         Object value = APPLICATION_PROPERTIES.getProperty(propertyName);
         return value == null ? defaultValue : value;
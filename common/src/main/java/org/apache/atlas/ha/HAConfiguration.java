@@ -53,6 +53,13 @@ public final class HAConfiguration {
     public static final int DEFAULT_ZOOKEEPER_SESSION_TIMEOUT_MILLIS = 20000;
     public static final String HA_ZOOKEEPER_ACL = ATLAS_SERVER_HA_PREFIX + ZOOKEEPER_PREFIX + "acl";
     public static final String HA_ZOOKEEPER_AUTH = ATLAS_SERVER_HA_PREFIX + ZOOKEEPER_PREFIX + "auth";
+    public static final String HA_PASSIVE_READS_ENABLED = ATLAS_SERVER_HA_PREFIX + "passive.reads.enabled";
+    public static final boolean DEFAULT_PASSIVE_READS_ENABLED = false;
+    public static final String HA_PASSIVE_READS_MAX_STALENESS_MS = ATLAS_SERVER_HA_PREFIX + "passive.reads.max.staleness.ms";
+    public static final long DEFAULT_PASSIVE_READS_MAX_STALENESS_MS = 60000;
+    public static final String HA_PASSIVE_TYPEDEFS_REFRESH_INTERVAL_MS =
+            ATLAS_SERVER_HA_PREFIX + "passive.typedefs.refresh.interval.ms";
+    public static final long DEFAULT_PASSIVE_TYPEDEFS_REFRESH_INTERVAL_MS = 10000;
 
     /**
      * Return whether HA is enabled or not.
@@ -73,6 +80,17 @@ public final class HAConfiguration {
         return ret;
     }
 
+    /**
+     * Return whether passive instances serve read-only requests, instead of redirecting them to the active instance.
+     * Disabled by default: passive reads can be stale by up to atlas.server.ha.passive.reads.max.staleness.ms.
+     * @param configuration underlying configuration instance
+     * @return
+     */
+    public static boolean isPassiveReadsEnabled(Configuration configuration) {
+        return isHAEnabled(configuration) &&
+               configuration.getBoolean(HA_PASSIVE_READS_ENABLED, DEFAULT_PASSIVE_READS_ENABLED);
+    }
+
     /**
      * Get the web server address that a server instance with the passed ID is bound to.
      *
@@ -47,6 +47,11 @@ public final class Constants {
     //weird issue in TitanDB if __ added to this property key. Not adding it for now
     public static final String ENTITY_TEXT_PROPERTY_KEY = "entityText";
 
+    /**
+     * Full-text of the entity by source (entity attributes, each classification), to update the full-text incrementally.
+     */
+    public static final String ENTITY_TEXT_SEGMENTS_PROPERTY_KEY = INTERNAL_PROPERTY_KEY_PREFIX + "entityTextSegments";
+
     /**
      * Properties for type store graph.
      */
@@ -99,6 +104,7 @@ public final class Constants {
     public static final String INDEX_SEARCH_MAX_RESULT_SET_SIZE = "atlas.graph.index.search.max-result-set-size";
     public static final String INDEX_SEARCH_TYPES_MAX_QUERY_STR_LENGTH = "atlas.graph.index.search.types.max-query-str-length";
     public static final String INDEX_SEARCH_TAGS_MAX_QUERY_STR_LENGTH  = "atlas.graph.index.search.tags.max-query-str-length";
+    public static final String INDEX_SEARCH_MAX_PAGE_SIZE = "atlas.graph.index.search.max-page-size";
 
     private Constants() {
     }
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.utils;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Process-wide registry of latency histograms, by operation name. Histograms are created on first use and
+ * registered in JMX as org.apache.atlas:type=Latency,name=&lt;operation&gt;.
+ */
+public final class AtlasPerfMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasPerfMetrics.class);
+
+    private static final String  JMX_DOMAIN = "org.apache.atlas";
+    private static final boolean ENABLED;
+    private static final int     MAX_NAMES;
+
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    static {
+        boolean enabled  = true;
+        int     maxNames = 1000;
+
+        try {
+            enabled  = AtlasConfiguration.METRICS_LATENCY_ENABLED.getBoolean();
+            maxNames = AtlasConfiguration.METRICS_LATENCY_MAX_NAMES.getInt();
+        } catch (Throwable excp) { // application properties might not be available, like in hooks
+            LOG.debug("failed to read latency metrics configuration; using defaults", excp);
+        }
+
+        ENABLED   = enabled;
+        MAX_NAMES = maxNames;
+    }
+
+    private AtlasPerfMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static void record(String name, long elapsedNanos) {
+        if (ENABLED && name != null) {
+            LatencyHistogram histogram = getHistogram(name);
+
+            if (histogram != null) {
+                histogram.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * @return histogram for the given operation; null if the number of operations tracked has reached the limit
+     */
+    public static LatencyHistogram getHistogram(String name) {
+        LatencyHistogram ret = HISTOGRAMS.get(name);
+
+        if (ret == null && name != null && HISTOGRAMS.size() < MAX_NAMES) {
+            LatencyHistogram histogram = new LatencyHistogram(name);
+
+            ret = HISTOGRAMS.putIfAbsent(name, histogram);
+
+            if (ret == null) {
+                ret = histogram;
+
+                registerMBean(histogram);
+            }
+        }
+
+        return ret;
+    }
+
+    public static SortedMap<String, LatencyHistogram.Snapshot> getSnapshots() {
+        SortedMap<String, LatencyHistogram.Snapshot> ret = new TreeMap<>();
+
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            ret.put(entry.getKey(), entry.getValue().getSnapshot());
+        }
+
+        return ret;
+    }
+
+    private static void registerMBean(LatencyHistogram histogram) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName  objectName  = new ObjectName(JMX_DOMAIN + ":type=Latency,name=" + ObjectName.quote(histogram.getName()));
+
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(histogram, objectName);
+            }
+        } catch (Exception excp) {
+            LOG.warn("failed to register latency histogram {} in JMX", histogram.getName(), excp);
+        }
+    }
+}
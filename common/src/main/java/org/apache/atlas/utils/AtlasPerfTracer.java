@@ -20,14 +20,20 @@ package org.apache.atlas.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.TimeUnit;
 
 /**
- * Handles logging of performance measurements.
+ * Handles logging of performance measurements. Measurements are also recorded in the latency histograms of
+ * AtlasPerfMetrics, under the operation name given when the tracer is created. The tag logged with the measurement
+ * defaults to the operation name; callers set a more detailed tag, built from the arguments of the operation, only
+ * when isPerfTraceEnabled() - i.e. when perf debug logging is on.
  */
 public final class AtlasPerfTracer {
     protected final Logger logger;
-    protected final String tag;
+    protected final String metricName;
+    protected       String tag;
     private   final long   startTimeMs;
+    private   final long   startTimeNanos;
 
     private static long reportingThresholdMs = 0L;
 
@@ -43,8 +49,15 @@ public final class AtlasPerfTracer {
         return logger.isDebugEnabled();
     }
 
-    public static AtlasPerfTracer getPerfTracer(Logger logger, String tag) {
-        return new AtlasPerfTracer(logger, tag);
+    /**
+     * @return tracer of the operation; null when neither perf debug logging nor latency metrics are enabled
+     */
+    public static AtlasPerfTracer getPerfTracer(Logger logger, String operation) {
+        if (!logger.isDebugEnabled() && !AtlasPerfMetrics.isEnabled()) {
+            return null;
+        }
+
+        return new AtlasPerfTracer(logger, operation);
     }
 
     public static void log(AtlasPerfTracer tracer) {
@@ -53,28 +66,55 @@ public final class AtlasPerfTracer {
         }
     }
 
-    private AtlasPerfTracer(Logger logger, String tag) {
-        this.logger = logger;
-        this.tag    = tag;
-        startTimeMs = System.currentTimeMillis();
+    private AtlasPerfTracer(Logger logger, String operation) {
+        this.logger     = logger;
+        this.metricName = getMetricName(logger, operation);
+        this.tag        = operation;
+        startTimeMs     = System.currentTimeMillis();
+        startTimeNanos  = System.nanoTime();
     }
 
     public String getTag() {
         return tag;
     }
 
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
     public long getStartTime() {
         return startTimeMs;
     }
 
     public long getElapsedTime() {
-        return System.currentTimeMillis() - startTimeMs;
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
     }
 
     public void log() {
-        long elapsedTime = getElapsedTime();
-        if (elapsedTime > reportingThresholdMs) {
-            logger.debug("PERF|{}|{}", tag, elapsedTime);
+        long elapsedNanos = System.nanoTime() - startTimeNanos;
+
+        AtlasPerfMetrics.record(metricName, elapsedNanos);
+
+        if (logger.isDebugEnabled()) {
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+            if (elapsedTime > reportingThresholdMs) {
+                logger.debug("PERF|{}|{}", tag, elapsedTime);
+            }
+        }
+    }
+
+    /**
+     * @return the operation name, like EntityREST.getById; operations without a class name are prefixed with the
+     *         name of the perf logger, like NotificationHookConsumer.batch
+     */
+    static String getMetricName(Logger logger, String operation) {
+        if (operation == null || operation.indexOf('.') != -1) {
+            return operation;
         }
+
+        String loggerName = logger.getName();
+
+        return loggerName.substring(loggerName.lastIndexOf('.') + 1) + "." + operation;
     }
 }
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies, with buckets of logarithmically increasing width: each power of 2 of microseconds is split
+ * into 8 buckets, so that percentiles are within 12.5% of the recorded values.
+ *
+ * Recording is lock-free: the counts are kept in a few stripes of atomic counters, and threads record into the
+ * stripe of their thread id - so that threads rarely update the same counters.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+    private static final int  SUB_BUCKET_BITS  = 3;
+    private static final int  SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int  MAX_MAGNITUDE    = 40; // ~12 days in microseconds
+    private static final long MAX_VALUE        = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int  BUCKET_COUNT     = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    private static final int  SUM_SLOT         = BUCKET_COUNT;
+    private static final int  MAX_SLOT         = BUCKET_COUNT + 1;
+    private static final int  STRIPE_SIZE      = BUCKET_COUNT + 2;
+    private static final int  STRIPE_COUNT     = getStripeCount();
+
+    private final String            name;
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPE_COUNT];
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new AtomicLongArray(STRIPE_SIZE);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long elapsed, TimeUnit unit) {
+        long            micros = Math.min(Math.max(unit.toMicros(elapsed), 0), MAX_VALUE);
+        AtomicLongArray stripe = stripes[(int) (Thread.currentThread().getId() & (STRIPE_COUNT - 1))];
+
+        stripe.incrementAndGet(getBucket(micros));
+        stripe.addAndGet(SUM_SLOT, micros);
+
+        for (long max = stripe.get(MAX_SLOT); micros > max; max = stripe.get(MAX_SLOT)) {
+            if (stripe.compareAndSet(MAX_SLOT, max, micros)) {
+                break;
+            }
+        }
+    }
+
+    public Snapshot getSnapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long   count  = 0;
+        long   sum    = 0;
+        long   max    = 0;
+
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucketCount = stripe.get(i);
+
+                counts[i] += bucketCount;
+                count     += bucketCount;
+            }
+
+            sum += stripe.get(SUM_SLOT);
+            max  = Math.max(max, stripe.get(MAX_SLOT));
+        }
+
+        return new Snapshot(count, count > 0 ? toMillis(sum) / count : 0, toMillis(max),
+                            getPercentile(counts, count, 0.5), getPercentile(counts, count, 0.9),
+                            getPercentile(counts, count, 0.99), getPercentile(counts, count, 0.999));
+    }
+
+    @Override
+    public long getCount() { return getSnapshot().getCount(); }
+
+    @Override
+    public double getMeanMs() { return getSnapshot().getMeanMs(); }
+
+    @Override
+    public double getMaxMs() { return getSnapshot().getMaxMs(); }
+
+    @Override
+    public double getP50Ms() { return getSnapshot().getP50Ms(); }
+
+    @Override
+    public double getP90Ms() { return getSnapshot().getP90Ms(); }
+
+    @Override
+    public double getP99Ms() { return getSnapshot().getP99Ms(); }
+
+    @Override
+    public double getP999Ms() { return getSnapshot().getP999Ms(); }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    /**
+     * @return the middle of the range of values in the bucket
+     */
+    static double getBucketValue(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int  shift      = bucket / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+
+        return lowerBound + ((1L << shift) - 1) / 2.0;
+    }
+
+    private static double getPercentile(long[] counts, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank  = (long) Math.ceil(count * percentile);
+        long total = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i];
+
+            if (total >= rank) {
+                return toMillis(getBucketValue(i));
+            }
+        }
+
+        return toMillis(getBucketValue(counts.length - 1));
+    }
+
+    private static double toMillis(double micros) {
+        return micros / 1000;
+    }
+
+    private static int getStripeCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+
+        return Integer.highestOneBit(Math.max(processors, 1));
+    }
+
+    /**
+     * Latencies recorded in a histogram, in milliseconds.
+     */
+    public static class Snapshot {
+        private final long   count;
+        private final double meanMs;
+        private final double maxMs;
+        private final double p50Ms;
+        private final double p90Ms;
+        private final double p99Ms;
+        private final double p999Ms;
+
+        public Snapshot(long count, double meanMs, double maxMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms) {
+            this.count  = count;
+            this.meanMs = meanMs;
+            this.maxMs  = maxMs;
+            this.p50Ms  = p50Ms;
+            this.p90Ms  = p90Ms;
+            this.p99Ms  = p99Ms;
+            this.p999Ms = p999Ms;
+        }
+
+        public long getCount() { return count; }
+
+        public double getMeanMs() { return meanMs; }
+
+        public double getMaxMs() { return maxMs; }
+
+        public double getP50Ms() { return p50Ms; }
+
+        public double getP90Ms() { return p90Ms; }
+
+        public double getP99Ms() { return p99Ms; }
+
+        public double getP999Ms() { return p999Ms; }
+
+        @Override
+        public String toString() {
+            return "[count=" + count + ", meanMs=" + meanMs + ", maxMs=" + maxMs + ", p50Ms=" + p50Ms + ", p90Ms=" + p90Ms +
+                   ", p99Ms=" + p99Ms + ", p999Ms=" + p999Ms + "]";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.utils;
+
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            int    bucket      = LatencyHistogram.getBucket(value);
+            double bucketValue = LatencyHistogram.getBucketValue(bucket);
+
+            assertTrue(Math.abs(bucketValue - value) <= value * 0.125, value + " in bucket with value " + bucketValue);
+            assertTrue(bucket >= LatencyHistogram.getBucket(value - 1));
+        }
+
+        assertEquals(LatencyHistogram.getBucket(7), 7);
+        assertEquals(LatencyHistogram.getBucket(8), 8);
+        assertEquals(LatencyHistogram.getBucket(16), 16);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(snapshot.getCount(), 1000);
+        assertEquals(snapshot.getMeanMs(), 500.5, 0.001);
+        assertEquals(snapshot.getMaxMs(), 1000, 0.001);
+        assertEquals(snapshot.getP50Ms(), 500, 500 * 0.125);
+        assertEquals(snapshot.getP90Ms(), 900, 900 * 0.125);
+        assertEquals(snapshot.getP99Ms(), 990, 990 * 0.125);
+        assertEquals(snapshot.getP999Ms(), 999, 999 * 0.125);
+
+        assertEquals(new LatencyHistogram("empty").getSnapshot().getP99Ms(), 0, 0);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram("concurrent");
+        List<Thread>           threads   = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j % 100, TimeUnit.MICROSECONDS);
+                    }
+                }
+            };
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(histogram.getSnapshot().getCount(), 80000);
+        assertEquals(histogram.getSnapshot().getMaxMs(), 0.099, 0.0001);
+    }
+
+    @Test
+    public void testMetricName() {
+        assertEquals(AtlasPerfTracer.getMetricName(LoggerFactory.getLogger("org.apache.atlas.perf.EntityREST"), "EntityREST.getById"), "EntityREST.getById");
+        assertEquals(AtlasPerfTracer.getMetricName(LoggerFactory.getLogger("org.apache.atlas.perf.NotificationHookConsumer"), "batch"), "NotificationHookConsumer.batch");
+    }
+
+    @Test
+    public void testTracerRecordsUnderOperationName() {
+        AtlasPerfTracer tracer = AtlasPerfTracer.getPerfTracer(LoggerFactory.getLogger("org.apache.atlas.perf.LatencyHistogramTest"), "trace");
+
+        assertNotNull(tracer);
+
+        tracer.setTag("trace(arg=abc)");
+        tracer.log();
+
+        assertEquals(AtlasPerfMetrics.getHistogram("LatencyHistogramTest.trace").getSnapshot().getCount(), 1);
+        assertFalse(AtlasPerfMetrics.getSnapshots().containsKey("trace(arg=abc)"));
+        assertFalse(AtlasPerfMetrics.getSnapshots().containsKey("LatencyHistogramTest.trace(arg=abc)"));
+    }
+}
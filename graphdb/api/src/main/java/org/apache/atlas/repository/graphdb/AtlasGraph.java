@@ -295,6 +295,21 @@ public interface AtlasGraph<V, E> {
      */
     Object executeGremlinScript(String query, boolean isPath) throws AtlasBaseException;
 
+    /**
+     * Executes a Gremlin script with the given parameter bindings, returns an object with the result.
+     * Passing parameters as bindings, rather than formatting them into the script, lets implementations
+     * reuse the compiled script across executions.
+     *
+     * @param query
+     * @param bindings values of the variables referenced in the query
+     * @param isPath whether this is a path query
+     *
+     * @return the result from executing the script
+     *
+     * @throws AtlasBaseException
+     */
+    Object executeGremlinScript(String query, Map<String, Object> bindings, boolean isPath) throws AtlasBaseException;
+
     /**
      * Executes a Gremlin script using a ScriptEngineManager provided by consumer, returns an object with the result.
      * This is useful for scenarios where an operation executes large number of queries.
@@ -116,4 +116,15 @@ public interface AtlasGraphManagement {
      */
     void createEdgeIndex(String index, String backingIndex);
 
+    /**
+     * Enables the vertex indexes on the given property key that are not used for queries yet, as they were created
+     * when the key was already in use. Expected to be called after the index entries of the existing vertices have
+     * been written. Indexes are first registered with all graph instances, which completes asynchronously after the
+     * commit: this is expected to be called again until it returns true.
+     *
+     * @param propertyName name of the property key
+     * @return true if all the indexes on the key are enabled
+     */
+    boolean enableIndexes(String propertyName);
+
 }
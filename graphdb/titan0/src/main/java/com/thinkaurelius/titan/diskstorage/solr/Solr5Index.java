@@ -14,6 +14,8 @@
  */
 package com.thinkaurelius.titan.diskstorage.solr;
 
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
@@ -52,6 +54,7 @@ import com.thinkaurelius.titan.graphdb.query.condition.Not;
 import com.thinkaurelius.titan.graphdb.query.condition.Or;
 import com.thinkaurelius.titan.graphdb.query.condition.PredicateCondition;
 import com.thinkaurelius.titan.graphdb.types.ParameterType;
+import com.thinkaurelius.titan.util.stats.MetricManager;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.client.HttpClient;
 import org.apache.solr.client.solrj.SolrClient;
@@ -89,6 +92,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import java.util.UUID;
 
 import static com.thinkaurelius.titan.core.attribute.Cmp.*;
@@ -189,7 +193,16 @@ public class Solr5Index implements IndexProvider {
             "When mutating - wait for the index to reflect new mutations before returning. This can have a negative impact on performance.",
             ConfigOption.Type.LOCAL, false);
 
+    public static final ConfigOption<Integer> BATCH_MAX_DOCUMENTS = new ConfigOption<>(SOLR_NS, "batch-max-documents",
+            "Maximum number of documents sent to Solr in one update request. Larger mutations are split into several requests.",
+            ConfigOption.Type.MASKABLE, 1000);
 
+    public static final ConfigOption<Integer> BATCH_MAX_BYTES = new ConfigOption<>(SOLR_NS, "batch-max-bytes",
+            "Approximate maximum size in bytes of the documents sent to Solr in one update request. Larger mutations are split into several requests.",
+            ConfigOption.Type.MASKABLE, 10 * 1024 * 1024);
+
+    private static final String METRICS_UPDATE_TIMER = "update";
+    private static final String METRICS_UPDATE_DOCUMENTS = "updateDocuments";
 
     private static final IndexFeatures SOLR_FEATURES = new IndexFeatures.Builder().supportsDocumentTTL()
             .setDefaultStringMapping(TEXT).supportedStringMappings(TEXT, STRING).build();
@@ -202,10 +215,18 @@ public class Solr5Index implements IndexProvider {
     private final String ttlField;
     private final int maxResults;
     private final boolean waitSearcher;
+    private final int batchMaxDocuments;
+    private final long batchMaxBytes;
 
     public Solr5Index(final Configuration config) throws BackendException {
+        this(config, newSolrClient(config));
+    }
+
+    @VisibleForTesting
+    Solr5Index(final Configuration config, SolrClient solrClient) throws BackendException {
         Preconditions.checkArgument(config!=null);
         configuration = config;
+        this.solrClient = solrClient;
 
         mode = Mode.parse(config.get(SOLR_MODE));
         dynFields = config.get(DYNAMIC_FIELDS);
@@ -213,6 +234,17 @@ public class Solr5Index implements IndexProvider {
         maxResults = config.get(GraphDatabaseConfiguration.INDEX_MAX_RESULT_SET_SIZE);
         ttlField = config.get(TTL_FIELD);
         waitSearcher = config.get(WAIT_SEARCHER);
+        batchMaxDocuments = config.get(BATCH_MAX_DOCUMENTS);
+        batchMaxBytes = config.get(BATCH_MAX_BYTES);
+        Preconditions.checkArgument(batchMaxDocuments > 0, "Invalid value for %s: %s", BATCH_MAX_DOCUMENTS.getName(), batchMaxDocuments);
+        Preconditions.checkArgument(batchMaxBytes > 0, "Invalid value for %s: %s", BATCH_MAX_BYTES.getName(), batchMaxBytes);
+    }
+
+    private static SolrClient newSolrClient(final Configuration config) {
+        Preconditions.checkArgument(config!=null);
+
+        Mode mode = Mode.parse(config.get(SOLR_MODE));
+        SolrClient solrClient;
 
         if (mode==Mode.CLOUD) {
             HttpClientUtil.setConfigurer(new Krb5HttpClientConfigurer());
@@ -242,6 +274,8 @@ public class Solr5Index implements IndexProvider {
         } else {
             throw new IllegalArgumentException("Unsupported Solr operation mode: " + mode);
         }
+
+        return solrClient;
     }
 
     private Map<String, String> parseKeyFieldsForCollections(Configuration config) throws BackendException {
@@ -307,6 +341,8 @@ public class Solr5Index implements IndexProvider {
                     Preconditions.checkArgument(!mutation.isNew() || !mutation.hasDeletions());
                     Preconditions.checkArgument(!mutation.isDeleted() || !mutation.hasAdditions());
 
+                    SolrInputDocument doc = null;
+
                     //Handle any deletions
                     if (mutation.hasDeletions()) {
                         if (mutation.isDeleted()) {
@@ -319,21 +355,25 @@ public class Solr5Index implements IndexProvider {
                                     fieldDeletions.remove(indexEntry);
                                 }
                             }
-                            deleteIndividualFieldsFromIndex(collectionName, keyIdField, docId, fieldDeletions);
+                            // field deletions are sent as atomic updates, in the same batch as the additions
+                            doc = newFieldDeletionsDocument(keyIdField, docId, fieldDeletions);
                         }
                     }
 
                     if (mutation.hasAdditions()) {
                         int ttl = mutation.determineTTL();
 
-                        SolrInputDocument doc = new SolrInputDocument();
-                        doc.setField(keyIdField, docId);
+                        if (doc == null) {
+                            doc = new SolrInputDocument();
+                            doc.setField(keyIdField, docId);
+                        }
 
                         boolean isNewDoc = mutation.isNew();
 
                         if (isNewDoc)
                             logger.trace("Adding new document {}", docId);
 
+                        // a field that is deleted and added again gets the added value
                         for (IndexEntry e : mutation.getAdditions()) {
                             final Object fieldValue = convertValue(e.value);
                             doc.setField(e.field, isNewDoc
@@ -343,6 +383,9 @@ public class Solr5Index implements IndexProvider {
                             Preconditions.checkArgument(isNewDoc,"Solr only supports TTL on new documents [%s]",docId);
                             doc.setField(ttlField, String.format("+%dSECONDS", ttl));
                         }
+                    }
+
+                    if (doc != null) {
                         changes.add(doc);
                     }
                 }
@@ -407,8 +450,8 @@ public class Solr5Index implements IndexProvider {
         }
     }
 
-    private void deleteIndividualFieldsFromIndex(String collectionName, String keyIdField, String docId, HashSet<IndexEntry> fieldDeletions) throws SolrServerException, IOException {
-        if (fieldDeletions.isEmpty()) return;
+    private SolrInputDocument newFieldDeletionsDocument(String keyIdField, String docId, HashSet<IndexEntry> fieldDeletions) {
+        if (fieldDeletions.isEmpty()) return null;
 
         Map<String, String> fieldDeletes = new HashMap<String, String>(1) {{ put("set", null); }};
 
@@ -416,30 +459,51 @@ public class Solr5Index implements IndexProvider {
         doc.addField(keyIdField, docId);
         StringBuilder sb = new StringBuilder();
         for (IndexEntry fieldToDelete : fieldDeletions) {
-            doc.addField(fieldToDelete.field, fieldDeletes);
+            doc.setField(fieldToDelete.field, fieldDeletes);
             sb.append(fieldToDelete).append(",");
         }
 
         if (logger.isTraceEnabled())
             logger.trace("Deleting individual fields [{}] for document {}", sb.toString(), docId);
 
-        UpdateRequest singleDocument = newUpdateRequest();
-        singleDocument.add(doc);
-        solrClient.request(singleDocument, collectionName);
+        return doc;
     }
 
+    /**
+     * Sends the documents in as few update requests as the batch limits allow.
+     */
     private void commitDocumentChanges(String collectionName, Collection<SolrInputDocument> documents) throws SolrServerException, IOException {
         if (documents.size() == 0) return;
 
+        List<SolrInputDocument> batch = new ArrayList<>(Math.min(documents.size(), batchMaxDocuments));
+        long batchBytes = 0;
+
+        for (SolrInputDocument doc : documents) {
+            long docBytes = estimateSize(doc);
+
+            if (!batch.isEmpty() && (batch.size() >= batchMaxDocuments || batchBytes + docBytes > batchMaxBytes)) {
+                commitDocumentBatch(collectionName, batch, batchBytes);
+                batch.clear();
+                batchBytes = 0;
+            }
+
+            batch.add(doc);
+            batchBytes += docBytes;
+        }
+
+        commitDocumentBatch(collectionName, batch, batchBytes);
+    }
+
+    private void commitDocumentBatch(String collectionName, List<SolrInputDocument> documents, long bytes) throws SolrServerException, IOException {
         try {
-            solrClient.request(newUpdateRequest().add(documents), collectionName);
+            request(newUpdateRequest().add(documents), collectionName, documents.size(), bytes);
         } catch (HttpSolrClient.RemoteSolrException rse) {
             logger.error("Unable to save documents to Solr as one of the shape objects stored were not compatible with Solr.", rse);
             logger.error("Details in failed document batch: ");
             for (SolrInputDocument d : documents) {
                 Collection<String> fieldNames = d.getFieldNames();
                 for (String name : fieldNames) {
-                    logger.error(name + ":" + d.getFieldValue(name).toString());
+                    logger.error(name + ":" + d.getFieldValue(name));
                 }
             }
 
@@ -448,8 +512,42 @@ public class Solr5Index implements IndexProvider {
     }
 
     private void commitDeletes(String collectionName, List<String> deleteIds) throws SolrServerException, IOException {
-        if (deleteIds.size() == 0) return;
-        solrClient.request(newUpdateRequest().deleteById(deleteIds), collectionName);
+        for (int i = 0; i < deleteIds.size(); i += batchMaxDocuments) {
+            List<String> batch = deleteIds.subList(i, Math.min(i + batchMaxDocuments, deleteIds.size()));
+            request(newUpdateRequest().deleteById(new ArrayList<>(batch)), collectionName, batch.size(), 0);
+        }
+    }
+
+    /**
+     * Sends an update request, recording its latency and number of documents in the Titan metrics of the collection.
+     */
+    private void request(UpdateRequest request, String collectionName, int documents, long bytes) throws SolrServerException, IOException {
+        String metricsPrefix = GraphDatabaseConfiguration.getSystemMetricsPrefix();
+        Timer.Context timer = MetricManager.INSTANCE.getTimer(metricsPrefix, "solr", collectionName, METRICS_UPDATE_TIMER).time();
+
+        try {
+            solrClient.request(request, collectionName);
+        } finally {
+            long elapsedNanos = timer.stop();
+
+            MetricManager.INSTANCE.getHistogram(metricsPrefix, "solr", collectionName, METRICS_UPDATE_DOCUMENTS).update(documents);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Solr update of {} documents ({} bytes) in collection {} took {} ms", documents, bytes,
+                        collectionName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            }
+        }
+    }
+
+    /**
+     * Returns the approximate size of the document in an update request.
+     */
+    private static long estimateSize(SolrInputDocument doc) {
+        long ret = 0;
+        for (String name : doc.getFieldNames()) {
+            ret += name.length() + String.valueOf(doc.getFieldValue(name)).length();
+        }
+        return ret;
     }
 
     @Override
@@ -46,6 +46,7 @@ import org.apache.atlas.repository.graphdb.GremlinVersion;
 import org.apache.atlas.repository.graphdb.titan0.query.Titan0GraphQuery;
 import org.apache.atlas.repository.graphdb.utils.IteratorToIterableAdapter;
 import org.apache.atlas.typesystem.types.IDataType;
+import org.apache.atlas.utils.AtlasPerfMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +74,8 @@ import java.util.Set;
 public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
     private static final Logger LOG = LoggerFactory.getLogger(Titan0Graph.class);
 
+    private static final String METRIC_GREMLIN_SCRIPT = "Titan0Graph.executeGremlinScript";
+
     private final Set<String> multiProperties;
 
     public Titan0Graph() {
@@ -271,7 +274,13 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
     @Override
     public Object executeGremlinScript(String query, boolean isPath) throws AtlasBaseException {
 
-        Object result = executeGremlinScript(query);
+        Object result = executeGremlinScript(query, null);
+        return convertGremlinScriptResult(isPath, result);
+    }
+
+    @Override
+    public Object executeGremlinScript(String query, Map<String, Object> queryBindings, boolean isPath) throws AtlasBaseException {
+        Object result = executeGremlinScript(query, queryBindings);
         return convertGremlinScriptResult(isPath, result);
     }
 
@@ -323,21 +332,32 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
 
         bindings.put("g", getGraph());
 
-        Object result = scriptEngine.eval(query, bindings);
+        long   startTime = System.nanoTime();
+        Object result    = scriptEngine.eval(query, bindings);
+
+        AtlasPerfMetrics.record(METRIC_GREMLIN_SCRIPT, System.nanoTime() - startTime);
 
         return convertGremlinScriptResult(isPath, result);
     }
 
-    private Object executeGremlinScript(String gremlinQuery) throws AtlasBaseException {
+    private Object executeGremlinScript(String gremlinQuery, Map<String, Object> queryBindings) throws AtlasBaseException {
         Object       result = null;
         ScriptEngine engine = getGremlinScriptEngine();
 
         try {
             Bindings bindings = engine.createBindings();
 
+            if (queryBindings != null) {
+                bindings.putAll(queryBindings);
+            }
+
             bindings.put("g", getGraph());
 
+            long startTime = System.nanoTime();
+
             result = engine.eval(gremlinQuery, bindings);
+
+            AtlasPerfMetrics.record(METRIC_GREMLIN_SCRIPT, System.nanoTime() - startTime);
         } catch (ScriptException e) {
             throw new AtlasBaseException(AtlasErrorCode.GREMLIN_SCRIPT_EXECUTION_FAILED, gremlinQuery);
         } finally {
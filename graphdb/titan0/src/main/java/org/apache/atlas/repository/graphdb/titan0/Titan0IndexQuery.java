@@ -22,6 +22,7 @@ import java.util.Iterator;
 import com.google.common.base.Preconditions;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.utils.AtlasPerfMetrics;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterators;
@@ -33,6 +34,8 @@ import com.tinkerpop.blueprints.Vertex;
  */
 public class Titan0IndexQuery implements AtlasIndexQuery<Titan0Vertex, Titan0Edge> {
 
+    private static final String METRIC_INDEX_QUERY = "Titan0IndexQuery.vertices";
+
     private Titan0Graph graph;
     private TitanIndexQuery wrappedIndexQuery;
 
@@ -44,7 +47,10 @@ public class Titan0IndexQuery implements AtlasIndexQuery<Titan0Vertex, Titan0Edg
 
     @Override
     public Iterator<AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>> vertices() {
-        Iterator<TitanIndexQuery.Result<Vertex>> results = wrappedIndexQuery.vertices().iterator();
+        long                                     startTime = System.nanoTime();
+        Iterator<TitanIndexQuery.Result<Vertex>> results   = wrappedIndexQuery.vertices().iterator();
+
+        AtlasPerfMetrics.record(METRIC_INDEX_QUERY, System.nanoTime() - startTime);
 
         Function<TitanIndexQuery.Result<Vertex>, AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>> function =
                 new Function<TitanIndexQuery.Result<Vertex>, AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>>() {
@@ -61,11 +67,15 @@ public class Titan0IndexQuery implements AtlasIndexQuery<Titan0Vertex, Titan0Edg
     public Iterator<Result<Titan0Vertex, Titan0Edge>> vertices(int offset, int limit) {
         Preconditions.checkArgument(offset >=0, "Index offset should be greater than or equals to 0");
         Preconditions.checkArgument(limit >=0, "Index limit should be greater than or equals to 0");
+        long startTime = System.nanoTime();
+
         Iterator<TitanIndexQuery.Result<Vertex>> results = wrappedIndexQuery
                 .offset(offset)
                 .limit(limit)
                 .vertices().iterator();
 
+        AtlasPerfMetrics.record(METRIC_INDEX_QUERY, System.nanoTime() - startTime);
+
         Function<TitanIndexQuery.Result<Vertex>, AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>> function =
                 new Function<TitanIndexQuery.Result<Vertex>, AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>>() {
 
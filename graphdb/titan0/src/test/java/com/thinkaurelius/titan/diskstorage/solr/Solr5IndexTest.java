@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thinkaurelius.titan.diskstorage.solr;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.thinkaurelius.titan.diskstorage.configuration.ModifiableConfiguration;
+import com.thinkaurelius.titan.diskstorage.indexing.IndexEntry;
+import com.thinkaurelius.titan.diskstorage.indexing.IndexMutation;
+import com.thinkaurelius.titan.graphdb.configuration.GraphDatabaseConfiguration;
+import com.thinkaurelius.titan.util.stats.MetricManager;
+
+public class Solr5IndexTest {
+
+    private static final String INDEX_NAME = "search";
+    private static final String COLLECTION = "metrics_test";
+
+    @Mock
+    SolrClient solrClient;
+
+    @BeforeMethod
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void shouldRecordUpdateMetricsPerBatch() throws Exception {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildConfiguration();
+        config.set(Solr5Index.SOLR_MODE, "http", INDEX_NAME);
+        config.set(Solr5Index.BATCH_MAX_DOCUMENTS, 2, INDEX_NAME);
+
+        Solr5Index index = new Solr5Index(config.restrictTo(INDEX_NAME), solrClient);
+
+        Map<String, IndexMutation> documents = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            documents.put("doc" + i, new IndexMutation(Collections.singletonList(new IndexEntry("name", "value" + i)),
+                    Collections.<IndexEntry>emptyList(), true, false));
+        }
+
+        index.mutate(Collections.singletonMap(COLLECTION, documents), null, null);
+
+        // 5 documents in batches of at most 2
+        verify(solrClient, times(3)).request(any(UpdateRequest.class), eq(COLLECTION));
+
+        String metricsPrefix = GraphDatabaseConfiguration.getSystemMetricsPrefix();
+        MetricRegistry registry = MetricManager.INSTANCE.getRegistry();
+
+        assertEquals(registry.getTimers().get(MetricRegistry.name(metricsPrefix, "solr", COLLECTION, "update")).getCount(), 3);
+        assertEquals(registry.getHistograms().get(MetricRegistry.name(metricsPrefix, "solr", COLLECTION, "updateDocuments")).getCount(), 3);
+        assertEquals(registry.getHistograms().get(MetricRegistry.name(metricsPrefix, "solr", COLLECTION, "updateDocuments")).getSnapshot().getMax(), 2);
+    }
+}
@@ -29,7 +29,9 @@ import com.thinkaurelius.titan.core.TitanIndexQuery;
 import com.thinkaurelius.titan.core.schema.TitanGraphIndex;
 import com.thinkaurelius.titan.core.schema.TitanManagement;
 import com.thinkaurelius.titan.core.util.TitanCleanup;
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.groovy.GroovyExpression;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
@@ -43,11 +45,9 @@ import org.apache.atlas.repository.graphdb.GremlinVersion;
 import org.apache.atlas.repository.graphdb.titan1.query.Titan1GraphQuery;
 import org.apache.atlas.repository.graphdb.utils.IteratorToIterableAdapter;
 import org.apache.atlas.typesystem.types.IDataType;
-import org.apache.tinkerpop.gremlin.groovy.CompilerCustomizerProvider;
-import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
+import org.apache.atlas.utils.AtlasPerfMetrics;
+import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -55,6 +55,8 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.io.IoCore;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
 import javax.script.ScriptEngine;
@@ -72,6 +74,9 @@ import java.util.Set;
  * Titan 1.0.0 implementation of AtlasGraph.
  */
 public class Titan1Graph implements AtlasGraph<Titan1Vertex, Titan1Edge> {
+    private static final Logger LOG = LoggerFactory.getLogger(Titan1Graph.class);
+
+    private static final String METRIC_GREMLIN_SCRIPT = "Titan1Graph.executeGremlinScript";
 
     private final ConvertGremlinValueFunction GREMLIN_VALUE_CONVERSION_FUNCTION = new ConvertGremlinValueFunction();
 
@@ -83,8 +88,22 @@ public class Titan1Graph implements AtlasGraph<Titan1Vertex, Titan1Edge> {
     }
 
     private final Set<String> multiProperties;
+    private final Titan1ScriptEnginePool scriptEnginePool;
 
     public Titan1Graph() {
+        Configuration config = null;
+
+        try {
+            config = ApplicationProperties.get();
+        } catch (AtlasException e) {
+            LOG.warn("Failed to read application properties; using default Gremlin script engine pool settings", e);
+        }
+
+        scriptEnginePool = new Titan1ScriptEnginePool(
+                config != null ? config.getInt(Titan1ScriptEnginePool.POOL_SIZE_PROPERTY, Titan1ScriptEnginePool.DEFAULT_POOL_SIZE) : Titan1ScriptEnginePool.DEFAULT_POOL_SIZE,
+                config != null ? config.getInt(Titan1ScriptEnginePool.CACHE_SIZE_PROPERTY, Titan1ScriptEnginePool.DEFAULT_CACHE_SIZE) : Titan1ScriptEnginePool.DEFAULT_CACHE_SIZE,
+                config != null ? config.getInt(Titan1ScriptEnginePool.MAX_COMPILES_PROPERTY, Titan1ScriptEnginePool.DEFAULT_MAX_COMPILES) : Titan1ScriptEnginePool.DEFAULT_MAX_COMPILES);
+
         //determine multi-properties once at startup
         TitanManagement mgmt = null;
         try {
@@ -296,46 +315,43 @@ public class Titan1Graph implements AtlasGraph<Titan1Vertex, Titan1Edge> {
 
     @Override
     public GremlinGroovyScriptEngine getGremlinScriptEngine() {
-        Set<String> extraImports = new HashSet<String>();
-        extraImports.add(java.util.function.Function.class.getName());
-
-        Set<String> extraStaticImports = new HashSet<String>();
-        extraStaticImports.add(P.class.getName() + ".*");
-        extraStaticImports.add(__.class.getName() + ".*");
-        CompilerCustomizerProvider provider = new DefaultImportCustomizerProvider(extraImports, extraStaticImports);
-
-        GremlinGroovyScriptEngine scriptEngine = new GremlinGroovyScriptEngine(provider);
-
-        return scriptEngine;
+        return scriptEnginePool.borrow();
     }
 
     @Override
     public void releaseGremlinScriptEngine(ScriptEngine scriptEngine) {
-        if (scriptEngine instanceof GremlinGroovyScriptEngine) {
-            try {
-                ((GremlinGroovyScriptEngine)scriptEngine).close();
-            } catch (Exception e) {
-                // ignore
-            }
-        }
+        scriptEnginePool.release(scriptEngine);
     }
 
     @Override
     public Object executeGremlinScript(String query, boolean isPath) throws AtlasBaseException {
-        Object result = executeGremlinScript(query);
+        Object result = executeGremlinScript(query, null);
         return convertGremlinValue(result);
     }
 
-    private Object executeGremlinScript(String gremlinQuery) throws AtlasBaseException {
+    @Override
+    public Object executeGremlinScript(String query, Map<String, Object> queryBindings, boolean isPath) throws AtlasBaseException {
+        Object result = executeGremlinScript(query, queryBindings);
+        return convertGremlinValue(result);
+    }
+
+    private Object executeGremlinScript(String gremlinQuery, Map<String, Object> queryBindings) throws AtlasBaseException {
         GremlinGroovyScriptEngine scriptEngine = getGremlinScriptEngine();
 
         try {
             Bindings bindings = scriptEngine.createBindings();
 
+            if (queryBindings != null) {
+                bindings.putAll(queryBindings);
+            }
+
             bindings.put("graph", getGraph());
             bindings.put("g", getGraph().traversal());
 
-            Object result = scriptEngine.eval(gremlinQuery, bindings);
+            long   startTime = System.nanoTime();
+            Object result    = scriptEnginePool.eval(scriptEngine, gremlinQuery, bindings);
+
+            AtlasPerfMetrics.record(METRIC_GREMLIN_SCRIPT, System.nanoTime() - startTime);
 
             return result;
         } catch (ScriptException e) {
@@ -354,10 +370,18 @@ public class Titan1Graph implements AtlasGraph<Titan1Vertex, Titan1Edge> {
         bindings.putAll(userBindings);
         bindings.put("g", getGraph());
 
-        Object result = scriptEngine.eval(query, bindings);
+        long   startTime = System.nanoTime();
+        Object result    = scriptEnginePool.eval(scriptEngine, query, bindings);
+
+        AtlasPerfMetrics.record(METRIC_GREMLIN_SCRIPT, System.nanoTime() - startTime);
+
         return convertGremlinValue(result);
     }
 
+    public Titan1ScriptEnginePool getScriptEnginePool() {
+        return scriptEnginePool;
+    }
+
     @Override
     public GroovyExpression generatePersisentToLogicalConversionExpression(GroovyExpression expr, IDataType<?> type) {
         //nothing special needed, value is stored in required type
@@ -22,6 +22,8 @@ import com.thinkaurelius.titan.core.Cardinality;
 import com.thinkaurelius.titan.core.PropertyKey;
 import com.thinkaurelius.titan.core.schema.Mapping;
 import com.thinkaurelius.titan.core.schema.PropertyKeyMaker;
+import com.thinkaurelius.titan.core.schema.SchemaAction;
+import com.thinkaurelius.titan.core.schema.SchemaStatus;
 import com.thinkaurelius.titan.core.schema.TitanGraphIndex;
 import com.thinkaurelius.titan.core.schema.TitanManagement;
 import com.thinkaurelius.titan.graphdb.internal.Token;
@@ -36,6 +38,7 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -188,4 +191,35 @@ public class Titan1GraphManagement implements AtlasGraphManagement {
         createExactMatchVertexIndex(propertyName, isUnique, propertyKeys);
     }
 
+    @Override
+    public boolean enableIndexes(String propertyName) {
+        PropertyKey propertyKey = management.getPropertyKey(propertyName);
+        boolean     ret         = true;
+
+        if (propertyKey == null) {
+            return ret;
+        }
+
+        for (TitanGraphIndex index : management.getGraphIndexes(Vertex.class)) {
+            if (!Arrays.asList(index.getFieldKeys()).contains(propertyKey)) {
+                continue;
+            }
+
+            SchemaStatus status = index.getIndexStatus(propertyKey);
+
+            if (status == SchemaStatus.INSTALLED) {
+                LOG.info("Registering index {}", index.name());
+
+                management.updateIndex(index, SchemaAction.REGISTER_INDEX);
+
+                ret = false;
+            } else if (status == SchemaStatus.REGISTERED) {
+                LOG.info("Enabling index {}", index.name());
+
+                management.updateIndex(index, SchemaAction.ENABLE_INDEX);
+            }
+        }
+
+        return ret;
+    }
 }
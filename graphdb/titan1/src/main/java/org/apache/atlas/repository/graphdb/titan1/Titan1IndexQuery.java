@@ -22,6 +22,7 @@ import java.util.Iterator;
 import com.google.common.base.Preconditions;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.utils.AtlasPerfMetrics;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterators;
@@ -33,6 +34,8 @@ import com.thinkaurelius.titan.core.TitanVertex;
  */
 public class Titan1IndexQuery implements AtlasIndexQuery<Titan1Vertex, Titan1Edge> {
 
+    private static final String METRIC_INDEX_QUERY = "Titan1IndexQuery.vertices";
+
     private Titan1Graph graph;
     private TitanIndexQuery query;
 
@@ -43,7 +46,10 @@ public class Titan1IndexQuery implements AtlasIndexQuery<Titan1Vertex, Titan1Edg
 
     @Override
     public Iterator<Result<Titan1Vertex, Titan1Edge>> vertices() {
-        Iterator<TitanIndexQuery.Result<TitanVertex>> results = query.vertices().iterator();
+        long                                          startTime = System.nanoTime();
+        Iterator<TitanIndexQuery.Result<TitanVertex>> results   = query.vertices().iterator();
+
+        AtlasPerfMetrics.record(METRIC_INDEX_QUERY, System.nanoTime() - startTime);
 
         Function<TitanIndexQuery.Result<TitanVertex>, Result<Titan1Vertex, Titan1Edge>> function =
             new Function<TitanIndexQuery.Result<TitanVertex>, Result<Titan1Vertex, Titan1Edge>>() {
@@ -61,11 +67,15 @@ public class Titan1IndexQuery implements AtlasIndexQuery<Titan1Vertex, Titan1Edg
     public Iterator<Result<Titan1Vertex, Titan1Edge>> vertices(int offset, int limit) {
         Preconditions.checkArgument(offset >=0, "Index offset should be greater than or equals to 0");
         Preconditions.checkArgument(limit >=0, "Index limit should be greater than or equals to 0");
+        long startTime = System.nanoTime();
+
         Iterator<TitanIndexQuery.Result<TitanVertex>> results = query
                 .offset(offset)
                 .limit(limit)
                 .vertices().iterator();
 
+        AtlasPerfMetrics.record(METRIC_INDEX_QUERY, System.nanoTime() - startTime);
+
         Function<TitanIndexQuery.Result<TitanVertex>, Result<Titan1Vertex, Titan1Edge>> function =
                 new Function<TitanIndexQuery.Result<TitanVertex>, Result<Titan1Vertex, Titan1Edge>>() {
 
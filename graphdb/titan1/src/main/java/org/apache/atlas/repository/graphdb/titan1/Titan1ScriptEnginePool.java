@@ -0,0 +1,229 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb.titan1;
+
+import org.apache.tinkerpop.gremlin.groovy.CompilerCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of Gremlin script engines. Each pooled engine keeps an LRU cache of the scripts it has compiled,
+ * keyed by the script text; callers should pass query parameters as bindings so that the text stays the same
+ * across executions of a query.
+ *
+ * Every compiled script loads a class into the class loader of its engine, which is not unloaded while the engine
+ * lives - so an engine that has compiled the configured number of scripts is closed when it is released, instead of
+ * being returned to the pool.
+ */
+public class Titan1ScriptEnginePool {
+    private static final Logger LOG = LoggerFactory.getLogger(Titan1ScriptEnginePool.class);
+
+    public static final String POOL_SIZE_PROPERTY    = "atlas.graph.gremlin.script.engine.pool.size";
+    public static final String CACHE_SIZE_PROPERTY   = "atlas.graph.gremlin.script.cache.size";
+    public static final String MAX_COMPILES_PROPERTY = "atlas.graph.gremlin.script.engine.max.compiles";
+
+    public static final int DEFAULT_POOL_SIZE    = 8;
+    public static final int DEFAULT_CACHE_SIZE   = 256;
+    public static final int DEFAULT_MAX_COMPILES = 1000;
+
+    private final BlockingQueue<PooledScriptEngine> idleEngines;
+    private final int                               cacheSize;
+    private final int                               maxCompiles;
+    private final AtomicLong                        engineCreateCount = new AtomicLong();
+    private final AtomicLong                        engineRetireCount = new AtomicLong();
+    private final AtomicLong                        compileHitCount   = new AtomicLong();
+    private final AtomicLong                        compileMissCount  = new AtomicLong();
+    private final AtomicLong                        evalCount         = new AtomicLong();
+    private final AtomicLong                        evalTimeMs        = new AtomicLong();
+    private final AtomicLong                        maxEvalTimeMs     = new AtomicLong();
+
+    public Titan1ScriptEnginePool(int poolSize, int cacheSize) {
+        this(poolSize, cacheSize, DEFAULT_MAX_COMPILES);
+    }
+
+    public Titan1ScriptEnginePool(int poolSize, int cacheSize, int maxCompiles) {
+        this.idleEngines = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+        this.cacheSize   = Math.max(cacheSize, 0);
+        this.maxCompiles = Math.max(maxCompiles, 1);
+    }
+
+    /**
+     * Returns an idle engine from the pool, or a new one if none is idle. Callers must return the engine
+     * with release(); engines released when the pool is already full, or that compiled maxCompiles scripts, are closed.
+     */
+    public GremlinGroovyScriptEngine borrow() {
+        PooledScriptEngine ret = idleEngines.poll();
+
+        if (ret == null) {
+            ret = new PooledScriptEngine(createCustomizerProvider(), cacheSize);
+
+            engineCreateCount.incrementAndGet();
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("created Gremlin script engine; total created={}", engineCreateCount.get());
+            }
+        }
+
+        return ret;
+    }
+
+    public void release(ScriptEngine scriptEngine) {
+        if (scriptEngine instanceof PooledScriptEngine) {
+            PooledScriptEngine pooledEngine = (PooledScriptEngine) scriptEngine;
+
+            if (pooledEngine.compileCount >= maxCompiles) {
+                engineRetireCount.incrementAndGet();
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("retiring Gremlin script engine after {} compiles; total retired={}", pooledEngine.compileCount, engineRetireCount.get());
+                }
+            } else if (idleEngines.offer(pooledEngine)) {
+                return;
+            }
+        }
+
+        if (scriptEngine instanceof GremlinGroovyScriptEngine) {
+            try {
+                ((GremlinGroovyScriptEngine) scriptEngine).close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    public Object eval(ScriptEngine scriptEngine, String script, Bindings bindings) throws ScriptException {
+        long start = System.currentTimeMillis();
+
+        try {
+            if (scriptEngine instanceof PooledScriptEngine) {
+                return ((PooledScriptEngine) scriptEngine).getCompiledScript(script).eval(bindings);
+            } else {
+                return scriptEngine.eval(script, bindings);
+            }
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+
+            evalCount.incrementAndGet();
+            evalTimeMs.addAndGet(elapsed);
+
+            long max = maxEvalTimeMs.get();
+
+            while (elapsed > max && !maxEvalTimeMs.compareAndSet(max, elapsed)) {
+                max = maxEvalTimeMs.get();
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("eval took {} ms; {}", elapsed, this);
+            }
+        }
+    }
+
+    public long getEngineCreateCount() { return engineCreateCount.get(); }
+
+    public long getEngineRetireCount() { return engineRetireCount.get(); }
+
+    public long getCompileHitCount() { return compileHitCount.get(); }
+
+    public long getCompileMissCount() { return compileMissCount.get(); }
+
+    public long getEvalCount() { return evalCount.get(); }
+
+    public long getEvalTimeMs() { return evalTimeMs.get(); }
+
+    public long getMaxEvalTimeMs() { return maxEvalTimeMs.get(); }
+
+    public int getIdleEngineCount() { return idleEngines.size(); }
+
+    @Override
+    public String toString() {
+        long count = evalCount.get();
+
+        return "Titan1ScriptEnginePool{" +
+                "idleEngines=" + idleEngines.size() +
+                ", engineCreateCount=" + engineCreateCount.get() +
+                ", engineRetireCount=" + engineRetireCount.get() +
+                ", compileHitCount=" + compileHitCount.get() +
+                ", compileMissCount=" + compileMissCount.get() +
+                ", evalCount=" + count +
+                ", avgEvalTimeMs=" + (count > 0 ? (evalTimeMs.get() / count) : 0) +
+                ", maxEvalTimeMs=" + maxEvalTimeMs.get() +
+                '}';
+    }
+
+    private static CompilerCustomizerProvider createCustomizerProvider() {
+        Set<String> extraImports = new HashSet<String>();
+        extraImports.add(java.util.function.Function.class.getName());
+
+        Set<String> extraStaticImports = new HashSet<String>();
+        extraStaticImports.add(P.class.getName() + ".*");
+        extraStaticImports.add(__.class.getName() + ".*");
+
+        return new DefaultImportCustomizerProvider(extraImports, extraStaticImports);
+    }
+
+    private final class PooledScriptEngine extends GremlinGroovyScriptEngine {
+        private final Map<String, CompiledScript> compiledScripts;
+        private       int                         compileCount = 0;
+
+        PooledScriptEngine(CompilerCustomizerProvider provider, final int maxCachedScripts) {
+            super(provider);
+
+            this.compiledScripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                    return size() > maxCachedScripts;
+                }
+            };
+        }
+
+        // a pooled engine is used by one thread at a time, so the cache needs no synchronization
+        CompiledScript getCompiledScript(String script) throws ScriptException {
+            CompiledScript ret = compiledScripts.get(script);
+
+            if (ret == null) {
+                compileMissCount.incrementAndGet();
+
+                ret = compile(script);
+
+                compileCount++;
+
+                compiledScripts.put(script, ret);
+            } else {
+                compileHitCount.incrementAndGet();
+            }
+
+            return ret;
+        }
+    }
+}
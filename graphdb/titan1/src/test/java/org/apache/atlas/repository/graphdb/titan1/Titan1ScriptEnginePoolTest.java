@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb.titan1;
+
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.testng.annotations.Test;
+
+import javax.script.Bindings;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+@Test
+public class Titan1ScriptEnginePoolTest {
+
+    @Test
+    public void testReleasedEngineIsReused() {
+        Titan1ScriptEnginePool pool = new Titan1ScriptEnginePool(1, 10);
+
+        GremlinGroovyScriptEngine engine1 = pool.borrow();
+        GremlinGroovyScriptEngine engine2 = pool.borrow();
+
+        assertNotSame(engine1, engine2);
+
+        pool.release(engine1);
+        pool.release(engine2); // pool is full, engine2 gets closed
+
+        assertEquals(pool.getIdleEngineCount(), 1);
+        assertSame(pool.borrow(), engine1);
+        assertEquals(pool.getEngineCreateCount(), 2);
+    }
+
+    @Test
+    public void testCompiledScriptIsReusedWithDifferentBindings() throws Exception {
+        Titan1ScriptEnginePool    pool   = new Titan1ScriptEnginePool(1, 10);
+        GremlinGroovyScriptEngine engine = pool.borrow();
+
+        for (int i = 0; i < 3; i++) {
+            Bindings bindings = engine.createBindings();
+
+            bindings.put("x", i);
+
+            assertEquals(pool.eval(engine, "x + 1", bindings), i + 1);
+        }
+
+        pool.release(engine);
+
+        assertEquals(pool.getCompileMissCount(), 1);
+        assertEquals(pool.getCompileHitCount(), 2);
+        assertEquals(pool.getEvalCount(), 3);
+    }
+
+    @Test
+    public void testCompiledScriptCacheIsBounded() throws Exception {
+        Titan1ScriptEnginePool    pool   = new Titan1ScriptEnginePool(1, 1);
+        GremlinGroovyScriptEngine engine = pool.borrow();
+
+        pool.eval(engine, "1 + 1", engine.createBindings());
+        pool.eval(engine, "2 + 2", engine.createBindings());
+        pool.eval(engine, "1 + 1", engine.createBindings());
+
+        assertEquals(pool.getCompileMissCount(), 3);
+        assertEquals(pool.getCompileHitCount(), 0);
+    }
+
+    @Test
+    public void testEngineIsRetiredAfterMaxCompiles() throws Exception {
+        Titan1ScriptEnginePool    pool   = new Titan1ScriptEnginePool(1, 10, 2);
+        GremlinGroovyScriptEngine engine = pool.borrow();
+
+        pool.eval(engine, "1 + 1", engine.createBindings());
+        pool.release(engine);
+
+        assertSame(pool.borrow(), engine);
+
+        pool.eval(engine, "2 + 2", engine.createBindings());
+        pool.release(engine);
+
+        assertEquals(pool.getIdleEngineCount(), 0);
+        assertEquals(pool.getEngineRetireCount(), 1);
+        assertNotSame(pool.borrow(), engine);
+        assertEquals(pool.getEngineCreateCount(), 2);
+    }
+}
@@ -711,8 +711,10 @@ public class AtlasStructType extends AtlasType {
                 return key;
             }
 
+            // StringUtils.replace() returns the key as is when there is nothing to replace, unlike String.replace()
+            // which compiles a pattern on each call
             for (String[] strMap : RESERVED_CHAR_ENCODE_MAP) {
-                key = key.replace(strMap[0], strMap[1]);
+                key = StringUtils.replace(key, strMap[0], strMap[1]);
             }
 
             return key;
@@ -724,7 +726,7 @@ public class AtlasStructType extends AtlasType {
             }
 
             for (String[] strMap : RESERVED_CHAR_ENCODE_MAP) {
-                key = key.replace(strMap[1], strMap[0]);
+                key = StringUtils.replace(key, strMap[1], strMap[0]);
             }
 
             return key;
@@ -777,7 +779,7 @@ public class AtlasStructType extends AtlasType {
 
         private static String getQualifiedAttributeName(AtlasStructDef structDef, String attrName) {
             final String typeName = structDef.getName();
-            return attrName.contains(".") ? attrName : String.format("%s.%s", typeName, attrName);
+            return attrName.contains(".") ? attrName : typeName + "." + attrName;
         }
 
         private static String[][] RESERVED_CHAR_ENCODE_MAP = new String[][] {
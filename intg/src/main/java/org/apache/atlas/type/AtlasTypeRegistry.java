@@ -52,8 +52,10 @@ public class AtlasTypeRegistry {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasTypeRegistry.class);
     private static final int    DEFAULT_LOCK_MAX_WAIT_TIME_IN_SECONDS = 15;
 
-    protected       RegistryData                   registryData;
-    private   final TypeRegistryUpdateSynchronizer updateSynchronizer;
+    // snapshot of the registry; updates are made to a copy, in AtlasTransientTypeRegistry, which replaces this
+    // snapshot on commit. A published snapshot is not modified, hence reads need no locking
+    protected volatile RegistryData                   registryData;
+    private   final    TypeRegistryUpdateSynchronizer updateSynchronizer;
 
     public AtlasTypeRegistry() {
         registryData       = new RegistryData();
@@ -24,14 +24,19 @@ import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.type.AtlasTypeRegistry.AtlasTransientTypeRegistry;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.testng.Assert.*;
 
@@ -482,6 +487,76 @@ public class TestAtlasTypeRegistry {
         }
     }
 
+    /* add pairs of entity types, parent and child, while other threads read the registry
+     * verify that readers never see a type of an update before all types of the update are resolved
+     */
+    @Test
+    public void testReadsDuringUpdates() throws Exception {
+        final int               numOfUpdates = 50;
+        final AtlasTypeRegistry typeRegistry = new AtlasTypeRegistry();
+        final AtomicBoolean     isUpdating   = new AtomicBoolean(true);
+        ExecutorService         executor     = Executors.newFixedThreadPool(2);
+        List<Future<Integer>>   readers      = new ArrayList<>();
+
+        for (int threadIdx = 0; threadIdx < 2; threadIdx++) {
+            readers.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    int ret = 0;
+
+                    while (isUpdating.get()) {
+                        for (int i = 0; i < numOfUpdates; i++) {
+                            AtlasEntityType child = typeRegistry.getEntityTypeByName("child-" + i);
+
+                            if (child != null) {
+                                assertEquals(child.getAllSuperTypes(), Collections.singleton("parent-" + i));
+                                assertTrue(typeRegistry.getEntityTypeByName("parent-" + i).isSuperTypeOf(child));
+
+                                ret++;
+                            }
+                        }
+                    }
+
+                    return ret;
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < numOfUpdates; i++) {
+                AtlasEntityDef parent = new AtlasEntityDef("parent-" + i);
+                AtlasEntityDef child  = new AtlasEntityDef("child-" + i);
+
+                child.addSuperType(parent.getName());
+
+                AtlasTypesDef typesDef = new AtlasTypesDef();
+
+                typesDef.getEntityDefs().add(child);
+                typesDef.getEntityDefs().add(parent);
+
+                AtlasTransientTypeRegistry ttr    = typeRegistry.lockTypeRegistryForUpdate();
+                boolean                    commit = false;
+
+                try {
+                    ttr.addTypes(typesDef);
+
+                    commit = true;
+                } finally {
+                    typeRegistry.releaseTypeRegistryForUpdate(ttr, commit);
+                }
+            }
+        } finally {
+            isUpdating.set(false);
+            executor.shutdown();
+        }
+
+        for (Future<Integer> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS); // rethrows assertion failures in readers
+        }
+
+        assertEquals(typeRegistry.getAllEntityDefNames().size(), numOfUpdates * 2);
+    }
+
     /* create 2 entity types: L0 and L1, with L0 as superType of L1
      * add entity type L2, with L0, L1 and L2 as super-types - this should fail due to L2 self-referencing itself in super-types
      * verify that after the update failure, the registry still has correct super-type/sub-type information for L0 and L1
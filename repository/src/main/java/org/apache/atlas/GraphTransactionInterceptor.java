@@ -23,17 +23,24 @@ import org.aopalliance.intercept.MethodInvocation;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.typesystem.exception.NotFoundException;
+import org.apache.atlas.utils.AtlasPerfMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.Response;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Component
@@ -43,6 +50,10 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     @VisibleForTesting
     private static final ObjectUpdateSynchronizer OBJECT_UPDATE_SYNCHRONIZER = new ObjectUpdateSynchronizer();
     private static final ThreadLocal<List<PostTransactionHook>> postTransactionHooks = new ThreadLocal<>();
+    private static final ThreadLocal<Integer>                   transactionDepth     = new ThreadLocal<>();
+    private static final ConcurrentMap<Method, String>          metricNames          = new ConcurrentHashMap<>();
+
+    private static final String METRIC_GRAPH_COMMIT = "AtlasGraph.commit";
 
     private final AtlasGraph graph;
 
@@ -54,13 +65,21 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         boolean isSuccess = false;
+        long    startTime = System.nanoTime();
+
+        setTransactionDepth(getTransactionDepth() + 1);
 
         try {
             try {
                 Object response = invocation.proceed();
+
+                long commitStartTime = System.nanoTime();
+
                 graph.commit();
                 isSuccess = true;
 
+                AtlasPerfMetrics.record(METRIC_GRAPH_COMMIT, System.nanoTime() - commitStartTime);
+
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("graph commit");
                 }
@@ -76,6 +95,9 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
                 throw t;
             }
         } finally {
+            // hooks run after the transaction: changes they make are not part of it
+            setTransactionDepth(getTransactionDepth() - 1);
+
             List<PostTransactionHook> trxHooks = postTransactionHooks.get();
 
             if (trxHooks != null) {
@@ -91,17 +113,60 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
 
             OBJECT_UPDATE_SYNCHRONIZER.releaseLockedObjects();
+
+            AtlasPerfMetrics.record(getMetricName(invocation.getMethod()), System.nanoTime() - startTime);
         }
     }
 
-    public static void lockObjectAndReleasePostCommit(final String guid) {
+    /**
+     * @return true if the current thread runs within a graph transaction, in which case a PostTransactionHook
+     * created now is called once the transaction completes
+     */
+    public static boolean isInTransaction() {
+        return getTransactionDepth() > 0;
+    }
+
+    public static void lockObjectAndReleasePostCommit(final String guid) throws AtlasBaseException {
         OBJECT_UPDATE_SYNCHRONIZER.lockObject(guid);
     }
 
-    public static void lockObjectAndReleasePostCommit(final List<String> guids) {
+    public static void lockObjectAndReleasePostCommit(final List<String> guids) throws AtlasBaseException {
         OBJECT_UPDATE_SYNCHRONIZER.lockObject(guids);
     }
 
+    public static ObjectUpdateSynchronizer getObjectUpdateSynchronizer() {
+        return OBJECT_UPDATE_SYNCHRONIZER;
+    }
+
+    /**
+     * @return name under which the latency of transactions of the method are recorded, like GraphTransaction.AtlasEntityStoreV1.createOrUpdate
+     */
+    private static String getMetricName(Method method) {
+        String ret = metricNames.get(method);
+
+        if (ret == null) {
+            ret = "GraphTransaction." + method.getDeclaringClass().getSimpleName() + "." + method.getName();
+
+            metricNames.putIfAbsent(method, ret);
+        }
+
+        return ret;
+    }
+
+    private static int getTransactionDepth() {
+        Integer ret = transactionDepth.get();
+
+        return ret != null ? ret : 0;
+    }
+
+    private static void setTransactionDepth(int depth) {
+        if (depth > 0) {
+            transactionDepth.set(depth);
+        } else {
+            transactionDepth.remove();
+        }
+    }
+
     boolean logException(Throwable t) {
         if (t instanceof AtlasBaseException) {
             Response.Status httpCode = ((AtlasBaseException) t).getAtlasErrorCode().getHttpCode();
@@ -129,34 +194,76 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     }
 
     private static class RefCountedReentrantLock extends ReentrantLock {
-        private int refCount;
-
-        public RefCountedReentrantLock() {
-            this.refCount = 0;
-        }
+        // number of threads holding or waiting for the lock; 0 once the lock is removed from the lock table
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        /**
+         * @return false if the lock is being removed from the lock table, in which case a new lock should be created
+         */
+        public boolean increment() {
+            while (true) {
+                int count = refCount.get();
+
+                if (count <= 0) {
+                    return false;
+                }
 
-        public int increment() {
-            return ++refCount;
+                if (refCount.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
         }
 
         public int decrement() {
-            return --refCount;
+            return refCount.decrementAndGet();
         }
 
-        public int getRefCount() { return refCount; }
+        public int getRefCount() { return refCount.get(); }
+
+        @Override
+        public Thread getOwner() {
+            return super.getOwner();
+        }
     }
 
 
+    /**
+     * Serializes updates to entities by their guids; locks obtained in a transaction are released after the transaction
+     * completes.
+     *
+     * Locks are created on demand and are removed from the lock table once no thread holds or waits for them. The lock
+     * table is not guarded by a common monitor: threads contend only when they lock the same guid.
+     *
+     * Locking guids across separate lockObject() calls in a transaction can deadlock - as the guids are then not locked
+     * in sorted order. Such deadlocks are detected before waiting for a lock, and the lock request fails; a request can
+     * also fail after waiting for atlas.graph.transaction.lock.timeout.ms, if set.
+     */
     public static class ObjectUpdateSynchronizer {
-        private final Map<String, RefCountedReentrantLock> guidLockMap = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, RefCountedReentrantLock> guidLockMap = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Thread, RefCountedReentrantLock> waitingFor  = new ConcurrentHashMap<>();
         private final ThreadLocal<List<String>>  lockedGuids = new ThreadLocal<List<String>>() {
             @Override
             protected List<String> initialValue() {
                 return new ArrayList<>();
             }
         };
+        private final long       lockTimeoutMs;
+        private final AtomicLong lockCount      = new AtomicLong();
+        private final AtomicLong lockWaitCount  = new AtomicLong();
+        private final AtomicLong lockWaitTimeMs = new AtomicLong();
+        private final AtomicLong maxLockWaitMs  = new AtomicLong();
+        private final AtomicLong timeoutCount   = new AtomicLong();
+        private final AtomicLong deadlockCount  = new AtomicLong();
+
+        public ObjectUpdateSynchronizer() {
+            this(AtlasConfiguration.GRAPH_TRANSACTION_LOCK_TIMEOUT_MS.getLong());
+        }
+
+        public ObjectUpdateSynchronizer(long lockTimeoutMs) {
+            this.lockTimeoutMs = lockTimeoutMs;
+        }
 
-        public void lockObject(final List<String> guids) {
+        public void lockObject(final List<String> guids) throws AtlasBaseException {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("==> lockObject(): guids: {}", guids);
             }
@@ -167,13 +274,24 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         }
 
-        private void lockObject(final String guid) {
+        private void lockObject(final String guid) throws AtlasBaseException {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("==> lockObject(): guid: {}, guidLockMap.size: {}", guid, guidLockMap.size());
             }
 
-            ReentrantLock lock = getOrCreateObjectLock(guid);
-            lock.lock();
+            RefCountedReentrantLock lock = getOrCreateObjectLock(guid);
+
+            lockCount.incrementAndGet();
+
+            if (!lock.tryLock()) {
+                try {
+                    waitForLock(guid, lock);
+                } catch (AtlasBaseException e) {
+                    releaseObjectLockRef(guid, lock);
+
+                    throw e;
+                }
+            }
 
             lockedGuids.get().add(guid);
 
@@ -198,36 +316,134 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         }
 
+        public long getLockCount() { return lockCount.get(); }
+
+        /**
+         * @return number of lock requests that had to wait for another thread to release the lock
+         */
+        public long getLockWaitCount() { return lockWaitCount.get(); }
+
+        public long getLockWaitTimeMs() { return lockWaitTimeMs.get(); }
+
+        public long getMaxLockWaitMs() { return maxLockWaitMs.get(); }
+
+        public long getTimeoutCount() { return timeoutCount.get(); }
+
+        public long getDeadlockCount() { return deadlockCount.get(); }
+
+        private void waitForLock(String guid, RefCountedReentrantLock lock) throws AtlasBaseException {
+            final Thread  currentThread = Thread.currentThread();
+            final long    startTime     = System.nanoTime();
+            final boolean isLocked;
+
+            lockWaitCount.incrementAndGet();
+
+            // register the wait before looking for a cycle: of the threads forming a cycle, at least the last to register finds it
+            waitingFor.put(currentThread, lock);
+
+            try {
+                if (isDeadlocked(currentThread, lock)) {
+                    deadlockCount.incrementAndGet();
+
+                    LOG.warn("lockObject(): guid {} is locked by a thread waiting for a lock held by this thread", guid);
+
+                    throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, guid, "deadlock detected");
+                }
+
+                if (lockTimeoutMs > 0) {
+                    isLocked = lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS);
+                } else {
+                    lock.lockInterruptibly();
+
+                    isLocked = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, e, guid, "interrupted");
+            } finally {
+                waitingFor.remove(currentThread);
+
+                recordLockWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            }
+
+            if (!isLocked) {
+                timeoutCount.incrementAndGet();
+
+                throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, guid, "timed out after " + lockTimeoutMs + "ms");
+            }
+        }
+
+        // follows the chain of lock owner -> lock the owner is waiting for, looking for the current thread
+        private boolean isDeadlocked(Thread currentThread, RefCountedReentrantLock lock) {
+            Set<Thread> visited = new HashSet<>();
+
+            for (Thread owner = lock.getOwner(); owner != null && visited.add(owner); ) {
+                if (owner == currentThread) {
+                    return true;
+                }
+
+                RefCountedReentrantLock ownerWaitingFor = waitingFor.get(owner);
+
+                owner = ownerWaitingFor != null ? ownerWaitingFor.getOwner() : null;
+            }
+
+            return false;
+        }
+
+        private void recordLockWait(long waitMs) {
+            lockWaitTimeMs.addAndGet(waitMs);
+
+            for (long max = maxLockWaitMs.get(); waitMs > max; max = maxLockWaitMs.get()) {
+                if (maxLockWaitMs.compareAndSet(max, waitMs)) {
+                    break;
+                }
+            }
+        }
+
         private RefCountedReentrantLock getOrCreateObjectLock(String guid) {
-            synchronized (guidLockMap) {
+            while (true) {
                 RefCountedReentrantLock ret = guidLockMap.get(guid);
+
                 if (ret == null) {
                     ret = new RefCountedReentrantLock();
-                    guidLockMap.put(guid, ret);
+
+                    RefCountedReentrantLock existing = guidLockMap.putIfAbsent(guid, ret);
+
+                    if (existing == null) {
+                        return ret;
+                    }
+
+                    ret = existing;
+                }
+
+                if (ret.increment()) {
+                    return ret;
                 }
 
-                ret.increment();
-                return ret;
+                // the lock is being removed by its last user; retry, to create a new lock
+                guidLockMap.remove(guid, ret);
             }
         }
 
-        private RefCountedReentrantLock releaseObjectLock(String guid) {
-            synchronized (guidLockMap) {
-                RefCountedReentrantLock lock = guidLockMap.get(guid);
-                if (lock != null && lock.isHeldByCurrentThread()) {
-                    int refCount = lock.decrement();
+        private void releaseObjectLockRef(String guid, RefCountedReentrantLock lock) {
+            if (lock.decrement() == 0) {
+                guidLockMap.remove(guid, lock);
+            }
+        }
 
-                    if (refCount == 0) {
-                        guidLockMap.remove(guid);
-                    }
+        private RefCountedReentrantLock releaseObjectLock(String guid) {
+            RefCountedReentrantLock lock = guidLockMap.get(guid);
 
-                    lock.unlock();
-                } else {
-                    LOG.warn("releaseLockedObjects: {} Attempting to release a lock not held by current thread.", guid);
-                }
+            if (lock != null && lock.isHeldByCurrentThread()) {
+                releaseObjectLockRef(guid, lock);
 
-                return lock;
+                lock.unlock();
+            } else {
+                LOG.warn("releaseLockedObjects: {} Attempting to release a lock not held by current thread.", guid);
             }
+
+            return lock;
         }
     }
 }
@@ -68,32 +68,42 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         final FilterCriteria          filterCriteria        = context.getSearchParameters().getTagFilters();
         final Set<String>             typeAndSubTypes       = classificationType.getTypeAndAllSubTypes();
         final String                  typeAndSubTypesQryStr = classificationType.getTypeAndAllSubTypesQryStr();
-        final Set<String>             indexAttributes       = new HashSet<>();
-        final Set<String>             graphAttributes       = new HashSet<>();
-        final Set<String>             allAttributes         = new HashSet<>();
 
+        SearchPlan.FilterPlan filterPlan = context.getSearchPlan().getTagFilterPlan();
 
-        processSearchAttributes(classificationType, filterCriteria, indexAttributes, graphAttributes, allAttributes);
+        if (filterPlan == null) {
+            final Set<String> indexAttributes = new HashSet<>();
+            final Set<String> graphAttributes = new HashSet<>();
+            final Set<String> allAttributes   = new HashSet<>();
 
-        // for classification search, if any attribute can't be handled by index query - switch to all filter by Graph query
-        boolean useIndexSearch = typeAndSubTypesQryStr.length() <= MAX_QUERY_STR_LENGTH_TAGS && CollectionUtils.isEmpty(graphAttributes) && canApplyIndexFilter(classificationType, filterCriteria, false);
+            processSearchAttributes(classificationType, filterCriteria, indexAttributes, graphAttributes, allAttributes);
 
-        AtlasGraph graph = context.getGraph();
+            // for classification search, if any attribute can't be handled by index query - switch to all filter by Graph query
+            boolean useIndexSearch = typeAndSubTypesQryStr.length() <= MAX_QUERY_STR_LENGTH_TAGS && CollectionUtils.isEmpty(graphAttributes) && canApplyIndexFilter(classificationType, filterCriteria, false);
 
-        if (useIndexSearch) {
             StringBuilder indexQuery = new StringBuilder();
 
-            constructTypeTestQuery(indexQuery, typeAndSubTypesQryStr);
-            constructFilterQuery(indexQuery, classificationType, filterCriteria, indexAttributes);
+            if (useIndexSearch) {
+                constructTypeTestQuery(indexQuery, typeAndSubTypesQryStr);
+                constructFilterQuery(indexQuery, classificationType, filterCriteria, indexAttributes);
+            }
+
+            filterPlan = new SearchPlan.FilterPlan(indexAttributes, graphAttributes, allAttributes, useIndexSearch, toIndexQueryTemplate(indexQuery),
+                                                   null, null, null);
 
-            String indexQueryString = STRAY_AND_PATTERN.matcher(indexQuery).replaceAll(")");
+            context.getSearchPlan().setTagFilterPlan(filterPlan);
+        }
+
+        final Set<String> allAttributes = filterPlan.getAllAttributes();
+
+        AtlasGraph graph = context.getGraph();
 
-            indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
-            indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
+        if (filterPlan.getIndexQueryTemplate() != null) {
+            String indexQueryString = bindIndexQuery(filterPlan.getIndexQueryTemplate(), filterCriteria, filterPlan.getIndexAttributes());
 
             this.indexQuery = graph.indexQuery(Constants.VERTEX_INDEX, indexQueryString);
 
-            inMemoryPredicate = constructInMemoryPredicate(classificationType, filterCriteria, indexAttributes);
+            inMemoryPredicate = constructInMemoryPredicate(classificationType, filterCriteria, filterPlan.getIndexAttributes());
         } else {
             indexQuery = null;
         }
@@ -145,10 +155,10 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "ClassificationSearchProcessor.execute");
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "ClassificationSearchProcessor.execute(" + context +  ")");
+            perf.setTag("ClassificationSearchProcessor.execute(" + context +  ")");
         }
 
         try {
@@ -50,6 +50,7 @@ import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery.Result;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.EntityCache;
 import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.type.*;
 import org.apache.atlas.type.AtlasBuiltInTypes.AtlasObjectIdType;
@@ -102,18 +103,21 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     private final AtlasTypeRegistry               typeRegistry;
     private final GraphBackedSearchIndexer        indexer;
     private final SearchTracker                   searchTracker;
+    private final SearchPlanCache                 searchPlanCache;
     private final int                             maxResultSetSize;
     private final int                             maxTypesLengthInIdxQuery;
     private final int                             maxTagsLengthInIdxQuery;
 
     @Inject
     EntityDiscoveryService(MetadataRepository metadataRepository, AtlasTypeRegistry typeRegistry,
-                           AtlasGraph graph, GraphBackedSearchIndexer indexer, SearchTracker searchTracker) throws AtlasException {
+                           AtlasGraph graph, GraphBackedSearchIndexer indexer, SearchTracker searchTracker,
+                           SearchPlanCache searchPlanCache, EntityCache entityCache) throws AtlasException {
         this.graph                    = graph;
         this.graphPersistenceStrategy = new DefaultGraphPersistenceStrategy(metadataRepository);
-        this.entityRetriever          = new EntityGraphRetriever(typeRegistry);
+        this.entityRetriever          = new EntityGraphRetriever(typeRegistry, entityCache);
         this.indexer                  = indexer;
         this.searchTracker            = searchTracker;
+        this.searchPlanCache          = searchPlanCache;
         this.gremlinQueryProvider     = AtlasGremlinQueryProvider.INSTANCE;
         this.typeRegistry             = typeRegistry;
         this.maxResultSetSize         = ApplicationProperties.get().getInt(Constants.INDEX_SEARCH_MAX_RESULT_SET_SIZE, 150);
@@ -423,12 +427,30 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         searchParameters.setLimit(params.limit());
         searchParameters.setOffset(params.offset());
 
-        SearchContext context  = new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys());
+        SearchCursor cursor = null;
+
+        if (StringUtils.isNotEmpty(searchParameters.getContinuationToken())) {
+            cursor = SearchCursor.decode(searchParameters.getContinuationToken(), searchParameters);
+
+            // continue after the results of earlier pages
+            searchParameters.setOffset(cursor.getResultOffset());
+        }
+
+        SearchContext context  = new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys(), searchPlanCache);
         String        searchID = searchTracker.add(context); // For future cancellations
 
+        context.setCursor(cursor);
+
         try {
             List<AtlasVertex> resultList = context.getSearchProcessor().execute();
 
+            if (resultList.size() == searchParameters.getLimit()) {
+                SearchCursor nextCursor = new SearchCursor(SearchCursor.getParamsHash(searchParameters), searchParameters.getOffset() + resultList.size(),
+                                                           context.getResumeQueryOffset(), context.getResumeVertexId());
+
+                ret.setContinuationToken(nextCursor.encode());
+            }
+
             // By default any attribute that shows up in the search parameter should be sent back in the response
             // If additional values are requested then the entityAttributes will be a superset of the all search attributes
             // and the explicitly requested attribute(s)
@@ -20,6 +20,7 @@ package org.apache.atlas.discovery;
 
 
 import org.apache.atlas.AtlasClient;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
@@ -29,16 +30,23 @@ import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection;
 import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.repository.store.graph.v1.EntityCache;
 import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -48,18 +56,22 @@ import java.util.Set;
 
 @Service
 public class EntityLineageService implements AtlasLineageService {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityLineageService.class);
+
     private static final String INPUT_PROCESS_EDGE      =  "__Process.inputs";
     private static final String OUTPUT_PROCESS_EDGE     =  "__Process.outputs";
 
     private final AtlasGraph                graph;
     private final AtlasGremlinQueryProvider gremlinQueryProvider;
     private final EntityGraphRetriever      entityRetriever;
+    private final boolean                   useGraphTraversal = AtlasConfiguration.LINEAGE_USE_GRAPH_TRAVERSAL.getBoolean();
+    private final int                       maxNodeCount      = AtlasConfiguration.LINEAGE_MAX_NODE_COUNT.getInt();
 
     @Inject
-    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) throws DiscoveryException {
+    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph, EntityCache entityCache) throws DiscoveryException {
         this.graph                = atlasGraph;
         this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
-        this.entityRetriever      = new EntityGraphRetriever(typeRegistry);
+        this.entityRetriever      = new EntityGraphRetriever(typeRegistry, entityCache);
     }
 
     @Override
@@ -89,11 +101,16 @@ public class EntityLineageService implements AtlasLineageService {
     }
 
     private AtlasLineageInfo getLineageInfo(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
+        if (useGraphTraversal) {
+            return traverseLineage(guid, direction, depth);
+        }
+
         Map<String, AtlasEntityHeader> entities     = new HashMap<>();
         Set<LineageRelation>           relations    = new HashSet<>();
-        String                         lineageQuery = getLineageQuery(guid, direction, depth);
+        Map<String, Object>            bindings     = getLineageQueryBindings(guid, direction, depth);
+        String                         lineageQuery = getLineageQuery(depth);
 
-        List paths = (List) graph.executeGremlinScript(lineageQuery, true);
+        List paths = (List) graph.executeGremlinScript(lineageQuery, bindings, true);
 
         if (CollectionUtils.isNotEmpty(paths)) {
             for (Object path : paths) {
@@ -131,6 +148,144 @@ public class EntityLineageService implements AtlasLineageService {
         return new AtlasLineageInfo(guid, entities, relations, direction, depth);
     }
 
+    /**
+     * Level-by-level traversal of the lineage graph: each level goes from the datasets found so far, through the
+     * processes connected to them, to the datasets on the other side of those processes. Every vertex is expanded
+     * at most once and its header is built once. depth is the number of dataset-process-dataset hops; depth < 1
+     * means no limit. When the result reaches atlas.lineage.max.node.count entities, the traversal stops and the
+     * entities and relations found until then are returned.
+     */
+    private AtlasLineageInfo traverseLineage(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
+        Map<String, AtlasEntityHeader> entities          = new HashMap<>();
+        Set<LineageRelation>           relations         = new HashSet<>();
+        Map<Object, AtlasEntityHeader> vertexHeaders     = new HashMap<>();
+        Set<Object>                    expandedProcesses = new HashSet<>();
+        Set<Object>                    nonDataSets       = new HashSet<>();
+        String                         processEdgeLabel  = direction.equals(LineageDirection.INPUT) ? OUTPUT_PROCESS_EDGE : INPUT_PROCESS_EDGE;
+        String                         dataSetEdgeLabel  = direction.equals(LineageDirection.INPUT) ? INPUT_PROCESS_EDGE : OUTPUT_PROCESS_EDGE;
+        AtlasVertex                    startVertex       = AtlasGraphUtilsV1.findByGuid(guid);
+        List<AtlasVertex>              currentLevel      = new ArrayList<>();
+        boolean                        isComplete        = true;
+
+        if (startVertex == null) {
+            throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+        }
+
+        getEntityHeader(startVertex, vertexHeaders, entities);
+        currentLevel.add(startVertex);
+
+        for (int level = 0; isComplete && !currentLevel.isEmpty() && (depth < 1 || level < depth); level++) {
+            List<AtlasVertex> nextLevel = new ArrayList<>();
+
+            for (AtlasVertex dataSetVertex : currentLevel) {
+                AtlasEntityHeader dataSet = vertexHeaders.get(dataSetVertex.getId());
+
+                for (AtlasEdge processEdge : (Iterable<AtlasEdge>) dataSetVertex.getEdges(AtlasEdgeDirection.IN, processEdgeLabel)) {
+                    AtlasVertex       processVertex = processEdge.getOutVertex();
+                    AtlasEntityHeader process       = vertexHeaders.get(processVertex.getId());
+
+                    if (process != null) {
+                        addRelation(relations, direction, dataSet, process);
+                    }
+
+                    if (!expandedProcesses.add(processVertex.getId())) {
+                        continue;
+                    }
+
+                    for (AtlasEdge dataSetEdge : (Iterable<AtlasEdge>) processVertex.getEdges(AtlasEdgeDirection.OUT, dataSetEdgeLabel)) {
+                        AtlasVertex nextVertex = dataSetEdge.getInVertex();
+                        Object      nextId     = nextVertex.getId();
+
+                        if (nonDataSets.contains(nextId)) {
+                            continue;
+                        }
+
+                        AtlasEntityHeader next = vertexHeaders.get(nextId);
+
+                        if (next == null) {
+                            if (!isDataSet(nextVertex)) {
+                                nonDataSets.add(nextId);
+
+                                continue;
+                            }
+
+                            if (maxNodeCount > 0 && entities.size() + (process == null ? 2 : 1) > maxNodeCount) {
+                                isComplete = false;
+
+                                break;
+                            }
+
+                            next = getEntityHeader(nextVertex, vertexHeaders, entities);
+
+                            nextLevel.add(nextVertex);
+                        }
+
+                        if (process == null) {
+                            process = getEntityHeader(processVertex, vertexHeaders, entities);
+
+                            addRelation(relations, direction, dataSet, process);
+                        }
+
+                        addRelation(relations, direction, process, next);
+                    }
+
+                    if (!isComplete) {
+                        break;
+                    }
+                }
+
+                if (!isComplete) {
+                    break;
+                }
+            }
+
+            currentLevel = nextLevel;
+        }
+
+        if (!isComplete) {
+            LOG.warn("lineage of {} (direction={}, depth={}) exceeds {} entities; returning partial result", guid, direction, depth, maxNodeCount);
+        }
+
+        // the start entity is included only along with its lineage, as in the results of the Gremlin query
+        if (relations.isEmpty()) {
+            entities.clear();
+        }
+
+        return new AtlasLineageInfo(guid, entities, relations, direction, depth);
+    }
+
+    private AtlasEntityHeader getEntityHeader(AtlasVertex vertex, Map<Object, AtlasEntityHeader> vertexHeaders,
+                                              Map<String, AtlasEntityHeader> entities) throws AtlasBaseException {
+        AtlasEntityHeader ret = vertexHeaders.get(vertex.getId());
+
+        if (ret == null) {
+            ret = entityRetriever.toAtlasEntityHeader(vertex);
+
+            vertexHeaders.put(vertex.getId(), ret);
+
+            if (!entities.containsKey(ret.getGuid())) {
+                entities.put(ret.getGuid(), ret);
+            }
+        }
+
+        return ret;
+    }
+
+    // relations point in the direction of data flow; INPUT lineage is traversed against it
+    private void addRelation(Set<LineageRelation> relations, LineageDirection direction, AtlasEntityHeader from, AtlasEntityHeader to) {
+        if (direction.equals(LineageDirection.INPUT)) {
+            relations.add(new LineageRelation(to.getGuid(), from.getGuid()));
+        } else {
+            relations.add(new LineageRelation(from.getGuid(), to.getGuid()));
+        }
+    }
+
+    private boolean isDataSet(AtlasVertex vertex) {
+        List<String> superTypes = GraphHelper.getSuperTypeNames(vertex);
+
+        return CollectionUtils.isNotEmpty(superTypes) && superTypes.contains(AtlasClient.DATA_SET_SUPER_TYPE);
+    }
+
     private AtlasLineageInfo getBothLineageInfo(String guid, int depth) throws AtlasBaseException {
         AtlasLineageInfo inputLineage  = getLineageInfo(guid, LineageDirection.INPUT, depth);
         AtlasLineageInfo outputLineage = getLineageInfo(guid, LineageDirection.OUTPUT, depth);
@@ -143,29 +298,30 @@ public class EntityLineageService implements AtlasLineageService {
         return ret;
     }
 
-    private String getLineageQuery(String entityGuid, LineageDirection direction, int depth) throws AtlasBaseException {
-        String lineageQuery = null;
+    private Map<String, Object> getLineageQueryBindings(String entityGuid, LineageDirection direction, int depth) {
+        Map<String, Object> bindings = new HashMap<>();
 
-        if (direction.equals(LineageDirection.INPUT)) {
-            lineageQuery = generateLineageQuery(entityGuid, depth, OUTPUT_PROCESS_EDGE, INPUT_PROCESS_EDGE);
+        bindings.put("guid", entityGuid);
+        bindings.put("depth", depth);
 
+        if (direction.equals(LineageDirection.INPUT)) {
+            bindings.put("incomingEdgeLabel", OUTPUT_PROCESS_EDGE);
+            bindings.put("outgoingEdgeLabel", INPUT_PROCESS_EDGE);
         } else if (direction.equals(LineageDirection.OUTPUT)) {
-            lineageQuery = generateLineageQuery(entityGuid, depth, INPUT_PROCESS_EDGE, OUTPUT_PROCESS_EDGE);
+            bindings.put("incomingEdgeLabel", INPUT_PROCESS_EDGE);
+            bindings.put("outgoingEdgeLabel", OUTPUT_PROCESS_EDGE);
         }
 
-        return lineageQuery;
+        return bindings;
     }
 
-    private String generateLineageQuery(String entityGuid, int depth, String incomingFrom, String outgoingTo) {
-        String lineageQuery;
+    // the query text does not depend on the parameters, so that the graph can reuse the compiled script
+    private String getLineageQuery(int depth) {
         if (depth < 1) {
-            String query = gremlinQueryProvider.getQuery(AtlasGremlinQuery.FULL_LINEAGE);
-            lineageQuery = String.format(query, entityGuid, incomingFrom, outgoingTo);
+            return gremlinQueryProvider.getQuery(AtlasGremlinQuery.FULL_LINEAGE);
         } else {
-            String query = gremlinQueryProvider.getQuery(AtlasGremlinQuery.PARTIAL_LINEAGE);
-            lineageQuery = String.format(query, entityGuid, incomingFrom, outgoingTo, depth);
+            return gremlinQueryProvider.getQuery(AtlasGremlinQuery.PARTIAL_LINEAGE);
         }
-        return lineageQuery;
     }
 
     private boolean entityExists(String guid) {
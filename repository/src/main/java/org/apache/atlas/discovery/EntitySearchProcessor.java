@@ -47,6 +47,7 @@ public class EntitySearchProcessor extends SearchProcessor {
     private final AtlasGraphQuery graphQuery;
     private       Predicate       graphQueryPredicate;
     private       Predicate       filterGraphQueryPredicate;
+    private final Predicate       indexResultPredicate;
 
     public EntitySearchProcessor(SearchContext context) {
         super(context);
@@ -55,50 +56,69 @@ public class EntitySearchProcessor extends SearchProcessor {
         final FilterCriteria  filterCriteria        = context.getSearchParameters().getEntityFilters();
         final Set<String>     typeAndSubTypes       = entityType.getTypeAndAllSubTypes();
         final String          typeAndSubTypesQryStr = entityType.getTypeAndAllSubTypesQryStr();
-        final Set<String>     indexAttributes       = new HashSet<>();
-        final Set<String>     graphAttributes       = new HashSet<>();
-        final Set<String>     allAttributes         = new HashSet<>();
 
         final AtlasClassificationType classificationType            = context.getClassificationType();
         final boolean                 filterClassification          = classificationType != null && !context.needClassificationProcessor();
         final Set<String>             classificationTypeAndSubTypes = classificationType != null ? classificationType.getTypeAndAllSubTypes() : Collections.EMPTY_SET;
 
+        final boolean typeSearchByIndex = !filterClassification && typeAndSubTypesQryStr.length() <= MAX_QUERY_STR_LENGTH_TYPES;
 
-        final Predicate typeNamePredicate = SearchPredicateUtil.getINPredicateGenerator()
-                                                               .generatePredicate(Constants.TYPE_NAME_PROPERTY_KEY, typeAndSubTypes, String.class);
-        final Predicate traitPredicate    = SearchPredicateUtil.getContainsAnyPredicateGenerator()
-                                                               .generatePredicate(Constants.TRAIT_NAMES_PROPERTY_KEY, classificationTypeAndSubTypes, List.class);
-        final Predicate activePredicate   = SearchPredicateUtil.getEQPredicateGenerator()
-                                                               .generatePredicate(Constants.STATE_PROPERTY_KEY, "ACTIVE", String.class);
+        SearchPlan.FilterPlan filterPlan = context.getSearchPlan().getEntityFilterPlan();
 
-        processSearchAttributes(entityType, filterCriteria, indexAttributes, graphAttributes, allAttributes);
+        if (filterPlan == null) {
+            final Set<String> indexAttributes = new HashSet<>();
+            final Set<String> graphAttributes = new HashSet<>();
+            final Set<String> allAttributes   = new HashSet<>();
 
-        final boolean typeSearchByIndex = !filterClassification && typeAndSubTypesQryStr.length() <= MAX_QUERY_STR_LENGTH_TYPES;
-        final boolean attrSearchByIndex = !filterClassification && CollectionUtils.isNotEmpty(indexAttributes) && canApplyIndexFilter(entityType, filterCriteria, false);
+            final Predicate typeNamePredicate = SearchPredicateUtil.getINPredicateGenerator()
+                                                                   .generatePredicate(Constants.TYPE_NAME_PROPERTY_KEY, typeAndSubTypes, String.class);
+            final Predicate traitPredicate    = SearchPredicateUtil.getContainsAnyPredicateGenerator()
+                                                                   .generatePredicate(Constants.TRAIT_NAMES_PROPERTY_KEY, classificationTypeAndSubTypes, List.class);
+            final Predicate activePredicate   = SearchPredicateUtil.getEQPredicateGenerator()
+                                                                   .generatePredicate(Constants.STATE_PROPERTY_KEY, "ACTIVE", String.class);
 
-        StringBuilder indexQuery = new StringBuilder();
+            processSearchAttributes(entityType, filterCriteria, indexAttributes, graphAttributes, allAttributes);
 
-        if (typeSearchByIndex) {
-            constructTypeTestQuery(indexQuery, typeAndSubTypesQryStr);
-        }
+            final boolean attrSearchByIndex = !filterClassification && CollectionUtils.isNotEmpty(indexAttributes) && canApplyIndexFilter(entityType, filterCriteria, false);
 
-        if (attrSearchByIndex) {
-            constructFilterQuery(indexQuery, entityType, filterCriteria, indexAttributes);
+            StringBuilder indexQuery = new StringBuilder();
 
-            inMemoryPredicate = constructInMemoryPredicate(entityType, filterCriteria, indexAttributes);
-        } else {
-            graphAttributes.addAll(indexAttributes);
-        }
+            if (typeSearchByIndex) {
+                constructTypeTestQuery(indexQuery, typeAndSubTypesQryStr);
+            }
+
+            if (attrSearchByIndex) {
+                constructFilterQuery(indexQuery, entityType, filterCriteria, indexAttributes);
+            } else {
+                graphAttributes.addAll(indexAttributes);
+            }
 
-        if (indexQuery.length() > 0) {
-            if (context.getSearchParameters().getExcludeDeletedEntities()) {
+            if (indexQuery.length() > 0 && context.getSearchParameters().getExcludeDeletedEntities()) {
                 constructStateTestQuery(indexQuery);
             }
 
-            String indexQueryString = STRAY_AND_PATTERN.matcher(indexQuery).replaceAll(")");
+            filterPlan = new SearchPlan.FilterPlan(indexAttributes, graphAttributes, allAttributes, attrSearchByIndex, toIndexQueryTemplate(indexQuery),
+                                                   typeNamePredicate, traitPredicate, activePredicate);
 
-            indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
-            indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
+            context.getSearchPlan().setEntityFilterPlan(filterPlan);
+        } else {
+            context.getEntityAttributes().addAll(filterPlan.getAllAttributes());
+        }
+
+        final Set<String> indexAttributes   = filterPlan.getIndexAttributes();
+        final Set<String> graphAttributes   = filterPlan.getGraphAttributes();
+        final Set<String> allAttributes     = filterPlan.getAllAttributes();
+        final Predicate   typeNamePredicate = filterPlan.getTypeNamePredicate();
+        final Predicate   traitPredicate    = filterPlan.getTraitPredicate();
+        final Predicate   activePredicate   = filterPlan.getActivePredicate();
+
+        if (filterPlan.isIndexFilter()) {
+            inMemoryPredicate = constructInMemoryPredicate(entityType, filterCriteria, indexAttributes);
+        }
+
+        if (filterPlan.getIndexQueryTemplate() != null) {
+            Set<String> indexQueryAttributes = filterPlan.isIndexFilter() ? indexAttributes : Collections.<String>emptySet();
+            String      indexQueryString     = bindIndexQuery(filterPlan.getIndexQueryTemplate(), filterCriteria, indexQueryAttributes);
 
             this.indexQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
         } else {
@@ -159,6 +179,13 @@ public class EntitySearchProcessor extends SearchProcessor {
         }
 
 
+        // in-memory filter for the index query results: both predicates are evaluated in one pass over a page
+        if (inMemoryPredicate != null && graphQueryPredicate != null) {
+            indexResultPredicate = PredicateUtils.andPredicate(inMemoryPredicate, graphQueryPredicate);
+        } else {
+            indexResultPredicate = inMemoryPredicate != null ? inMemoryPredicate : graphQueryPredicate;
+        }
+
         // Prepare the graph query and in-memory filter for the filtering phase
         filterGraphQueryPredicate = typeNamePredicate;
 
@@ -186,25 +213,33 @@ public class EntitySearchProcessor extends SearchProcessor {
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntitySearchProcessor.execute");
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntitySearchProcessor.execute(" + context +  ")");
+            perf.setTag("EntitySearchProcessor.execute(" + context +  ")");
         }
 
         try {
-            final int startIdx = context.getSearchParameters().getOffset();
-            final int limit    = context.getSearchParameters().getLimit();
+            final int resumeOffset = getResumeQueryOffset();
+            final int startIdx     = resumeOffset >= 0 ? 0 : context.getSearchParameters().getOffset();
+            final int limit        = context.getSearchParameters().getLimit();
 
             // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
             //
             // first 'startIdx' number of entries will be ignored
-            int qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
-            int resultIdx = qryOffset;
+            //
+            // a search continued from the previous page queries from the offset after the last result of that page
+            int qryOffset = resumeOffset >= 0 ? resumeOffset : (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
+            int resultIdx = resumeOffset >= 0 ? 0 : qryOffset;
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
+            final List<AtlasVertex> pageVertices   = new ArrayList<>();
+
+            int  pageSize     = limit;
+            long fetchedCount = 0;
+            long matchedCount = 0;
 
-            for (; ret.size() < limit; qryOffset += limit) {
+            while (ret.size() < limit) {
                 entityVertices.clear();
 
                 if (context.terminateSearch()) {
@@ -214,7 +249,7 @@ public class EntitySearchProcessor extends SearchProcessor {
                 }
 
                 if (indexQuery != null) {
-                    Iterator<AtlasIndexQuery.Result> idxQueryResult = indexQuery.vertices(qryOffset, limit);
+                    Iterator<AtlasIndexQuery.Result> idxQueryResult = indexQuery.vertices(qryOffset, pageSize);
 
                     if (!idxQueryResult.hasNext()) { // no more results from index query - end of search
                         break;
@@ -222,25 +257,41 @@ public class EntitySearchProcessor extends SearchProcessor {
 
                     getVerticesFromIndexQueryResult(idxQueryResult, entityVertices);
 
-                    // Do in-memory filtering before the graph query
-                    CollectionUtils.filter(entityVertices, inMemoryPredicate);
+                    fetchedCount += entityVertices.size();
 
-                    if (graphQueryPredicate != null) {
-                        CollectionUtils.filter(entityVertices, graphQueryPredicate);
-                    }
+                    startPage(entityVertices, pageVertices, qryOffset == resumeOffset);
+
+                    // Do in-memory filtering before the graph query
+                    SearchPredicateUtil.filter(entityVertices, indexResultPredicate);
                 } else {
-                    Iterator<AtlasVertex> queryResult = graphQuery.vertices(qryOffset, limit).iterator();
+                    Iterator<AtlasVertex> queryResult = graphQuery.vertices(qryOffset, pageSize).iterator();
 
                     if (!queryResult.hasNext()) { // no more results from query - end of search
                         break;
                     }
 
                     getVertices(queryResult, entityVertices);
+
+                    fetchedCount += entityVertices.size();
+
+                    startPage(entityVertices, pageVertices, qryOffset == resumeOffset);
                 }
 
                 super.filter(entityVertices);
 
+                matchedCount += entityVertices.size();
+
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+
+                if (ret.size() == limit) {
+                    recordResumePosition(pageVertices, qryOffset, entityVertices, ret.get(ret.size() - 1));
+                }
+
+                qryOffset += pageSize;
+
+                int remaining = (limit - ret.size()) + Math.max(0, startIdx - resultIdx);
+
+                pageSize = getNextPageSize(limit, pageSize, remaining, fetchedCount, matchedCount);
             }
         } finally {
             AtlasPerfTracer.log(perf);
@@ -263,7 +314,7 @@ public class EntitySearchProcessor extends SearchProcessor {
         // vertices again with the required filtering
         if (filterGraphQueryPredicate != null) {
             LOG.debug("Filtering in-memory");
-            CollectionUtils.filter(entityVertices, filterGraphQueryPredicate);
+            SearchPredicateUtil.filter(entityVertices, filterGraphQueryPredicate);
         }
 
         super.filter(entityVertices);
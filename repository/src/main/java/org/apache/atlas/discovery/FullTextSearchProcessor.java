@@ -85,25 +85,29 @@ public class FullTextSearchProcessor extends SearchProcessor {
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "FullTextSearchProcessor.execute");
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "FullTextSearchProcessor.execute(" + context +  ")");
+            perf.setTag("FullTextSearchProcessor.execute(" + context +  ")");
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
-            final int     limit      = context.getSearchParameters().getLimit();
-            final boolean activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
+            final int     resumeOffset = getResumeQueryOffset();
+            final int     startIdx     = resumeOffset >= 0 ? 0 : context.getSearchParameters().getOffset();
+            final int     limit        = context.getSearchParameters().getLimit();
+            final boolean activeOnly   = context.getSearchParameters().getExcludeDeletedEntities();
 
             // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
             // have been dropped: like vertices of non-entity or non-active-entity
             //
             // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            //
+            // a search continued from the previous page queries from the offset after the last result of that page
+            int qryOffset = resumeOffset >= 0 ? resumeOffset : 0;
+            int resultIdx = 0;
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
+            final List<AtlasVertex> pageVertices   = new ArrayList<>();
 
             for (; ret.size() < limit; qryOffset += limit) {
                 entityVertices.clear();
@@ -120,8 +124,12 @@ public class FullTextSearchProcessor extends SearchProcessor {
                     break;
                 }
 
-                while (idxQueryResult.hasNext()) {
-                    AtlasVertex vertex = idxQueryResult.next().getVertex();
+                getVerticesFromIndexQueryResult(idxQueryResult, entityVertices);
+
+                startPage(entityVertices, pageVertices, qryOffset == resumeOffset);
+
+                for (Iterator<AtlasVertex> iter = entityVertices.iterator(); iter.hasNext(); ) {
+                    AtlasVertex vertex = iter.next();
 
                     // skip non-entity vertices
                     if (!AtlasGraphUtilsV1.isEntityVertex(vertex)) {
@@ -129,19 +137,19 @@ public class FullTextSearchProcessor extends SearchProcessor {
                             LOG.debug("FullTextSearchProcessor.execute(): ignoring non-entity vertex (id={})", vertex.getId());
                         }
 
-                        continue;
-                    }
-
-                    if (activeOnly && AtlasGraphUtilsV1.getState(vertex) != AtlasEntity.Status.ACTIVE) {
-                        continue;
+                        iter.remove();
+                    } else if (activeOnly && AtlasGraphUtilsV1.getState(vertex) != AtlasEntity.Status.ACTIVE) {
+                        iter.remove();
                     }
-
-                    entityVertices.add(vertex);
                 }
 
                 super.filter(entityVertices);
 
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+
+                if (ret.size() == limit) {
+                    recordResumePosition(pageVertices, qryOffset, entityVertices, ret.get(ret.size() - 1));
+                }
             }
         } finally {
             AtlasPerfTracer.log(perf);
@@ -21,12 +21,10 @@ package org.apache.atlas.discovery;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.SearchParameters;
-import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashSet;
@@ -45,10 +43,18 @@ public class SearchContext {
     private final Set<String>             entityAttributes;
     private final AtlasEntityType         entityType;
     private final AtlasClassificationType classificationType;
+    private final SearchPlan              searchPlan;
     private       SearchProcessor         searchProcessor;
     private       boolean                 terminateSearch = false;
+    private       SearchCursor            cursor;
+    private       int                     resumeQueryOffset = -1;
+    private       String                  resumeVertexId;
 
     public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys) throws AtlasBaseException {
+        this(searchParameters, typeRegistry, graph, indexedKeys, null);
+    }
+
+    public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys, SearchPlanCache planCache) throws AtlasBaseException {
         this.searchParameters   = searchParameters;
         this.typeRegistry       = typeRegistry;
         this.graph              = graph;
@@ -67,6 +73,12 @@ public class SearchContext {
             throw new AtlasBaseException(AtlasErrorCode.UNKNOWN_CLASSIFICATION, searchParameters.getClassification());
         }
 
+        if (planCache != null) {
+            searchPlan = planCache.getPlan(searchParameters, entityType, classificationType, indexedKeys);
+        } else {
+            searchPlan = new SearchPlan(searchParameters, entityType, classificationType, indexedKeys);
+        }
+
         if (needFullTextProcessor()) {
             addProcessor(new FullTextSearchProcessor(this));
         }
@@ -94,10 +106,31 @@ public class SearchContext {
 
     public AtlasClassificationType getClassificationType() { return classificationType; }
 
+    public SearchPlan getSearchPlan() { return searchPlan; }
+
     public SearchProcessor getSearchProcessor() { return searchProcessor; }
 
     public boolean terminateSearch() { return terminateSearch; }
 
+    /**
+     * @return cursor of the previous page, when the search is continued with a continuation token; otherwise null
+     */
+    public SearchCursor getCursor() { return cursor; }
+
+    public void setCursor(SearchCursor cursor) { this.cursor = cursor; }
+
+    /**
+     * Records the position, in the query results of the search processor, to continue the search from in the next page
+     */
+    public void setResumePosition(int queryOffset, String lastVertexId) {
+        this.resumeQueryOffset = queryOffset;
+        this.resumeVertexId    = lastVertexId;
+    }
+
+    public int getResumeQueryOffset() { return resumeQueryOffset; }
+
+    public String getResumeVertexId() { return resumeVertexId; }
+
     public void terminateSearch(boolean terminateSearch) { this.terminateSearch = terminateSearch; }
 
     public StringBuilder toString(StringBuilder sb) {
@@ -120,20 +153,15 @@ public class SearchContext {
     }
 
     boolean needFullTextProcessor() {
-        return StringUtils.isNotEmpty(searchParameters.getQuery());
+        return searchPlan.needFullTextProcessor();
     }
 
     boolean needClassificationProcessor() {
-        return classificationType != null && (entityType == null || hasAttributeFilter(searchParameters.getTagFilters()));
+        return searchPlan.needClassificationProcessor();
     }
 
     boolean needEntityProcessor() {
-        return entityType != null;
-    }
-
-    private boolean hasAttributeFilter(FilterCriteria filterCriteria) {
-        return filterCriteria != null &&
-               (CollectionUtils.isNotEmpty(filterCriteria.getCriterion()) || StringUtils.isNotEmpty(filterCriteria.getAttributeName()));
+        return searchPlan.needEntityProcessor();
     }
 
     private void addProcessor(SearchProcessor processor) {
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.io.BaseEncoding;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.Charset;
+
+/*
+ * Position of a basic search after a page of results, to continue the search with the next page. The cursor is
+ * encoded in the continuation token returned to clients, so that no state is kept in the server between pages.
+ *
+ * The cursor is an offset token: search processors that can resume their query record the offset, in their query
+ * results, after the last result, and the next page queries from that offset. This saves re-filtering the results of
+ * earlier pages in memory, but the graph backend still reads and skips the vertices before the offset, so the cost of a
+ * page grows with the number of earlier results. When results of earlier pages were deleted since, the offset points
+ * past the position after the last result, and as many results are missed in the next page. Otherwise, the search
+ * continues from resultOffset, like a search with offset.
+ */
+public class SearchCursor {
+    private static final String  VERSION   = "1";
+    private static final char    SEPARATOR = ':';
+    private static final Charset UTF_8     = Charset.forName("UTF-8");
+
+    private final int    paramsHash;
+    private final int    resultOffset;
+    private final int    queryOffset;
+    private final String lastVertexId;
+
+    public SearchCursor(int paramsHash, int resultOffset, int queryOffset, String lastVertexId) {
+        this.paramsHash   = paramsHash;
+        this.resultOffset = resultOffset;
+        this.queryOffset  = queryOffset;
+        this.lastVertexId = lastVertexId;
+    }
+
+    /**
+     * @return number of results in earlier pages
+     */
+    public int getResultOffset() { return resultOffset; }
+
+    /**
+     * @return offset, in the query results of the search processor, of the first vertex after the last result; -1 if not known
+     */
+    public int getQueryOffset() { return queryOffset; }
+
+    /**
+     * @return id of the last vertex in the results of earlier pages; null if queryOffset is not known
+     */
+    public String getLastVertexId() { return lastVertexId; }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(VERSION).append(SEPARATOR).append(paramsHash).append(SEPARATOR).append(resultOffset).append(SEPARATOR).append(queryOffset);
+
+        if (lastVertexId != null) {
+            sb.append(SEPARATOR).append(lastVertexId);
+        }
+
+        return BaseEncoding.base64Url().omitPadding().encode(sb.toString().getBytes(UTF_8));
+    }
+
+    public static SearchCursor decode(String token, SearchParameters searchParameters) throws AtlasBaseException {
+        final String[] fields;
+
+        try {
+            fields = StringUtils.split(new String(BaseEncoding.base64Url().omitPadding().decode(token), UTF_8), String.valueOf(SEPARATOR), 5);
+        } catch (IllegalArgumentException e) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "invalid continuationToken");
+        }
+
+        if (fields.length < 4 || !VERSION.equals(fields[0])) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "invalid continuationToken");
+        }
+
+        final SearchCursor ret;
+
+        try {
+            ret = new SearchCursor(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), fields.length > 4 ? fields[4] : null);
+        } catch (NumberFormatException e) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "invalid continuationToken");
+        }
+
+        if (ret.resultOffset < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "invalid continuationToken");
+        }
+
+        if (ret.paramsHash != getParamsHash(searchParameters)) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "continuationToken is not from a search with the same parameters");
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return hash of the search parameters that determine the search results - i.e. other than offset, limit and attributes
+     */
+    public static int getParamsHash(SearchParameters searchParameters) {
+        StringBuilder sb = new StringBuilder(SearchPlan.getShape(searchParameters));
+
+        sb.append(searchParameters.getQuery()).append(SEPARATOR);
+        sb.append(searchParameters.getEntityFilters()).append(SEPARATOR);
+        sb.append(searchParameters.getTagFilters());
+
+        return sb.toString().hashCode();
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
+import org.apache.atlas.type.AtlasClassificationType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.Predicate;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.Set;
+
+/*
+ * Search plan captures the parts of a basic search that depend only on the shape of the search parameters - i.e. the
+ * type, classification and the structure of filters (attributes and operators), but not the attribute values.
+ * Plans are shared by searches of the same shape; see SearchPlanCache. Search processors bind the attribute values of
+ * each search to the filter plans.
+ */
+public class SearchPlan {
+    private final AtlasEntityType         entityType;
+    private final AtlasClassificationType classificationType;
+    private final Set<String>             indexedKeys;
+    private final boolean                 needFullTextProcessor;
+    private final boolean                 needClassificationProcessor;
+    private final boolean                 needEntityProcessor;
+    private volatile FilterPlan           entityFilterPlan;
+    private volatile FilterPlan           tagFilterPlan;
+
+    public SearchPlan(SearchParameters searchParameters, AtlasEntityType entityType, AtlasClassificationType classificationType, Set<String> indexedKeys) {
+        this.entityType         = entityType;
+        this.classificationType = classificationType;
+        this.indexedKeys        = indexedKeys;
+
+        needFullTextProcessor       = StringUtils.isNotEmpty(searchParameters.getQuery());
+        needClassificationProcessor = classificationType != null && (entityType == null || hasAttributeFilter(searchParameters.getTagFilters()));
+        needEntityProcessor         = entityType != null;
+    }
+
+    public boolean needFullTextProcessor() { return needFullTextProcessor; }
+
+    public boolean needClassificationProcessor() { return needClassificationProcessor; }
+
+    public boolean needEntityProcessor() { return needEntityProcessor; }
+
+    public FilterPlan getEntityFilterPlan() { return entityFilterPlan; }
+
+    public void setEntityFilterPlan(FilterPlan entityFilterPlan) { this.entityFilterPlan = entityFilterPlan; }
+
+    public FilterPlan getTagFilterPlan() { return tagFilterPlan; }
+
+    public void setTagFilterPlan(FilterPlan tagFilterPlan) { this.tagFilterPlan = tagFilterPlan; }
+
+    /**
+     * A plan remains valid as long as the types and the indexed keys it was built with are current.
+     */
+    public boolean isValid(AtlasEntityType entityType, AtlasClassificationType classificationType, Set<String> indexedKeys) {
+        return this.entityType == entityType && this.classificationType == classificationType && this.indexedKeys == indexedKeys;
+    }
+
+    /**
+     * @return key identifying searches that can share a plan: all search parameters that influence the plan, except attribute values
+     */
+    public static String getShape(SearchParameters searchParameters) {
+        StringBuilder sb = new StringBuilder();
+
+        appendName(sb, searchParameters.getTypeName());
+        appendName(sb, searchParameters.getClassification());
+
+        sb.append(StringUtils.isNotEmpty(searchParameters.getQuery()) ? 'q' : '-');
+        sb.append(searchParameters.getExcludeDeletedEntities() ? 'x' : '-');
+
+        appendShape(sb, searchParameters.getEntityFilters());
+        appendShape(sb, searchParameters.getTagFilters());
+
+        return sb.toString();
+    }
+
+    private static boolean hasAttributeFilter(FilterCriteria filterCriteria) {
+        return filterCriteria != null &&
+               (CollectionUtils.isNotEmpty(filterCriteria.getCriterion()) || StringUtils.isNotEmpty(filterCriteria.getAttributeName()));
+    }
+
+    private static void appendShape(StringBuilder sb, FilterCriteria filterCriteria) {
+        if (filterCriteria == null) {
+            sb.append('-');
+        } else {
+            sb.append('{').append(filterCriteria.getCondition()).append(' ').append(filterCriteria.getOperator()).append(' ');
+
+            appendName(sb, filterCriteria.getAttributeName());
+
+            if (filterCriteria.getCriterion() != null) {
+                sb.append('[');
+
+                for (FilterCriteria criteria : filterCriteria.getCriterion()) {
+                    appendShape(sb, criteria);
+                }
+
+                sb.append(']');
+            }
+
+            sb.append('}');
+        }
+    }
+
+    // length prefix keeps names containing the delimiters from making different shapes look the same
+    private static void appendName(StringBuilder sb, String name) {
+        if (name == null) {
+            sb.append("-1:");
+        } else {
+            sb.append(name.length()).append(':').append(name);
+        }
+    }
+
+    /*
+     * Filter plan of a search processor: how the filter attributes are split between index and graph queries, the
+     * index query with placeholders for attribute values and the predicates that don't depend on attribute values.
+     */
+    public static class FilterPlan {
+        private final Set<String> indexAttributes;
+        private final Set<String> graphAttributes;
+        private final Set<String> allAttributes;
+        private final boolean     indexFilter;
+        private final String[]    indexQueryTemplate;
+        private final Predicate   typeNamePredicate;
+        private final Predicate   traitPredicate;
+        private final Predicate   activePredicate;
+
+        public FilterPlan(Set<String> indexAttributes, Set<String> graphAttributes, Set<String> allAttributes, boolean indexFilter,
+                          String[] indexQueryTemplate, Predicate typeNamePredicate, Predicate traitPredicate, Predicate activePredicate) {
+            this.indexAttributes    = Collections.unmodifiableSet(indexAttributes);
+            this.graphAttributes    = Collections.unmodifiableSet(graphAttributes);
+            this.allAttributes      = Collections.unmodifiableSet(allAttributes);
+            this.indexFilter        = indexFilter;
+            this.indexQueryTemplate = indexQueryTemplate;
+            this.typeNamePredicate  = typeNamePredicate;
+            this.traitPredicate     = traitPredicate;
+            this.activePredicate    = activePredicate;
+        }
+
+        public Set<String> getIndexAttributes() { return indexAttributes; }
+
+        public Set<String> getGraphAttributes() { return graphAttributes; }
+
+        public Set<String> getAllAttributes() { return allAttributes; }
+
+        /**
+         * @return true if index attributes are filtered by the index query; otherwise they are included in graphAttributes
+         */
+        public boolean isIndexFilter() { return indexFilter; }
+
+        public String[] getIndexQueryTemplate() { return indexQueryTemplate; }
+
+        public Predicate getTypeNamePredicate() { return typeNamePredicate; }
+
+        public Predicate getTraitPredicate() { return traitPredicate; }
+
+        public Predicate getActivePredicate() { return activePredicate; }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.annotation.AtlasService;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.type.AtlasClassificationType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Cache of basic search plans, keyed by the shape of search parameters. Plans are dropped on typedef changes, as type
+ * changes (like addition of subtypes) update the queries of existing plans.
+ */
+@AtlasService
+public class SearchPlanCache implements TypeDefChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(SearchPlanCache.class);
+
+    private final int                     maxSize;
+    private final Map<String, SearchPlan> plans;
+    private final AtomicLong              hitCount  = new AtomicLong();
+    private final AtomicLong              missCount = new AtomicLong();
+    private       long                    version   = 0;
+
+    @Inject
+    public SearchPlanCache() {
+        this(AtlasConfiguration.SEARCH_PLAN_CACHE_SIZE.getInt());
+    }
+
+    SearchPlanCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.plans   = new LinkedHashMap<String, SearchPlan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchPlan> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public SearchPlan getPlan(SearchParameters searchParameters, AtlasEntityType entityType, AtlasClassificationType classificationType, Set<String> indexedKeys) {
+        if (maxSize <= 0) {
+            return new SearchPlan(searchParameters, entityType, classificationType, indexedKeys);
+        }
+
+        final String shape = SearchPlan.getShape(searchParameters);
+        final long   planVersion;
+
+        synchronized (plans) {
+            SearchPlan ret = plans.get(shape);
+
+            if (ret != null && ret.isValid(entityType, classificationType, indexedKeys)) {
+                hitCount.incrementAndGet();
+
+                return ret;
+            }
+
+            planVersion = version;
+        }
+
+        missCount.incrementAndGet();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("search plan not found in cache: shape={}", shape);
+        }
+
+        SearchPlan ret = new SearchPlan(searchParameters, entityType, classificationType, indexedKeys);
+
+        synchronized (plans) {
+            // don't cache a plan built while the cache was being cleared - it might have been built with old types
+            if (planVersion == version) {
+                plans.put(shape, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    public void clear() {
+        synchronized (plans) {
+            plans.clear();
+
+            version++;
+        }
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("typedefs changed: clearing search plan cache");
+        }
+
+        clear();
+    }
+
+    public int getSize() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    public long getHitCount() { return hitCount.get(); }
+
+    public long getMissCount() { return missCount.get(); }
+}
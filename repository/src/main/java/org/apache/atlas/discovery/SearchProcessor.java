@@ -60,12 +60,16 @@ public abstract class SearchProcessor {
     public static final int     MAX_RESULT_SIZE            = getApplicationProperty(Constants.INDEX_SEARCH_MAX_RESULT_SET_SIZE, 150);
     public static final int     MAX_QUERY_STR_LENGTH_TYPES = getApplicationProperty(Constants.INDEX_SEARCH_TYPES_MAX_QUERY_STR_LENGTH, 512);
     public static final int     MAX_QUERY_STR_LENGTH_TAGS  = getApplicationProperty(Constants.INDEX_SEARCH_TAGS_MAX_QUERY_STR_LENGTH, 512);
+    public static final int     MAX_PAGE_SIZE              = getApplicationProperty(Constants.INDEX_SEARCH_MAX_PAGE_SIZE, 1000);
     public static final String  AND_STR         = " AND ";
     public static final String  EMPTY_STRING    = "";
     public static final String  SPACE_STRING    = " ";
     public static final String  BRACE_OPEN_STR  = "(";
     public static final String  BRACE_CLOSE_STR = ")";
 
+    // placeholder for attribute values in index query templates
+    private static final char INDEX_QUERY_VALUE_MARKER = '\u0000';
+
     private static final Map<SearchParameters.Operator, String>                            OPERATOR_MAP           = new HashMap<>();
     private static final Map<SearchParameters.Operator, VertexAttributePredicateGenerator> OPERATOR_PREDICATE_MAP = new HashMap<>();
 
@@ -142,6 +146,83 @@ public abstract class SearchProcessor {
         return resultIdx;
     }
 
+    /**
+     * Returns the offset in query results to continue the search from, when the search is continued from the position
+     * recorded in the previous page; otherwise -1. The query starts at the last vertex of the previous page, which is
+     * then dropped by startPage(). This is an offset, not a key: the backend still skips the vertices before it.
+     */
+    protected int getResumeQueryOffset() {
+        SearchCursor cursor = context.getCursor();
+
+        return cursor != null && cursor.getQueryOffset() > 0 && cursor.getLastVertexId() != null ? cursor.getQueryOffset() - 1 : -1;
+    }
+
+    /**
+     * Keeps a copy of the vertices of a page, as queried, to record the resume position from. In the first page of a
+     * continued search, drops the last vertex of the previous page; if that vertex is not the first one - like when
+     * earlier results were deleted since, and the page starts after results not returned yet - the page is used as is.
+     */
+    protected void startPage(List<AtlasVertex> vertices, List<AtlasVertex> pageVertices, boolean isResumedPage) {
+        pageVertices.clear();
+        pageVertices.addAll(vertices);
+
+        if (isResumedPage && !vertices.isEmpty() && StringUtils.equals(String.valueOf(vertices.get(0).getId()), context.getCursor().getLastVertexId())) {
+            vertices.remove(0);
+        }
+    }
+
+    /**
+     * Records the position of the last result vertex in the query results, for the next page to continue from. The
+     * position is not recorded if filtering changed the order of the vertices in the page, as the results that
+     * follow in the page could then be before the last result in the query.
+     */
+    protected void recordResumePosition(List<AtlasVertex> pageVertices, int pageOffset, List<AtlasVertex> resultVertices, AtlasVertex lastResult) {
+        Map<Object, Integer> pageIndexes = new HashMap<>();
+
+        for (int i = 0; i < pageVertices.size(); i++) {
+            pageIndexes.put(pageVertices.get(i).getId(), i);
+        }
+
+        int prevIdx = -1;
+
+        for (AtlasVertex vertex : resultVertices) {
+            Integer idx = pageIndexes.get(vertex.getId());
+
+            if (idx == null || idx < prevIdx) {
+                context.setResumePosition(-1, null);
+
+                return;
+            }
+
+            prevIdx = idx;
+        }
+
+        Integer lastIdx = pageIndexes.get(lastResult.getId());
+
+        if (lastIdx != null) {
+            context.setResumePosition(pageOffset + lastIdx + 1, String.valueOf(lastResult.getId()));
+        } else {
+            context.setResumePosition(-1, null);
+        }
+    }
+
+    /**
+     * Returns the number of vertices to query for the next page. When in-memory filters drop most of the queried
+     * vertices, pages of 'limit' vertices would take many queries to fill the result; the page is instead sized to
+     * the selectivity observed so far, up to MAX_PAGE_SIZE.
+     */
+    protected int getNextPageSize(final int limit, final int pageSize, final int remaining, final long fetchedCount, final long matchedCount) {
+        final long ret;
+
+        if (matchedCount == 0) {
+            ret = (long) pageSize * 2;
+        } else {
+            ret = (remaining * fetchedCount + matchedCount - 1) / matchedCount;
+        }
+
+        return (int) Math.min(Math.max(limit, MAX_PAGE_SIZE), Math.max(limit, ret));
+    }
+
     public void filter(List<AtlasVertex> entityVertices) {
         if (nextProcessor != null && CollectionUtils.isNotEmpty(entityVertices)) {
             nextProcessor.filter(entityVertices);
@@ -241,6 +322,7 @@ public abstract class SearchProcessor {
         }
     }
 
+    // attribute values are added as placeholders, to be bound with bindIndexQuery()
     protected void constructFilterQuery(StringBuilder indexQuery, AtlasStructType type, FilterCriteria filterCriteria, Set<String> indexAttributes) {
         if (filterCriteria != null) {
             if (LOG.isDebugEnabled()) {
@@ -259,6 +341,41 @@ public abstract class SearchProcessor {
         }
     }
 
+    /**
+     * Index query with placeholders for attribute values (see constructFilterQuery) is split at the placeholders, to
+     * bind values of a search with bindIndexQuery().
+     */
+    protected String[] toIndexQueryTemplate(StringBuilder indexQuery) {
+        if (indexQuery.length() == 0) {
+            return null;
+        }
+
+        String indexQueryString = STRAY_AND_PATTERN.matcher(indexQuery).replaceAll(")");
+
+        indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
+        indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
+
+        return StringUtils.splitPreserveAllTokens(indexQueryString, INDEX_QUERY_VALUE_MARKER);
+    }
+
+    protected String bindIndexQuery(String[] indexQueryTemplate, FilterCriteria filterCriteria, Set<String> indexAttributes) {
+        List<String> values = new ArrayList<>();
+
+        if (filterCriteria != null) {
+            collectIndexQueryValues(filterCriteria, indexAttributes, values);
+        }
+
+        StringBuilder ret = new StringBuilder(indexQueryTemplate[0]);
+
+        for (int i = 1; i < indexQueryTemplate.length; i++) {
+            String value = i <= values.size() ? values.get(i - 1) : EMPTY_STRING;
+
+            ret.append(value).append(indexQueryTemplate[i]);
+        }
+
+        return ret.toString();
+    }
+
     protected Predicate constructInMemoryPredicate(AtlasStructType type, FilterCriteria filterCriteria, Set<String> indexAttributes) {
         Predicate ret = null;
         if (filterCriteria != null) {
@@ -367,12 +484,23 @@ public abstract class SearchProcessor {
                 return nestedExpression.length() > 0 ? sb.append(BRACE_OPEN_STR).append(nestedExpression).append(BRACE_CLOSE_STR).toString() : EMPTY_STRING;
             }
         } else if (indexAttributes.contains(criteria.getAttributeName())){
-            return toIndexExpression(type, criteria.getAttributeName(), criteria.getOperator(), criteria.getAttributeValue());
+            return toIndexExpression(type, criteria.getAttributeName(), criteria.getOperator());
         } else {
             return EMPTY_STRING;
         }
     }
 
+    // collects values in the order of their placeholders in the index query, as added by toIndexQuery()
+    private void collectIndexQueryValues(FilterCriteria criteria, Set<String> indexAttributes, List<String> values) {
+        if (criteria.getCondition() != null && CollectionUtils.isNotEmpty(criteria.getCriterion())) {
+            for (FilterCriteria filterCriteria : criteria.getCriterion()) {
+                collectIndexQueryValues(filterCriteria, indexAttributes, values);
+            }
+        } else if (indexAttributes.contains(criteria.getAttributeName()) && OPERATOR_MAP.get(criteria.getOperator()) != null) {
+            values.add(String.valueOf(AtlasStructType.AtlasAttribute.escapeIndexQueryValue(criteria.getAttributeValue())));
+        }
+    }
+
     private Predicate toInMemoryPredicate(AtlasStructType type, FilterCriteria criteria, Set<String> indexAttributes) {
         if (criteria.getCondition() != null && CollectionUtils.isNotEmpty(criteria.getCriterion())) {
             List<Predicate> predicates = new ArrayList<>();
@@ -399,14 +527,14 @@ public abstract class SearchProcessor {
         return null;
     }
 
-    private String toIndexExpression(AtlasStructType type, String attrName, SearchParameters.Operator op, String attrVal) {
+    private String toIndexExpression(AtlasStructType type, String attrName, SearchParameters.Operator op) {
         String ret = EMPTY_STRING;
 
         try {
             if (OPERATOR_MAP.get(op) != null) {
                 String qualifiedName = type.getQualifiedAttributeName(attrName);
 
-                ret = String.format(OPERATOR_MAP.get(op), qualifiedName, AtlasStructType.AtlasAttribute.escapeIndexQueryValue(attrVal));
+                ret = String.format(OPERATOR_MAP.get(op), qualifiedName, INDEX_QUERY_VALUE_MARKER);
             }
         } catch (AtlasBaseException ex) {
             LOG.warn(ex.getMessage());
@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.AtlasException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary encoding of the details and entity definition columns of audit events.
+ * <p>
+ * Value -> magic (byte 0), version (byte), type (byte), type specific content <br>
+ * Snapshot -> compressed text <br>
+ * Delta -> base event key, CRC32 of the base text, length of prefix and suffix shared with the base text, compressed
+ * text between the prefix and suffix <br>
+ * <p>
+ * Text is compressed with deflate, using a preset dictionary of strings common in serialized entities. Values written
+ * before this encoding are UTF-8 text, which never starts with byte 0, and are returned as is.
+ */
+public class EntityAuditPayloadCodec {
+    private static final byte MAGIC         = 0;
+    private static final byte VERSION_1     = 1;
+    private static final byte TYPE_SNAPSHOT = 0;
+    private static final byte TYPE_DELTA    = 1;
+    private static final int  HEADER_SIZE   = 3;
+
+    // most frequent strings are at the end, as deflate encodes nearer matches in fewer bits
+    private static final byte[] DICTIONARY = ("\"qualifiedName\":\"\",\"description\":null,\"owner\":\"\",\"name\":\"\"," +
+            "\"createTime\":\"\",\"modifiedTime\":\"\",\"createdBy\":\"\",\"modifiedBy\":\"\",\"comment\":null," +
+            "\"position\":,\"type\":\"string\",\"table\":,\"columns\":[],\"parameters\":{},\"db\":,\"sd\":," +
+            "\"systemAttributes\":{},\"traitNames\":[],\"traits\":{},\"state\":\"ACTIVE\",\"version\":0," +
+            "Created: Updated: Deleted: Added trait: Deleted trait: Updated trait: " +
+            "{\"jsonClass\":\"org.apache.atlas.typesystem.json.InstanceSerialization$_Struct\",\"typeName\":\"\",\"values\":{}}" +
+            "{\"jsonClass\":\"org.apache.atlas.typesystem.json.InstanceSerialization$_Id\",\"id\":\"\",\"version\":0,\"typeName\":\"\",\"state\":\"ACTIVE\"}" +
+            "{\"jsonClass\":\"org.apache.atlas.typesystem.json.InstanceSerialization$_Reference\",\"id\":,\"typeName\":\"\",\"values\":{}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private EntityAuditPayloadCodec() {
+    }
+
+    public static boolean isEncoded(byte[] value) {
+        return value != null && value.length >= HEADER_SIZE && value[0] == MAGIC;
+    }
+
+    public static boolean isDelta(byte[] value) {
+        return isEncoded(value) && value[2] == TYPE_DELTA;
+    }
+
+    public static byte[] encodeSnapshot(String text) throws AtlasException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream      out   = new DataOutputStream(bytes);
+
+            writeHeader(out, TYPE_SNAPSHOT);
+            out.write(compress(text.getBytes(StandardCharsets.UTF_8), 0, 0));
+            out.flush();
+
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    /**
+     * Encodes the text as a delta from the text of the base event; returns a snapshot when that is not larger.
+     */
+    public static byte[] encodeDelta(String text, String baseKey, String baseText) throws AtlasException {
+        byte[] snapshot = encodeSnapshot(text);
+
+        try {
+            byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+            byte[] baseBytes = baseText.getBytes(StandardCharsets.UTF_8);
+            int    maxLength = Math.min(textBytes.length, baseBytes.length);
+            int    prefixLen = 0;
+            int    suffixLen = 0;
+
+            while (prefixLen < maxLength && textBytes[prefixLen] == baseBytes[prefixLen]) {
+                prefixLen++;
+            }
+
+            while (suffixLen < maxLength - prefixLen && textBytes[textBytes.length - 1 - suffixLen] == baseBytes[baseBytes.length - 1 - suffixLen]) {
+                suffixLen++;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream      out   = new DataOutputStream(bytes);
+
+            writeHeader(out, TYPE_DELTA);
+            out.writeUTF(baseKey);
+            out.writeInt(getChecksum(baseBytes));
+            out.writeInt(prefixLen);
+            out.writeInt(suffixLen);
+            out.write(compress(textBytes, prefixLen, suffixLen));
+            out.flush();
+
+            return bytes.size() < snapshot.length ? bytes.toByteArray() : snapshot;
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    /**
+     * @return key of the event the given delta is based on
+     */
+    public static String getBaseKey(byte[] value) throws AtlasException {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value, HEADER_SIZE, value.length - HEADER_SIZE));
+
+            return in.readUTF();
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    /**
+     * @param baseText text of the base event, for a delta; ignored otherwise
+     */
+    public static String decode(byte[] value, String baseText) throws AtlasException {
+        if (value == null) {
+            return null;
+        } else if (!isEncoded(value)) {
+            return new String(value, StandardCharsets.UTF_8);
+        } else if (value[1] != VERSION_1) {
+            throw new AtlasException("unsupported audit payload version " + value[1]);
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value, HEADER_SIZE, value.length - HEADER_SIZE));
+
+            if (value[2] == TYPE_SNAPSHOT) {
+                return new String(decompress(in), StandardCharsets.UTF_8);
+            }
+
+            in.readUTF(); // base key
+
+            int    checksum  = in.readInt();
+            int    prefixLen = in.readInt();
+            int    suffixLen = in.readInt();
+            byte[] baseBytes = baseText != null ? baseText.getBytes(StandardCharsets.UTF_8) : null;
+
+            if (baseBytes == null || getChecksum(baseBytes) != checksum) {
+                throw new AtlasException("base of audit payload delta is missing or has changed");
+            }
+
+            byte[] middle = decompress(in);
+            byte[] text   = new byte[prefixLen + middle.length + suffixLen];
+
+            System.arraycopy(baseBytes, 0, text, 0, prefixLen);
+            System.arraycopy(middle, 0, text, prefixLen, middle.length);
+            System.arraycopy(baseBytes, baseBytes.length - suffixLen, text, prefixLen + middle.length, suffixLen);
+
+            return new String(text, StandardCharsets.UTF_8);
+        } catch (IOException | DataFormatException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, byte type) throws IOException {
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION_1);
+        out.writeByte(type);
+    }
+
+    private static byte[] compress(byte[] bytes, int prefixLen, int suffixLen) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(bytes, prefixLen, bytes.length - prefixLen - suffixLen);
+            deflater.finish();
+
+            ByteArrayOutputStream ret    = new ByteArrayOutputStream();
+            byte[]                buffer = new byte[4096];
+
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+
+                ret.write(buffer, 0, count);
+            }
+
+            return ret.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(DataInputStream in) throws IOException, DataFormatException {
+        byte[]   compressed = new byte[in.available()];
+        Inflater inflater   = new Inflater();
+
+        in.readFully(compressed);
+
+        try {
+            inflater.setInput(compressed);
+
+            ByteArrayOutputStream ret    = new ByteArrayOutputStream();
+            byte[]                buffer = new byte[4096];
+
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput()) {
+                        throw new DataFormatException("truncated audit payload");
+                    }
+                }
+
+                ret.write(buffer, 0, count);
+            }
+
+            return ret.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int getChecksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+
+        crc.update(bytes, 0, bytes.length);
+
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.EntityAuditEvent;
+import org.apache.atlas.EntityAuditEvent.EntityAuditAction;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Audit events of all entities in a time range, optionally restricted to a user, an action and an entity type.
+ */
+public class EntityAuditQuery {
+    private final long              fromTime;
+    private final long              toTime;
+    private final String            user;
+    private final EntityAuditAction action;
+    private final String            typeName;
+
+    /**
+     * @param fromTime start of the time range, inclusive
+     * @param toTime end of the time range, inclusive
+     * @param user user who made the changes; null for all users
+     * @param action action of the events; null for all actions
+     * @param typeName type of the entities; null for all types
+     */
+    public EntityAuditQuery(long fromTime, long toTime, String user, EntityAuditAction action, String typeName) {
+        this.fromTime = fromTime;
+        this.toTime   = toTime;
+        this.user     = StringUtils.isEmpty(user) ? null : user;
+        this.action   = action;
+        this.typeName = StringUtils.isEmpty(typeName) ? null : typeName;
+    }
+
+    public long getFromTime() {
+        return fromTime;
+    }
+
+    public long getToTime() {
+        return toTime;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public EntityAuditAction getAction() {
+        return action;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public boolean isInTimeRange(long timestamp) {
+        return timestamp >= fromTime && timestamp <= toTime;
+    }
+
+    public boolean matches(long timestamp, String user, EntityAuditAction action, String typeName) {
+        return isInTimeRange(timestamp) &&
+               (this.user == null || this.user.equals(user)) &&
+               (this.action == null || this.action == action) &&
+               (this.typeName == null || this.typeName.equals(typeName));
+    }
+
+    public boolean matches(EntityAuditEvent event, String typeName) {
+        return matches(event.getTimestamp(), event.getUser(), event.getAction(), typeName);
+    }
+
+    public static String getTypeName(EntityAuditEvent event) {
+        return event.getEntityDefinition() != null ? event.getEntityDefinition().getTypeName() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityAuditQuery{fromTime=" + fromTime + ", toTime=" + toTime + ", user=" + user + ", action=" + action + ", typeName=" + typeName + "}";
+    }
+}
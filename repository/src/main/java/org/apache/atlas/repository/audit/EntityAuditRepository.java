@@ -51,6 +51,16 @@ public interface EntityAuditRepository {
      */
     List<EntityAuditEvent> listEvents(String entityId, String startKey, short n) throws AtlasException;
 
+    /**
+     * List events of all entities that match the given query, in decreasing order of timestamp. Returns n results
+     * @param query time range, and optionally user, action and entity type, of the events
+     * @param startKey key for the first event to be returned, used for pagination
+     * @param n number of events to be returned
+     * @return list of events
+     * @throws AtlasException
+     */
+    List<EntityAuditEvent> listEvents(EntityAuditQuery query, String startKey, short n) throws AtlasException;
+
     /**
      * Returns maximum allowed repository size per EntityAuditEvent
      * @throws AtlasException
@@ -0,0 +1,790 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.EntityAuditEvent;
+import org.apache.atlas.annotation.ConditionalOnAtlasProperty;
+import org.apache.atlas.service.Service;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Entity audit repository that stores audit events in local, append-only segment files. Meant for single node
+ * deployments that don't run HBase.
+ * <p>
+ * Events are appended to the active segment, a memory-mapped file of fixed size: a writer reserves space for its
+ * record by advancing the segment's write position, so concurrent writers don't block each other. Once the active
+ * segment is full a new one is started, and the oldest segments are deleted as per the configured size and age limits.
+ * <p>
+ * Record -> length (int), committed (byte), sequence (long), timestamp (long), entity id, action, user, details,
+ * entity definition, entity type <br>
+ * Strings are stored as length (int, -1 for null) followed by UTF-8 bytes.
+ * <p>
+ * An in-memory index, rebuilt from the segments on start - skipping space reserved for records that were never
+ * written - keeps the location of the events of each entity in decreasing order of timestamp; listEvents() seeks to
+ * the start key in the index and reads the next n events. Another index keeps the locations of the events of all
+ * entities in decreasing order of timestamp, for queries by time range.
+ */
+@Singleton
+@Component
+@ConditionalOnAtlasProperty(property = "atlas.EntityAuditRepository.impl")
+public class FileBasedAuditRepository implements Service, EntityAuditRepository {
+    private static final Logger LOG = LoggerFactory.getLogger(FileBasedAuditRepository.class);
+
+    public static final String CONFIG_PREFIX              = "atlas.audit.file";
+    public static final String CONFIG_DIRECTORY           = CONFIG_PREFIX + ".directory";
+    public static final String CONFIG_SEGMENT_SIZE        = CONFIG_PREFIX + ".segment.size";
+    public static final String CONFIG_RETENTION_MAX_SIZE  = CONFIG_PREFIX + ".retention.max.size";
+    public static final String CONFIG_RETENTION_MAX_AGE   = CONFIG_PREFIX + ".retention.max.age.ms";
+    public static final int    DEFAULT_SEGMENT_SIZE       = 64 * 1024 * 1024;
+    public static final long   DEFAULT_RETENTION_MAX_SIZE = 1024L * 1024 * 1024;
+    public static final long   DEFAULT_RETENTION_MAX_AGE  = 0; // no age limit
+
+    private static final String AUDIT_EXCLUDE_ATTRIBUTE_PROPERTY = CONFIG_PREFIX + ".entity";
+    private static final String SEGMENT_FILE_PREFIX              = "audit-";
+    private static final String SEGMENT_FILE_SUFFIX              = ".seg";
+    private static final String FIELD_SEPARATOR                  = ":";
+    private static final int    RECORD_HEADER_SIZE               = 4 + 1;
+    private static final byte   RECORD_COMMITTED                 = 1;
+
+    private final ConcurrentMap<String, NavigableSet<EventLocation>> eventIndex    = new ConcurrentHashMap<>();
+    private final NavigableSet<EventLocation>                        timeIndex     = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListMap<Long, Segment>               segments      = new ConcurrentSkipListMap<>();
+    private final AtomicReference<Segment>                           activeSegment = new AtomicReference<>();
+    private final AtomicLong                                         nextSequence  = new AtomicLong();
+    private final Object                                             segmentLock   = new Object();
+    private final Map<String, List<String>>                          auditExcludedAttributesCache = new ConcurrentHashMap<>();
+
+    private Configuration configuration;
+    private File          directory;
+    private int           segmentSize;
+    private long          retentionMaxSize;
+    private long          retentionMaxAgeMs;
+    private boolean       persistEntityDefinition;
+
+    @Override
+    public void start() throws AtlasException {
+        startInternal(ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    void startInternal(Configuration configuration) throws AtlasException {
+        this.configuration           = configuration;
+        this.directory               = new File(configuration.getString(CONFIG_DIRECTORY, System.getProperty("atlas.home", ".") + "/data/audit"));
+        this.segmentSize             = configuration.getInt(CONFIG_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+        this.retentionMaxSize        = configuration.getLong(CONFIG_RETENTION_MAX_SIZE, DEFAULT_RETENTION_MAX_SIZE);
+        this.retentionMaxAgeMs       = configuration.getLong(CONFIG_RETENTION_MAX_AGE, DEFAULT_RETENTION_MAX_AGE);
+        this.persistEntityDefinition = configuration.getBoolean(HBaseBasedAuditRepository.CONFIG_PERSIST_ENTITY_DEFINITION, false);
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new AtlasException("failed to create audit directory " + directory.getAbsolutePath());
+        }
+
+        LOG.info("Audit events are stored in {}: segmentSize={}, retentionMaxSize={}, retentionMaxAgeMs={}",
+                 directory.getAbsolutePath(), segmentSize, retentionMaxSize, retentionMaxAgeMs);
+
+        try {
+            loadSegments();
+
+            Segment lastSegment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+
+            activeSegment.set(lastSegment != null ? lastSegment : createSegment(0));
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+
+        removeExpiredSegments();
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        for (Segment segment : segments.values()) {
+            segment.flush();
+        }
+    }
+
+    @Override
+    public void putEvents(EntityAuditEvent... events) throws AtlasException {
+        putEvents(Arrays.asList(events));
+    }
+
+    @Override
+    public void putEvents(List<EntityAuditEvent> events) throws AtlasException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Putting {} events", events.size());
+        }
+
+        for (EntityAuditEvent event : events) {
+            long   sequence = nextSequence.getAndIncrement();
+            byte[] record   = toRecord(event, sequence);
+
+            if (record.length > segmentSize) {
+                throw new AtlasException("audit event for entity " + event.getEntityId() + " of size " + record.length + " doesn't fit in a segment of size " + segmentSize);
+            }
+
+            Segment segment = activeSegment.get();
+            int     offset  = segment.reserve(record.length);
+
+            while (offset < 0) {
+                segment = rollSegment(segment);
+                offset  = segment.reserve(record.length);
+            }
+
+            segment.write(offset, record, event.getTimestamp());
+
+            // the index is updated only after the record is written, so readers never see a partial record
+            addToIndex(event.getEntityId(), new EventLocation(event.getTimestamp(), sequence, segment, offset, EntityAuditQuery.getTypeName(event)));
+
+            event.setEventKey(getKey(event.getEntityId(), event.getTimestamp(), sequence));
+        }
+    }
+
+    /**
+     * List events for the given entity id in decreasing order of timestamp, from the given startKey. Returns n results
+     * @param entityId entity id
+     * @param startKey key for the first event to be returned, used for pagination
+     * @param n number of events to be returned
+     * @return list of events
+     * @throws AtlasException
+     */
+    @Override
+    public List<EntityAuditEvent> listEvents(String entityId, String startKey, short n) throws AtlasException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Listing events for entity id {}, starting key {}, #records {}", entityId, startKey, n);
+        }
+
+        List<EntityAuditEvent>      ret       = new ArrayList<>();
+        NavigableSet<EventLocation> locations = eventIndex.get(entityId);
+
+        if (locations != null) {
+            EventLocation           startLocation = fromKey(startKey);
+            Iterator<EventLocation> iter          = startLocation != null ? locations.tailSet(startLocation, true).iterator() : locations.iterator();
+
+            while (iter.hasNext() && ret.size() < n) {
+                EventLocation location = iter.next();
+
+                if (location.segment.isDeleted()) { // removed by retention after the iterator was created
+                    continue;
+                }
+
+                ret.add(location.segment.read(location.offset));
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Got events for entity id {}, starting key {}, #records {}", entityId, startKey, ret.size());
+        }
+
+        return ret;
+    }
+
+    @Override
+    public List<EntityAuditEvent> listEvents(EntityAuditQuery query, String startKey, short n) throws AtlasException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Listing events for {}, starting key {}, #records {}", query, startKey, n);
+        }
+
+        List<EntityAuditEvent> ret           = new ArrayList<>();
+        EventLocation          startLocation = fromKey(startKey);
+
+        if (startLocation == null || startLocation.timestamp > query.getToTime()) {
+            startLocation = new EventLocation(query.getToTime(), Long.MAX_VALUE, null, -1, null);
+        }
+
+        for (EventLocation location : timeIndex.tailSet(startLocation, true)) {
+            if (ret.size() >= n || location.timestamp < query.getFromTime()) {
+                break;
+            }
+
+            if (location.segment.isDeleted() || (query.getTypeName() != null && !query.getTypeName().equals(location.typeName))) {
+                continue;
+            }
+
+            EntityAuditEvent event = location.segment.read(location.offset);
+
+            if (query.matches(event, location.typeName)) {
+                ret.add(event);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Got events for {}, starting key {}, #records {}", query, startKey, ret.size());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the maximum size of the details, and of the entity definition, of an event; an event is then sure to
+     * fit in a segment.
+     */
+    @Override
+    public long repositoryMaxSize() throws AtlasException {
+        return segmentSize / 4;
+    }
+
+    @Override
+    public List<String> getAuditExcludeAttributes(String entityType) throws AtlasException {
+        List<String> ret = auditExcludedAttributesCache.get(entityType);
+
+        if (ret == null && configuration != null) {
+            String[] excludeAttributes = configuration.getStringArray(AUDIT_EXCLUDE_ATTRIBUTE_PROPERTY + "." + entityType + "." + "attributes.exclude");
+
+            ret = excludeAttributes != null ? Arrays.asList(excludeAttributes) : new ArrayList<String>();
+
+            auditExcludedAttributesCache.put(entityType, ret);
+        }
+
+        return ret;
+    }
+
+    @VisibleForTesting
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    private Segment rollSegment(Segment fullSegment) throws AtlasException {
+        Segment ret;
+
+        synchronized (segmentLock) {
+            ret = activeSegment.get();
+
+            if (ret == fullSegment) { // not rolled yet by another writer
+                try {
+                    ret = createSegment(fullSegment.id + 1);
+                } catch (IOException e) {
+                    throw new AtlasException(e);
+                }
+
+                activeSegment.set(ret);
+
+                fullSegment.flush();
+            }
+        }
+
+        if (ret != fullSegment) {
+            removeExpiredSegments();
+        }
+
+        return ret;
+    }
+
+    private void removeExpiredSegments() {
+        synchronized (segmentLock) {
+            long totalSize    = 0;
+            long minTimestamp = retentionMaxAgeMs > 0 ? System.currentTimeMillis() - retentionMaxAgeMs : Long.MIN_VALUE;
+
+            for (Segment segment : segments.values()) {
+                totalSize += segment.getSize();
+            }
+
+            for (Segment segment : segments.values()) {
+                if (segment == activeSegment.get()) {
+                    break;
+                }
+
+                boolean isOverSize = retentionMaxSize > 0 && totalSize > retentionMaxSize;
+                boolean isExpired  = segment.getMaxTimestamp() < minTimestamp;
+
+                if (!isOverSize && !isExpired) {
+                    break;
+                }
+
+                totalSize -= segment.getSize();
+
+                removeSegment(segment);
+            }
+        }
+    }
+
+    private void removeSegment(Segment segment) {
+        LOG.info("Removing audit segment {}: size={}, maxTimestamp={}", segment.file.getName(), segment.getSize(), segment.getMaxTimestamp());
+
+        segments.remove(segment.id);
+
+        segment.delete();
+
+        for (Iterator<EventLocation> iter = timeIndex.iterator(); iter.hasNext(); ) {
+            if (iter.next().segment == segment) {
+                iter.remove();
+            }
+        }
+
+        for (String entityId : segment.entityIds) {
+            NavigableSet<EventLocation> locations = eventIndex.get(entityId);
+
+            if (locations == null) {
+                continue;
+            }
+
+            for (Iterator<EventLocation> iter = locations.iterator(); iter.hasNext(); ) {
+                if (iter.next().segment == segment) {
+                    iter.remove();
+                }
+            }
+
+            if (locations.isEmpty()) {
+                eventIndex.remove(entityId, locations);
+            }
+        }
+    }
+
+    private void addToIndex(String entityId, EventLocation location) {
+        while (true) {
+            NavigableSet<EventLocation> locations = eventIndex.get(entityId);
+
+            if (locations == null) {
+                NavigableSet<EventLocation> newLocations = new ConcurrentSkipListSet<>();
+
+                locations = eventIndex.putIfAbsent(entityId, newLocations);
+
+                if (locations == null) {
+                    locations = newLocations;
+                }
+            }
+
+            locations.add(location);
+
+            // retry if the set was removed from the index, on becoming empty, before the location got added to it
+            if (eventIndex.get(entityId) == locations) {
+                break;
+            }
+        }
+
+        location.segment.entityIds.add(entityId);
+
+        timeIndex.add(location);
+    }
+
+    private void loadSegments() throws IOException {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(SEGMENT_FILE_PREFIX) && name.endsWith(SEGMENT_FILE_SUFFIX);
+            }
+        });
+
+        if (files == null) {
+            return;
+        }
+
+        long maxSequence = -1;
+
+        for (File file : files) {
+            String  idStr   = file.getName().substring(SEGMENT_FILE_PREFIX.length(), file.getName().length() - SEGMENT_FILE_SUFFIX.length());
+            Segment segment = new Segment(Long.parseLong(idStr), file, (int) file.length());
+
+            segments.put(segment.id, segment);
+        }
+
+        for (Segment segment : segments.values()) {
+            int offset = 0;
+            int end    = 0;
+
+            while (offset + RECORD_HEADER_SIZE <= segment.capacity) {
+                int length = segment.buffer.getInt(offset);
+
+                if (!segment.isRecord(offset, length)) {
+                    // space reserved by a writer that stopped before writing its record, or the unwritten end of the segment
+                    int next = segment.findRecord(offset + 1);
+
+                    if (next < 0) {
+                        break;
+                    }
+
+                    LOG.warn("Skipping {} bytes of unwritten audit records in {} at offset {}", next - offset, segment.file.getName(), offset);
+
+                    offset = next;
+
+                    continue;
+                }
+
+                if (segment.buffer.get(offset + 4) == RECORD_COMMITTED) {
+                    EntityAuditEvent event    = segment.read(offset);
+                    long             sequence = segment.buffer.getLong(offset + RECORD_HEADER_SIZE);
+
+                    addToIndex(event.getEntityId(), new EventLocation(event.getTimestamp(), sequence, segment, offset, segment.readTypeName(offset)));
+
+                    segment.updateMaxTimestamp(event.getTimestamp());
+
+                    maxSequence = Math.max(maxSequence, sequence);
+                } else {
+                    LOG.warn("Ignoring incomplete audit record in {} at offset {}", segment.file.getName(), offset);
+                }
+
+                offset += length;
+                end     = offset;
+            }
+
+            segment.writePosition.set(end);
+
+            LOG.info("Loaded audit segment {}: size={}", segment.file.getName(), end);
+        }
+
+        nextSequence.set(maxSequence + 1);
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        File    file = new File(directory, String.format("%s%020d%s", SEGMENT_FILE_PREFIX, id, SEGMENT_FILE_SUFFIX));
+        Segment ret  = new Segment(id, file, segmentSize);
+
+        segments.put(id, ret);
+
+        LOG.info("Created audit segment {}", file.getName());
+
+        return ret;
+    }
+
+    private byte[] toRecord(EntityAuditEvent event, long sequence) {
+        byte[] entityId   = toBytes(event.getEntityId());
+        byte[] action     = toBytes(event.getAction() != null ? event.getAction().name() : null);
+        byte[] user       = toBytes(event.getUser());
+        byte[] details    = toBytes(event.getDetails());
+        byte[] definition = toBytes(persistEntityDefinition ? event.getEntityDefinitionString() : null);
+        byte[] typeName   = toBytes(EntityAuditQuery.getTypeName(event));
+        int    length     = RECORD_HEADER_SIZE + 8 + 8 + getSize(entityId) + getSize(action) + getSize(user) + getSize(details) + getSize(definition) + getSize(typeName);
+        ByteBuffer ret    = ByteBuffer.allocate(length);
+
+        ret.putInt(length);
+        ret.put((byte) 0); // set once the whole record is written
+        ret.putLong(sequence);
+        ret.putLong(event.getTimestamp());
+        putBytes(ret, entityId);
+        putBytes(ret, action);
+        putBytes(ret, user);
+        putBytes(ret, details);
+        putBytes(ret, definition);
+        putBytes(ret, typeName);
+
+        return ret.array();
+    }
+
+    private static EntityAuditEvent fromRecord(ByteBuffer record) {
+        EntityAuditEvent ret = new EntityAuditEvent();
+
+        long   sequence   = record.getLong();
+        long   timestamp  = record.getLong();
+        String entityId   = getString(record);
+        String action     = getString(record);
+        String user       = getString(record);
+        String details    = getString(record);
+        String definition = getString(record);
+
+        ret.setEntityId(entityId);
+        ret.setTimestamp(timestamp);
+        ret.setAction(action != null ? EntityAuditEvent.EntityAuditAction.valueOf(action) : null);
+        ret.setUser(user);
+        ret.setDetails(details);
+        ret.setEventKey(getKey(entityId, timestamp, sequence));
+
+        if (definition != null) {
+            ret.setEntityDefinition(definition);
+        }
+
+        return ret;
+    }
+
+    private static String getKey(String entityId, long timestamp, long sequence) {
+        return entityId + FIELD_SEPARATOR + timestamp + FIELD_SEPARATOR + sequence;
+    }
+
+    private static EventLocation fromKey(String key) {
+        EventLocation ret = null;
+
+        if (StringUtils.isNotEmpty(key)) {
+            String[] parts = key.split(FIELD_SEPARATOR);
+
+            if (parts.length >= 3) {
+                try {
+                    ret = new EventLocation(Long.parseLong(parts[parts.length - 2]), Long.parseLong(parts[parts.length - 1]), null, -1, null);
+                } catch (NumberFormatException excp) {
+                    LOG.warn("ignoring invalid audit event key {}", key);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static byte[] toBytes(String str) {
+        return str != null ? str.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int getSize(byte[] bytes) {
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Location of an event in the segments. Ordered by decreasing timestamp, and by decreasing sequence for events
+     * with the same timestamp.
+     */
+    private static final class EventLocation implements Comparable<EventLocation> {
+        final long    timestamp;
+        final long    sequence;
+        final Segment segment;
+        final int     offset;
+        final String  typeName;
+
+        EventLocation(long timestamp, long sequence, Segment segment, int offset, String typeName) {
+            this.timestamp = timestamp;
+            this.sequence  = sequence;
+            this.segment   = segment;
+            this.offset    = offset;
+            this.typeName  = typeName != null ? typeName.intern() : null;
+        }
+
+        @Override
+        public int compareTo(EventLocation other) {
+            int ret = Long.compare(other.timestamp, timestamp);
+
+            if (ret == 0) {
+                ret = Long.compare(other.sequence, sequence);
+            }
+
+            return ret;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EventLocation && compareTo((EventLocation) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (timestamp ^ sequence);
+        }
+    }
+
+    private static final class Segment {
+        final long             id;
+        final File             file;
+        final int              capacity;
+        final MappedByteBuffer buffer;
+        final AtomicInteger    writePosition = new AtomicInteger();
+        final AtomicLong       maxTimestamp  = new AtomicLong(Long.MIN_VALUE);
+        final Set<String>      entityIds     = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        volatile boolean       isDeleted     = false;
+
+        Segment(long id, File file, int capacity) throws IOException {
+            this.id       = id;
+            this.file     = file;
+            this.capacity = capacity;
+
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                // the mapping stays valid after the file is closed
+                this.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+        }
+
+        /**
+         * @return offset of the reserved space, or -1 if the segment doesn't have the space
+         */
+        int reserve(int length) {
+            while (true) {
+                int position = writePosition.get();
+
+                if (position + length > capacity) {
+                    return -1;
+                }
+
+                if (writePosition.compareAndSet(position, position + length)) {
+                    return position;
+                }
+            }
+        }
+
+        void write(int offset, byte[] record, long timestamp) {
+            ByteBuffer dup = buffer.duplicate();
+
+            dup.position(offset);
+            dup.put(record);
+
+            buffer.put(offset + 4, RECORD_COMMITTED);
+
+            updateMaxTimestamp(timestamp);
+        }
+
+        EntityAuditEvent read(int offset) {
+            ByteBuffer dup = buffer.duplicate();
+
+            dup.position(offset + RECORD_HEADER_SIZE);
+
+            return fromRecord(dup);
+        }
+
+        String readTypeName(int offset) {
+            ByteBuffer dup = buffer.duplicate();
+
+            dup.position(offset + RECORD_HEADER_SIZE + 8 + 8);
+
+            for (int i = 0; i < 5; i++) { // skip entity id, action, user, details and entity definition
+                int length = dup.getInt();
+
+                if (length > 0) {
+                    dup.position(dup.position() + length);
+                }
+            }
+
+            return getString(dup);
+        }
+
+        /**
+         * @return true if a record of the given length is at the offset, i.e. its fields end exactly at offset + length
+         */
+        boolean isRecord(int offset, int length) {
+            if (length < RECORD_HEADER_SIZE + 8 + 8 || offset + length > capacity) {
+                return false;
+            }
+
+            byte committed = buffer.get(offset + 4);
+
+            if (committed != 0 && committed != RECORD_COMMITTED) {
+                return false;
+            }
+
+            int end      = offset + length;
+            int position = offset + RECORD_HEADER_SIZE + 8 + 8;
+
+            for (int i = 0; i < 6; i++) { // entity id, action, user, details, entity definition and entity type
+                if (position + 4 > end) {
+                    return false;
+                }
+
+                int fieldLength = buffer.getInt(position);
+
+                position += 4;
+
+                if (fieldLength < -1 || fieldLength > end - position) {
+                    return false;
+                }
+
+                if (fieldLength > 0) {
+                    position += fieldLength;
+                }
+            }
+
+            return position == end;
+        }
+
+        /**
+         * @return offset of the first record at or after the given offset, or -1 if there is none
+         */
+        int findRecord(int offset) {
+            for (int i = offset; i + RECORD_HEADER_SIZE <= capacity; i++) {
+                int length = buffer.getInt(i);
+
+                if (length != 0 && isRecord(i, length)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        void updateMaxTimestamp(long timestamp) {
+            while (true) {
+                long current = maxTimestamp.get();
+
+                if (current >= timestamp || maxTimestamp.compareAndSet(current, timestamp)) {
+                    break;
+                }
+            }
+        }
+
+        long getMaxTimestamp() {
+            return maxTimestamp.get();
+        }
+
+        int getSize() {
+            return Math.min(writePosition.get(), capacity);
+        }
+
+        boolean isDeleted() {
+            return isDeleted;
+        }
+
+        void flush() {
+            if (!isDeleted) {
+                buffer.force();
+            }
+        }
+
+        void delete() {
+            isDeleted = true;
+
+            // the mapped memory is released once the buffer is garbage collected
+            if (!file.delete()) {
+                LOG.warn("failed to delete audit segment {}", file.getAbsolutePath());
+            }
+        }
+    }
+}
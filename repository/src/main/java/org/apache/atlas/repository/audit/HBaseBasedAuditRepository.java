@@ -35,12 +35,16 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.CompareFilter;
+import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.PageFilter;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.io.compress.Compression;
 import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
 import org.apache.hadoop.hbase.regionserver.BloomType;
@@ -56,8 +60,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * HBase based repository for entity audit events
@@ -72,6 +78,13 @@ import java.util.Map;
  * entity id + timestamp, and only 1 version is kept, there can be just 1 audit event per entity
  * id + timestamp. This is ok for one atlas server. But if there are more than one atlas servers,
  * we should use server id in the key
+ * <p>
+ * Events of all entities are listed by time from a second table, ATLAS_ENTITY_EVENTS_BY_TIME <br>
+ * Key -> salt (hash of entity id) + timestamp + entity id <br>
+ * Column Family -> 1,dt <br>
+ * Columns -> action, user, type name <br>
+ * The salt spreads writes of the same time over regions; each salt bucket is scanned in order of time and the
+ * scans are merged.
  */
 @Singleton
 @Component
@@ -83,17 +96,26 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
     public static final String CONFIG_TABLE_NAME = CONFIG_PREFIX + ".hbase.tablename";
     public static final String DEFAULT_TABLE_NAME = "ATLAS_ENTITY_AUDIT_EVENTS";
     public static final String CONFIG_PERSIST_ENTITY_DEFINITION = CONFIG_PREFIX + ".persistEntityDefinition";
+    public static final String CONFIG_PAYLOAD_ENCODING_ENABLED = CONFIG_PREFIX + ".hbase.payload.encoding.enabled";
+    public static final String CONFIG_PAYLOAD_SNAPSHOT_INTERVAL = CONFIG_PREFIX + ".hbase.payload.snapshot.interval";
+    public static final String CONFIG_PAYLOAD_CACHE_MAX_BYTES = CONFIG_PREFIX + ".hbase.payload.cache.max.bytes";
 
     public static final byte[] COLUMN_FAMILY = Bytes.toBytes("dt");
     public static final byte[] COLUMN_ACTION = Bytes.toBytes("a");
     public static final byte[] COLUMN_DETAIL = Bytes.toBytes("d");
     public static final byte[] COLUMN_USER = Bytes.toBytes("u");
     public static final byte[] COLUMN_DEFINITION = Bytes.toBytes("f");
+    public static final byte[] COLUMN_TYPE_NAME = Bytes.toBytes("t");
+    public static final String TIME_INDEX_TABLE_SUFFIX = "_BY_TIME";
 
     private static final String  AUDIT_REPOSITORY_MAX_SIZE_PROPERTY = "atlas.hbase.client.keyvalue.maxsize";
     private static final String  AUDIT_EXCLUDE_ATTRIBUTE_PROPERTY   = "atlas.audit.hbase.entity";
     private static final String  FIELD_SEPARATOR = ":";
     private static final long    ATLAS_HBASE_KEYVALUE_DEFAULT_SIZE = 1024 * 1024;
+    private static final int     DEFAULT_PAYLOAD_SNAPSHOT_INTERVAL = 10;
+    private static final long    DEFAULT_PAYLOAD_CACHE_MAX_BYTES = 4 * 1024 * 1024;
+    private static final int     MAX_DELTA_CHAIN_LENGTH = 1000;
+    private static final int     TIME_INDEX_SALT_BUCKETS = 16;
     private static Configuration APPLICATION_PROPERTIES = null;
 
     private static boolean       persistEntityDefinition;
@@ -108,7 +130,13 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         }
     }
     private TableName tableName;
+    private TableName timeIndexTableName;
     private Connection connection;
+    private boolean payloadEncodingEnabled;
+    private int payloadSnapshotInterval;
+
+    // payloads last written for entities, used as base for the delta of their next event
+    private LastPayloadCache lastPayloads = new LastPayloadCache(DEFAULT_PAYLOAD_CACHE_MAX_BYTES);
 
     /**
      * Add events to the event repository
@@ -132,28 +160,75 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         }
 
         Table table = null;
+        Table timeIndexTable = null;
         try {
             table = connection.getTable(tableName);
+            timeIndexTable = connection.getTable(timeIndexTableName);
             List<Put> puts = new ArrayList<>(events.size());
+            List<Put> timeIndexPuts = new ArrayList<>(events.size());
+            Map<String, LastPayload> writtenPayloads = new HashMap<>();
             for (EntityAuditEvent event : events) {
                 LOG.debug("Adding entity audit event {}", event);
-                Put put = new Put(getKey(event.getEntityId(), event.getTimestamp()));
+                byte[] key = getKey(event.getEntityId(), event.getTimestamp());
+                Put put = new Put(key);
                 addColumn(put, COLUMN_ACTION, event.getAction());
                 addColumn(put, COLUMN_USER, event.getUser());
-                addColumn(put, COLUMN_DETAIL, event.getDetails());
-                if (persistEntityDefinition) {
-                    addColumn(put, COLUMN_DEFINITION, event.getEntityDefinitionString());
+                String definition = persistEntityDefinition ? event.getEntityDefinitionString() : null;
+                if (payloadEncodingEnabled) {
+                    LastPayload lastPayload = writtenPayloads.get(event.getEntityId());
+                    if (lastPayload == null) {
+                        lastPayload = lastPayloads.get(event.getEntityId());
+                    }
+                    boolean useDelta = lastPayload != null && lastPayload.timestamp < event.getTimestamp()
+                            && lastPayload.chainLength + 1 < payloadSnapshotInterval;
+                    LastPayload payload = new LastPayload(Bytes.toString(key), event.getTimestamp(), event.getDetails(),
+                            definition, useDelta ? lastPayload.chainLength + 1 : 0);
+                    addColumn(put, COLUMN_DETAIL, encodePayload(event.getDetails(), useDelta ? lastPayload.key : null,
+                            useDelta ? lastPayload.details : null));
+                    addColumn(put, COLUMN_DEFINITION, encodePayload(definition, useDelta ? lastPayload.key : null,
+                            useDelta ? lastPayload.definition : null));
+                    writtenPayloads.put(event.getEntityId(), payload);
+                } else {
+                    addColumn(put, COLUMN_DETAIL, event.getDetails());
+                    addColumn(put, COLUMN_DEFINITION, definition);
                 }
                 puts.add(put);
+
+                Put timeIndexPut = new Put(getTimeIndexKey(event.getEntityId(), event.getTimestamp()));
+                addColumn(timeIndexPut, COLUMN_ACTION, event.getAction());
+                addColumn(timeIndexPut, COLUMN_USER, event.getUser());
+                addColumn(timeIndexPut, COLUMN_TYPE_NAME, EntityAuditQuery.getTypeName(event));
+                timeIndexPuts.add(timeIndexPut);
             }
             table.put(puts);
+            // index entries are written after the events, so that listed entries always have their event
+            timeIndexTable.put(timeIndexPuts);
+            // only events that are stored can be the base of a delta
+            lastPayloads.putAll(writtenPayloads);
         } catch (IOException e) {
             throw new AtlasException(e);
         } finally {
+            close(timeIndexTable);
             close(table);
         }
     }
 
+    private byte[] encodePayload(String text, String baseKey, String baseText) throws AtlasException {
+        if (StringUtils.isEmpty(text)) {
+            return null;
+        } else if (baseKey == null || StringUtils.isEmpty(baseText)) {
+            return EntityAuditPayloadCodec.encodeSnapshot(text);
+        } else {
+            return EntityAuditPayloadCodec.encodeDelta(text, baseKey, baseText);
+        }
+    }
+
+    private void addColumn(Put put, byte[] columnName, byte[] columnValue) {
+        if (columnValue != null) {
+            put.addColumn(COLUMN_FAMILY, columnName, columnValue);
+        }
+    }
+
     private <T> void addColumn(Put put, byte[] columnName, T columnValue) {
         if (columnValue != null && !columnValue.toString().isEmpty()) {
             put.addColumn(COLUMN_FAMILY, columnName, Bytes.toBytes(columnValue.toString()));
@@ -167,6 +242,18 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         return Bytes.toBytes(keyStr);
     }
 
+    private byte[] getTimeIndexKey(String id, long ts) {
+        return Bytes.add(getTimeIndexKeyPrefix(getSalt(id), ts), Bytes.toBytes(id));
+    }
+
+    private byte[] getTimeIndexKeyPrefix(byte salt, long ts) {
+        return Bytes.add(new byte[] { salt }, Bytes.toBytes(ts));
+    }
+
+    private byte getSalt(String id) {
+        return (byte) ((id.hashCode() & Integer.MAX_VALUE) % TIME_INDEX_SALT_BUCKETS);
+    }
+
     /**
      * List events for the given entity id in decreasing order of timestamp, from the given startKey. Returns n results
      * @param entityId entity id
@@ -206,29 +293,20 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
             }
             scanner = table.getScanner(scan);
             Result result;
-            List<EntityAuditEvent> events = new ArrayList<>();
+            List<Result> results = new ArrayList<>();
 
             //PageFilter doesn't ensure n results are returned. The filter is per region server.
             //So, adding extra check on n here
-            while ((result = scanner.next()) != null && events.size() < n) {
-                EntityAuditEvent event = fromKey(result.getRow());
-
+            while ((result = scanner.next()) != null && results.size() < n) {
                 //In case the user sets random start key, guarding against random events
-                if (!event.getEntityId().equals(entityId)) {
+                if (!fromKey(result.getRow()).getEntityId().equals(entityId)) {
                     continue;
                 }
-                event.setUser(getResultString(result, COLUMN_USER));
-                event.setAction(EntityAuditEvent.EntityAuditAction.valueOf(getResultString(result, COLUMN_ACTION)));
-                event.setDetails(getResultString(result, COLUMN_DETAIL));
-                if (persistEntityDefinition) {
-                    String colDef = getResultString(result, COLUMN_DEFINITION);
-                    if (colDef != null) {
-                        event.setEntityDefinition(colDef);
-                    }
-                }
-                events.add(event);
+                results.add(result);
             }
 
+            List<EntityAuditEvent> events = toEvents(table, results);
+
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Got events for entity id {}, starting timestamp {}, #records {}", entityId, startKey, events.size());
             }
@@ -242,6 +320,151 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         }
     }
 
+    /**
+     * List events of all entities that match the given query, in decreasing order of timestamp, from the given
+     * startKey. Returns n results
+     * @param query time range and filters of the events
+     * @param startKey key for the first event to be returned, used for pagination
+     * @param n number of events to be returned
+     * @return list of events
+     * @throws AtlasException
+     */
+    @Override
+    public List<EntityAuditEvent> listEvents(EntityAuditQuery query, String startKey, short n) throws AtlasException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Listing events for {}, starting key {}, #records {}", query, startKey, n);
+        }
+
+        Table table = null;
+        Table timeIndexTable = null;
+        List<ResultScanner> scanners = new ArrayList<>(TIME_INDEX_SALT_BUCKETS);
+        try {
+            table = connection.getTable(tableName);
+            timeIndexTable = connection.getTable(timeIndexTableName);
+
+            EntityAuditEvent startEvent = StringUtils.isEmpty(startKey) ? null : fromKey(Bytes.toBytes(startKey));
+            long fromTime = Math.max(query.getFromTime(), 0);
+            long toTime = query.getToTime();
+            if (startEvent != null) {
+                toTime = Math.min(toTime, startEvent.getTimestamp());
+            }
+            if (toTime < fromTime) {
+                return new ArrayList<>();
+            }
+
+            /**
+             * Scan Details:
+             * Each salt bucket holds the index entries of its entities in increasing order of timestamp, so a reverse
+             * scan per bucket lists its latest events first. Scans start at the start event (entries of the same
+             * timestamp are ordered by entity id) or after the end of the time range, and stop at the start of it.
+             * User, action and type name filters are applied by the region servers. A page filter is not used, as it
+             * would count rows dropped by the other filters; scanners are just not read past n entries.
+             */
+            FilterList filters = new FilterList(FilterList.Operator.MUST_PASS_ALL);
+            addFilter(filters, COLUMN_USER, query.getUser());
+            addFilter(filters, COLUMN_ACTION, query.getAction());
+            addFilter(filters, COLUMN_TYPE_NAME, query.getTypeName());
+
+            PriorityQueue<ScannerHead> heads = new PriorityQueue<>(TIME_INDEX_SALT_BUCKETS);
+            for (byte salt = 0; salt < TIME_INDEX_SALT_BUCKETS; salt++) {
+                byte[] startRow;
+                if (startEvent != null && startEvent.getTimestamp() == toTime) {
+                    startRow = Bytes.add(getTimeIndexKeyPrefix(salt, toTime), Bytes.toBytes(startEvent.getEntityId()));
+                } else if (toTime == Long.MAX_VALUE) {
+                    startRow = Bytes.add(getTimeIndexKeyPrefix(salt, toTime), new byte[] { (byte) 0xff });
+                } else {
+                    startRow = getTimeIndexKeyPrefix(salt, toTime + 1);
+                }
+                Scan scan = new Scan().setReversed(true)
+                                      .setStartRow(startRow)
+                                      .setStopRow(getTimeIndexKeyPrefix(salt, fromTime))
+                                      .setCaching(Math.min(n, 100));
+                if (!filters.getFilters().isEmpty()) {
+                    scan.setFilter(filters);
+                }
+                ResultScanner scanner = timeIndexTable.getScanner(scan);
+                scanners.add(scanner);
+                ScannerHead head = new ScannerHead(scanner);
+                if (head.next()) {
+                    heads.add(head);
+                }
+            }
+
+            // index entries are merged across the buckets, holding one entry per bucket in memory
+            List<Get> gets = new ArrayList<>(n);
+            while (gets.size() < n && !heads.isEmpty()) {
+                ScannerHead head = heads.poll();
+                byte[] row = head.current.getRow();
+                long ts = Bytes.toLong(row, 1);
+                String entityId = Bytes.toString(row, 1 + Bytes.SIZEOF_LONG, row.length - 1 - Bytes.SIZEOF_LONG);
+                gets.add(new Get(getKey(entityId, ts)));
+                if (head.next()) {
+                    heads.add(head);
+                }
+            }
+
+            List<Result> results = new ArrayList<>(gets.size());
+            for (Result result : table.get(gets)) {
+                if (result != null && !result.isEmpty()) {
+                    results.add(result);
+                }
+            }
+
+            List<EntityAuditEvent> events = toEvents(table, results);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Got events for {}, starting key {}, #records {}", query, startKey, events.size());
+            }
+
+            return events;
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        } finally {
+            for (ResultScanner scanner : scanners) {
+                close(scanner);
+            }
+            close(timeIndexTable);
+            close(table);
+        }
+    }
+
+    private <T> void addFilter(FilterList filters, byte[] columnName, T value) {
+        if (value != null) {
+            SingleColumnValueFilter filter = new SingleColumnValueFilter(COLUMN_FAMILY, columnName,
+                    CompareFilter.CompareOp.EQUAL, Bytes.toBytes(value.toString()));
+            filter.setFilterIfMissing(true);
+            filters.addFilter(filter);
+        }
+    }
+
+    /**
+     * Creates events from the given rows of the events table, which are in decreasing order of timestamp per entity
+     */
+    private List<EntityAuditEvent> toEvents(Table table, List<Result> results) throws IOException {
+        List<EntityAuditEvent> events = new ArrayList<>(results.size());
+        for (Result result : results) {
+            EntityAuditEvent event = fromKey(result.getRow());
+            event.setUser(getResultString(result, COLUMN_USER));
+            event.setAction(EntityAuditEvent.EntityAuditAction.valueOf(getResultString(result, COLUMN_ACTION)));
+            events.add(event);
+        }
+
+        // payloads can be deltas from older events, so are decoded starting with the oldest event
+        Map<String, String> details = new HashMap<>();
+        Map<String, String> definitions = new HashMap<>();
+        for (int i = events.size() - 1; i >= 0; i--) {
+            EntityAuditEvent event = events.get(i);
+            event.setDetails(getPayload(table, results.get(i), COLUMN_DETAIL, details));
+            if (persistEntityDefinition) {
+                String colDef = getPayload(table, results.get(i), COLUMN_DEFINITION, definitions);
+                if (colDef != null) {
+                    event.setEntityDefinition(colDef);
+                }
+            }
+        }
+        return events;
+    }
+
     @Override
     public long repositoryMaxSize() throws AtlasException {
         long ret;
@@ -288,6 +511,72 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         }
     }
 
+    /**
+     * Returns the decoded value of the given payload column. Values of the events already decoded are kept in
+     * 'decoded', by event key; the base events of a delta not found there are read from the table. A value that
+     * can't be decoded, like a delta whose base was overwritten, is returned as null - the other events of the
+     * entity are still listed.
+     */
+    private String getPayload(Table table, Result result, byte[] columnName, Map<String, String> decoded) throws IOException {
+        String key = Bytes.toString(result.getRow());
+        String ret;
+
+        if (decoded.containsKey(key)) {
+            return decoded.get(key);
+        }
+
+        byte[] rawValue = result.getValue(COLUMN_FAMILY, columnName);
+
+        try {
+            if (EntityAuditPayloadCodec.isDelta(rawValue)) {
+                String baseKey  = EntityAuditPayloadCodec.getBaseKey(rawValue);
+                String baseText = decoded.get(baseKey);
+
+                if (baseText == null) {
+                    baseText = getBasePayload(table, baseKey, columnName, decoded, 1);
+                }
+
+                ret = EntityAuditPayloadCodec.decode(rawValue, baseText);
+            } else {
+                ret = EntityAuditPayloadCodec.decode(rawValue, null);
+            }
+        } catch (AtlasException e) {
+            LOG.warn("Failed to decode {} of audit event {}: listing the event without it", Bytes.toString(columnName), key, e);
+
+            ret = null;
+        }
+
+        decoded.put(key, ret);
+
+        return ret;
+    }
+
+    private String getBasePayload(Table table, String baseKey, byte[] columnName, Map<String, String> decoded, int chainLength) throws IOException, AtlasException {
+        if (chainLength > MAX_DELTA_CHAIN_LENGTH) {
+            throw new AtlasException("delta chain too long at audit event " + baseKey);
+        }
+
+        byte[] rawValue = table.get(new Get(Bytes.toBytes(baseKey)).addColumn(COLUMN_FAMILY, columnName)).getValue(COLUMN_FAMILY, columnName);
+        String ret;
+
+        if (EntityAuditPayloadCodec.isDelta(rawValue)) {
+            String baseOfBaseKey  = EntityAuditPayloadCodec.getBaseKey(rawValue);
+            String baseOfBaseText = decoded.get(baseOfBaseKey);
+
+            if (baseOfBaseText == null) {
+                baseOfBaseText = getBasePayload(table, baseOfBaseKey, columnName, decoded, chainLength + 1);
+            }
+
+            ret = EntityAuditPayloadCodec.decode(rawValue, baseOfBaseText);
+        } else {
+            ret = EntityAuditPayloadCodec.decode(rawValue, null);
+        }
+
+        decoded.put(baseKey, ret);
+
+        return ret;
+    }
+
     private String getResultString(Result result, byte[] columnName) {
         byte[] rawValue = result.getValue(COLUMN_FAMILY, columnName);
         if ( rawValue != null) {
@@ -340,20 +629,14 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         Admin admin = null;
         try {
             admin = connection.getAdmin();
-            LOG.info("Checking if table {} exists", tableName.getNameAsString());
-            if (!admin.tableExists(tableName)) {
-                LOG.info("Creating table {}", tableName.getNameAsString());
-                HTableDescriptor tableDescriptor = new HTableDescriptor(tableName);
-                HColumnDescriptor columnFamily = new HColumnDescriptor(COLUMN_FAMILY);
-                columnFamily.setMaxVersions(1);
-                columnFamily.setDataBlockEncoding(DataBlockEncoding.FAST_DIFF);
-                columnFamily.setCompressionType(Compression.Algorithm.GZ);
-                columnFamily.setBloomFilterType(BloomType.ROW);
-                tableDescriptor.addFamily(columnFamily);
-                admin.createTable(tableDescriptor);
-            } else {
-                LOG.info("Table {} exists", tableName.getNameAsString());
+            createTableIfNotExists(admin, tableName, BloomType.ROW, null);
+
+            // pre-split on the salt, so that buckets are written and scanned on different region servers
+            byte[][] splitKeys = new byte[TIME_INDEX_SALT_BUCKETS - 1][];
+            for (int i = 1; i < TIME_INDEX_SALT_BUCKETS; i++) {
+                splitKeys[i - 1] = new byte[] { (byte) i };
             }
+            createTableIfNotExists(admin, timeIndexTableName, BloomType.NONE, splitKeys);
         } catch (IOException e) {
             throw new AtlasException(e);
         } finally {
@@ -361,6 +644,27 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
         }
     }
 
+    private void createTableIfNotExists(Admin admin, TableName tableName, BloomType bloomType, byte[][] splitKeys) throws IOException {
+        LOG.info("Checking if table {} exists", tableName.getNameAsString());
+        if (!admin.tableExists(tableName)) {
+            LOG.info("Creating table {}", tableName.getNameAsString());
+            HTableDescriptor tableDescriptor = new HTableDescriptor(tableName);
+            HColumnDescriptor columnFamily = new HColumnDescriptor(COLUMN_FAMILY);
+            columnFamily.setMaxVersions(1);
+            columnFamily.setDataBlockEncoding(DataBlockEncoding.FAST_DIFF);
+            columnFamily.setCompressionType(Compression.Algorithm.GZ);
+            columnFamily.setBloomFilterType(bloomType);
+            tableDescriptor.addFamily(columnFamily);
+            if (splitKeys != null) {
+                admin.createTable(tableDescriptor, splitKeys);
+            } else {
+                admin.createTable(tableDescriptor);
+            }
+        } else {
+            LOG.info("Table {} exists", tableName.getNameAsString());
+        }
+    }
+
     @Override
     public void start() throws AtlasException {
         Configuration configuration = ApplicationProperties.get();
@@ -373,6 +677,10 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
 
         String tableNameStr = atlasConf.getString(CONFIG_TABLE_NAME, DEFAULT_TABLE_NAME);
         tableName = TableName.valueOf(tableNameStr);
+        timeIndexTableName = TableName.valueOf(tableNameStr + TIME_INDEX_TABLE_SUFFIX);
+        payloadEncodingEnabled = atlasConf.getBoolean(CONFIG_PAYLOAD_ENCODING_ENABLED, true);
+        payloadSnapshotInterval = atlasConf.getInt(CONFIG_PAYLOAD_SNAPSHOT_INTERVAL, DEFAULT_PAYLOAD_SNAPSHOT_INTERVAL);
+        lastPayloads = new LastPayloadCache(atlasConf.getLong(CONFIG_PAYLOAD_CACHE_MAX_BYTES, DEFAULT_PAYLOAD_CACHE_MAX_BYTES));
 
         try {
             connection = createConnection(hbaseConf);
@@ -406,4 +714,88 @@ public class HBaseBasedAuditRepository implements Service, EntityAuditRepository
     public void instanceIsPassive() {
         LOG.info("Reacting to passive: No action for now.");
     }
+
+    /**
+     * Scanner of a salt bucket of the time index with its current entry, ordered by the entry's timestamp and entity
+     * id, latest first.
+     */
+    private static class ScannerHead implements Comparable<ScannerHead> {
+        final ResultScanner scanner;
+        Result current;
+
+        ScannerHead(ResultScanner scanner) {
+            this.scanner = scanner;
+        }
+
+        boolean next() throws IOException {
+            current = scanner.next();
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(ScannerHead other) {
+            byte[] row = current.getRow();
+            byte[] otherRow = other.current.getRow();
+            // skip the salt
+            return Bytes.compareTo(otherRow, 1, otherRow.length - 1, row, 1, row.length - 1);
+        }
+    }
+
+    private static class LastPayload {
+        final String key;
+        final long timestamp;
+        final String details;
+        final String definition;
+        final int chainLength;
+
+        LastPayload(String key, long timestamp, String details, String definition, int chainLength) {
+            this.key = key;
+            this.timestamp = timestamp;
+            this.details = details;
+            this.definition = definition;
+            this.chainLength = chainLength;
+        }
+
+        long getSize() {
+            // 2 bytes per char
+            return 2L * (key.length() + StringUtils.length(details) + StringUtils.length(definition));
+        }
+    }
+
+    /**
+     * LRU cache of the payloads last written for entities, bounded by the (approximate) size of the payloads
+     */
+    private static class LastPayloadCache {
+        private final long                               maxBytes;
+        private final LinkedHashMap<String, LastPayload> payloads = new LinkedHashMap<>(16, 0.75f, true);
+        private long                                     bytes    = 0;
+
+        LastPayloadCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized LastPayload get(String entityId) {
+            return payloads.get(entityId);
+        }
+
+        synchronized void putAll(Map<String, LastPayload> entityPayloads) {
+            for (Map.Entry<String, LastPayload> entry : entityPayloads.entrySet()) {
+                LastPayload previous = payloads.put(entry.getKey(), entry.getValue());
+
+                if (previous != null) {
+                    bytes -= previous.getSize();
+                }
+
+                bytes += entry.getValue().getSize();
+            }
+
+            Iterator<LastPayload> iter = payloads.values().iterator();
+
+            while (bytes > maxBytes && iter.hasNext()) {
+                bytes -= iter.next().getSize();
+
+                iter.remove();
+            }
+        }
+    }
 }
@@ -38,6 +38,7 @@ import java.util.TreeMap;
 @ConditionalOnAtlasProperty(property = "atlas.EntityAuditRepository.impl")
 public class InMemoryEntityAuditRepository implements EntityAuditRepository {
     private TreeMap<String, EntityAuditEvent> auditEvents = new TreeMap<>();
+    private TreeMap<String, EntityAuditEvent> auditEventsByTime = new TreeMap<>();
 
     @Override
     public void putEvents(EntityAuditEvent... events) throws AtlasException {
@@ -50,6 +51,7 @@ public class InMemoryEntityAuditRepository implements EntityAuditRepository {
             String rowKey = event.getEntityId() + (Long.MAX_VALUE - event.getTimestamp());
             event.setEventKey(rowKey);
             auditEvents.put(rowKey, event);
+            auditEventsByTime.put(getTimeKey(event.getTimestamp()) + rowKey, event);
         }
     }
 
@@ -72,6 +74,33 @@ public class InMemoryEntityAuditRepository implements EntityAuditRepository {
         return events;
     }
 
+    @Override
+    public synchronized List<EntityAuditEvent> listEvents(EntityAuditQuery query, String startKey, short maxResults)
+            throws AtlasException {
+        List<EntityAuditEvent> events = new ArrayList<>();
+        EntityAuditEvent startEvent = startKey != null ? auditEvents.get(startKey) : null;
+        String myStartKey;
+        if (startEvent != null && startEvent.getTimestamp() <= query.getToTime()) {
+            myStartKey = getTimeKey(startEvent.getTimestamp()) + startKey;
+        } else {
+            myStartKey = getTimeKey(query.getToTime());
+        }
+        for (EntityAuditEvent event : auditEventsByTime.tailMap(myStartKey).values()) {
+            if (events.size() >= maxResults || event.getTimestamp() < query.getFromTime()) {
+                break;
+            }
+            if (query.matches(event, EntityAuditQuery.getTypeName(event))) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    // sorts in decreasing order of timestamp
+    private String getTimeKey(long timestamp) {
+        return String.format("%019d", Long.MAX_VALUE - timestamp);
+    }
+
     @Override
     public long repositoryMaxSize() throws AtlasException {
         return -1;
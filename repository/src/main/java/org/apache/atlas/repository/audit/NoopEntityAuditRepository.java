@@ -51,6 +51,12 @@ public class NoopEntityAuditRepository implements EntityAuditRepository {
         return Collections.emptyList();
     }
 
+    @Override
+    public List<EntityAuditEvent> listEvents(EntityAuditQuery query, String startKey, short maxResults)
+            throws AtlasException {
+        return Collections.emptyList();
+    }
+
     @Override
     public long repositoryMaxSize() throws AtlasException {
         return -1;
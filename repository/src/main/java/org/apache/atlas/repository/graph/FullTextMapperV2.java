@@ -39,6 +39,7 @@ import javax.inject.Inject;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,6 +53,9 @@ public class FullTextMapperV2 {
     private static final String FULL_TEXT_FOLLOW_REFERENCES          = "atlas.search.fulltext.followReferences";
     private static final String FULL_TEXT_EXCLUDE_ATTRIBUTE_PROPERTY = "atlas.search.fulltext.type";
 
+    public static final String ENTITY_SEGMENT                = "entity";
+    public static final String CLASSIFICATION_SEGMENT_PREFIX = "classification:";
+
     private final EntityGraphRetriever     entityGraphRetriever;
     private final boolean                  followReferences;
     private final Map<String, Set<String>> excludeAttributesCache = new HashMap<>();
@@ -73,52 +77,123 @@ public class FullTextMapperV2 {
      * @throws AtlasBaseException
      */
     public String getIndexTextForClassifications(String guid, List<AtlasClassification> classifications) throws AtlasBaseException {
-        String                 ret     = null;
-        AtlasEntityWithExtInfo entityWithExtInfo  = getAndCacheEntity(guid);
+        return getIndexText(getIndexTextSegmentsForClassifications(guid, classifications));
+    }
+
+    public String getIndexTextForEntity(String guid) throws AtlasBaseException {
+        return getIndexText(getIndexTextSegmentsForEntity(guid));
+    }
+
+    /**
+     * Full text of the entity with given GUID, split by source: the entity attributes (including the referenced
+     * entities, when followReferences is enabled) and each of its classifications.
+     * @param guid Entity guid
+     * @return full text segments, keyed by segment name, in index text order; null if the entity doesn't exist
+     * @throws AtlasBaseException
+     */
+    public Map<String, String> getIndexTextSegmentsForEntity(String guid) throws AtlasBaseException {
+        Map<String, String>    ret    = null;
+        AtlasEntityWithExtInfo entity = getAndCacheEntity(guid);
+
+        if (entity != null) {
+            ret = new LinkedHashMap<>();
 
-        if (entityWithExtInfo != null) {
             StringBuilder sb = new StringBuilder();
 
-            if (CollectionUtils.isNotEmpty(classifications)) {
-                for (AtlasClassification classification : classifications) {
-                    sb.append(classification.getTypeName()).append(FULL_TEXT_DELIMITER);
+            map(entity.getEntity(), entity, sb, new HashSet<String>(), false);
 
-                    Set<String> excludeAttributes = getExcludeAttributesForIndexText(classification.getTypeName());
+            ret.put(ENTITY_SEGMENT, sb.toString());
 
-                    mapAttributes(classification.getAttributes(), entityWithExtInfo, sb, new HashSet<String>(), excludeAttributes);
-                }
-            }
+            mapClassifications(guid, entity.getEntity().getClassifications(), entity, ret);
+        }
 
-            ret = sb.toString();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("FullTextMapperV2.getIndexTextSegmentsForEntity({}): {}", guid, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Full text segments of the given classifications of the entity with given GUID. The entity is read only when
+     * references are followed, as classification attributes can refer to other entities.
+     * @param guid Entity guid
+     * @param classifications classifications of the entity
+     * @return full text segments, keyed by segment name; null if the entity doesn't exist
+     * @throws AtlasBaseException
+     */
+    public Map<String, String> getIndexTextSegmentsForClassifications(String guid, List<AtlasClassification> classifications) throws AtlasBaseException {
+        Map<String, String> ret           = null;
+        AtlasEntityExtInfo  entityExtInfo = followReferences ? getAndCacheEntity(guid) : new AtlasEntityExtInfo();
+
+        if (entityExtInfo != null) {
+            ret = new LinkedHashMap<>();
+
+            mapClassifications(guid, classifications, entityExtInfo, ret);
         }
 
         if (LOG.isDebugEnabled()) {
-            LOG.debug("FullTextMapperV2.map({}): {}", guid, ret);
+            LOG.debug("FullTextMapperV2.getIndexTextSegmentsForClassifications({}): {}", guid, ret);
         }
 
         return ret;
     }
 
-    public String getIndexTextForEntity(String guid) throws AtlasBaseException {
-        String                 ret     = null;
-        AtlasEntityWithExtInfo entity  = getAndCacheEntity(guid);
+    public static String getClassificationSegmentName(String classificationName) {
+        return CLASSIFICATION_SEGMENT_PREFIX + classificationName;
+    }
 
-        if (entity != null) {
+    /**
+     * @return the full text made of the given segments; null if segments is null
+     */
+    public static String getIndexText(Map<String, String> segments) {
+        String ret = null;
+
+        if (segments != null) {
             StringBuilder sb = new StringBuilder();
 
-            map(entity.getEntity(), entity, sb, new HashSet<String>());
+            for (String segment : segments.values()) {
+                if (segment != null) {
+                    sb.append(segment);
+                }
+            }
 
             ret = sb.toString();
         }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("FullTextMapperV2.map({}): {}", guid, ret);
+        return ret;
+    }
+
+    // each classification segment is mapped on its own, so that it can be re-mapped without the rest of the entity
+    private void mapClassifications(String guid, List<AtlasClassification> classifications, AtlasEntityExtInfo entityExtInfo,
+                                    Map<String, String> segments) throws AtlasBaseException {
+        if (CollectionUtils.isEmpty(classifications)) {
+            return;
         }
 
-        return ret;
+        for (AtlasClassification classification : classifications) {
+            StringBuilder sb             = new StringBuilder();
+            Set<String>   processedGuids = new HashSet<>();
+
+            processedGuids.add(guid);
+
+            mapClassification(classification, entityExtInfo, sb, processedGuids);
+
+            segments.put(getClassificationSegmentName(classification.getTypeName()), sb.toString());
+        }
     }
 
-    private void map(AtlasEntity entity, AtlasEntityExtInfo entityExtInfo, StringBuilder sb, Set<String> processedGuids) throws AtlasBaseException {
+    private void mapClassification(AtlasClassification classification, AtlasEntityExtInfo entityExtInfo, StringBuilder sb,
+                                   Set<String> processedGuids) throws AtlasBaseException {
+        sb.append(classification.getTypeName()).append(FULL_TEXT_DELIMITER);
+
+        Set<String> excludeAttributes = getExcludeAttributesForIndexText(classification.getTypeName());
+
+        mapAttributes(classification.getAttributes(), entityExtInfo, sb, processedGuids, excludeAttributes);
+    }
+
+    private void map(AtlasEntity entity, AtlasEntityExtInfo entityExtInfo, StringBuilder sb, Set<String> processedGuids,
+                     boolean includeClassifications) throws AtlasBaseException {
         if (entity == null || processedGuids.contains(entity.getGuid())) {
             return;
         }
@@ -132,13 +207,9 @@ public class FullTextMapperV2 {
         mapAttributes(entity.getAttributes(), entityExtInfo, sb, processedGuids, excludeAttributes);
 
         List<AtlasClassification> classifications = entity.getClassifications();
-        if (CollectionUtils.isNotEmpty(classifications)) {
+        if (includeClassifications && CollectionUtils.isNotEmpty(classifications)) {
             for (AtlasClassification classification : classifications) {
-                sb.append(classification.getTypeName()).append(FULL_TEXT_DELIMITER);
-
-                Set<String> excludeClassificationAttributes = getExcludeAttributesForIndexText(classification.getTypeName());
-
-                mapAttributes(classification.getAttributes(), entityExtInfo, sb, processedGuids, excludeClassificationAttributes);
+                mapClassification(classification, entityExtInfo, sb, processedGuids);
             }
         }
     }
@@ -170,7 +241,7 @@ public class FullTextMapperV2 {
                 AtlasEntity   entity   = entityExtInfo.getEntity(objectId.getGuid());
 
                 if (entity != null) {
-                    map(entity, entityExtInfo, sb, processedGuids);
+                    map(entity, entityExtInfo, sb, processedGuids, true);
                 }
             }
         } else if (value instanceof List) {
@@ -24,6 +24,7 @@ import org.apache.atlas.CreateUpdateEntitiesResult;
 import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.GuidMapping;
 import org.apache.atlas.model.legacy.EntityResult;
 import org.apache.atlas.repository.Constants;
@@ -312,7 +313,7 @@ public class GraphBackedMetadataRepository implements MetadataRepository {
             LOG.debug("Adding a new trait={} for entities={}", traitInstance.getTypeName(), entityGuids);
         }
 
-        GraphTransactionInterceptor.lockObjectAndReleasePostCommit(entityGuids);
+        lockObjects(entityGuids);
         for (String entityGuid : entityGuids) {
             addTraitImpl(entityGuid, traitInstance);
         }
@@ -331,7 +332,7 @@ public class GraphBackedMetadataRepository implements MetadataRepository {
         Preconditions.checkNotNull(guid, "guid cannot be null");
         Preconditions.checkNotNull(traitInstance, "Trait instance cannot be null");
 
-        GraphTransactionInterceptor.lockObjectAndReleasePostCommit(guid);
+        lockObjects(guid);
         addTraitImpl(guid, traitInstance);
     }
 
@@ -376,7 +377,7 @@ public class GraphBackedMetadataRepository implements MetadataRepository {
     @GraphTransaction
     public void deleteTrait(String guid, String traitNameToBeDeleted) throws TraitNotFoundException, EntityNotFoundException, RepositoryException {
         LOG.debug("Deleting trait={} from entity={}", traitNameToBeDeleted, guid);
-        GraphTransactionInterceptor.lockObjectAndReleasePostCommit(guid);
+        lockObjects(guid);
 
         AtlasVertex instanceVertex = graphHelper.getVertexForGUID(guid);
 
@@ -509,4 +510,20 @@ public class GraphBackedMetadataRepository implements MetadataRepository {
     public AtlasGraph getGraph() throws RepositoryException {
         return atlasGraph;
     }
+
+    private void lockObjects(String guid) throws RepositoryException {
+        try {
+            GraphTransactionInterceptor.lockObjectAndReleasePostCommit(guid);
+        } catch (AtlasBaseException e) {
+            throw new RepositoryException(e);
+        }
+    }
+
+    private void lockObjects(List<String> guids) throws RepositoryException {
+        try {
+            GraphTransactionInterceptor.lockObjectAndReleasePostCommit(guids);
+        } catch (AtlasBaseException e) {
+            throw new RepositoryException(e);
+        }
+    }
 }
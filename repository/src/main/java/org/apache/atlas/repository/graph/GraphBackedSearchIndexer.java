@@ -68,6 +68,7 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -102,6 +103,9 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
     private boolean     recomputeIndexedKeys = true;
     private Set<String> vertexIndexKeys      = new HashSet<>();
 
+    // properties of existing vertices that got new indexes in the current typedef change; type name by property name
+    private final Map<String, String> reindexProperties = new HashMap<>();
+
     @Inject
     public GraphBackedSearchIndexer(AtlasTypeRegistry typeRegistry) throws AtlasException {
         this(new AtlasGraphProvider(), ApplicationProperties.get(), typeRegistry);
@@ -321,10 +325,17 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
 
             if (isMapType || isArrayType || isClassificationType(atlasType) || isEntityType(atlasType)) {
                 LOG.warn("Ignoring non-indexable attribute {}", attribTypeName);
-            } else if (isBuiltInType) {
-                createIndexes(management, propertyName, getPrimitiveClass(attribTypeName), isUnique, cardinality, false, isIndexable);
-            } else if (isEnumType(atlasType)) {
-                createIndexes(management, propertyName, String.class, isUnique, cardinality, false, isIndexable);
+            } else if (isBuiltInType || isEnumType(atlasType)) {
+                // vertices written before the index was added have no entries in it
+                boolean needsReindex = isIndexable && management.getPropertyKey(propertyName) != null &&
+                        management.getGraphIndex(propertyName + Constants.ENTITY_TYPE_PROPERTY_KEY) == null;
+
+                createIndexes(management, propertyName, isBuiltInType ? getPrimitiveClass(attribTypeName) : String.class,
+                        isUnique, cardinality, false, isIndexable);
+
+                if (needsReindex) {
+                    reindexProperties.put(propertyName, typeName);
+                }
             } else if (isStructType(atlasType)) {
                 AtlasStructDef structDef = typeRegistry.getStructDefByName(attribTypeName);
                 updateIndexForTypeDef(management, structDef);
@@ -664,6 +675,7 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
             LOG.debug("Processing changed typedefs {}", changedTypeDefs);
         }
         AtlasGraphManagement management = null;
+        reindexProperties.clear();
         try {
             management = provider.get().getManagementSystem();
 
@@ -690,6 +702,8 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
 
             //Commit indexes
             commit(management);
+
+            addReindexTasks();
         } catch (RepositoryException | IndexException e) {
             LOG.error("Failed to update indexes for changed typedefs", e);
             attemptRollback(changedTypeDefs, management);
@@ -697,6 +711,29 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
 
     }
 
+    private void addReindexTasks() {
+        if (reindexProperties.isEmpty()) {
+            return;
+        }
+
+        AtlasGraph graph = null;
+        try {
+            graph = provider.get();
+
+            ReindexService.addTasks(graph, reindexProperties);
+
+            graph.commit();
+        } catch (Throwable t) {
+            LOG.error("Failed to add re-index tasks for {}", reindexProperties.keySet(), t);
+
+            if (graph != null) {
+                graph.rollback();
+            }
+        } finally {
+            reindexProperties.clear();
+        }
+    }
+
     private void cleanupIndices(AtlasGraphManagement management, AtlasBaseTypeDef typeDef) {
         Preconditions.checkNotNull(typeDef, "Cannot process null typedef");
         if (LOG.isDebugEnabled()) {
@@ -215,16 +215,10 @@ public final class GraphHelper {
                     LOG.debug("Running edge creation attempt {}", numRetries);
                 }
 
-                Iterator<AtlasEdge> edges = getAdjacentEdgesByLabel(inVertex, AtlasEdgeDirection.IN, edgeLabel);
-
-                while (edges.hasNext()) {
-                    AtlasEdge edge = edges.next();
-                    if (edge.getOutVertex().equals(outVertex)) {
-                        Id.EntityState edgeState = getState(edge);
-                        if (edgeState == null || edgeState == Id.EntityState.ACTIVE) {
-                            return edge;
-                        }
-                    }
+                AtlasEdge edge = getEdgeBetweenVertices(outVertex, inVertex, edgeLabel);
+
+                if (edge != null) {
+                    return edge;
                 }
 
                 return addEdge(outVertex, inVertex, edgeLabel);
@@ -248,6 +242,44 @@ public final class GraphHelper {
         return null;
     }
 
+    /**
+     * Returns the active edge with the given label from outVertex to inVertex, or null if there is none.
+     * The edges of the two vertices are scanned alternately, stopping when either end runs out of edges. The number
+     * of edges compared depends on the total degree of the vertices, not on the number of edges with the label: the
+     * graph can read the other edges of a vertex as well to find those with the label.
+     */
+    public AtlasEdge getEdgeBetweenVertices(AtlasVertex outVertex, AtlasVertex inVertex, String edgeLabel) {
+        Iterator<AtlasEdge> outEdges = getOutGoingEdgesByLabel(outVertex, edgeLabel);
+        Iterator<AtlasEdge> inEdges  = getIncomingEdgesByLabel(inVertex, edgeLabel);
+
+        if (outEdges == null || inEdges == null) {
+            return null;
+        }
+
+        // once either iterator is exhausted, every edge between the two vertices has been looked at
+        while (outEdges.hasNext() && inEdges.hasNext()) {
+            AtlasEdge edge = outEdges.next();
+
+            if (isActiveEdge(edge) && inVertex.equals(edge.getInVertex())) {
+                return edge;
+            }
+
+            edge = inEdges.next();
+
+            if (isActiveEdge(edge) && outVertex.equals(edge.getOutVertex())) {
+                return edge;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isActiveEdge(AtlasEdge edge) {
+        Id.EntityState edgeState = getState(edge);
+
+        return edgeState == null || edgeState == Id.EntityState.ACTIVE;
+    }
+
     public AtlasEdge getEdgeByEdgeId(AtlasVertex outVertex, String edgeLabel, String edgeId) {
         if (edgeId == null) {
             return null;
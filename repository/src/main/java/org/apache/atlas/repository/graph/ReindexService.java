@@ -0,0 +1,513 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graph;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphManagement;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasClassificationType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.configuration.Configuration;
+import org.codehaus.jackson.annotate.JsonAutoDetect;
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+import org.codehaus.jackson.map.annotate.JsonSerialize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.codehaus.jackson.annotate.JsonAutoDetect.Visibility.NONE;
+import static org.codehaus.jackson.annotate.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * Rewrites the index entries of a property for the existing vertices of a type, after an index has been added for
+ * the property by a typedef update.
+ *
+ * Each re-index task is kept in a vertex of the graph, along with its progress. Tasks are run one at a time from a
+ * background thread, on the active instance only: the vertices of the type and its sub-types are visited in the
+ * order of their ids, in batches of batchSize vertices; the id of the last vertex of a batch is saved in the task
+ * vertex after the batch, so that an interrupted task resumes after it. The number of vertices visited per second is
+ * limited to maxVerticesPerSec.
+ *
+ * Once all vertices are visited, the indexes on the property are enabled for queries.
+ *
+ * The property of each vertex is read and written back in a transaction of its own, so that an update of the property
+ * committed by a user request meanwhile is not overwritten with the value read earlier. Vertices modified after the
+ * task started are visited as well: the graph writes index entries only for the properties changed by an update.
+ */
+@Component
+@Order(5)
+public class ReindexService implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(ReindexService.class);
+
+    public static final String TASK_VERTEX_TYPE = "reindexTask";
+
+    public static final String TASK_TYPE_NAME_PROPERTY_KEY     = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.typeName";
+    public static final String TASK_PROPERTY_NAME_PROPERTY_KEY = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.propertyName";
+    public static final String TASK_STATUS_PROPERTY_KEY        = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.status";
+    public static final String TASK_PROCESSED_PROPERTY_KEY     = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.processedCount";
+    public static final String TASK_TOTAL_PROPERTY_KEY         = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.totalCount";
+    public static final String TASK_LAST_ID_PROPERTY_KEY       = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.lastVertexId";
+    public static final String TASK_ERROR_PROPERTY_KEY         = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "reindex.lastError";
+
+    public enum Status { PENDING, COMPLETE }
+
+    private static final Comparator<String> VERTEX_ID_COMPARATOR = new Comparator<String>() {
+        @Override
+        public int compare(String id1, String id2) {
+            return compareIds(id1, id2);
+        }
+    };
+
+    private final AtlasGraph        graph;
+    private final AtlasTypeRegistry typeRegistry;
+    private final Configuration     configuration;
+    private final boolean           isEnabled;
+    private final int               batchSize;
+    private final int               maxVerticesPerSec;
+    private final long              pollIntervalMs;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean         isActive = false;
+
+    @Inject
+    public ReindexService(AtlasGraph graph, AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(graph, typeRegistry, ApplicationProperties.get(), AtlasConfiguration.REINDEX_ENABLED.getBoolean(),
+             AtlasConfiguration.REINDEX_BATCH_SIZE.getInt(), AtlasConfiguration.REINDEX_MAX_VERTICES_PER_SEC.getInt(),
+             AtlasConfiguration.REINDEX_POLL_INTERVAL_MS.getLong());
+    }
+
+    @VisibleForTesting
+    ReindexService(AtlasGraph graph, AtlasTypeRegistry typeRegistry, Configuration configuration, boolean isEnabled,
+                   int batchSize, int maxVerticesPerSec, long pollIntervalMs) {
+        this.graph             = graph;
+        this.typeRegistry      = typeRegistry;
+        this.configuration     = configuration;
+        this.isEnabled         = isEnabled;
+        this.batchSize         = Math.max(batchSize, 1);
+        this.maxVerticesPerSec = maxVerticesPerSec;
+        this.pollIntervalMs    = Math.max(pollIntervalMs, 1000);
+    }
+
+    /**
+     * Adds re-index tasks for the given properties; a task already pending for a property is left as is.
+     * The caller is expected to commit the graph transaction.
+     *
+     * @param propertyTypes type name of the properties, by property name
+     */
+    public static void addTasks(AtlasGraph graph, Map<String, String> propertyTypes) {
+        for (Map.Entry<String, String> entry : propertyTypes.entrySet()) {
+            String      propertyName = entry.getKey();
+            String      typeName     = entry.getValue();
+            AtlasVertex taskVertex   = findTaskVertex(graph, typeName, propertyName);
+
+            if (taskVertex == null) {
+                taskVertex = graph.addVertex();
+
+                taskVertex.setProperty(Constants.VERTEX_TYPE_PROPERTY_KEY, TASK_VERTEX_TYPE);
+                taskVertex.setProperty(TASK_TYPE_NAME_PROPERTY_KEY, typeName);
+                taskVertex.setProperty(TASK_PROPERTY_NAME_PROPERTY_KEY, propertyName);
+            } else if (Status.PENDING.name().equals(taskVertex.getProperty(TASK_STATUS_PROPERTY_KEY, String.class))) {
+                continue;
+            }
+
+            taskVertex.setProperty(TASK_STATUS_PROPERTY_KEY, Status.PENDING.name());
+            taskVertex.setProperty(TASK_PROCESSED_PROPERTY_KEY, 0L);
+            taskVertex.setProperty(TASK_TOTAL_PROPERTY_KEY, -1L);
+            taskVertex.removeProperty(TASK_LAST_ID_PROPERTY_KEY);
+            taskVertex.removeProperty(TASK_ERROR_PROPERTY_KEY);
+
+            LOG.info("Added re-index task for property {} of type {}", propertyName, typeName);
+        }
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            startWorker();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopWorker();
+    }
+
+    @Override
+    public void instanceIsActive() {
+        LOG.info("Reacting to active state: starting re-index tasks");
+
+        startWorker();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        LOG.info("Reacting to passive state: stopping re-index tasks");
+
+        stopWorker();
+    }
+
+    /**
+     * @return re-index tasks with their progress
+     */
+    @GraphTransaction
+    public List<ReindexTask> getTasks() {
+        List<ReindexTask> ret = new ArrayList<>();
+
+        for (AtlasVertex taskVertex : getTaskVertices(null)) {
+            ret.add(toTask(taskVertex));
+        }
+
+        return ret;
+    }
+
+    private synchronized void startWorker() {
+        if (!isEnabled || executor != null) {
+            return;
+        }
+
+        isActive = true;
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-reindex-%d")
+                                                                                         .setDaemon(true).build());
+
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                runPendingTasks();
+            }
+        }, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopWorker() {
+        isActive = false;
+
+        if (executor != null) {
+            executor.shutdownNow();
+
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOG.warn("Timed out waiting for the re-index task to stop");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            executor = null;
+        }
+    }
+
+    @VisibleForTesting
+    void runPendingTasks() {
+        try {
+            List<String> taskIds = new ArrayList<>();
+
+            for (AtlasVertex taskVertex : getTaskVertices(Status.PENDING)) {
+                taskIds.add(taskVertex.getIdForDisplay());
+            }
+
+            graph.commit();
+
+            for (String taskId : taskIds) {
+                if (!isActive) {
+                    break;
+                }
+
+                runTask(taskId);
+            }
+        } catch (Throwable t) {
+            LOG.error("Failed to run re-index tasks", t);
+
+            graph.rollback();
+        }
+    }
+
+    private void runTask(String taskId) {
+        AtlasVertex taskVertex   = graph.getVertex(taskId);
+        String      typeName     = taskVertex.getProperty(TASK_TYPE_NAME_PROPERTY_KEY, String.class);
+        String      propertyName = taskVertex.getProperty(TASK_PROPERTY_NAME_PROPERTY_KEY, String.class);
+        String      lastId       = taskVertex.getProperty(TASK_LAST_ID_PROPERTY_KEY, String.class);
+        Long        processed    = taskVertex.getProperty(TASK_PROCESSED_PROPERTY_KEY, Long.class);
+        long        count        = processed != null ? processed : 0;
+
+        LOG.info("Re-indexing property {} of type {}, starting after vertex {}", propertyName, typeName, lastId);
+
+        try {
+            List<String> vertexIds = getVertexIds(typeName, lastId);
+
+            taskVertex = graph.getVertex(taskId);
+            taskVertex.setProperty(TASK_TOTAL_PROPERTY_KEY, count + vertexIds.size());
+            graph.commit();
+
+            RateLimiter rateLimiter = maxVerticesPerSec > 0 ? RateLimiter.create(maxVerticesPerSec) : null;
+            boolean     isMulti     = graph.isMultiProperty(propertyName);
+
+            for (int i = 0; i < vertexIds.size(); i += batchSize) {
+                if (!isActive || Thread.currentThread().isInterrupted()) {
+                    LOG.info("Re-index of property {} of type {} stopped after {} vertices", propertyName, typeName, count);
+
+                    return;
+                }
+
+                List<String> batch = vertexIds.subList(i, Math.min(i + batchSize, vertexIds.size()));
+
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(batch.size());
+                }
+
+                for (String vertexId : batch) {
+                    AtlasVertex vertex = graph.getVertex(vertexId);
+
+                    if (vertex != null) {
+                        reindexProperty(vertex, propertyName, isMulti);
+                    }
+
+                    graph.commit();
+                }
+
+                count += batch.size();
+
+                // checkpoint after the batch: vertices re-indexed again after a restart are rewritten with the same values
+                taskVertex = graph.getVertex(taskId);
+                taskVertex.setProperty(TASK_LAST_ID_PROPERTY_KEY, batch.get(batch.size() - 1));
+                taskVertex.setProperty(TASK_PROCESSED_PROPERTY_KEY, count);
+                graph.commit();
+            }
+
+            if (!enableIndexes(propertyName)) {
+                LOG.info("Re-indexed property {} of type {}; index to be enabled once registered", propertyName, typeName);
+
+                return;
+            }
+
+            taskVertex = graph.getVertex(taskId);
+            taskVertex.setProperty(TASK_STATUS_PROPERTY_KEY, Status.COMPLETE.name());
+            graph.commit();
+
+            LOG.info("Re-indexed property {} of type {} on {} vertices", propertyName, typeName, count);
+        } catch (Throwable t) {
+            LOG.error("Failed to re-index property {} of type {}; will be retried", propertyName, typeName, t);
+
+            graph.rollback();
+
+            taskVertex = graph.getVertex(taskId);
+            taskVertex.setProperty(TASK_ERROR_PROPERTY_KEY, String.valueOf(t.getMessage()));
+            graph.commit();
+        }
+    }
+
+    /**
+     * @return ids of the vertices of the type and its sub-types after the given id, in increasing order
+     */
+    private List<String> getVertexIds(String typeName, String afterId) {
+        Set<String>  typeNames = getTypeAndSubTypeNames(typeName);
+        List<String> ret       = new ArrayList<>();
+
+        Iterator<AtlasVertex> vertices = graph.query().in(Constants.ENTITY_TYPE_PROPERTY_KEY, typeNames).vertices().iterator();
+
+        while (vertices.hasNext()) {
+            String vertexId = vertices.next().getIdForDisplay();
+
+            if (afterId == null || compareIds(vertexId, afterId) > 0) {
+                ret.add(vertexId);
+            }
+        }
+
+        graph.commit();
+
+        Collections.sort(ret, VERTEX_ID_COMPARATOR);
+
+        return ret;
+    }
+
+    private Set<String> getTypeAndSubTypeNames(String typeName) {
+        Set<String>             ret                = new HashSet<>();
+        AtlasEntityType         entityType         = typeRegistry.getEntityTypeByName(typeName);
+        AtlasClassificationType classificationType = typeRegistry.getClassificationTypeByName(typeName);
+
+        ret.add(typeName);
+
+        if (entityType != null) {
+            ret.addAll(entityType.getAllSubTypes());
+        } else if (classificationType != null) {
+            ret.addAll(classificationType.getAllSubTypes());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Indexes created on a property already in use are not used for queries until they are enabled, once they have
+     * entries for all vertices. Registering an index completes after the commit: the task is kept pending until then.
+     */
+    private boolean enableIndexes(String propertyName) {
+        AtlasGraphManagement management = graph.getManagementSystem();
+
+        try {
+            boolean ret = management.enableIndexes(propertyName);
+
+            management.commit();
+
+            return ret;
+        } catch (RuntimeException e) {
+            management.rollback();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Removes and sets again the values of the property, so that the graph writes its index entries.
+     */
+    private void reindexProperty(AtlasVertex vertex, String propertyName, boolean isMulti) {
+        if (isMulti) {
+            Collection<Object> values = new ArrayList<>(vertex.getPropertyValues(propertyName, Object.class));
+
+            if (!values.isEmpty()) {
+                vertex.removeProperty(propertyName);
+
+                for (Object value : values) {
+                    vertex.addProperty(propertyName, value);
+                }
+            }
+        } else {
+            Object value = vertex.getProperty(propertyName, Object.class);
+
+            if (value != null) {
+                vertex.removeProperty(propertyName);
+                vertex.setProperty(propertyName, value);
+            }
+        }
+    }
+
+    private Iterable<AtlasVertex> getTaskVertices(Status status) {
+        if (status == null) {
+            return graph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, TASK_VERTEX_TYPE).vertices();
+        }
+
+        return graph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, TASK_VERTEX_TYPE)
+                            .has(TASK_STATUS_PROPERTY_KEY, status.name()).vertices();
+    }
+
+    private static AtlasVertex findTaskVertex(AtlasGraph graph, String typeName, String propertyName) {
+        Iterator<AtlasVertex> vertices = graph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, TASK_VERTEX_TYPE)
+                                                      .has(TASK_TYPE_NAME_PROPERTY_KEY, typeName)
+                                                      .has(TASK_PROPERTY_NAME_PROPERTY_KEY, propertyName)
+                                                      .vertices().iterator();
+
+        return vertices.hasNext() ? vertices.next() : null;
+    }
+
+    private static ReindexTask toTask(AtlasVertex taskVertex) {
+        ReindexTask ret = new ReindexTask();
+
+        ret.setTypeName(taskVertex.getProperty(TASK_TYPE_NAME_PROPERTY_KEY, String.class));
+        ret.setPropertyName(taskVertex.getProperty(TASK_PROPERTY_NAME_PROPERTY_KEY, String.class));
+        ret.setStatus(taskVertex.getProperty(TASK_STATUS_PROPERTY_KEY, String.class));
+        ret.setProcessedCount(taskVertex.getProperty(TASK_PROCESSED_PROPERTY_KEY, Long.class));
+        ret.setTotalCount(taskVertex.getProperty(TASK_TOTAL_PROPERTY_KEY, Long.class));
+        ret.setLastVertexId(taskVertex.getProperty(TASK_LAST_ID_PROPERTY_KEY, String.class));
+        ret.setLastError(taskVertex.getProperty(TASK_ERROR_PROPERTY_KEY, String.class));
+
+        return ret;
+    }
+
+    // vertex ids are numeric in Titan; other ids are compared as strings
+    private static int compareIds(String id1, String id2) {
+        try {
+            return Long.compare(Long.parseLong(id1), Long.parseLong(id2));
+        } catch (NumberFormatException e) {
+            return id1.compareTo(id2);
+        }
+    }
+
+    /**
+     * Re-index task and its progress; totalCount is -1 until the vertices to visit have been listed.
+     */
+    @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+    @JsonSerialize(include=JsonSerialize.Inclusion.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown=true)
+    public static class ReindexTask {
+        private String typeName;
+        private String propertyName;
+        private String status;
+        private Long   processedCount;
+        private Long   totalCount;
+        private String lastVertexId;
+        private String lastError;
+
+        public String getTypeName() { return typeName; }
+
+        public void setTypeName(String typeName) { this.typeName = typeName; }
+
+        public String getPropertyName() { return propertyName; }
+
+        public void setPropertyName(String propertyName) { this.propertyName = propertyName; }
+
+        public String getStatus() { return status; }
+
+        public void setStatus(String status) { this.status = status; }
+
+        public Long getProcessedCount() { return processedCount; }
+
+        public void setProcessedCount(Long processedCount) { this.processedCount = processedCount; }
+
+        public Long getTotalCount() { return totalCount; }
+
+        public void setTotalCount(Long totalCount) { this.totalCount = totalCount; }
+
+        public String getLastVertexId() { return lastVertexId; }
+
+        public void setLastVertexId(String lastVertexId) { this.lastVertexId = lastVertexId; }
+
+        public String getLastError() { return lastError; }
+
+        public void setLastError(String lastError) { this.lastError = lastError; }
+
+        @Override
+        public String toString() {
+            return "ReindexTask{typeName=" + typeName + ", propertyName=" + propertyName + ", status=" + status +
+                   ", processedCount=" + processedCount + ", totalCount=" + totalCount + ", lastVertexId=" + lastVertexId + "}";
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
+import org.apache.atlas.type.AtlasType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches and serializes the entities of an export using multiple worker threads, and writes them to the sink in a
+ * single writer thread - in the order they are added.
+ *
+ * The traversal of an export (in ExportService) stays on the request thread; it prefetches the entities it is about to
+ * process, and hands over the entities to be written. Both are bounded, so that only a few entities are held in
+ * memory at any time.
+ */
+public class EntityExportPipeline implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityExportPipeline.class);
+
+    private static final Future<EntityJson> END_OF_STREAM                      = Futures.immediateFuture(null);
+    private static final long               WRITER_TERMINATION_TIMEOUT_SECONDS = 30;
+
+    private final EntityGraphRetriever                        entityGraphRetriever;
+    private final AtlasGraph                                  atlasGraph;
+    private final ZipSink                                     sink;
+    private final int                                         workerCount;
+    private final Map<String, Future<AtlasEntityWithExtInfo>> prefetched = new LinkedHashMap<>();
+    private final BlockingQueue<Future<EntityJson>>           writeQueue;
+    private final ExecutorService                             workerExecutor;
+    private final ExecutorService                             writerExecutor;
+    private final Future<?>                                   writerFuture;
+    private volatile Throwable                                writeError;
+
+    public EntityExportPipeline(EntityGraphRetriever entityGraphRetriever, AtlasGraph atlasGraph, ZipSink sink, int workerCount) {
+        this.entityGraphRetriever = entityGraphRetriever;
+        this.atlasGraph           = atlasGraph;
+        this.sink                 = sink;
+        this.workerCount          = Math.max(workerCount, 1);
+        this.writeQueue           = new ArrayBlockingQueue<>(this.workerCount * 4);
+        this.workerExecutor       = Executors.newFixedThreadPool(this.workerCount, new ThreadFactoryBuilder().setNameFormat("atlas-export-worker-%d").setDaemon(true).build());
+        this.writerExecutor       = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-export-writer-%d").setDaemon(true).build());
+        this.writerFuture         = writerExecutor.submit(new EntityWriter());
+    }
+
+    /**
+     * @return maximum number of entities to prefetch ahead of the traversal
+     */
+    public int getPrefetchSize() {
+        return workerCount * 2;
+    }
+
+    public void prefetch(final String guid) {
+        if (prefetched.containsKey(guid) || prefetched.size() >= getPrefetchSize()) {
+            return;
+        }
+
+        prefetched.put(guid, workerExecutor.submit(new Callable<AtlasEntityWithExtInfo>() {
+            @Override
+            public AtlasEntityWithExtInfo call() throws Exception {
+                try {
+                    return entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+                } finally {
+                    // release the read transaction of the worker thread
+                    atlasGraph.rollback();
+                }
+            }
+        }));
+    }
+
+    /**
+     * Returns the entity with the given guid - prefetched, if prefetch() was called for the guid earlier.
+     *
+     * Entities that could not be prefetched are fetched in the calling thread, whose transaction might see changes not
+     * visible to the workers.
+     */
+    public AtlasEntityWithExtInfo getEntity(String guid) throws AtlasBaseException {
+        Future<AtlasEntityWithExtInfo> future = prefetched.remove(guid);
+
+        if (future != null) {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("prefetch of entity {} failed; fetching again", guid, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException("export interrupted", e);
+            }
+        }
+
+        return entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+    }
+
+    /**
+     * Drops the prefetched entity with the given guid, if it was not retrieved with getEntity().
+     */
+    public void discard(String guid) {
+        Future<AtlasEntityWithExtInfo> future = prefetched.remove(guid);
+
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Queues the entity to be serialized and written to the sink.
+     */
+    public void add(final AtlasEntityWithExtInfo entityWithExtInfo) throws AtlasBaseException {
+        checkWriteError();
+
+        Future<EntityJson> future = workerExecutor.submit(new Callable<EntityJson>() {
+            @Override
+            public EntityJson call() {
+                return new EntityJson(entityWithExtInfo.getEntity().getGuid(), AtlasType.toJson(entityWithExtInfo));
+            }
+        });
+
+        try {
+            writeQueue.put(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException("export interrupted", e);
+        }
+    }
+
+    /**
+     * Waits for all added entities to be written to the sink.
+     */
+    public void finish() throws AtlasBaseException {
+        try {
+            writeQueue.put(END_OF_STREAM);
+
+            writerFuture.get();
+        } catch (ExecutionException e) {
+            throw new AtlasBaseException("Error writing exported entities", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException("export interrupted", e);
+        }
+
+        checkWriteError();
+    }
+
+    @Override
+    public void close() {
+        workerExecutor.shutdownNow();
+        writerExecutor.shutdownNow();
+
+        prefetched.clear();
+
+        // an entity being written must not overlap with the caller closing the sink
+        try {
+            if (!writerExecutor.awaitTermination(WRITER_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("export writer did not stop in {} seconds", WRITER_TERMINATION_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkWriteError() throws AtlasBaseException {
+        if (writeError != null) {
+            throw new AtlasBaseException("Error writing exported entities", writeError);
+        }
+    }
+
+    private class EntityWriter implements Runnable {
+        @Override
+        public void run() {
+            while (true) {
+                Future<EntityJson> future;
+
+                try {
+                    future = writeQueue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    return;
+                }
+
+                if (future == END_OF_STREAM) {
+                    break;
+                }
+
+                // after an error, keep draining the queue so that the traversal doesn't block on add()
+                if (writeError != null) {
+                    continue;
+                }
+
+                try {
+                    EntityJson entityJson = future.get();
+
+                    sink.addEntityJson(entityJson.guid, entityJson.json);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    return;
+                } catch (Throwable t) {
+                    LOG.error("error writing exported entity", t);
+
+                    writeError = t instanceof ExecutionException ? t.getCause() : t;
+                }
+            }
+        }
+    }
+
+    private static class EntityJson {
+        final String guid;
+        final String json;
+
+        EntityJson(String guid, String json) {
+            this.guid = guid;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.impexp.AtlasImportResult;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasStruct;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v1.AtlasEntityStreamForImport;
+import org.apache.atlas.repository.store.graph.v1.EntityImportStream;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports the entities of an import stream using multiple writer threads.
+ *
+ * Entities are read and transformed by a reader thread, ahead of the writers. Consecutive entities (in creation order)
+ * are grouped into a wave, until an entity refers to (or writes) an entity written earlier in the same wave; the
+ * entities of a wave are written in batches, in parallel, each batch in its own transaction. A wave is started only
+ * after the previous wave is committed, so that the entities referred to from a wave are already in the store.
+ * References to entities committed in earlier waves, like the database shared by all tables, don't end a wave.
+ *
+ * Batches that fail are retried one entity at a time after all waves are written, with the same residual-list
+ * handling as AtlasEntityStore.bulkImport().
+ */
+public class EntityImportPipeline {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityImportPipeline.class);
+
+    private static final AtlasEntityWithExtInfo END_OF_STREAM = new AtlasEntityWithExtInfo();
+
+    private final AtlasEntityStore entityStore;
+    private final int              workerCount;
+    private final int              batchSize;
+
+    public EntityImportPipeline(AtlasEntityStore entityStore, int workerCount, int batchSize) {
+        this.entityStore = entityStore;
+        this.workerCount = Math.max(workerCount, 1);
+        this.batchSize   = Math.max(batchSize, 1);
+    }
+
+    public void run(EntityImportStream entityStream, AtlasImportResult importResult) throws AtlasBaseException {
+        if (entityStream == null || !entityStream.hasNext()) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "no entities to create/update.");
+        }
+
+        LOG.info("==> import pipeline(workers={}, batchSize={})", workerCount, batchSize);
+
+        final int                                   maxWaveSize  = workerCount * batchSize;
+        final BlockingQueue<AtlasEntityWithExtInfo> readQueue    = new ArrayBlockingQueue<>(maxWaveSize * 2);
+        final EntityReader                          reader       = new EntityReader(entityStream, readQueue);
+        final ImportProgress                        progress     = new ImportProgress(entityStream.size(), importResult);
+        final List<AtlasEntityWithExtInfo>          residualList = new ArrayList<>();
+        final String                                user         = RequestContextV1.get().getUser();
+
+        ExecutorService readerExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-import-reader-%d").setDaemon(true).build());
+        ExecutorService writerExecutor = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder().setNameFormat("atlas-import-writer-%d").setDaemon(true).build());
+
+        try {
+            readerExecutor.submit(reader);
+
+            List<AtlasEntityWithExtInfo> wave             = new ArrayList<>();
+            Set<String>                  waveWrittenGuids = new HashSet<>();
+
+            while (true) {
+                AtlasEntityWithExtInfo entityWithExtInfo = takeNext(readQueue);
+
+                if (entityWithExtInfo == END_OF_STREAM) {
+                    break;
+                }
+
+                Set<String> referencedGuids = getReferencedGuids(entityWithExtInfo);
+
+                if (wave.size() >= maxWaveSize || CollectionUtils.containsAny(waveWrittenGuids, referencedGuids)) {
+                    writeWave(wave, entityStream, user, writerExecutor, progress, residualList);
+
+                    wave.clear();
+                    waveWrittenGuids.clear();
+                }
+
+                // the entity might have been imported as a referred entity of an earlier one
+                if (progress.isProcessed(entityWithExtInfo.getEntity().getGuid())) {
+                    continue;
+                }
+
+                wave.add(entityWithExtInfo);
+                waveWrittenGuids.addAll(getWrittenGuids(entityWithExtInfo));
+            }
+
+            writeWave(wave, entityStream, user, writerExecutor, progress, residualList);
+
+            if (reader.getError() != null) {
+                throw new AtlasBaseException("Error reading entities to import", reader.getError());
+            }
+
+            importResidualList(residualList, entityStream, progress);
+        } finally {
+            readerExecutor.shutdownNow();
+            writerExecutor.shutdownNow();
+        }
+
+        importResult.getProcessedEntities().addAll(progress.getProcessedGuids());
+
+        LOG.info("<== import pipeline(workers={}, batchSize={}): total number of entities (including referred entities) imported: {}",
+                 workerCount, batchSize, progress.getProcessedGuids().size());
+    }
+
+    private void writeWave(List<AtlasEntityWithExtInfo> wave, EntityImportStream entityStream, String user,
+                           ExecutorService writerExecutor, ImportProgress progress, List<AtlasEntityWithExtInfo> residualList) throws AtlasBaseException {
+        if (wave.isEmpty()) {
+            return;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("writing wave of {} entities", wave.size());
+        }
+
+        List<List<AtlasEntityWithExtInfo>>   batches = new ArrayList<>();
+        List<Future<EntityMutationResponse>> futures = new ArrayList<>();
+
+        for (int i = 0; i < wave.size(); i += batchSize) {
+            List<AtlasEntityWithExtInfo> batch = new ArrayList<>(wave.subList(i, Math.min(i + batchSize, wave.size())));
+
+            batches.add(batch);
+            futures.add(writerExecutor.submit(new BatchWriter(batch, entityStream, user)));
+        }
+
+        for (int i = 0; i < batches.size(); i++) {
+            List<AtlasEntityWithExtInfo> batch = batches.get(i);
+
+            try {
+                EntityMutationResponse resp = futures.get(i).get();
+
+                for (AtlasEntityWithExtInfo entityWithExtInfo : batch) {
+                    progress.onImported(entityWithExtInfo, resp);
+
+                    entityStream.onImportComplete(entityWithExtInfo.getEntity().getGuid());
+                }
+            } catch (ExecutionException e) {
+                // the batch is retried entity by entity, where failures other than unresolved references are fatal
+                LOG.warn("import of a batch of {} entities failed; it will be retried after other entities are imported", batch.size(), e.getCause());
+
+                residualList.addAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException("import interrupted", e);
+            }
+        }
+    }
+
+    private void importResidualList(List<AtlasEntityWithExtInfo> residualList, EntityImportStream entityStream, ImportProgress progress) throws AtlasBaseException {
+        while (!residualList.isEmpty()) {
+            List<AtlasEntityWithExtInfo> pending   = new ArrayList<>(residualList);
+            AtlasBaseException           lastError = null;
+
+            residualList.clear();
+
+            for (AtlasEntityWithExtInfo entityWithExtInfo : pending) {
+                String guid = entityWithExtInfo.getEntity().getGuid();
+
+                if (progress.isProcessed(guid)) {
+                    continue;
+                }
+
+                try {
+                    EntityMutationResponse resp = entityStore.createOrUpdateForImport(new AtlasEntityStreamForImport(entityWithExtInfo, entityStream));
+
+                    progress.onImported(entityWithExtInfo, resp);
+
+                    entityStream.onImportComplete(guid);
+                } catch (AtlasBaseException e) {
+                    if (!AtlasErrorCode.INVALID_OBJECT_ID.getErrorCode().equals(e.getAtlasErrorCode().getErrorCode())) {
+                        throw e;
+                    }
+
+                    residualList.add(entityWithExtInfo);
+
+                    lastError = e;
+                }
+            }
+
+            if (residualList.size() == pending.size()) { // no progress in this pass
+                throw lastError;
+            }
+        }
+    }
+
+    private static AtlasEntityWithExtInfo takeNext(BlockingQueue<AtlasEntityWithExtInfo> queue) throws AtlasBaseException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException("import interrupted", e);
+        }
+    }
+
+    /**
+     * Returns guids of the entity and its referred entities, i.e. of the entities written along with the entity
+     */
+    static Set<String> getWrittenGuids(AtlasEntityWithExtInfo entityWithExtInfo) {
+        Set<String> ret = new HashSet<>();
+
+        if (StringUtils.isNotEmpty(entityWithExtInfo.getEntity().getGuid())) {
+            ret.add(entityWithExtInfo.getEntity().getGuid());
+        }
+
+        if (entityWithExtInfo.getReferredEntities() != null) {
+            ret.addAll(entityWithExtInfo.getReferredEntities().keySet());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns guids of the entity, its referred entities and of all entities they refer to
+     */
+    static Set<String> getReferencedGuids(AtlasEntityWithExtInfo entityWithExtInfo) {
+        Set<String> ret = new HashSet<>();
+
+        addReferencedGuids(entityWithExtInfo.getEntity(), ret);
+
+        if (entityWithExtInfo.getReferredEntities() != null) {
+            for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                addReferencedGuids(referredEntity, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    private static void addReferencedGuids(AtlasEntity entity, Set<String> guids) {
+        if (entity == null) {
+            return;
+        }
+
+        if (StringUtils.isNotEmpty(entity.getGuid())) {
+            guids.add(entity.getGuid());
+        }
+
+        addReferencedGuids(entity.getAttributes(), guids);
+        addReferencedGuids(entity.getRelationshipAttributes(), guids);
+    }
+
+    private static void addReferencedGuids(Object value, Set<String> guids) {
+        if (value instanceof AtlasObjectId) {
+            String guid = ((AtlasObjectId) value).getGuid();
+
+            if (StringUtils.isNotEmpty(guid)) {
+                guids.add(guid);
+            }
+        } else if (value instanceof AtlasStruct) {
+            addReferencedGuids(((AtlasStruct) value).getAttributes(), guids);
+        } else if (value instanceof Map) {
+            Map<?, ?> map  = (Map<?, ?>) value;
+            Object    guid = map.get(AtlasObjectId.KEY_GUID);
+
+            if (guid instanceof String && StringUtils.isNotEmpty((String) guid)) {
+                guids.add((String) guid);
+            }
+
+            for (Object mapValue : map.values()) {
+                addReferencedGuids(mapValue, guids);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                addReferencedGuids(element, guids);
+            }
+        }
+    }
+
+    private static class EntityReader implements Runnable {
+        private final EntityImportStream                    entityStream;
+        private final BlockingQueue<AtlasEntityWithExtInfo> queue;
+        private volatile Throwable                          error;
+
+        EntityReader(EntityImportStream entityStream, BlockingQueue<AtlasEntityWithExtInfo> queue) {
+            this.entityStream = entityStream;
+            this.queue        = queue;
+        }
+
+        Throwable getError() { return error; }
+
+        @Override
+        public void run() {
+            try {
+                while (entityStream.hasNext()) {
+                    AtlasEntityWithExtInfo entityWithExtInfo = entityStream.getNextEntityWithExtInfo();
+
+                    if (entityWithExtInfo != null && entityWithExtInfo.getEntity() != null) {
+                        queue.put(entityWithExtInfo);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return;
+            } catch (Throwable t) {
+                LOG.error("error reading entities to import", t);
+
+                error = t;
+            }
+
+            try {
+                queue.put(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private class BatchWriter implements Callable<EntityMutationResponse> {
+        private final List<AtlasEntityWithExtInfo> batch;
+        private final EntityImportStream           entityStream;
+        private final String                       user;
+
+        BatchWriter(List<AtlasEntityWithExtInfo> batch, EntityImportStream entityStream, String user) {
+            this.batch        = batch;
+            this.entityStream = entityStream;
+            this.user         = user;
+        }
+
+        @Override
+        public EntityMutationResponse call() throws Exception {
+            AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+
+            for (AtlasEntityWithExtInfo entityWithExtInfo : batch) {
+                entities.addEntity(entityWithExtInfo.getEntity());
+
+                if (entityWithExtInfo.getReferredEntities() != null) {
+                    for (Map.Entry<String, AtlasEntity> e : entityWithExtInfo.getReferredEntities().entrySet()) {
+                        entities.addReferredEntity(e.getKey(), e.getValue());
+                    }
+                }
+            }
+
+            try {
+                RequestContext requestContext = RequestContext.createContext();
+                requestContext.setUser(user);
+
+                return entityStore.createOrUpdateForImport(new AtlasEntityStreamForImport(entities, entityStream));
+            } finally {
+                RequestContext.clear();
+                RequestContextV1.clear();
+            }
+        }
+    }
+
+    private static class ImportProgress {
+        private final int               streamSize;
+        private final AtlasImportResult importResult;
+        private final Set<String>       processedGuids = new HashSet<>();
+        private       int               importedCount  = 0;
+        private       int               loggedPercent  = 0;
+
+        ImportProgress(int streamSize, AtlasImportResult importResult) {
+            this.streamSize   = streamSize;
+            this.importResult = importResult;
+        }
+
+        boolean isProcessed(String guid) { return processedGuids.contains(guid); }
+
+        Set<String> getProcessedGuids() { return processedGuids; }
+
+        void onImported(AtlasEntityWithExtInfo entityWithExtInfo, EntityMutationResponse resp) {
+            updateMetrics("entity:%s:created", resp.getCreatedEntities());
+            updateMetrics("entity:%s:updated", resp.getUpdatedEntities());
+            updateMetrics("entity:%s:deleted", resp.getDeletedEntities());
+
+            importedCount++;
+
+            int percent = streamSize > 0 ? (int) ((importedCount * 100L) / streamSize) : 100;
+
+            if (percent > loggedPercent) {
+                loggedPercent = percent;
+
+                LOG.info("bulkImport(): progress: {}% (of {}) - entity:last-imported:{}:({})", percent, streamSize,
+                         entityWithExtInfo.getEntity().getTypeName(), entityWithExtInfo.getEntity().getGuid());
+            }
+        }
+
+        private void updateMetrics(String prefix, List<AtlasEntityHeader> headers) {
+            if (headers == null) {
+                return;
+            }
+
+            for (AtlasEntityHeader header : headers) {
+                if (processedGuids.add(header.getGuid())) {
+                    importResult.incrementMeticsCounter(String.format(prefix, header.getTypeName()));
+                }
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.AtlasServiceException;
@@ -59,8 +60,10 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -112,8 +115,8 @@ public class ExportService {
     }
 
     private void updateSinkWithOperationMetrics(ExportContext context, AtlasExportResult.OperationStatus[] statuses, int duration) throws AtlasBaseException {
-        context.result.getData().getEntityCreationOrder().addAll(context.lineageProcessed);
-        context.sink.setExportOrder(context.result.getData().getEntityCreationOrder());
+        context.pipeline.finish();
+        context.sink.setExportOrder(context.creationOrder, context.lineageOrder);
         context.sink.setTypesDef(context.result.getData().getTypesDef());
         clearContextData(context);
         context.result.setOperationStatus(getOverallOperationStatus(statuses));
@@ -186,25 +189,20 @@ public class ExportService {
         }
 
         try {
-            List<AtlasEntityWithExtInfo> entities = getStartingEntity(item, context);
-            if(entities.size() == 0) {
+            List<String> guids = getStartingEntityGuids(item, context);
+            if(guids.size() == 0) {
                 return AtlasExportResult.OperationStatus.FAIL;
             }
 
-            for (AtlasEntityWithExtInfo entityWithExtInfo : entities) {
-                processEntity(entityWithExtInfo.getEntity().getGuid(), context);
+            for (String guid : guids) {
+                processEntity(guid, context);
             }
 
             while (!context.guidsToProcess.isEmpty()) {
-                while (!context.guidsToProcess.isEmpty()) {
-                    String guid = context.guidsToProcess.remove(0);
-                    processEntity(guid, context);
-                }
+                processQueuedEntities(context);
 
                 if (!context.lineageToProcess.isEmpty()) {
-                    context.guidsToProcess.addAll(context.lineageToProcess);
-                    context.lineageProcessed.addAll(context.lineageToProcess.getList());
-                    context.lineageToProcess.clear();
+                    context.moveLineageToProcess();
                 }
             }
         } catch (AtlasBaseException excp) {
@@ -219,14 +217,14 @@ public class ExportService {
         return AtlasExportResult.OperationStatus.SUCCESS;
     }
 
-    private List<AtlasEntityWithExtInfo> getStartingEntity(AtlasObjectId item, ExportContext context) throws AtlasBaseException {
-        List<AtlasEntityWithExtInfo> ret = new ArrayList<>();
+    private List<String> getStartingEntityGuids(AtlasObjectId item, ExportContext context) throws AtlasBaseException {
+        List<String> ret = new ArrayList<>();
 
         if (StringUtils.isNotEmpty(item.getGuid())) {
             AtlasEntityWithExtInfo entity = entityGraphRetriever.toAtlasEntityWithExtInfo(item);
 
             if (entity != null) {
-                ret = Collections.singletonList(entity);
+                ret = Collections.singletonList(entity.getEntity().getGuid());
             }
         } else if (StringUtils.isNotEmpty(item.getTypeName()) && MapUtils.isNotEmpty(item.getUniqueAttributes())) {
             String          typeName   = item.getTypeName();
@@ -266,16 +264,9 @@ public class ExportService {
 
                 List<String> guids = executeGremlinQueryForGuids(queryTemplate, context);
 
+                // entities are fetched only when processed, to avoid holding all matching entities in memory
                 if (CollectionUtils.isNotEmpty(guids)) {
-                    for (String guid : guids) {
-                        AtlasEntityWithExtInfo entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
-
-                        if (entityWithExtInfo == null) {
-                            continue;
-                        }
-
-                        ret.add(entityWithExtInfo);
-                    }
+                    ret.addAll(guids);
                 }
 
                 break;
@@ -287,23 +278,58 @@ public class ExportService {
         return ret;
     }
 
+    /**
+     * Processes queued entities, in queue order, until the queue is empty. Entities that are about to be processed
+     * are prefetched by the pipeline workers, while the traversal stays on this thread.
+     */
+    private void processQueuedEntities(ExportContext context) throws AtlasBaseException {
+        while (true) {
+            while (context.lookahead.size() < context.pipeline.getPrefetchSize()) {
+                String guid = context.guidsToProcess.poll();
+
+                if (guid == null) {
+                    break;
+                }
+
+                context.lookahead.add(guid);
+
+                if (!context.hasState(guid, ExportContext.PROCESSED)) {
+                    context.pipeline.prefetch(guid);
+                }
+            }
+
+            String guid = context.lookahead.poll();
+
+            if (guid == null) {
+                break;
+            }
+
+            context.guidStates.removeState(guid, ExportContext.QUEUED);
+
+            processEntity(guid, context);
+
+            // the entity might have been processed, as a referred entity, after it was prefetched
+            context.pipeline.discard(guid);
+        }
+    }
+
     private void processEntity(String guid, ExportContext context) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> processEntity({})", guid);
         }
 
-        if (!context.guidsProcessed.contains(guid)) {
-            TraversalDirection      direction         = context.guidDirection.get(guid);
-            AtlasEntityWithExtInfo  entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+        if (!context.hasState(guid, ExportContext.PROCESSED)) {
+            TraversalDirection      direction         = context.getDirection(guid);
+            AtlasEntityWithExtInfo  entityWithExtInfo = context.pipeline.getEntity(guid);
 
-            if(!context.lineageProcessed.contains(guid)) {
-                context.result.getData().getEntityCreationOrder().add(entityWithExtInfo.getEntity().getGuid());
+            if(!context.hasState(guid, ExportContext.LINEAGE_PROCESSED)) {
+                context.creationOrder.add(entityWithExtInfo.getEntity().getGuid());
             }
 
             addEntity(entityWithExtInfo, context);
             addTypes(entityWithExtInfo.getEntity(), context);
 
-            context.guidsProcessed.add(entityWithExtInfo.getEntity().getGuid());
+            context.markProcessed(entityWithExtInfo.getEntity().getGuid());
             getConntedEntitiesBasedOnOption(entityWithExtInfo.getEntity(), context, direction);
 
             if(entityWithExtInfo.getReferredEntities() != null) {
@@ -312,7 +338,9 @@ public class ExportService {
                     getConntedEntitiesBasedOnOption(e, context, direction);
                 }
 
-                context.guidsProcessed.addAll(entityWithExtInfo.getReferredEntities().keySet());
+                for (String referredGuid : entityWithExtInfo.getReferredEntities().keySet()) {
+                    context.markProcessed(referredGuid);
+                }
             }
         }
 
@@ -352,7 +380,7 @@ public class ExportService {
         return entityType.isSubTypeOf(AtlasBaseTypeDef.ATLAS_TYPE_PROCESS);
     }
 
-    private void getConnectedEntityGuids(AtlasEntity entity, ExportContext context, TraversalDirection... directions) {
+    private void getConnectedEntityGuids(AtlasEntity entity, ExportContext context, TraversalDirection... directions) throws AtlasBaseException {
         if(directions == null) {
             return;
         }
@@ -375,7 +403,7 @@ public class ExportService {
 
             for (HashMap<String, Object> hashMap : result) {
                 String             guid             = (String) hashMap.get("__guid");
-                TraversalDirection currentDirection = context.guidDirection.get(guid);
+                TraversalDirection currentDirection = context.getDirection(guid);
                 boolean            isLineage        = (boolean) hashMap.get("isProcess");
 
                 if (currentDirection == null) {
@@ -383,7 +411,7 @@ public class ExportService {
 
                 } else if (currentDirection == TraversalDirection.OUTWARD && direction == TraversalDirection.INWARD) {
                     // the entity should be reprocessed to get inward entities
-                    context.guidsProcessed.remove(guid);
+                    context.guidStates.removeState(guid, ExportContext.PROCESSED);
                     context.addToBeProcessed(isLineage, guid, direction);
                 }
             }
@@ -405,7 +433,7 @@ public class ExportService {
         }
     }
 
-    private void getEntityGuidsForFullFetch(AtlasEntity entity, ExportContext context) {
+    private void getEntityGuidsForFullFetch(AtlasEntity entity, ExportContext context) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> getEntityGuidsForFullFetch({}): guidsToProcess {}", AtlasTypeUtil.getAtlasObjectId(entity), context.guidsToProcess.size());
         }
@@ -425,7 +453,7 @@ public class ExportService {
             String  guid      = (String) hashMap.get("__guid");
             boolean isLineage = (boolean) hashMap.get("isProcess");
 
-            if (!context.guidsProcessed.contains(guid)) {
+            if (!context.hasState(guid, ExportContext.PROCESSED)) {
                 context.addToBeProcessed(isLineage, guid, TraversalDirection.BOTH);
             }
         }
@@ -436,15 +464,17 @@ public class ExportService {
     }
 
     private void addEntity(AtlasEntityWithExtInfo entity, ExportContext context) throws AtlasBaseException {
-        if(context.sink.hasEntity(entity.getEntity().getGuid())) {
+        if(context.hasState(entity.getEntity().getGuid(), ExportContext.EXPORTED)) {
             return;
         }
 
-        context.sink.add(entity);
+        context.pipeline.add(entity);
 
+        context.guidStates.addState(entity.getEntity().getGuid(), ExportContext.EXPORTED);
         context.result.incrementMeticsCounter(String.format("entity:%s", entity.getEntity().getTypeName()));
         if(entity.getReferredEntities() != null) {
             for (AtlasEntity e: entity.getReferredEntities().values()) {
+                context.guidStates.addState(e.getGuid(), ExportContext.EXPORTED);
                 context.result.incrementMeticsCounter(String.format("entity:%s", e.getTypeName()));
             }
         }
@@ -610,85 +640,55 @@ public class ExportService {
         }
     }
 
-    public static class UniqueList<T> {
-        private final List<T>   list = new ArrayList<>();
-        private final Set<T>    set = new HashSet<>();
-
-        public void add(T e) {
-            if(set.contains(e)) {
-                return;
-            }
-
-            list.add(e);
-            set.add(e);
-        }
-
-        public void addAll(UniqueList<T> uniqueList) {
-            for (T item : uniqueList.list) {
-                if(set.contains(item)) continue;
-
-                set.add(item);
-                list.add(item);
-            }
-        }
-
-        public T remove(int index) {
-            T e = list.remove(index);
-            set.remove(e);
-            return e;
-        }
-
-        public boolean contains(T e) {
-            return set.contains(e);
-        }
-
-        public int size() {
-            return list.size();
-        }
-
-        public boolean isEmpty() {
-            return list.isEmpty();
-        }
-
-        public void clear() {
-            list.clear();
-            set.clear();
-        }
-
-        public List<T> getList() {
-            return list;
-        }
-    }
-
-
     private class ExportContext {
-        final Set<String>                     guidsProcessed = new HashSet<>();
-        final UniqueList<String>              guidsToProcess = new UniqueList<>();
-        final UniqueList<String>              lineageToProcess = new UniqueList<>();
-        final Set<String>                     lineageProcessed = new HashSet<>();
-        final Map<String, TraversalDirection> guidDirection  = new HashMap<>();
+        // guid states
+        static final int PROCESSED         = 0x01;
+        static final int QUEUED            = 0x02; // in guidsToProcess (or lookahead)
+        static final int LINEAGE_QUEUED    = 0x04; // in lineageToProcess
+        static final int LINEAGE_PROCESSED = 0x08;
+        static final int EXPORTED          = 0x10;
+
+        private static final int DIRECTION_SHIFT = 8;
+        private static final int DIRECTION_MASK  = 0xff << DIRECTION_SHIFT;
+
+        final GuidStateMap                    guidStates;
+        final SpooledGuidQueue                guidsToProcess;
+        final SpooledGuidQueue                lineageToProcess;
+        final SpooledGuidQueue                creationOrder;
+        final SpooledGuidQueue                lineageOrder;
+        final Deque<String>                   lookahead           = new ArrayDeque<>();
         final Set<String>                     entityTypes         = new HashSet<>();
         final Set<String>                     classificationTypes = new HashSet<>();
         final Set<String>                     structTypes         = new HashSet<>();
         final Set<String>                     enumTypes           = new HashSet<>();
         final AtlasExportResult               result;
         final ZipSink                         sink;
+        final EntityExportPipeline            pipeline;
 
         private final ScriptEngine        scriptEngine;
         private final Map<String, Object> bindings;
         private final ExportFetchType     fetchType;
         private final String              matchType;
 
+        private       int                 processedCount      = 0;
         private       int                 progressReportCount = 0;
 
         ExportContext(AtlasExportResult result, ZipSink sink) throws AtlasBaseException {
+            int queueMemorySize = AtlasConfiguration.EXPORT_GUID_QUEUE_MEMORY_SIZE.getInt();
+
             this.result = result;
             this.sink   = sink;
 
-            scriptEngine = atlasGraph.getGremlinScriptEngine();
-            bindings     = new HashMap<>();
-            fetchType    = getFetchType(result.getRequest());
-            matchType    = getMatchType(result.getRequest());
+            guidStates       = new GuidStateMap();
+            guidsToProcess   = new SpooledGuidQueue(queueMemorySize);
+            lineageToProcess = new SpooledGuidQueue(queueMemorySize);
+            creationOrder    = new SpooledGuidQueue(queueMemorySize);
+            lineageOrder     = new SpooledGuidQueue(queueMemorySize);
+            scriptEngine     = atlasGraph.getGremlinScriptEngine();
+            bindings         = new HashMap<>();
+            fetchType        = getFetchType(result.getRequest());
+            matchType        = getMatchType(result.getRequest());
+            pipeline         = new EntityExportPipeline(entityGraphRetriever, atlasGraph, sink, AtlasConfiguration.EXPORT_WORKER_COUNT.getInt());
         }
 
         private ExportFetchType getFetchType(AtlasExportRequest request) {
@@ -716,29 +716,81 @@ public class ExportService {
         }
 
         public void clear() {
-            guidsToProcess.clear();
-            guidsProcessed.clear();
-            guidDirection.clear();
+            pipeline.close();
+            guidsToProcess.close();
+            lineageToProcess.close();
+            creationOrder.close();
+            lineageOrder.close();
+            guidStates.close();
+            lookahead.clear();
+        }
+
+        public boolean hasState(String guid, int flag) {
+            return guidStates.hasState(guid, flag);
+        }
+
+        public TraversalDirection getDirection(String guid) {
+            int direction = (guidStates.getState(guid) & DIRECTION_MASK) >> DIRECTION_SHIFT;
+
+            return direction == 0 ? null : TraversalDirection.values()[direction - 1];
+        }
+
+        public void markProcessed(String guid) throws AtlasBaseException {
+            int state = guidStates.getState(guid);
+
+            if ((state & PROCESSED) == 0) {
+                guidStates.setState(guid, state | PROCESSED);
+
+                processedCount++;
+            }
         }
 
-        public void addToBeProcessed(boolean isSuperTypeProcess, String guid, TraversalDirection direction) {
-            if(!isSuperTypeProcess) {
+        public void addToBeProcessed(boolean isSuperTypeProcess, String guid, TraversalDirection direction) throws AtlasBaseException {
+            int state = guidStates.getState(guid);
+
+            if(!isSuperTypeProcess && (state & QUEUED) == 0) {
                 guidsToProcess.add(guid);
+
+                state |= QUEUED;
             }
 
-            if(isSuperTypeProcess) {
+            if(isSuperTypeProcess && (state & LINEAGE_QUEUED) == 0) {
                 lineageToProcess.add(guid);
+
+                state |= LINEAGE_QUEUED;
             }
 
-            guidDirection.put(guid, direction);
+            state = (state & ~DIRECTION_MASK) | ((direction.ordinal() + 1) << DIRECTION_SHIFT);
+
+            guidStates.setState(guid, state);
+        }
+
+        public void moveLineageToProcess() throws AtlasBaseException {
+            for (String guid = lineageToProcess.poll(); guid != null; guid = lineageToProcess.poll()) {
+                int state = guidStates.getState(guid) & ~LINEAGE_QUEUED;
+
+                if ((state & QUEUED) == 0) {
+                    guidsToProcess.add(guid);
+
+                    state |= QUEUED;
+                }
+
+                if ((state & LINEAGE_PROCESSED) == 0) {
+                    lineageOrder.add(guid);
+
+                    state |= LINEAGE_PROCESSED;
+                }
+
+                guidStates.setState(guid, state);
+            }
         }
 
         public void reportProgress() {
 
-            if ((guidsProcessed.size() - progressReportCount) > 1000) {
-                progressReportCount = guidsProcessed.size();
+            if ((processedCount - progressReportCount) > 1000) {
+                progressReportCount = processedCount;
 
-                LOG.info("export(): in progress.. number of entities exported: {}", this.guidsProcessed.size());
+                LOG.info("export(): in progress.. number of entities exported: {}", processedCount);
             }
         }
     }
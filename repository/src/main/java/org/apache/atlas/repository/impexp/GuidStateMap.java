@@ -0,0 +1,239 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Map of guid to state flags (an int with the highest bit unused), to track a large number of guids - like during
+ * export of millions of entities - without holding them on the heap.
+ *
+ * Guids in the canonical UUID format are kept in an open-addressing hash table of 20 byte slots, in a memory-mapped
+ * temporary file: the table is outside the heap and the OS can write its pages to disk under memory pressure. Other
+ * guids are kept in a map on the heap.
+ */
+public class GuidStateMap implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(GuidStateMap.class);
+
+    private static final int   SLOT_SIZE        = 20; // uuid msb (8), uuid lsb (8), state (4)
+    private static final int   STATE_OFFSET     = 16;
+    private static final int   STATE_PRESENT    = 0x80000000;
+    private static final int   INITIAL_CAPACITY = 1 << 16;
+    private static final int   MAX_CAPACITY     = 1 << 26;
+    private static final float MAX_LOAD_FACTOR  = 0.6f;
+
+    private final Map<String, Integer> otherGuids = new HashMap<>();
+    private       ByteBuffer           table;
+    private       int                  capacity;
+    private       int                  tableSize;
+
+    public GuidStateMap() throws AtlasBaseException {
+        this.table    = allocate(INITIAL_CAPACITY);
+        this.capacity = INITIAL_CAPACITY;
+    }
+
+    public int getState(String guid) {
+        long[] uuid = toUuid(guid);
+
+        if (uuid == null) {
+            Integer ret = otherGuids.get(guid);
+
+            return ret != null ? ret : 0;
+        }
+
+        int slot = findSlot(table, capacity, uuid[0], uuid[1]);
+
+        return slot >= 0 ? table.getInt(slot * SLOT_SIZE + STATE_OFFSET) & ~STATE_PRESENT : 0;
+    }
+
+    public void setState(String guid, int state) throws AtlasBaseException {
+        long[] uuid = toUuid(guid);
+
+        if (uuid == null) {
+            otherGuids.put(guid, state);
+
+            return;
+        }
+
+        int slot = findSlot(table, capacity, uuid[0], uuid[1]);
+
+        if (slot < 0) {
+            if (tableSize + 1 > capacity * MAX_LOAD_FACTOR) {
+                grow();
+            }
+
+            slot = -(findSlot(table, capacity, uuid[0], uuid[1]) + 1);
+
+            table.putLong(slot * SLOT_SIZE, uuid[0]);
+            table.putLong(slot * SLOT_SIZE + 8, uuid[1]);
+
+            tableSize++;
+        }
+
+        table.putInt(slot * SLOT_SIZE + STATE_OFFSET, state | STATE_PRESENT);
+    }
+
+    public boolean hasState(String guid, int flag) {
+        return (getState(guid) & flag) != 0;
+    }
+
+    public void addState(String guid, int flag) throws AtlasBaseException {
+        setState(guid, getState(guid) | flag);
+    }
+
+    public void removeState(String guid, int flag) throws AtlasBaseException {
+        int state = getState(guid);
+
+        if ((state & flag) != 0) {
+            setState(guid, state & ~flag);
+        }
+    }
+
+    public int size() {
+        return tableSize + otherGuids.size();
+    }
+
+    @Override
+    public void close() {
+        // the mapping is released when the buffer is garbage collected; the file is already deleted
+        table = null;
+
+        otherGuids.clear();
+    }
+
+    private void grow() throws AtlasBaseException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new AtlasBaseException("too many guids: " + tableSize);
+        }
+
+        int        newCapacity = capacity * 2;
+        ByteBuffer newTable    = allocate(newCapacity);
+
+        for (int i = 0; i < capacity; i++) {
+            int state = table.getInt(i * SLOT_SIZE + STATE_OFFSET);
+
+            if (state != 0) {
+                long msb  = table.getLong(i * SLOT_SIZE);
+                long lsb  = table.getLong(i * SLOT_SIZE + 8);
+                int  slot = -(findSlot(newTable, newCapacity, msb, lsb) + 1);
+
+                newTable.putLong(slot * SLOT_SIZE, msb);
+                newTable.putLong(slot * SLOT_SIZE + 8, lsb);
+                newTable.putInt(slot * SLOT_SIZE + STATE_OFFSET, state);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("GuidStateMap: grew from {} to {} slots", capacity, newCapacity);
+        }
+
+        table    = newTable;
+        capacity = newCapacity;
+    }
+
+    // returns the slot of the given uuid, or -(slot + 1) of the empty slot where it should be added
+    private static int findSlot(ByteBuffer table, int capacity, long msb, long lsb) {
+        long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        int  slot = (int) (hash >>> 32) & (capacity - 1);
+
+        while (true) {
+            int offset = slot * SLOT_SIZE;
+
+            if (table.getInt(offset + STATE_OFFSET) == 0) {
+                return -(slot + 1);
+            }
+
+            if (table.getLong(offset) == msb && table.getLong(offset + 8) == lsb) {
+                return slot;
+            }
+
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity) throws AtlasBaseException {
+        try {
+            File file = File.createTempFile("atlas-guids-", ".tmp");
+
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+            } finally {
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        } catch (IOException e) {
+            throw new AtlasBaseException("failed to allocate guid table", e);
+        }
+    }
+
+    /**
+     * @return most and least significant bits of the guid, if the guid is a UUID in canonical (lowercase) format; otherwise null
+     */
+    static long[] toUuid(String guid) {
+        if (guid == null || guid.length() != 36) {
+            return null;
+        }
+
+        long msb = 0;
+        long lsb = 0;
+
+        for (int i = 0, digits = 0; i < 36; i++) {
+            char c = guid.charAt(i);
+
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+
+                continue;
+            }
+
+            int digit;
+
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return null;
+            }
+
+            if (digits < 16) {
+                msb = (msb << 4) | digit;
+            } else {
+                lsb = (lsb << 4) | digit;
+            }
+
+            digits++;
+        }
+
+        return new long[] { msb, lsb };
+    }
+}
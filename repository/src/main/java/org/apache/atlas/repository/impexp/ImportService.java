@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasImportRequest;
@@ -26,14 +27,12 @@ import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.store.AtlasTypeDefStore;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.collections.MapUtils;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 
@@ -44,15 +43,24 @@ public class ImportService {
     private final AtlasTypeDefStore typeDefStore;
     private final AtlasEntityStore entityStore;
     private final AtlasTypeRegistry typeRegistry;
+    private final int importWorkerCount;
+    private final int importBatchSize;
 
     private long startTimestamp;
     private long endTimestamp;
 
     @Inject
     public ImportService(final AtlasTypeDefStore typeDefStore, final AtlasEntityStore entityStore, AtlasTypeRegistry typeRegistry) {
+        this(typeDefStore, entityStore, typeRegistry, AtlasConfiguration.IMPORT_WORKER_COUNT.getInt(), AtlasConfiguration.IMPORT_BATCH_SIZE.getInt());
+    }
+
+    public ImportService(final AtlasTypeDefStore typeDefStore, final AtlasEntityStore entityStore, AtlasTypeRegistry typeRegistry,
+                         int importWorkerCount, int importBatchSize) {
         this.typeDefStore = typeDefStore;
         this.entityStore = entityStore;
         this.typeRegistry = typeRegistry;
+        this.importWorkerCount = importWorkerCount;
+        this.importBatchSize = importBatchSize;
     }
 
     public AtlasImportResult run(ZipSource source, String userName,
@@ -121,7 +129,7 @@ public class ImportService {
 
             String transforms = MapUtils.isNotEmpty(request.getOptions()) ? request.getOptions().get(AtlasImportRequest.TRANSFORMS_KEY) : null;
             File file = new File(fileName);
-            ZipSource source = new ZipSource(new ByteArrayInputStream(FileUtils.readFileToByteArray(file)), ImportTransforms.fromJson(transforms));
+            ZipSource source = new ZipSource(file, ImportTransforms.fromJson(transforms));
 
             result = run(source, request, userName, hostName, requestingIP);
         } catch (AtlasBaseException excp) {
@@ -154,7 +162,11 @@ public class ImportService {
     }
 
     private void processEntities(ZipSource importSource, AtlasImportResult result) throws AtlasBaseException {
-        this.entityStore.bulkImport(importSource, result);
+        if (importWorkerCount > 1) {
+            new EntityImportPipeline(this.entityStore, importWorkerCount, importBatchSize).run(importSource, result);
+        } else {
+            this.entityStore.bulkImport(importSource, result);
+        }
 
         endTimestamp = System.currentTimeMillis();
         result.incrementMeticsCounter("duration", (int) (this.endTimestamp - this.startTimestamp));
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * FIFO queue of guids that holds up to a given number of guids in memory, and spills the rest to a temporary file.
+ *
+ * Once guids are spilled, further guids are appended to the file as well - until the file is drained - so that the
+ * order of guids is retained.
+ */
+public class SpooledGuidQueue implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(SpooledGuidQueue.class);
+
+    private final int           maxInMemory;
+    private final Deque<String> memory = new ArrayDeque<>();
+    private       File             file;
+    private       DataOutputStream writer;
+    private       DataInputStream  reader;
+    private       long             writeCount = 0;
+    private       long             readCount  = 0;
+
+    public SpooledGuidQueue(int maxInMemory) {
+        this.maxInMemory = Math.max(maxInMemory, 1);
+    }
+
+    public void add(String guid) throws AtlasBaseException {
+        if (writeCount == readCount && memory.size() < maxInMemory) {
+            memory.add(guid);
+
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                file   = File.createTempFile("atlas-guid-queue-", ".tmp");
+                writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("spilling guid queue to {}", file);
+                }
+            }
+
+            writer.writeUTF(guid);
+
+            writeCount++;
+        } catch (IOException e) {
+            throw new AtlasBaseException("failed to write to guid queue", e);
+        }
+    }
+
+    public String poll() throws AtlasBaseException {
+        if (!memory.isEmpty()) {
+            return memory.poll();
+        }
+
+        if (readCount == writeCount) {
+            return null;
+        }
+
+        try {
+            writer.flush();
+
+            if (reader == null) {
+                reader = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            }
+
+            String ret = reader.readUTF();
+
+            readCount++;
+
+            if (readCount == writeCount) { // drained; start over with an empty file
+                closeFile();
+            }
+
+            return ret;
+        } catch (IOException e) {
+            throw new AtlasBaseException("failed to read from guid queue", e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return memory.isEmpty() && readCount == writeCount;
+    }
+
+    public long size() {
+        return memory.size() + (writeCount - readCount);
+    }
+
+    @Override
+    public void close() {
+        memory.clear();
+
+        closeFile();
+    }
+
+    private void closeFile() {
+        IOUtils.closeQuietly(reader);
+        IOUtils.closeQuietly(writer);
+
+        if (file != null && !file.delete()) {
+            LOG.warn("failed to delete {}", file);
+        }
+
+        reader     = null;
+        writer     = null;
+        file       = null;
+        writeCount = 0;
+        readCount  = 0;
+    }
+}
@@ -56,6 +56,14 @@ public class ZipSink {
         recordAddedEntityGuids(entityWithExtInfo);
     }
 
+    /**
+     * Adds an entity already serialized to JSON. Unlike add(), the guid is not recorded for hasEntity() - to keep
+     * memory use of large exports bounded, callers track the exported guids themselves.
+     */
+    public void addEntityJson(String guid, String jsonData) throws AtlasBaseException {
+        saveToZip(guid, jsonData);
+    }
+
     public void setResult(AtlasExportResult result) throws AtlasBaseException {
         String jsonData = convertToJSON(result);
         saveToZip(ZipExportFileNames.ATLAS_EXPORT_INFO_NAME, jsonData);
@@ -71,6 +79,37 @@ public class ZipSink {
         saveToZip(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME, jsonData);
     }
 
+    /**
+     * Writes the export order from the given queues, one after the other, without loading the guids into memory. The
+     * queues are drained.
+     */
+    public void setExportOrder(SpooledGuidQueue... guidQueues) throws AtlasBaseException {
+        try {
+            zipOutputStream.putNextEntry(new ZipEntry(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString() + ".json"));
+
+            boolean isFirst = true;
+
+            zipOutputStream.write('[');
+
+            for (SpooledGuidQueue guidQueue : guidQueues) {
+                for (String guid = guidQueue.poll(); guid != null; guid = guidQueue.poll()) {
+                    if (!isFirst) {
+                        zipOutputStream.write(',');
+                    }
+
+                    zipOutputStream.write(convertToJSON(guid).getBytes());
+
+                    isFirst = false;
+                }
+            }
+
+            zipOutputStream.write(']');
+            zipOutputStream.closeEntry();
+        } catch (IOException e) {
+            throw new AtlasBaseException(String.format("Error writing file %s.", ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME), e);
+        }
+    }
+
     public void close() {
         try {
             if(zipOutputStream != null) {
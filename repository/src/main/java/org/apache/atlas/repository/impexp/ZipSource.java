@@ -24,42 +24,96 @@ import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.store.graph.v1.EntityImportStream;
 import org.apache.atlas.type.AtlasType;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
-
+/**
+ * Import source backed by an export zip file. Entities are read from the zip as they are needed - only a small
+ * number of recently parsed entities is held in memory. The guids of the creation order and of the entities imported
+ * so far are kept for the whole import, so the heap needed grows with the number of entities exported, but not with
+ * their size.
+ */
 public class ZipSource implements EntityImportStream {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSource.class);
 
-    private final InputStream    inputStream;
-    private List<String>         creationOrder;
-    private Iterator<String>     iterator;
-    private Map<String, String>  guidEntityJsonMap;
-    private ImportTransforms     importTransform;
-    private int currentPosition;
+    private static final String ENTRY_NAME_SUFFIX = ".json";
+    private static final int    ENTITY_CACHE_SIZE = 100;
+
+    private final File                                  zipFileName;
+    private final boolean                               isTempFile;
+    private final ZipFile                               zipFile;
+    private final Set<String>                           importedGuids = new HashSet<>();
+    private final Map<String, String>                   entityCache;
+    private List<String>                                creationOrder;
+    private Iterator<String>                            iterator;
+    private ImportTransforms                            importTransform;
+    private int                                         currentPosition;
 
     public ZipSource(InputStream inputStream) throws IOException {
         this(inputStream, null);
     }
 
+    /**
+     * The zip is copied from the stream to a temporary file, which is removed on close().
+     */
     public ZipSource(InputStream inputStream, ImportTransforms importTransform) throws IOException {
-        this.inputStream       = inputStream;
-        this.guidEntityJsonMap = new HashMap<>();
-        this.importTransform   = importTransform;
+        this(copyToTempFile(inputStream), true, importTransform);
+    }
+
+    public ZipSource(File zipFileName, ImportTransforms importTransform) throws IOException {
+        this(checkExists(zipFileName), false, importTransform);
+    }
+
+    private ZipSource(File zipFileName, boolean isTempFile, ImportTransforms importTransform) throws IOException {
+        this.zipFileName     = zipFileName;
+        this.isTempFile      = isTempFile;
+        this.importTransform = importTransform;
+        this.entityCache     = new LinkedHashMap<String, String>(ENTITY_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ENTITY_CACHE_SIZE;
+            }
+        };
 
-        updateGuidZipEntryMap();
-        setCreationOrder();
+        try {
+            this.zipFile = new ZipFile(zipFileName);
+        } catch (IOException e) {
+            LOG.error("{}: not a valid zip file", zipFileName, e);
+
+            if (isTempFile) {
+                FileUtils.deleteQuietly(zipFileName);
+            }
+
+            throw e;
+        }
+
+        try {
+            setCreationOrder();
+        } catch (IOException e) {
+            close();
+
+            throw e;
+        }
     }
 
     public ImportTransforms getImportTransform() { return this.importTransform; }
@@ -71,61 +125,63 @@ public class ZipSource implements EntityImportStream {
     public AtlasTypesDef getTypesDef() throws AtlasBaseException {
         final String fileName = ZipExportFileNames.ATLAS_TYPESDEF_NAME.toString();
 
-        String s = (String) getFromCache(fileName);
+        String s = getEntryAsString(fileName);
         return convertFromJson(AtlasTypesDef.class, s);
     }
 
     public AtlasExportResult getExportResult() throws AtlasBaseException {
         final String fileName = ZipExportFileNames.ATLAS_EXPORT_INFO_NAME.toString();
 
-        String s = getFromCache(fileName);
+        String s = getEntryAsString(fileName);
         return convertFromJson(AtlasExportResult.class, s);
     }
 
-    private void setCreationOrder() {
+    private void setCreationOrder() throws IOException {
         String fileName = ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString();
 
         try {
-            String s = getFromCache(fileName);
-            this.creationOrder = convertFromJson(List.class, s);
-            this.iterator = this.creationOrder.iterator();
-        } catch (AtlasBaseException e) {
-            LOG.error(String.format("Error retrieving '%s' from zip.", fileName), e);
-        }
-    }
-
-    private void updateGuidZipEntryMap() throws IOException {
+            String s = getEntryAsString(fileName);
 
-        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
-        ZipEntry zipEntry = zipInputStream.getNextEntry();
-        while (zipEntry != null) {
-            String entryName = zipEntry.getName().replace(".json", "");
-
-            if (guidEntityJsonMap.containsKey(entryName)) continue;
-
-            byte[] buf = new byte[1024];
-
-            int n = 0;
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            while ((n = zipInputStream.read(buf, 0, 1024)) > -1) {
-                bos.write(buf, 0, n);
+            if (s != null) {
+                this.creationOrder = convertFromJson(List.class, s);
             }
+        } catch (AtlasBaseException e) {
+            throw new IOException(String.format("Error retrieving '%s' from zip.", fileName), e);
+        }
 
-            guidEntityJsonMap.put(entryName, bos.toString());
-            zipEntry = zipInputStream.getNextEntry();
-
+        if (this.creationOrder == null) {
+            throw new IOException(String.format("%s: '%s' not found in zip.", zipFileName, fileName));
         }
 
-        zipInputStream.close();
+        this.iterator = this.creationOrder.iterator();
     }
 
     public List<String> getCreationOrder() throws AtlasBaseException {
         return this.creationOrder;
     }
 
+    /**
+     * Returns a new instance on every call, as callers (like the import transforms) modify it. Entries read recently
+     * are cached as JSON, which saves reading them from the zip again.
+     */
     public AtlasEntity.AtlasEntityWithExtInfo getEntityWithExtInfo(String guid) throws AtlasBaseException {
-        String s = getFromCache(guid);
-        AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo = convertFromJson(AtlasEntity.AtlasEntityWithExtInfo.class, s);
+        String s;
+
+        synchronized (entityCache) {
+            s = entityCache.get(guid);
+        }
+
+        if (s == null) {
+            s = getEntryAsString(guid);
+
+            if (s != null) {
+                synchronized (entityCache) {
+                    entityCache.put(guid, s);
+                }
+            }
+        }
+
+        AtlasEntityWithExtInfo entityWithExtInfo = convertFromJson(AtlasEntity.AtlasEntityWithExtInfo.class, s);
 
         if (importTransform != null) {
             entityWithExtInfo = importTransform.apply(entityWithExtInfo);
@@ -143,17 +199,38 @@ public class ZipSource implements EntityImportStream {
         }
     }
 
-    private String getFromCache(String entryName) {
-        return guidEntityJsonMap.get(entryName);
+    private boolean hasEntry(String entryName) {
+        return zipFile.getEntry(entryName + ENTRY_NAME_SUFFIX) != null;
+    }
+
+    private String getEntryAsString(String entryName) throws AtlasBaseException {
+        ZipEntry zipEntry = zipFile.getEntry(entryName + ENTRY_NAME_SUFFIX);
+
+        if (zipEntry == null) {
+            return null;
+        }
+
+        try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+            return IOUtils.toString(inputStream);
+        } catch (IOException e) {
+            throw new AtlasBaseException(String.format("Error reading '%s' from zip.", zipEntry.getName()), e);
+        }
     }
 
     public void close() {
         try {
-            inputStream.close();
-            guidEntityJsonMap.clear();
+            zipFile.close();
         }
         catch(IOException ex) {
-            LOG.warn("{}: Error closing streams.");
+            LOG.warn("{}: Error closing streams.", zipFileName, ex);
+        }
+
+        synchronized (entityCache) {
+            entityCache.clear();
+        }
+
+        if (isTempFile) {
+            FileUtils.deleteQuietly(zipFileName);
         }
     }
 
@@ -202,7 +279,7 @@ public class ZipSource implements EntityImportStream {
     }
 
     private AtlasEntity getEntity(String guid) throws AtlasBaseException {
-        if(guidEntityJsonMap.containsKey(guid)) {
+        if(!isImported(guid) && hasEntry(guid)) {
             AtlasEntityWithExtInfo extInfo = getEntityWithExtInfo(guid);
             return (extInfo != null) ? extInfo.getEntity() : null;
         }
@@ -216,9 +293,17 @@ public class ZipSource implements EntityImportStream {
 
     @Override
     public void onImportComplete(String guid) {
-        guidEntityJsonMap.remove(guid);
+        synchronized (entityCache) {
+            importedGuids.add(guid);
+            entityCache.remove(guid);
+        }
     }
 
+    private boolean isImported(String guid) {
+        synchronized (entityCache) {
+            return importedGuids.contains(guid);
+        }
+    }
 
     @Override
     public void setPosition(int index) {
@@ -248,5 +333,64 @@ public class ZipSource implements EntityImportStream {
         return currentPosition;
     }
 
+    private static File copyToTempFile(InputStream inputStream) throws IOException {
+        File ret = File.createTempFile("atlas-import-", ".zip");
+
+        try {
+            FileUtils.copyInputStreamToFile(inputStream, ret);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(ret);
 
+            throw e;
+        }
+
+        if (!isCompleteZipFile(ret)) {
+            try {
+                return rewriteEntries(ret);
+            } finally {
+                FileUtils.deleteQuietly(ret);
+            }
+        }
+
+        return ret;
+    }
+
+    private static boolean isCompleteZipFile(File file) {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // a stream that was not closed by its writer has no central directory, which ZipFile needs; its entries can
+    // still be read sequentially, so they are written to a complete zip
+    private static File rewriteEntries(File file) throws IOException {
+        File ret = File.createTempFile("atlas-import-", ".zip");
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(file));
+             ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(ret))) {
+            for (ZipEntry zipEntry = zipInputStream.getNextEntry(); zipEntry != null; zipEntry = zipInputStream.getNextEntry()) {
+                zipOutputStream.putNextEntry(new ZipEntry(zipEntry.getName()));
+
+                IOUtils.copy(zipInputStream, zipOutputStream);
+
+                zipOutputStream.closeEntry();
+            }
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(ret);
+
+            throw e;
+        }
+
+        return ret;
+    }
+
+    private static File checkExists(File file) throws FileNotFoundException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getPath());
+        }
+
+        return file;
+    }
 }
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.bootstrap;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.discovery.SearchPlanCache;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.AtlasTypeDefGraphStore;
+import org.apache.atlas.service.Service;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the type registry of a passive instance in HA mode up to date with the typedef updates made by the active
+ * instance, so that passive instances can serve read-only requests.
+ *
+ * The active instance updates the typedefs version in the graph in the transaction of each typedef update. A passive
+ * instance checks the version every refreshIntervalMs from a background thread, and reloads the type registry from
+ * the graph when the version differs from the one loaded. The type registry is then known to include all typedef
+ * updates committed before the last check; see getStalenessMs().
+ */
+@Component
+@Order(7)
+public class TypeRegistryRefreshService implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(TypeRegistryRefreshService.class);
+
+    private final AtlasTypeDefGraphStore typeDefStore;
+    private final AtlasGraph             graph;
+    private final SearchPlanCache        searchPlanCache;
+    private final boolean                isEnabled;
+    private final long                   refreshIntervalMs;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean         isPassive       = false;
+    private volatile long            lastRefreshTime = 0;
+
+    @Inject
+    public TypeRegistryRefreshService(AtlasTypeDefGraphStore typeDefStore, AtlasGraph graph, SearchPlanCache searchPlanCache) throws AtlasException {
+        this(typeDefStore, graph, searchPlanCache, ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    TypeRegistryRefreshService(AtlasTypeDefGraphStore typeDefStore, AtlasGraph graph, SearchPlanCache searchPlanCache, Configuration configuration) {
+        this.typeDefStore      = typeDefStore;
+        this.graph             = graph;
+        this.searchPlanCache   = searchPlanCache;
+        this.isEnabled         = HAConfiguration.isPassiveReadsEnabled(configuration);
+        this.refreshIntervalMs = Math.max(configuration.getLong(HAConfiguration.HA_PASSIVE_TYPEDEFS_REFRESH_INTERVAL_MS,
+                                                                HAConfiguration.DEFAULT_PASSIVE_TYPEDEFS_REFRESH_INTERVAL_MS), 1000);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        // instances in HA mode start as passive
+        if (isEnabled) {
+            startWorker();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopWorker();
+    }
+
+    @Override
+    public void instanceIsActive() {
+        LOG.info("Reacting to active state: stopping type registry refresh");
+
+        // the active instance updates the type registry along with typedefs
+        stopWorker();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        if (isEnabled) {
+            LOG.info("Reacting to passive state: starting type registry refresh");
+
+            startWorker();
+        }
+    }
+
+    /**
+     * @return milliseconds since the type registry was last verified to include all typedef updates in the graph;
+     *         0 if the type registry is not refreshed by this service, Long.MAX_VALUE if it was not verified yet
+     */
+    public long getStalenessMs() {
+        if (!isPassive) {
+            return 0;
+        }
+
+        long refreshTime = lastRefreshTime;
+
+        return refreshTime > 0 ? Math.max(System.currentTimeMillis() - refreshTime, 0) : Long.MAX_VALUE;
+    }
+
+    @VisibleForTesting
+    void refresh() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            long version       = typeDefStore.getTypeDefsVersion();
+            long loadedVersion = typeDefStore.getLoadedTypeDefsVersion();
+
+            if (version != loadedVersion) {
+                LOG.info("typedefs version changed from {} to {}: reloading type registry", loadedVersion, version);
+
+                typeDefStore.init();
+
+                searchPlanCache.clear();
+            }
+
+            lastRefreshTime = startTime;
+        } catch (Throwable t) {
+            LOG.error("Failed to refresh type registry", t);
+        } finally {
+            // end the read transaction, so that the next check reads the latest version
+            graph.rollback();
+        }
+    }
+
+    private synchronized void startWorker() {
+        if (executor != null) {
+            return;
+        }
+
+        isPassive       = true;
+        lastRefreshTime = 0;
+        executor        = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-typeregistry-refresh-%d")
+                                                                                                .setDaemon(true).build());
+
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                refresh();
+            }
+        }, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopWorker() {
+        isPassive = false;
+
+        if (executor != null) {
+            executor.shutdownNow();
+
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOG.warn("Timed out waiting for the type registry refresh to stop");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            executor = null;
+        }
+    }
+}
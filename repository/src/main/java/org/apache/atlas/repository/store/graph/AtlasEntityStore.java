@@ -76,6 +76,15 @@ public interface AtlasEntityStore {
      */
     EntityMutationResponse bulkImport(EntityImportStream entityStream, AtlasImportResult importResult) throws AtlasBaseException;
 
+    /**
+     * Create or update entities read from an import, in a single transaction; entities referenced from the stream
+     * that are not in it are looked up in the import source
+     * @param entityStream AtlasEntityStreamForImport
+     * @return EntityMutationResponse Entity mutations operations with the corresponding set of entities on which these operations were performed
+     * @throws AtlasBaseException
+     */
+    EntityMutationResponse createOrUpdateForImport(EntityImportStream entityStream) throws AtlasBaseException;
+
     /**
      * Update a single entity
      * @param entityType     type of the entity
@@ -58,6 +58,7 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
     private final AtlasTypeRegistry          typeRegistry;
     private final Set<TypeDefChangeListener> typeDefChangeListeners;
     private final int                        typeUpdateLockMaxWaitTimeSeconds;
+    private volatile long                    loadedTypeDefsVersion = -1;
 
     protected AtlasTypeDefGraphStore(AtlasTypeRegistry typeRegistry,
                                      Set<TypeDefChangeListener> typeDefChangeListeners) {
@@ -76,6 +77,25 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
 
     protected abstract AtlasDefStore<AtlasRelationshipDef> getRelationshipDefStore(AtlasTypeRegistry typeRegistry);
 
+    /**
+     * @return version of the typedefs in the store; it changes with every typedef update
+     */
+    public abstract long getTypeDefsVersion();
+
+    /**
+     * Updates the version of the typedefs in the store, in the transaction of a typedef update.
+     *
+     * @return the new version
+     */
+    protected abstract long updateTypeDefsVersion();
+
+    /**
+     * @return version of the typedefs in the store when they were loaded in the type registry; -1 if not known
+     */
+    public long getLoadedTypeDefsVersion() {
+        return loadedTypeDefsVersion;
+    }
+
     @Override
     public void init() throws AtlasBaseException {
         LOG.info("==> AtlasTypeDefGraphStore.init()");
@@ -86,6 +106,8 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
         try {
             ttr = typeRegistry.lockTypeRegistryForUpdate(typeUpdateLockMaxWaitTimeSeconds);
 
+            long typeDefsVersion = getTypeDefsVersion();
+
             ttr.clear();
 
             AtlasTypesDef typesDef = new AtlasTypesDef(getEnumDefStore(ttr).getAll(),
@@ -98,7 +120,8 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
 
             ttr.addTypes(typesDef);
 
-            commitUpdates = true;
+            commitUpdates         = true;
+            loadedTypeDefsVersion = typeDefsVersion;
         } finally {
             typeRegistry.releaseTypeRegistryForUpdate(ttr, commitUpdates);
 
@@ -685,7 +708,9 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
     private AtlasTransientTypeRegistry lockTypeRegistryAndReleasePostCommit() throws AtlasBaseException {
         AtlasTransientTypeRegistry ttr = typeRegistry.lockTypeRegistryForUpdate(typeUpdateLockMaxWaitTimeSeconds);
 
-        new TypeRegistryUpdateHook(ttr);
+        TypeRegistryUpdateHook hook = new TypeRegistryUpdateHook(ttr);
+
+        hook.typeDefsVersion = updateTypeDefsVersion();
 
         return ttr;
     }
@@ -935,6 +960,7 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
     private class TypeRegistryUpdateHook extends GraphTransactionInterceptor.PostTransactionHook {
 
         private final AtlasTransientTypeRegistry ttr;
+        private       long                       typeDefsVersion = -1;
 
         private TypeRegistryUpdateHook(AtlasTransientTypeRegistry ttr) {
             super();
@@ -950,6 +976,8 @@ public abstract class AtlasTypeDefGraphStore implements AtlasTypeDefStore {
             typeRegistry.releaseTypeRegistryForUpdate(ttr, isSuccess);
 
             if (isSuccess) {
+                loadedTypeDefsVersion = typeDefsVersion;
+
                 notifyListeners(ttr);
             }
 
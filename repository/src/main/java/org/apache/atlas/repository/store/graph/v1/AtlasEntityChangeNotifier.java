@@ -18,8 +18,11 @@
 package org.apache.atlas.repository.store.graph.v1;
 
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContextV1;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.listener.EntityChangeListener;
 import org.apache.atlas.model.instance.AtlasClassification;
@@ -28,9 +31,11 @@ import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
 import org.apache.atlas.repository.graph.FullTextMapperV2;
 import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.typesystem.ITypedReferenceableInstance;
 import org.apache.atlas.typesystem.ITypedStruct;
 import org.apache.atlas.util.AtlasRepositoryConfiguration;
@@ -40,10 +45,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -53,6 +61,7 @@ public class AtlasEntityChangeNotifier {
 
     private final Set<EntityChangeListener> entityChangeListeners;
     private final AtlasInstanceConverter    instanceConverter;
+    private final EntityChangeDispatcher    changeDispatcher;
 
     @Inject
     private FullTextMapperV2 fullTextMapperV2;
@@ -60,8 +69,30 @@ public class AtlasEntityChangeNotifier {
     @Inject
     public AtlasEntityChangeNotifier(Set<EntityChangeListener> entityChangeListeners,
                                      AtlasInstanceConverter    instanceConverter) {
+        this(entityChangeListeners, instanceConverter, createChangeDispatcher(entityChangeListeners, instanceConverter));
+    }
+
+    public AtlasEntityChangeNotifier(Set<EntityChangeListener> entityChangeListeners,
+                                     AtlasInstanceConverter    instanceConverter,
+                                     EntityChangeDispatcher    changeDispatcher) {
         this.entityChangeListeners = entityChangeListeners;
         this.instanceConverter     = instanceConverter;
+        this.changeDispatcher      = changeDispatcher;
+    }
+
+    /**
+     * @return the dispatcher that notifies the listeners of entity changes after commit; null if the listeners
+     * are notified within the transaction
+     */
+    public EntityChangeDispatcher getChangeDispatcher() {
+        return changeDispatcher;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (changeDispatcher != null) {
+            changeDispatcher.stop();
+        }
     }
 
     public void onEntitiesMutated(EntityMutationResponse entityMutationResponse, boolean isImport) throws AtlasBaseException {
@@ -80,6 +111,12 @@ public class AtlasEntityChangeNotifier {
         doFullTextMapping(updatedEntities);
         doFullTextMapping(partiallyUpdatedEntities);
 
+        if (changeDispatcher != null) {
+            new EntityChangeDispatchHook(entityMutationResponse, isImport);
+
+            return;
+        }
+
         notifyListeners(createdEntities, EntityOperation.CREATE, isImport);
         notifyListeners(updatedEntities, EntityOperation.UPDATE, isImport);
         notifyListeners(partiallyUpdatedEntities, EntityOperation.PARTIAL_UPDATE, isImport);
@@ -87,9 +124,8 @@ public class AtlasEntityChangeNotifier {
     }
 
     public void onClassificationAddedToEntity(String entityId, List<AtlasClassification> classifications) throws AtlasBaseException {
-        // Only new classifications need to be used for a partial full text string which can be
-        // appended to the existing fullText
-        updateFullTextMapping(entityId, classifications);
+        // Only new classifications need to be mapped, into segments added to the existing full text
+        updateFullTextMapping(entityId, classifications, null);
 
         ITypedReferenceableInstance entity = toITypedReferenceable(entityId);
         List<ITypedStruct>          traits = toITypedStructs(classifications);
@@ -108,8 +144,8 @@ public class AtlasEntityChangeNotifier {
     }
 
     public void onClassificationDeletedFromEntity(String entityId, List<String> traitNames) throws AtlasBaseException {
-        // Since the entity has already been modified in the graph, we need to recursively remap the entity
-        doFullTextMapping(entityId);
+        // Only the segments of the deleted classifications need to be removed from the existing full text
+        updateFullTextMapping(entityId, null, traitNames);
 
         ITypedReferenceableInstance entity = toITypedReferenceable(entityId);
 
@@ -127,8 +163,8 @@ public class AtlasEntityChangeNotifier {
     }
 
     public void onClassificationUpdatedToEntity(String entityId, List<AtlasClassification> classifications) throws AtlasBaseException {
-        // Since the classification attributes are updated in the graph, we need to recursively remap the entityText
-        doFullTextMapping(entityId);
+        // Only the updated classifications need to be remapped, into segments that replace the existing ones
+        updateFullTextMapping(entityId, classifications, null);
 
         ITypedReferenceableInstance entity = toITypedReferenceable(entityId);
         List<ITypedStruct>          traits = toITypedStructs(classifications);
@@ -146,6 +182,18 @@ public class AtlasEntityChangeNotifier {
         }
     }
 
+    private static EntityChangeDispatcher createChangeDispatcher(Set<EntityChangeListener> entityChangeListeners, AtlasInstanceConverter instanceConverter) {
+        if (!AtlasConfiguration.NOTIFICATION_ASYNC_DISPATCH_ENABLED.getBoolean() || CollectionUtils.isEmpty(entityChangeListeners)) {
+            return null;
+        }
+
+        return new EntityChangeDispatcher(entityChangeListeners, instanceConverter, AtlasGraphProvider.getGraphInstance(),
+                                          AtlasConfiguration.NOTIFICATION_ASYNC_QUEUE_SIZE.getInt(),
+                                          AtlasConfiguration.NOTIFICATION_ASYNC_BATCH_SIZE.getInt(),
+                                          AtlasConfiguration.NOTIFICATION_ASYNC_COALESCE_WINDOW_MS.getLong(),
+                                          AtlasConfiguration.NOTIFICATION_ASYNC_ENQUEUE_TIMEOUT_MS.getLong());
+    }
+
     private String getListenerName(EntityChangeListener listener) {
         return listener.getClass().getSimpleName();
     }
@@ -214,18 +262,10 @@ public class AtlasEntityChangeNotifier {
     }
 
     private void doFullTextMapping(List<AtlasEntityHeader> atlasEntityHeaders) {
-        if (CollectionUtils.isEmpty(atlasEntityHeaders)) {
+        if (CollectionUtils.isEmpty(atlasEntityHeaders) || !isFullTextSearchEnabled()) {
             return;
         }
 
-        try {
-            if(!AtlasRepositoryConfiguration.isFullTextSearchEnabled()) {
-                return;
-            }
-        } catch (AtlasException e) {
-            LOG.warn("Unable to determine if FullText is disabled. Proceeding with FullText mapping");
-        }
-
         for (AtlasEntityHeader atlasEntityHeader : atlasEntityHeaders) {
             String      guid        = atlasEntityHeader.getGuid();
             AtlasVertex atlasVertex = AtlasGraphUtilsV1.findByGuid(guid);
@@ -235,44 +275,55 @@ public class AtlasEntityChangeNotifier {
             }
 
             try {
-                String fullText = fullTextMapperV2.getIndexTextForEntity(guid);
-
-                GraphHelper.setProperty(atlasVertex, Constants.ENTITY_TEXT_PROPERTY_KEY, fullText);
+                setFullText(atlasVertex, fullTextMapperV2.getIndexTextSegmentsForEntity(guid));
             } catch (AtlasBaseException e) {
                 LOG.error("FullText mapping failed for Vertex[ guid = {} ]", guid, e);
             }
         }
     }
 
-    private void updateFullTextMapping(String entityId, List<AtlasClassification> classifications) {
-        try {
-            if(!AtlasRepositoryConfiguration.isFullTextSearchEnabled()) {
-                return;
-            }
-        } catch (AtlasException e) {
-            LOG.warn("Unable to determine if FullText is disabled. Proceeding with FullText mapping");
-        }
-
-        if (StringUtils.isEmpty(entityId) || CollectionUtils.isEmpty(classifications)) {
+    /**
+     * Updates the full text of the entity with the segments of the given classifications, and without the segments
+     * of the deleted classifications. The entity is remapped completely if its full text has no segments yet, or if
+     * the full text was updated without them.
+     */
+    private void updateFullTextMapping(String entityId, List<AtlasClassification> classifications, List<String> deletedClassificationNames) {
+        if (StringUtils.isEmpty(entityId) || (CollectionUtils.isEmpty(classifications) && CollectionUtils.isEmpty(deletedClassificationNames)) ||
+            !isFullTextSearchEnabled()) {
             return;
         }
 
         AtlasVertex atlasVertex = AtlasGraphUtilsV1.findByGuid(entityId);
-        if(atlasVertex == null) {
-            return;
-        }
 
         if (atlasVertex == null) {
             LOG.warn("updateFullTextMapping(): no entity exists with guid {}", entityId);
             return;
         }
 
+        Map<String, String> segments = getFullTextSegments(atlasVertex);
+
+        if (segments == null) {
+            doFullTextMapping(entityId);
+
+            return;
+        }
+
         try {
-            String classificationFullText = fullTextMapperV2.getIndexTextForClassifications(entityId, classifications);
-            String existingFullText = (String) GraphHelper.getProperty(atlasVertex, Constants.ENTITY_TEXT_PROPERTY_KEY);
+            if (CollectionUtils.isNotEmpty(deletedClassificationNames)) {
+                for (String classificationName : deletedClassificationNames) {
+                    segments.remove(FullTextMapperV2.getClassificationSegmentName(classificationName));
+                }
+            }
+
+            if (CollectionUtils.isNotEmpty(classifications)) {
+                Map<String, String> classificationSegments = fullTextMapperV2.getIndexTextSegmentsForClassifications(entityId, classifications);
 
-            String newFullText = existingFullText + " " + classificationFullText;
-            GraphHelper.setProperty(atlasVertex, Constants.ENTITY_TEXT_PROPERTY_KEY, newFullText);
+                if (classificationSegments != null) {
+                    segments.putAll(classificationSegments);
+                }
+            }
+
+            setFullText(atlasVertex, segments);
         } catch (AtlasBaseException e) {
             LOG.error("FullText mapping failed for Vertex[ guid = {} ]", entityId, e);
         }
@@ -284,4 +335,158 @@ public class AtlasEntityChangeNotifier {
 
         doFullTextMapping(Collections.singletonList(entityHeader));
     }
+
+    /**
+     * @return full text segments of the entity; null if the entity has none, or if they don't make up its full text
+     */
+    private Map<String, String> getFullTextSegments(AtlasVertex atlasVertex) {
+        Map<String, String> ret          = null;
+        String              segmentsJson = atlasVertex.getProperty(Constants.ENTITY_TEXT_SEGMENTS_PROPERTY_KEY, String.class);
+
+        if (StringUtils.isNotEmpty(segmentsJson)) {
+            ret = AtlasType.fromJson(segmentsJson, LinkedHashMap.class);
+
+            if (ret != null && !StringUtils.equals(FullTextMapperV2.getIndexText(ret),
+                                                   atlasVertex.getProperty(Constants.ENTITY_TEXT_PROPERTY_KEY, String.class))) {
+                ret = null;
+            }
+        }
+
+        return ret;
+    }
+
+    // properties are written only when changed, to avoid index updates for unchanged full text
+    private void setFullText(AtlasVertex atlasVertex, Map<String, String> segments) {
+        if (segments == null) {
+            return;
+        }
+
+        String fullText     = FullTextMapperV2.getIndexText(segments);
+        String segmentsJson = AtlasType.toJson(segments);
+
+        if (!StringUtils.equals(fullText, atlasVertex.getProperty(Constants.ENTITY_TEXT_PROPERTY_KEY, String.class))) {
+            GraphHelper.setProperty(atlasVertex, Constants.ENTITY_TEXT_PROPERTY_KEY, fullText);
+        }
+
+        if (!StringUtils.equals(segmentsJson, atlasVertex.getProperty(Constants.ENTITY_TEXT_SEGMENTS_PROPERTY_KEY, String.class))) {
+            GraphHelper.setProperty(atlasVertex, Constants.ENTITY_TEXT_SEGMENTS_PROPERTY_KEY, segmentsJson);
+        }
+    }
+
+    private boolean isFullTextSearchEnabled() {
+        try {
+            return AtlasRepositoryConfiguration.isFullTextSearchEnabled();
+        } catch (AtlasException e) {
+            LOG.warn("Unable to determine if FullText is disabled. Proceeding with FullText mapping");
+
+            return true;
+        }
+    }
+
+    /**
+     * Queues the changes of a transaction with the change dispatcher once the transaction is committed. Deleted
+     * entities are read now, as they may not be in the graph after commit. Changes that can't be queued, because
+     * the queue stays full, are sent to the listeners from this thread.
+     */
+    private class EntityChangeDispatchHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final EntityMutationResponse            entityMutationResponse;
+        private final boolean                           isImport;
+        private final String                            user;
+        private final long                              requestTime;
+        private final List<ITypedReferenceableInstance> deletedInstances;
+
+        private EntityChangeDispatchHook(EntityMutationResponse entityMutationResponse, boolean isImport) throws AtlasBaseException {
+            super();
+
+            List<AtlasEntityHeader> deletedEntities = entityMutationResponse.getDeletedEntities();
+
+            this.entityMutationResponse = entityMutationResponse;
+            this.isImport               = isImport;
+            this.user                   = RequestContextV1.get().getUser();
+            this.requestTime            = RequestContextV1.get().getRequestTime();
+            this.deletedInstances       = CollectionUtils.isEmpty(deletedEntities) ? null : toITypedReferenceable(deletedEntities);
+        }
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            if (!isSuccess) {
+                return;
+            }
+
+            enqueue(entityMutationResponse.getCreatedEntities(), EntityOperation.CREATE);
+            enqueue(entityMutationResponse.getUpdatedEntities(), EntityOperation.UPDATE);
+            enqueue(entityMutationResponse.getPartialUpdatedEntities(), EntityOperation.PARTIAL_UPDATE);
+
+            if (deletedInstances != null) {
+                List<ITypedReferenceableInstance> notQueued = new ArrayList<>();
+
+                for (ITypedReferenceableInstance instance : deletedInstances) {
+                    if (!enqueue(instance.getId()._getId(), EntityOperation.DELETE, instance)) {
+                        notQueued.add(instance);
+                    }
+                }
+
+                notifyListenersAfterCommit(notQueued, EntityOperation.DELETE);
+            }
+        }
+
+        private void enqueue(List<AtlasEntityHeader> entityHeaders, EntityOperation operation) {
+            if (CollectionUtils.isEmpty(entityHeaders)) {
+                return;
+            }
+
+            List<AtlasEntityHeader> notQueued = new ArrayList<>();
+
+            for (AtlasEntityHeader entityHeader : entityHeaders) {
+                if (!enqueue(entityHeader.getGuid(), operation, null)) {
+                    notQueued.add(entityHeader);
+                }
+            }
+
+            if (!notQueued.isEmpty()) {
+                try {
+                    notifyListenersAfterCommit(toITypedReferenceable(notQueued), operation);
+                } catch (AtlasBaseException e) {
+                    LOG.error("{} notification failed for {} entities", operation, notQueued.size(), e);
+                }
+            }
+        }
+
+        private boolean enqueue(String guid, EntityOperation operation, ITypedReferenceableInstance instance) {
+            try {
+                return changeDispatcher.enqueue(guid, operation, instance, isImport, user, requestTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return false;
+            }
+        }
+
+        private void notifyListenersAfterCommit(List<ITypedReferenceableInstance> instances, EntityOperation operation) {
+            if (instances.isEmpty()) {
+                return;
+            }
+
+            LOG.warn("entity change queue is full; notifying listeners of {} {} changes synchronously", instances.size(), operation);
+
+            for (EntityChangeListener listener : entityChangeListeners) {
+                try {
+                    switch (operation) {
+                        case CREATE:
+                            listener.onEntitiesAdded(instances, isImport);
+                            break;
+                        case UPDATE:
+                        case PARTIAL_UPDATE:
+                            listener.onEntitiesUpdated(instances, isImport);
+                            break;
+                        case DELETE:
+                            listener.onEntitiesDeleted(instances, isImport);
+                            break;
+                    }
+                } catch (AtlasException e) {
+                    LOG.error("{} notification failed for listener {}", operation, getListenerName(listener), e);
+                }
+            }
+        }
+    }
 }
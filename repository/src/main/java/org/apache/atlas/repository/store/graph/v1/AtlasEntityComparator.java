@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasStruct;
+import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
+import org.apache.atlas.type.AtlasArrayType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasMapType;
+import org.apache.atlas.type.AtlasStructType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+
+/**
+ * Compares an entity being updated with the current state of its vertex, so that attributes (and entities)
+ * that would be written with the values they already have can be left out of the mutation.
+ */
+public class AtlasEntityComparator {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasEntityComparator.class);
+
+    private final EntityGraphRetriever        entityRetriever;
+    private final EntityGraphDiscoveryContext discoveryContext;
+
+    public AtlasEntityComparator(AtlasTypeRegistry typeRegistry, EntityGraphDiscoveryContext discoveryContext) {
+        this.entityRetriever  = new EntityGraphRetriever(typeRegistry);
+        this.discoveryContext = discoveryContext;
+    }
+
+    /**
+     * Returns the given entity with the attributes that don't change the vertex left out; unique attributes are
+     * always retained. Relationship attributes are not compared, and are retained as given.
+     *
+     * @return null if the entity doesn't change any attribute of the vertex
+     */
+    public AtlasEntity getChangedEntity(AtlasEntity entity, AtlasEntityType entityType, AtlasVertex vertex) throws AtlasBaseException {
+        if (AtlasGraphUtilsV1.getState(vertex) != ACTIVE) {
+            return entity;
+        }
+
+        boolean             hasChanges     = entity.getRelationshipAttributes() != null && !entity.getRelationshipAttributes().isEmpty();
+        Map<String, Object> changedAttribs = new HashMap<>();
+
+        if (entity.getAttributes() != null) {
+            for (Map.Entry<String, Object> e : entity.getAttributes().entrySet()) {
+                String         attrName  = e.getKey();
+                AtlasAttribute attribute = entityType.getAttribute(attrName);
+
+                if (attribute == null) { // ignored by EntityGraphMapper
+                    continue;
+                }
+
+                if (entityType.getUniqAttributes().containsKey(attrName)) { // needed to construct the entity header
+                    changedAttribs.put(attrName, e.getValue());
+                }
+
+                Object curValue = entityRetriever.getVertexAttribute(vertex, attribute);
+
+                if (!areEqual(attribute.getAttributeType(), e.getValue(), curValue)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("{}.{} changed", entity.getGuid(), attribute.getQualifiedName());
+                    }
+
+                    changedAttribs.put(attrName, e.getValue());
+
+                    hasChanges = true;
+                }
+            }
+        }
+
+        if (!hasChanges) {
+            return null;
+        } else if (entity.getAttributes() == null) { // only relationship attributes given
+            return entity;
+        }
+
+        AtlasEntity ret = new AtlasEntity(entity);
+
+        ret.setAttributes(changedAttribs);
+        ret.setRelationshipAttributes(entity.getRelationshipAttributes());
+
+        return ret;
+    }
+
+    private boolean areEqual(AtlasType attrType, Object newValue, Object curValue) throws AtlasBaseException {
+        if (isEmpty(newValue) || isEmpty(curValue)) {
+            return isEmpty(newValue) && isEmpty(curValue);
+        }
+
+        switch (attrType.getTypeCategory()) {
+            case PRIMITIVE:
+            case ENUM:
+                return arePrimitivesEqual(attrType.getNormalizedValue(newValue), attrType.getNormalizedValue(curValue));
+
+            case OBJECT_ID_TYPE:
+                return isSameEntity(newValue, curValue);
+
+            case STRUCT:
+                return areStructsEqual((AtlasStructType) attrType, newValue, curValue);
+
+            case ARRAY:
+                return areArraysEqual(((AtlasArrayType) attrType).getElementType(), newValue, curValue);
+
+            case MAP:
+                return areMapsEqual(((AtlasMapType) attrType).getValueType(), newValue, curValue);
+
+            default:
+                return false;
+        }
+    }
+
+    private boolean arePrimitivesEqual(Object newValue, Object curValue) {
+        if (newValue == null || curValue == null) {
+            return newValue == curValue;
+        }
+
+        if (newValue instanceof Date && curValue instanceof Date) {
+            return ((Date) newValue).getTime() == ((Date) curValue).getTime();
+        }
+
+        if (newValue instanceof BigDecimal && curValue instanceof BigDecimal) {
+            return ((BigDecimal) newValue).compareTo((BigDecimal) curValue) == 0;
+        }
+
+        return newValue.equals(curValue);
+    }
+
+    private boolean isSameEntity(Object newValue, Object curValue) throws AtlasBaseException {
+        AtlasObjectId newObjId = toObjectId(newValue);
+        AtlasObjectId curObjId = toObjectId(curValue);
+
+        if (newObjId == null || curObjId == null) {
+            return false;
+        }
+
+        AtlasVertex newVertex = null;
+
+        if (StringUtils.isNotEmpty(newObjId.getGuid())) {
+            newVertex = discoveryContext.getResolvedEntityVertex(newObjId.getGuid());
+        }
+
+        if (newVertex == null && StringUtils.isNotEmpty(newObjId.getTypeName()) && newObjId.getUniqueAttributes() != null && !newObjId.getUniqueAttributes().isEmpty()) {
+            newVertex = discoveryContext.getResolvedEntityVertex(newObjId);
+        }
+
+        // a reference to an entity that is being created in this request would not resolve to a vertex yet
+        return newVertex != null && StringUtils.equals(GraphHelper.getGuid(newVertex), curObjId.getGuid());
+    }
+
+    private boolean areStructsEqual(AtlasStructType structType, Object newValue, Object curValue) throws AtlasBaseException {
+        AtlasStruct newStruct = toStruct(structType, newValue);
+        AtlasStruct curStruct = toStruct(structType, curValue);
+
+        if (newStruct == null || curStruct == null) {
+            return false;
+        }
+
+        // the struct vertex is replaced on update, so attributes not given in the new value would be cleared
+        for (AtlasAttribute attribute : structType.getAllAttributes().values()) {
+            String attrName = attribute.getName();
+
+            if (!areEqual(attribute.getAttributeType(), newStruct.getAttribute(attrName), curStruct.getAttribute(attrName))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean areArraysEqual(AtlasType elementType, Object newValue, Object curValue) throws AtlasBaseException {
+        List<Object> newList = toList(newValue);
+        List<Object> curList = toList(curValue);
+
+        if (newList == null || curList == null || newList.size() != curList.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < newList.size(); i++) {
+            if (!areEqual(elementType, newList.get(i), curList.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean areMapsEqual(AtlasType valueType, Object newValue, Object curValue) throws AtlasBaseException {
+        if (!(newValue instanceof Map) || !(curValue instanceof Map)) {
+            return false;
+        }
+
+        Map<?, ?> newMap = (Map<?, ?>) newValue;
+        Map<?, ?> curMap = (Map<?, ?>) curValue;
+
+        if (newMap.size() != curMap.size()) {
+            return false;
+        }
+
+        for (Map.Entry<?, ?> e : newMap.entrySet()) {
+            String key = e.getKey() != null ? e.getKey().toString() : null;
+
+            if (!curMap.containsKey(key) || !areEqual(valueType, e.getValue(), curMap.get(key))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value == null) {
+            return true;
+        } else if (value instanceof Collection) {
+            return ((Collection) value).isEmpty();
+        } else if (value instanceof Map) {
+            return ((Map) value).isEmpty();
+        } else if (value instanceof Object[]) {
+            return ((Object[]) value).length == 0;
+        }
+
+        return false;
+    }
+
+    private static AtlasObjectId toObjectId(Object value) {
+        if (value instanceof AtlasObjectId) {
+            return (AtlasObjectId) value;
+        } else if (value instanceof Map) {
+            return new AtlasObjectId((Map) value);
+        }
+
+        return null;
+    }
+
+    private static AtlasStruct toStruct(AtlasStructType structType, Object value) {
+        if (value instanceof AtlasStruct) {
+            return (AtlasStruct) value;
+        } else if (value instanceof Map) {
+            return new AtlasStruct(structType.getTypeName(), (Map<String, Object>) value);
+        }
+
+        return null;
+    }
+
+    private static List<Object> toList(Object value) {
+        if (value instanceof List) {
+            return (List<Object>) value;
+        } else if (value instanceof Collection) {
+            return new ArrayList<>((Collection<Object>) value);
+        } else if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+
+        return null;
+    }
+}
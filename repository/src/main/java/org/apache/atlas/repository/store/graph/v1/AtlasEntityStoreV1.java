@@ -18,6 +18,7 @@
 package org.apache.atlas.repository.store.graph.v1;
 
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContextV1;
@@ -70,14 +71,24 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
     private final AtlasTypeRegistry         typeRegistry;
     private final AtlasEntityChangeNotifier entityChangeNotifier;
     private final EntityGraphMapper         entityGraphMapper;
+    private final EntityCache               entityCache;
+    private final boolean                   skipUnchangedEntityUpdates;
 
-    @Inject
     public AtlasEntityStoreV1(DeleteHandlerV1 deleteHandler, AtlasTypeRegistry typeRegistry,
                               AtlasEntityChangeNotifier entityChangeNotifier, EntityGraphMapper entityGraphMapper) {
-        this.deleteHandler        = deleteHandler;
-        this.typeRegistry         = typeRegistry;
-        this.entityChangeNotifier = entityChangeNotifier;
-        this.entityGraphMapper    = entityGraphMapper;
+        this(deleteHandler, typeRegistry, entityChangeNotifier, entityGraphMapper, null);
+    }
+
+    @Inject
+    public AtlasEntityStoreV1(DeleteHandlerV1 deleteHandler, AtlasTypeRegistry typeRegistry,
+                              AtlasEntityChangeNotifier entityChangeNotifier, EntityGraphMapper entityGraphMapper,
+                              EntityCache entityCache) {
+        this.deleteHandler              = deleteHandler;
+        this.typeRegistry               = typeRegistry;
+        this.entityChangeNotifier       = entityChangeNotifier;
+        this.entityGraphMapper          = entityGraphMapper;
+        this.entityCache                = entityCache;
+        this.skipUnchangedEntityUpdates = AtlasConfiguration.STORE_SKIP_UNCHANGED_ENTITY_UPDATES.getBoolean();
     }
 
     @Override
@@ -87,7 +98,7 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
             LOG.debug("==> getById({})", guid);
         }
 
-        EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry);
+        EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry, entityCache);
 
         AtlasEntityWithExtInfo ret = entityRetriever.toAtlasEntityWithExtInfo(guid);
 
@@ -130,7 +141,7 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         AtlasVertex entityVertex = AtlasGraphUtilsV1.getVertexByUniqueAttributes(entityType, uniqAttributes);
 
-        EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry);
+        EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry, entityCache);
 
         AtlasEntityWithExtInfo ret = entityRetriever.toAtlasEntityWithExtInfo(entityVertex);
 
@@ -275,6 +286,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
             LOG.debug("<== createOrUpdate()");
         }
 
+        invalidateEntityCache(ret);
+
         // Notify the change listeners
         entityChangeNotifier.onEntitiesMutated(ret, entityStream instanceof EntityImportStream);
 
@@ -287,8 +300,9 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
         return createOrUpdate(entityStream, isPartialUpdate, false);
     }
 
+    @Override
     @GraphTransaction
-    private EntityMutationResponse createOrUpdateForImport(EntityStream entityStream) throws AtlasBaseException {
+    public EntityMutationResponse createOrUpdateForImport(EntityImportStream entityStream) throws AtlasBaseException {
         return createOrUpdate(entityStream, false, true);
     }
 
@@ -390,6 +404,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         EntityMutationResponse ret = deleteVertices(deletionCandidates);
 
+        invalidateEntityCache(ret);
+
         // Notify the change listeners
         entityChangeNotifier.onEntitiesMutated(ret, false);
 
@@ -426,6 +442,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         EntityMutationResponse ret = deleteVertices(deletionCandidates);
 
+        invalidateEntityCache(ret);
+
         // Notify the change listeners
         entityChangeNotifier.onEntitiesMutated(ret, false);
 
@@ -456,6 +474,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         EntityMutationResponse ret = deleteVertices(deletionCandidates);
 
+        invalidateEntityCache(ret);
+
         // Notify the change listeners
         entityChangeNotifier.onEntitiesMutated(ret, false);
 
@@ -486,6 +506,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         entityGraphMapper.addClassifications(new EntityMutationContext(), guid, classifications);
 
+        invalidateEntityCache(Collections.singletonList(guid));
+
         // notify listeners on classification addition
         entityChangeNotifier.onClassificationAddedToEntity(guid, classifications);
     }
@@ -531,6 +553,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
             updatedClassifications.add(oldClassification);
         }
 
+        invalidateEntityCache(Collections.singletonList(guid));
+
         // notify listeners on update to classifications
         entityChangeNotifier.onClassificationUpdatedToEntity(guid, updatedClassifications);
     }
@@ -553,6 +577,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         validateAndNormalize(classification);
 
+        invalidateEntityCache(guids);
+
         List<AtlasClassification> classifications = Collections.singletonList(classification);
 
         for (String guid : guids) {
@@ -585,6 +611,8 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
 
         entityGraphMapper.deleteClassifications(guid, classificationNames);
 
+        invalidateEntityCache(Collections.singletonList(guid));
+
         // notify listeners on classification deletion
         entityChangeNotifier.onClassificationDeletedFromEntity(guid, classificationNames);
     }
@@ -615,6 +643,12 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
         EntityGraphDiscovery        graphDiscoverer  = new AtlasEntityGraphDiscoveryV1(typeRegistry, entityStream);
         EntityGraphDiscoveryContext discoveryContext = graphDiscoverer.discoverEntities();
         EntityMutationContext       context          = new EntityMutationContext(discoveryContext);
+        AtlasEntityComparator       entityComparator = null;
+
+        // entities in an import are written as given, including their system attributes
+        if (skipUnchangedEntityUpdates && !(entityStream instanceof EntityImportStream)) {
+            entityComparator = new AtlasEntityComparator(typeRegistry, discoveryContext);
+        }
 
         for (String guid : discoveryContext.getReferencedGuids()) {
             AtlasVertex vertex = discoveryContext.getResolvedEntityVertex(guid);
@@ -638,7 +672,17 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
                         entity.setGuid(guidVertex);
                     }
 
-                    context.addUpdated(guid, entity, entityType, vertex);
+                    AtlasEntity changedEntity = entityComparator != null ? entityComparator.getChangedEntity(entity, entityType, vertex) : entity;
+
+                    if (changedEntity != null) {
+                        context.addUpdated(guid, changedEntity, entityType, vertex);
+                    } else {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("skipping update of entity {}: no changes", guidVertex);
+                        }
+
+                        context.addUnchanged(guid, entity, entityType, vertex);
+                    }
                 } else {
                     graphDiscoverer.validateAndNormalize(entity);
 
@@ -755,6 +799,18 @@ public class AtlasEntityStoreV1 implements AtlasEntityStore {
         return ret;
     }
 
+    private void invalidateEntityCache(EntityMutationResponse mutationResponse) {
+        if (entityCache != null) {
+            entityCache.invalidate(mutationResponse);
+        }
+    }
+
+    private void invalidateEntityCache(List<String> guids) {
+        if (entityCache != null) {
+            entityCache.invalidate(guids);
+        }
+    }
+
     private static class EntityImportStreamWithResidualList {
         private final EntityImportStream stream;
         private final List<String>       residualList;
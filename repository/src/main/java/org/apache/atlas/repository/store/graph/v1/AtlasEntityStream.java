@@ -43,6 +43,12 @@ public class AtlasEntityStream implements EntityStream {
         this.entityStream        = null;
     }
 
+    public AtlasEntityStream(AtlasEntitiesWithExtInfo entitiesWithExtInfo, EntityStream entityStream) {
+        this.entitiesWithExtInfo = entitiesWithExtInfo;
+        this.iterator            = this.entitiesWithExtInfo.getEntities().iterator();
+        this.entityStream        = entityStream;
+    }
+
     public AtlasEntityStream(AtlasEntity entity, EntityStream entityStream) {
         this.entitiesWithExtInfo = new AtlasEntitiesWithExtInfo(entity);
         this.iterator            = this.entitiesWithExtInfo.getEntities().iterator();
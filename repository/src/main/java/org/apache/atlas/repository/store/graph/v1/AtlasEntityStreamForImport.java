@@ -18,6 +18,7 @@
 package org.apache.atlas.repository.store.graph.v1;
 
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 
 public class AtlasEntityStreamForImport extends AtlasEntityStream implements EntityImportStream {
@@ -27,6 +28,10 @@ public class AtlasEntityStreamForImport extends AtlasEntityStream implements Ent
         super(entityWithExtInfo, entityStream);
     }
 
+    public AtlasEntityStreamForImport(AtlasEntitiesWithExtInfo entitiesWithExtInfo, EntityStream entityStream) {
+        super(entitiesWithExtInfo, entityStream);
+    }
+
     @Override
     public AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
         currentPosition++;
@@ -48,12 +53,12 @@ public class AtlasEntityStreamForImport extends AtlasEntityStream implements Ent
 
     @Override
     public int size() {
-        return 1;
+        return super.entitiesWithExtInfo.getEntities().size();
     }
 
     @Override
     public void setPosition(int position) {
-        // not applicable for a single entity stream
+        // not applicable for an in-memory stream
     }
 
     @Override
@@ -18,6 +18,8 @@
 package org.apache.atlas.repository.store.graph.v1;
 
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.discovery.SearchProcessor;
@@ -43,9 +45,14 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -60,6 +67,10 @@ public class AtlasGraphUtilsV1 {
     public static final String VERTEX_TYPE          = "typeSystem";
     public static final String RELATIONSHIPTYPE_EDGE_LABEL = PROPERTY_PREFIX + ".relationshipType";
 
+    // number of values looked up with one 'in' query at most; more values are looked up with further queries
+    @VisibleForTesting
+    static final int IN_QUERY_MAX_VALUES = 100;
+
     private static boolean USE_INDEX_QUERY_TO_FIND_ENTITY_BY_UNIQUE_ATTRIBUTES = false;
 
     static {
@@ -259,6 +270,111 @@ public class AtlasGraphUtilsV1 {
         return vertex;
     }
 
+    /**
+     * Finds vertices of entities of the given type by their unique attributes. Instead of a lookup per entity, the
+     * values of a unique attribute are looked up with one query for the type, and one for its sub-types for the
+     * values not found, in the order findByUniqueAttributes() uses.
+     *
+     * @return vertices found for the given attribute values, in the same order; null for entities not found
+     */
+    public static List<AtlasVertex> findByUniqueAttributes(AtlasEntityType entityType, List<Map<String, Object>> attrValuesList) {
+        List<AtlasVertex> ret = new ArrayList<>(Collections.<AtlasVertex>nCopies(attrValuesList.size(), null));
+
+        final Map<String, AtlasAttribute> uniqueAttributes = entityType.getUniqAttributes();
+
+        if (MapUtils.isEmpty(uniqueAttributes)) {
+            return ret;
+        }
+
+        for (AtlasAttribute attribute : uniqueAttributes.values()) {
+            boolean                    useIndexQuery = canUseIndexQuery(entityType, attribute.getName());
+            Map<Object, List<Integer>> valueIndexes  = new LinkedHashMap<>();
+            List<Object>               values        = new ArrayList<>();
+
+            for (int i = 0; i < attrValuesList.size(); i++) {
+                Map<String, Object> attrValues = attrValuesList.get(i);
+                Object              attrValue  = (ret.get(i) == null && attrValues != null) ? attrValues.get(attribute.getName()) : null;
+
+                if (attrValue == null) {
+                    continue;
+                }
+
+                if (useIndexQuery) {
+                    ret.set(i, getAtlasVertexFromIndexQuery(entityType, attribute, attrValue));
+
+                    continue;
+                }
+
+                // the graph has the normalized value, e.g. a long for an int given for a long attribute
+                Object        key     = getNormalizedValue(attribute, attrValue);
+                List<Integer> indexes = valueIndexes.get(key);
+
+                if (indexes == null) {
+                    indexes = new ArrayList<>();
+
+                    valueIndexes.put(key, indexes);
+                    values.add(key);
+                }
+
+                indexes.add(i);
+            }
+
+            if (values.isEmpty()) {
+                continue;
+            }
+
+            Map<Object, AtlasVertex> vertices = findByTypeAndPropertyValues(Constants.ENTITY_TYPE_PROPERTY_KEY, entityType.getTypeName(), attribute, values);
+
+            if (vertices.size() < valueIndexes.size()) {
+                List<Object> remainingValues = new ArrayList<>();
+
+                for (Object value : values) {
+                    if (!vertices.containsKey(value)) {
+                        remainingValues.add(value);
+                    }
+                }
+
+                for (Map.Entry<Object, AtlasVertex> e : findByTypeAndPropertyValues(Constants.SUPER_TYPES_PROPERTY_KEY, entityType.getTypeName(), attribute, remainingValues).entrySet()) {
+                    if (!vertices.containsKey(e.getKey())) {
+                        vertices.put(e.getKey(), e.getValue());
+                    }
+                }
+            }
+
+            for (Map.Entry<Object, AtlasVertex> e : vertices.entrySet()) {
+                List<Integer> indexes = valueIndexes.get(e.getKey());
+
+                if (indexes != null) {
+                    for (Integer index : indexes) {
+                        ret.set(index, e.getValue());
+                    }
+                }
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("findByUniqueAttributes(type={}, attrName={}, valueCount={}): found {} vertices",
+                          entityType.getTypeName(), attribute.getName(), valueIndexes.size(), vertices.size());
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Finds vertices of entities by their guids, with a query per IN_QUERY_MAX_VALUES guids.
+     *
+     * @return vertices found, by guid; guids not found are not in the map
+     */
+    public static Map<String, AtlasVertex> findByGuids(List<String> guids) {
+        Map<String, AtlasVertex> ret = new HashMap<>();
+
+        for (List<String> chunk : Lists.partition(guids, IN_QUERY_MAX_VALUES)) {
+            ret.putAll(GraphHelper.getInstance().getVerticesForGUIDs(chunk));
+        }
+
+        return ret;
+    }
+
     public static AtlasVertex findByGuid(String guid) {
         AtlasGraphQuery query = AtlasGraphProvider.getGraphInstance().query()
                                                   .has(Constants.GUID_PROPERTY_KEY, guid);
@@ -324,6 +440,40 @@ public class AtlasGraphUtilsV1 {
         return vertex;
     }
 
+    private static Map<Object, AtlasVertex> findByTypeAndPropertyValues(String typePropertyName, String typeName, AtlasAttribute attribute, Collection<Object> attrValues) {
+        Map<Object, AtlasVertex> ret = new HashMap<>();
+
+        if (attrValues.isEmpty()) {
+            return ret;
+        }
+
+        String propertyName = attribute.getVertexPropertyName();
+
+        for (List<Object> chunk : Lists.partition(new ArrayList<Object>(attrValues), IN_QUERY_MAX_VALUES)) {
+            AtlasGraphQuery query = AtlasGraphProvider.getGraphInstance().query()
+                                                      .has(typePropertyName, typeName)
+                                                      .has(Constants.STATE_PROPERTY_KEY, AtlasEntity.Status.ACTIVE.name())
+                                                      .in(propertyName, chunk);
+
+            for (Iterator<AtlasVertex> iter = query.vertices().iterator(); iter.hasNext(); ) {
+                AtlasVertex vertex = iter.next();
+                Object      key    = getNormalizedValue(attribute, vertex.getProperty(propertyName, Object.class));
+
+                if (key != null && !ret.containsKey(key)) {
+                    ret.put(key, vertex);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static Object getNormalizedValue(AtlasAttribute attribute, Object value) {
+        Object ret = value != null ? attribute.getAttributeType().getNormalizedValue(value) : null;
+
+        return ret != null ? ret : value;
+    }
+
     public static boolean relationshipTypeHasInstanceEdges(String typeName) throws AtlasBaseException {
         AtlasGraphQuery query = AtlasGraphProvider.getGraphInstance()
                 .query()
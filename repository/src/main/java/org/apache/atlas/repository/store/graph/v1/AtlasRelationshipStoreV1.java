@@ -44,6 +44,7 @@ import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -62,12 +63,18 @@ public class AtlasRelationshipStoreV1 implements AtlasRelationshipStore {
 
     private final AtlasTypeRegistry    typeRegistry;
     private final EntityGraphRetriever entityRetriever;
+    private final EntityCache          entityCache;
     private final GraphHelper          graphHelper = GraphHelper.getInstance();
 
-    @Inject
     public AtlasRelationshipStoreV1(AtlasTypeRegistry typeRegistry) {
+        this(typeRegistry, null);
+    }
+
+    @Inject
+    public AtlasRelationshipStoreV1(AtlasTypeRegistry typeRegistry, EntityCache entityCache) {
         this.typeRegistry    = typeRegistry;
         this.entityRetriever = new EntityGraphRetriever(typeRegistry);
+        this.entityCache     = entityCache;
     }
 
     @Override
@@ -195,6 +202,10 @@ public class AtlasRelationshipStoreV1 implements AtlasRelationshipStore {
 
                 ret = entityRetriever.mapEdgeToAtlasRelationship(relationshipEdge);
 
+                // relationship attributes of both ends include the new relationship
+                if (entityCache != null) {
+                    entityCache.invalidate(Arrays.asList(GraphHelper.getGuid(end1Vertex), GraphHelper.getGuid(end2Vertex)));
+                }
             } else {
                 throw new AtlasBaseException(AtlasErrorCode.RELATIONSHIP_ALREADY_EXISTS, relationship.getTypeName(),
                                              relationship.getEnd1().getGuid(), relationship.getEnd2().getGuid());
@@ -313,18 +324,7 @@ public class AtlasRelationshipStoreV1 implements AtlasRelationshipStore {
 
     public AtlasEdge getRelationshipEdge(AtlasVertex fromVertex, AtlasVertex toVertex, AtlasRelationship relationship) {
         String    relationshipLabel = getRelationshipEdgeLabel(fromVertex, toVertex, relationship);
-        AtlasEdge ret               = graphHelper.getEdgeForLabel(fromVertex, relationshipLabel);
-
-        if (ret != null) {
-            AtlasVertex inVertex = ret.getInVertex();
-
-            if (inVertex != null) {
-                if (!StringUtils.equals(AtlasGraphUtilsV1.getIdFromVertex(inVertex),
-                                        AtlasGraphUtilsV1.getIdFromVertex(toVertex))) {
-                    ret = null;
-                }
-            }
-        }
+        AtlasEdge ret               = graphHelper.getEdgeBetweenVertices(fromVertex, toVertex, relationshipLabel);
 
         return ret;
     }
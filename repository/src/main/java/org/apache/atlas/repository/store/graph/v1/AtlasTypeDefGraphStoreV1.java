@@ -63,6 +63,9 @@ import javax.inject.Singleton;
 public class AtlasTypeDefGraphStoreV1 extends AtlasTypeDefGraphStore {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasTypeDefGraphStoreV1.class);
 
+    public static final String TYPEDEFS_VERSION_VERTEX_TYPE  = "typeDefsVersion";
+    public static final String TYPEDEFS_VERSION_PROPERTY_KEY = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "typeDefs.version";
+
     protected final AtlasGraph atlasGraph;
 
     @Inject
@@ -113,6 +116,39 @@ public class AtlasTypeDefGraphStoreV1 extends AtlasTypeDefGraphStore {
 
     AtlasGraph getAtlasGraph() { return atlasGraph; }
 
+    @Override
+    public long getTypeDefsVersion() {
+        AtlasVertex vertex  = findTypeDefsVersionVertex();
+        Long        version = vertex != null ? vertex.getProperty(TYPEDEFS_VERSION_PROPERTY_KEY, Long.class) : null;
+
+        return version != null ? version : 0;
+    }
+
+    @Override
+    protected long updateTypeDefsVersion() {
+        AtlasVertex vertex = findTypeDefsVersionVertex();
+
+        if (vertex == null) {
+            vertex = atlasGraph.addVertex();
+
+            vertex.setProperty(VERTEX_TYPE_PROPERTY_KEY, TYPEDEFS_VERSION_VERTEX_TYPE);
+        }
+
+        Long version = vertex.getProperty(TYPEDEFS_VERSION_PROPERTY_KEY, Long.class);
+        long ret     = (version != null ? version : 0) + 1;
+
+        vertex.setProperty(TYPEDEFS_VERSION_PROPERTY_KEY, ret);
+
+        return ret;
+    }
+
+    private AtlasVertex findTypeDefsVersionVertex() {
+        Iterator<AtlasVertex> vertices = atlasGraph.query().has(VERTEX_TYPE_PROPERTY_KEY, TYPEDEFS_VERSION_VERTEX_TYPE)
+                .vertices().iterator();
+
+        return (vertices != null && vertices.hasNext()) ? vertices.next() : null;
+    }
+
     @VisibleForTesting
     public AtlasVertex findTypeVertexByName(String typeName) {
         Iterator results = atlasGraph.query().has(VERTEX_TYPE_PROPERTY_KEY, VERTEX_TYPE)
@@ -0,0 +1,746 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.annotation.AtlasService;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.EntityChangeListener;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasStruct;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.typesystem.IStruct;
+import org.apache.atlas.typesystem.ITypedReferenceableInstance;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache of entity headers and entities with extended info, shared across requests. Entries are keyed by guid, and are
+ * used only while the modification timestamp of the entity vertex matches the one the entry was read with. Entries are
+ * bounded by weight - the number of attribute values they hold.
+ *
+ * Entity updates don't always update the modification timestamp of entities that include the updated entity, like the
+ * referred entities in an entity with extended info. So the write path invalidates the entries of the updated entities
+ * and the entries that refer to them, both in the transaction and after it completes. Entries read concurrently with
+ * an invalidation of any of the entities they include are not cached.
+ *
+ * The cache is not used in passive instances in HA mode, as these don't see the updates made by the active instance.
+ * Entities of types listed in atlas.entity.cache.excluded.types, and of their subtypes, are not cached.
+ */
+@AtlasService
+public class EntityCache implements TypeDefChangeListener, EntityChangeListener, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCache.class);
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final AtlasTypeRegistry                   typeRegistry;
+    private final EntryCache<AtlasEntityHeader>       headers;
+    private final EntryCache<AtlasEntityWithExtInfo>  entities;
+    private final Set<String>                         excludedTypes;
+    private final ConcurrentMap<String, Boolean>      cacheableTypes = new ConcurrentHashMap<>();
+    private final AtomicLongArray                     versions       = new AtomicLongArray(VERSION_STRIPES);
+    private volatile boolean                          isActive;
+
+    @Inject
+    public EntityCache(AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(typeRegistry, AtlasConfiguration.ENTITY_CACHE_HEADERS_MAX_WEIGHT.getLong(), AtlasConfiguration.ENTITY_CACHE_ENTITIES_MAX_WEIGHT.getLong(),
+             AtlasConfiguration.ENTITY_CACHE_EXCLUDED_TYPES.getStringArray(), !HAConfiguration.isHAEnabled(ApplicationProperties.get()));
+    }
+
+    @VisibleForTesting
+    EntityCache(AtlasTypeRegistry typeRegistry, long headersMaxWeight, long entitiesMaxWeight, String[] excludedTypes, boolean isActive) {
+        this.typeRegistry  = typeRegistry;
+        this.headers       = headersMaxWeight > 0 ? new EntryCache<AtlasEntityHeader>(headersMaxWeight) : null;
+        this.entities      = entitiesMaxWeight > 0 ? new EntryCache<AtlasEntityWithExtInfo>(entitiesMaxWeight) : null;
+        this.excludedTypes = new HashSet<>();
+        this.isActive      = isActive;
+
+        if (excludedTypes != null) {
+            for (String typeName : excludedTypes) {
+                if (StringUtils.isNotBlank(typeName)) {
+                    this.excludedTypes.add(typeName.trim());
+                }
+            }
+        }
+
+        LOG.info("EntityCache: headersMaxWeight={}, entitiesMaxWeight={}, excludedTypes={}", headersMaxWeight, entitiesMaxWeight, this.excludedTypes);
+    }
+
+    AtlasEntityHeader getEntityHeader(AtlasVertex entityVertex, EntityGraphRetriever entityRetriever) throws AtlasBaseException {
+        String guid         = GraphHelper.getGuid(entityVertex);
+        Long   modifiedTime = entityVertex.getProperty(Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class);
+
+        if (!isCacheable(headers, guid, modifiedTime, GraphHelper.getTypeName(entityVertex))) {
+            return entityRetriever.mapVertexToAtlasEntityHeader(entityVertex);
+        }
+
+        AtlasEntityHeader ret = headers.get(guid, modifiedTime);
+
+        if (ret != null) {
+            return copy(ret);
+        }
+
+        long[] versionsAtLoad = getVersions();
+
+        ret = entityRetriever.mapVertexToAtlasEntityHeader(entityVertex);
+
+        Set<String> referredGuids = new HashSet<>();
+        int         weight        = collectReferences(ret, referredGuids);
+
+        put(headers, guid, new CacheEntry<>(copy(ret), modifiedTime, referredGuids, weight), versionsAtLoad);
+
+        return ret;
+    }
+
+    AtlasEntityWithExtInfo getEntityWithExtInfo(AtlasVertex entityVertex, EntityGraphRetriever entityRetriever) throws AtlasBaseException {
+        String guid         = GraphHelper.getGuid(entityVertex);
+        Long   modifiedTime = entityVertex.getProperty(Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class);
+
+        if (!isCacheable(entities, guid, modifiedTime, GraphHelper.getTypeName(entityVertex))) {
+            return entityRetriever.mapVertexToAtlasEntityWithExtInfo(entityVertex);
+        }
+
+        AtlasEntityWithExtInfo ret = entities.get(guid, modifiedTime);
+
+        if (ret != null) {
+            return copy(ret);
+        }
+
+        long[] versionsAtLoad = getVersions();
+
+        ret = entityRetriever.mapVertexToAtlasEntityWithExtInfo(entityVertex);
+
+        Set<String> referredGuids = new HashSet<>();
+        int         weight        = collectReferences(ret.getEntity(), referredGuids);
+        boolean     isCacheable   = true;
+
+        if (MapUtils.isNotEmpty(ret.getReferredEntities())) {
+            for (AtlasEntity referredEntity : ret.getReferredEntities().values()) {
+                weight += collectReferences(referredEntity, referredGuids);
+
+                if (!isCacheable(referredEntity.getTypeName())) {
+                    isCacheable = false;
+                }
+            }
+
+            referredGuids.addAll(ret.getReferredEntities().keySet());
+        }
+
+        referredGuids.remove(guid);
+
+        if (isCacheable) {
+            put(entities, guid, new CacheEntry<>(copy(ret), modifiedTime, referredGuids, weight), versionsAtLoad);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Invalidates the entries of the entities in the mutation response, and of entities that refer to them.
+     */
+    public void invalidate(EntityMutationResponse mutationResponse) {
+        if (mutationResponse == null) {
+            return;
+        }
+
+        List<String> guids = new ArrayList<>();
+
+        addGuids(mutationResponse.getCreatedEntities(), guids);
+        addGuids(mutationResponse.getUpdatedEntities(), guids);
+        addGuids(mutationResponse.getPartialUpdatedEntities(), guids);
+        addGuids(mutationResponse.getDeletedEntities(), guids);
+
+        invalidate(guids);
+    }
+
+    /**
+     * Invalidates the entries of the given entities, and of entities that refer to them. The entries are invalidated
+     * again once the current graph transaction completes, to drop entries read before the transaction committed - so
+     * this is to be called by the store, within the transaction that changes the entities.
+     */
+    public void invalidate(Collection<String> guids) {
+        if (CollectionUtils.isEmpty(guids) || (headers == null && entities == null)) {
+            return;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("invalidating entity cache entries for {}", guids);
+        }
+
+        doInvalidate(guids);
+
+        new InvalidateEntriesHook(guids);
+    }
+
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+
+        if (headers != null) {
+            headers.clear();
+        }
+
+        if (entities != null) {
+            entities.clear();
+        }
+
+        cacheableTypes.clear();
+    }
+
+    /**
+     * @return statistics of the entity header cache; null if the header cache is disabled
+     */
+    public Stats getHeaderStats() {
+        return headers != null ? headers.getStats() : null;
+    }
+
+    /**
+     * @return statistics of the cache of entities with extended info; null if the cache is disabled
+     */
+    public Stats getEntityStats() {
+        return entities != null ? entities.getStats() : null;
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("typedefs changed: clearing entity cache");
+        }
+
+        // entries are mapped by the attributes of types when read
+        clear();
+    }
+
+    @Override
+    public void instanceIsActive() {
+        LOG.info("Reacting to active state: enabling entity cache");
+
+        clear();
+
+        isActive = true;
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        LOG.info("Reacting to passive state: disabling entity cache");
+
+        isActive = false;
+
+        clear();
+    }
+
+    // entity changes made with v1 APIs; changes made with the entity store are invalidated by the store itself
+    @Override
+    public void onEntitiesAdded(Collection<ITypedReferenceableInstance> entities, boolean isImport) throws AtlasException {
+        invalidateInstances(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(Collection<ITypedReferenceableInstance> entities, boolean isImport) throws AtlasException {
+        invalidateInstances(entities);
+    }
+
+    @Override
+    public void onTraitsAdded(ITypedReferenceableInstance entity, Collection<? extends IStruct> traits) throws AtlasException {
+        invalidateInstances(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onTraitsDeleted(ITypedReferenceableInstance entity, Collection<String> traitNames) throws AtlasException {
+        invalidateInstances(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onTraitsUpdated(ITypedReferenceableInstance entity, Collection<? extends IStruct> traits) throws AtlasException {
+        invalidateInstances(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onEntitiesDeleted(Collection<ITypedReferenceableInstance> entities, boolean isImport) throws AtlasException {
+        invalidateInstances(entities);
+    }
+
+    private boolean isCacheable(EntryCache<?> cache, String guid, Long modifiedTime, String typeName) {
+        return cache != null && isActive && guid != null && modifiedTime != null && isCacheable(typeName);
+    }
+
+    private boolean isCacheable(String typeName) {
+        if (typeName == null) {
+            return false;
+        }
+
+        Boolean ret = cacheableTypes.get(typeName);
+
+        if (ret == null) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+            ret = entityType != null && !excludedTypes.contains(typeName) && Collections.disjoint(entityType.getAllSuperTypes(), excludedTypes);
+
+            cacheableTypes.put(typeName, ret);
+        }
+
+        return ret;
+    }
+
+    private long[] getVersions() {
+        long[] ret = new long[VERSION_STRIPES];
+
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            ret[i] = versions.get(i);
+        }
+
+        return ret;
+    }
+
+    private boolean isUnchanged(String guid, Set<String> referredGuids, long[] versionsAtLoad) {
+        if (versions.get(getStripe(guid)) != versionsAtLoad[getStripe(guid)]) {
+            return false;
+        }
+
+        for (String referredGuid : referredGuids) {
+            int stripe = getStripe(referredGuid);
+
+            if (versions.get(stripe) != versionsAtLoad[stripe]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /*
+     * Caches the entry unless one of the entities it includes was invalidated since the entry was read. Invalidation
+     * updates the version and then removes entries, while this puts the entry and then checks the version - so an
+     * invalidation either sees the entry, or is seen here.
+     */
+    private <V> void put(EntryCache<V> cache, String guid, CacheEntry<V> entry, long[] versionsAtLoad) {
+        if (!isUnchanged(guid, entry.referredGuids, versionsAtLoad)) {
+            return;
+        }
+
+        cache.put(guid, entry);
+
+        if (!isUnchanged(guid, entry.referredGuids, versionsAtLoad)) {
+            cache.invalidate(guid);
+        }
+    }
+
+    private void doInvalidate(Collection<String> guids) {
+        for (String guid : guids) {
+            versions.incrementAndGet(getStripe(guid));
+        }
+
+        for (String guid : guids) {
+            if (headers != null) {
+                headers.invalidate(guid);
+            }
+
+            if (entities != null) {
+                entities.invalidate(guid);
+            }
+        }
+    }
+
+    private void invalidateInstances(Collection<ITypedReferenceableInstance> instances) {
+        if (CollectionUtils.isEmpty(instances)) {
+            return;
+        }
+
+        List<String> guids = new ArrayList<>(instances.size());
+
+        for (ITypedReferenceableInstance instance : instances) {
+            if (instance != null && instance.getId() != null) {
+                guids.add(instance.getId()._getId());
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("invalidating entity cache entries for {}", guids);
+        }
+
+        // listeners are called after the change is committed, possibly on a thread without a graph transaction
+        doInvalidate(guids);
+    }
+
+    private static void addGuids(List<AtlasEntityHeader> entityHeaders, List<String> guids) {
+        if (entityHeaders != null) {
+            for (AtlasEntityHeader entityHeader : entityHeaders) {
+                if (entityHeader.getGuid() != null) {
+                    guids.add(entityHeader.getGuid());
+                }
+            }
+        }
+    }
+
+    private static int getStripe(String guid) {
+        return (guid.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    /*
+     * Adds guids of entities referred from the value to referredGuids.
+     *
+     * @return number of values in the value, as its weight in cache
+     */
+    private static int collectReferences(Object value, Set<String> referredGuids) {
+        int ret = 1;
+
+        if (value instanceof AtlasObjectId) {
+            String guid = ((AtlasObjectId) value).getGuid();
+
+            if (guid != null) {
+                referredGuids.add(guid);
+            }
+        } else if (value instanceof AtlasStruct) {
+            ret += collectReferences(((AtlasStruct) value).getAttributes(), referredGuids);
+
+            if (value instanceof AtlasEntity) {
+                ret += collectReferences(((AtlasEntity) value).getRelationshipAttributes(), referredGuids);
+                ret += collectReferences(((AtlasEntity) value).getClassifications(), referredGuids);
+            } else if (value instanceof AtlasEntityHeader) {
+                ret += collectReferences(((AtlasEntityHeader) value).getClassificationNames(), referredGuids);
+            }
+        } else if (value instanceof Map) {
+            for (Object mapValue : ((Map) value).values()) {
+                ret += collectReferences(mapValue, referredGuids);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                ret += collectReferences(element, referredGuids);
+            }
+        }
+
+        return ret;
+    }
+
+    // cached objects are copied in and out of the cache, so that callers can update them; attribute values are shared
+    private static AtlasEntityHeader copy(AtlasEntityHeader header) {
+        AtlasEntityHeader ret = new AtlasEntityHeader(header.getTypeName(), header.getGuid(), copy(header.getAttributes()));
+
+        ret.setStatus(header.getStatus());
+        ret.setDisplayText(header.getDisplayText());
+        ret.setClassificationNames(header.getClassificationNames() != null ? new ArrayList<>(header.getClassificationNames()) : null);
+
+        return ret;
+    }
+
+    private static AtlasEntityWithExtInfo copy(AtlasEntityWithExtInfo entityWithExtInfo) {
+        AtlasEntityWithExtInfo ret = new AtlasEntityWithExtInfo(copy(entityWithExtInfo.getEntity()));
+
+        if (entityWithExtInfo.getReferredEntities() != null) {
+            for (Map.Entry<String, AtlasEntity> entry : entityWithExtInfo.getReferredEntities().entrySet()) {
+                ret.addReferredEntity(entry.getKey(), copy(entry.getValue()));
+            }
+        }
+
+        return ret;
+    }
+
+    private static AtlasEntity copy(AtlasEntity entity) {
+        AtlasEntity ret = new AtlasEntity(entity.getTypeName(), copy(entity.getAttributes()));
+
+        ret.setGuid(entity.getGuid());
+        ret.setStatus(entity.getStatus());
+        ret.setCreatedBy(entity.getCreatedBy());
+        ret.setUpdatedBy(entity.getUpdatedBy());
+        ret.setCreateTime(entity.getCreateTime());
+        ret.setUpdateTime(entity.getUpdateTime());
+        ret.setVersion(entity.getVersion());
+        ret.setRelationshipAttributes(copy(entity.getRelationshipAttributes()));
+        ret.setClassifications(entity.getClassifications() != null ? new ArrayList<>(entity.getClassifications()) : null);
+
+        return ret;
+    }
+
+    private static Map<String, Object> copy(Map<String, Object> attributes) {
+        return attributes != null ? new HashMap<>(attributes) : null;
+    }
+
+    public static class Stats {
+        private final long size;
+        private final long weight;
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        Stats(long size, long weight, long hitCount, long missCount, long evictionCount) {
+            this.size          = size;
+            this.weight        = weight;
+            this.hitCount      = hitCount;
+            this.missCount     = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getSize() { return size; }
+
+        public long getWeight() { return weight; }
+
+        public long getHitCount() { return hitCount; }
+
+        public long getMissCount() { return missCount; }
+
+        public long getEvictionCount() { return evictionCount; }
+
+        public double getHitRate() {
+            long lookupCount = hitCount + missCount;
+
+            return lookupCount > 0 ? (double) hitCount / lookupCount : 0d;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{size=" + size + ", weight=" + weight + ", hitCount=" + hitCount + ", missCount=" + missCount +
+                   ", evictionCount=" + evictionCount + "}";
+        }
+    }
+
+    private static class CacheEntry<V> {
+        private final V           value;
+        private final long        modifiedTime;
+        private final Set<String> referredGuids;
+        private final int         weight;
+
+        CacheEntry(V value, long modifiedTime, Set<String> referredGuids, int weight) {
+            this.value         = value;
+            this.modifiedTime  = modifiedTime;
+            this.referredGuids = referredGuids;
+            this.weight        = weight;
+        }
+    }
+
+    // guids of cached entries that refer to an entity; removed from the referrer map once empty
+    private static class Referrers {
+        private final Set<String> guids     = new HashSet<>();
+        private       boolean     isRemoved = false;
+    }
+
+    private static class EntryCache<V> {
+        private final Cache<String, CacheEntry<V>>       cache;
+        private final ConcurrentMap<String, Referrers>   referrers     = new ConcurrentHashMap<>();
+        private final AtomicLong                         weight        = new AtomicLong();
+        private final AtomicLong                         hitCount      = new AtomicLong();
+        private final AtomicLong                         missCount     = new AtomicLong();
+        private final AtomicLong                         evictionCount = new AtomicLong();
+        private final Object[]                           putLocks      = new Object[VERSION_STRIPES];
+
+        EntryCache(long maxWeight) {
+            for (int i = 0; i < putLocks.length; i++) {
+                putLocks[i] = new Object();
+            }
+
+
+            this.cache = CacheBuilder.newBuilder()
+                                     .maximumWeight(maxWeight)
+                                     .weigher(new Weigher<String, CacheEntry<V>>() {
+                                         @Override
+                                         public int weigh(String guid, CacheEntry<V> entry) {
+                                             return entry.weight;
+                                         }
+                                     })
+                                     .removalListener(new RemovalListener<String, CacheEntry<V>>() {
+                                         @Override
+                                         public void onRemoval(RemovalNotification<String, CacheEntry<V>> notification) {
+                                             onEntryRemoval(notification.getKey(), notification.getValue(), notification.getCause());
+                                         }
+                                     })
+                                     .build();
+        }
+
+        V get(String guid, long modifiedTime) {
+            CacheEntry<V> entry = cache.getIfPresent(guid);
+
+            if (entry != null && entry.modifiedTime == modifiedTime) {
+                hitCount.incrementAndGet();
+
+                return entry.value;
+            }
+
+            missCount.incrementAndGet();
+
+            return null;
+        }
+
+        void put(String guid, CacheEntry<V> entry) {
+            // entries of the same entity are put one at a time, so that links of the replaced entry are updated in order
+            synchronized (getLock(guid)) {
+                for (String referredGuid : entry.referredGuids) {
+                    addReferrer(referredGuid, guid);
+                }
+
+                weight.addAndGet(entry.weight);
+
+                CacheEntry<V> replaced = cache.asMap().put(guid, entry);
+
+                if (replaced != null) {
+                    for (String referredGuid : replaced.referredGuids) {
+                        if (!entry.referredGuids.contains(referredGuid)) {
+                            removeReferrer(referredGuid, guid);
+                        }
+                    }
+                }
+            }
+        }
+
+        void invalidate(String guid) {
+            cache.invalidate(guid);
+
+            Set<String> referrerGuids = getReferrers(guid);
+
+            if (!referrerGuids.isEmpty()) {
+                cache.invalidateAll(referrerGuids);
+            }
+        }
+
+        void clear() {
+            cache.invalidateAll();
+        }
+
+        Stats getStats() {
+            return new Stats(cache.size(), weight.get(), hitCount.get(), missCount.get(), evictionCount.get());
+        }
+
+        private void onEntryRemoval(String guid, CacheEntry<V> entry, RemovalCause cause) {
+            if (entry == null) {
+                return;
+            }
+
+            weight.addAndGet(-entry.weight);
+
+            if (cause == RemovalCause.SIZE) {
+                evictionCount.incrementAndGet();
+            }
+
+            // links of a replaced entry are updated by put(), which knows the replacing entry
+            if (cause != RemovalCause.REPLACED && guid != null) {
+                for (String referredGuid : entry.referredGuids) {
+                    removeReferrer(referredGuid, guid);
+                }
+            }
+        }
+
+        private void addReferrer(String guid, String referrerGuid) {
+            while (true) {
+                Referrers entityReferrers = referrers.get(guid);
+
+                if (entityReferrers == null) {
+                    Referrers newReferrers = new Referrers();
+
+                    entityReferrers = referrers.putIfAbsent(guid, newReferrers);
+
+                    if (entityReferrers == null) {
+                        entityReferrers = newReferrers;
+                    }
+                }
+
+                synchronized (entityReferrers) {
+                    if (!entityReferrers.isRemoved) {
+                        entityReferrers.guids.add(referrerGuid);
+
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void removeReferrer(String guid, String referrerGuid) {
+            Referrers entityReferrers = referrers.get(guid);
+
+            if (entityReferrers != null) {
+                synchronized (entityReferrers) {
+                    entityReferrers.guids.remove(referrerGuid);
+
+                    if (entityReferrers.guids.isEmpty()) {
+                        entityReferrers.isRemoved = true;
+
+                        referrers.remove(guid, entityReferrers);
+                    }
+                }
+            }
+        }
+
+        private Object getLock(String guid) {
+            return putLocks[(guid.hashCode() & Integer.MAX_VALUE) % putLocks.length];
+        }
+
+        private Set<String> getReferrers(String guid) {
+            Referrers entityReferrers = referrers.get(guid);
+
+            if (entityReferrers == null) {
+                return Collections.emptySet();
+            }
+
+            synchronized (entityReferrers) {
+                return new HashSet<>(entityReferrers.guids);
+            }
+        }
+    }
+
+    private class InvalidateEntriesHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final Collection<String> guids;
+
+        private InvalidateEntriesHook(Collection<String> guids) {
+            super();
+
+            this.guids = new ArrayList<>(guids);
+        }
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            doInvalidate(guids);
+        }
+    }
+}
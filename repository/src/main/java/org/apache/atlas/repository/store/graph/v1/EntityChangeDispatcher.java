@@ -0,0 +1,491 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.listener.EntityChangeListener;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.converters.AtlasInstanceConverter;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.typesystem.ITypedReferenceableInstance;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory queue of entity changes that are sent to the entity change listeners from a background thread,
+ * after the transaction that made the changes has been committed.
+ *
+ * Changes are held for up to coalesceWindowMs before they are sent, so that repeated changes to an entity are sent
+ * once; the changes sent together are passed to each listener in as few calls as possible. Note that listeners get
+ * one notification for the coalesced updates of an entity, with its latest state - for example, the entity audit
+ * has a single entry for them. Listeners are called with the user and the request time of the request that made the
+ * changes, so that audit entries are stamped with the time of the change. When the queue is full, enqueue() waits up to enqueueTimeoutMs for space and then
+ * returns false - the caller is expected to notify the listeners itself.
+ *
+ * Entities are read in the dispatch thread; its graph transaction is rolled back after each group of changes is sent,
+ * so that the next group reads the latest committed state.
+ */
+public class EntityChangeDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityChangeDispatcher.class);
+
+    private final Set<EntityChangeListener> entityChangeListeners;
+    private final AtlasInstanceConverter    instanceConverter;
+    private final AtlasGraph                graph;
+    private final int                       queueSize;
+    private final int                       batchSize;
+    private final long                      coalesceWindowMs;
+    private final long                      enqueueTimeoutMs;
+
+    private final ReentrantLock              lock          = new ReentrantLock();
+    private final Condition                  notEmpty      = lock.newCondition();
+    private final Condition                  notFull       = lock.newCondition();
+    private final Deque<PendingChange>       pendingQueue  = new ArrayDeque<>();
+    private final Map<String, PendingChange> pendingByGuid = new HashMap<>();
+    private       Thread                     dispatchThread;
+    private       boolean                    isStopped     = false;
+
+    private final AtomicLong enqueuedCount   = new AtomicLong();
+    private final AtomicLong coalescedCount  = new AtomicLong();
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong failedCount     = new AtomicLong();
+    private final AtomicLong rejectedCount   = new AtomicLong();
+    private final AtomicLong lastLagMs       = new AtomicLong();
+    private final AtomicLong maxLagMs        = new AtomicLong();
+
+    public EntityChangeDispatcher(Set<EntityChangeListener> entityChangeListeners, AtlasInstanceConverter instanceConverter, AtlasGraph graph,
+                                  int queueSize, int batchSize, long coalesceWindowMs, long enqueueTimeoutMs) {
+        this.entityChangeListeners = entityChangeListeners;
+        this.instanceConverter     = instanceConverter;
+        this.graph                 = graph;
+        this.queueSize             = Math.max(queueSize, 1);
+        this.batchSize             = Math.max(batchSize, 1);
+        this.coalesceWindowMs      = Math.max(coalesceWindowMs, 0);
+        this.enqueueTimeoutMs      = Math.max(enqueueTimeoutMs, 0);
+    }
+
+    /**
+     * Queues a change to be sent to the listeners. For a deleted entity, the instance must be given, as it can't
+     * be read from the graph after the transaction is committed; for other operations, the entity is read when the
+     * change is sent, so that the listeners see its latest state.
+     *
+     * @return false if the queue stayed full for enqueueTimeoutMs, or the dispatcher is stopped
+     */
+    public boolean enqueue(String guid, EntityOperation operation, ITypedReferenceableInstance instance, boolean isImport,
+                           String user, long requestTime) throws InterruptedException {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs);
+
+        lock.lock();
+
+        try {
+            if (isStopped) {
+                return false;
+            }
+
+            PendingChange pending = pendingByGuid.get(guid);
+
+            if (pending != null && pending.coalesce(operation, instance, isImport, user, requestTime)) {
+                coalescedCount.incrementAndGet();
+
+                return true;
+            }
+
+            // a delete that follows a change still queued for the entity is queued even when the queue is full, so
+            // that the listeners don't get it before the earlier change
+            boolean isFollowingDelete = pending != null && operation == EntityOperation.DELETE;
+
+            while (!isFollowingDelete && pendingQueue.size() >= queueSize) {
+                if (timeoutNanos <= 0 || isStopped) {
+                    rejectedCount.incrementAndGet();
+
+                    return false;
+                }
+
+                timeoutNanos = notFull.awaitNanos(timeoutNanos);
+            }
+
+            PendingChange change = new PendingChange(guid, operation, instance, isImport, user, requestTime);
+
+            pendingQueue.addLast(change);
+            pendingByGuid.put(guid, change);
+
+            enqueuedCount.incrementAndGet();
+
+            startDispatchThreadIfNeeded();
+
+            notEmpty.signal();
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the dispatch thread, after the changes already queued are sent.
+     */
+    public void stop() {
+        Thread thread;
+
+        lock.lock();
+
+        try {
+            isStopped = true;
+            thread    = dispatchThread;
+
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+
+        try {
+            return pendingQueue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return time, in milliseconds, that the oldest change in the queue has been waiting
+     */
+    public long getQueueLagMs() {
+        lock.lock();
+
+        try {
+            PendingChange oldest = pendingQueue.peekFirst();
+
+            return oldest != null ? (System.currentTimeMillis() - oldest.enqueueTime) : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEnqueuedCount() { return enqueuedCount.get(); }
+
+    public long getCoalescedCount() { return coalescedCount.get(); }
+
+    public long getDispatchedCount() { return dispatchedCount.get(); }
+
+    public long getFailedCount() { return failedCount.get(); }
+
+    public long getRejectedCount() { return rejectedCount.get(); }
+
+    public long getLastDispatchLagMs() { return lastLagMs.get(); }
+
+    public long getMaxDispatchLagMs() { return maxLagMs.get(); }
+
+    @Override
+    public String toString() {
+        return "EntityChangeDispatcher{" +
+                "queueDepth=" + getQueueDepth() +
+                ", queueLagMs=" + getQueueLagMs() +
+                ", enqueuedCount=" + enqueuedCount.get() +
+                ", coalescedCount=" + coalescedCount.get() +
+                ", dispatchedCount=" + dispatchedCount.get() +
+                ", failedCount=" + failedCount.get() +
+                ", rejectedCount=" + rejectedCount.get() +
+                ", lastDispatchLagMs=" + lastLagMs.get() +
+                ", maxDispatchLagMs=" + maxLagMs.get() +
+                '}';
+    }
+
+    // called with the lock held
+    private void startDispatchThreadIfNeeded() {
+        if (dispatchThread == null) {
+            dispatchThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    dispatchLoop();
+                }
+            }, "atlas-entity-change-dispatcher");
+
+            dispatchThread.setDaemon(true);
+            dispatchThread.start();
+        }
+    }
+
+    private void dispatchLoop() {
+        LOG.info("==> EntityChangeDispatcher.dispatchLoop()");
+
+        while (true) {
+            List<PendingChange> batch;
+
+            try {
+                batch = takeBatch();
+            } catch (InterruptedException e) {
+                LOG.warn("EntityChangeDispatcher interrupted; {} changes not sent", getQueueDepth());
+
+                break;
+            }
+
+            if (batch == null) {
+                break;
+            }
+
+            try {
+                dispatch(batch);
+            } catch (Throwable t) {
+                LOG.error("EntityChangeDispatcher: failed to send {} changes", batch.size(), t);
+            }
+        }
+
+        LOG.info("<== EntityChangeDispatcher.dispatchLoop(): {}", this);
+    }
+
+    /**
+     * Waits until the oldest change in the queue is older than the coalesce window, or a full batch is queued.
+     *
+     * @return the changes to send, in the order they were queued; null once stopped and the queue is empty
+     */
+    private List<PendingChange> takeBatch() throws InterruptedException {
+        lock.lock();
+
+        try {
+            while (true) {
+                if (pendingQueue.isEmpty()) {
+                    if (isStopped) {
+                        return null;
+                    }
+
+                    notEmpty.await();
+
+                    continue;
+                }
+
+                long waitMs = pendingQueue.peekFirst().enqueueTime + coalesceWindowMs - System.currentTimeMillis();
+
+                if (waitMs <= 0 || pendingQueue.size() >= batchSize || isStopped) {
+                    break;
+                }
+
+                notEmpty.await(waitMs, TimeUnit.MILLISECONDS);
+            }
+
+            List<PendingChange> ret = new ArrayList<>(Math.min(batchSize, pendingQueue.size()));
+
+            while (!pendingQueue.isEmpty() && ret.size() < batchSize) {
+                PendingChange change = pendingQueue.pollFirst();
+
+                // later changes to this entity are queued afresh, as this one can't be updated any more
+                if (pendingByGuid.get(change.guid) == change) {
+                    pendingByGuid.remove(change.guid);
+                }
+
+                ret.add(change);
+            }
+
+            notFull.signalAll();
+
+            return ret;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(List<PendingChange> batch) {
+        long now = System.currentTimeMillis();
+        long lag = now - batch.get(0).enqueueTime;
+
+        lastLagMs.set(lag);
+
+        long max = maxLagMs.get();
+
+        while (lag > max && !maxLagMs.compareAndSet(max, lag)) {
+            max = maxLagMs.get();
+        }
+
+        // consecutive changes with the same operation, import flag, user and request time are sent together
+        int start = 0;
+
+        for (int i = 1; i <= batch.size(); i++) {
+            if (i == batch.size() || !batch.get(i).isSameGroup(batch.get(start))) {
+                dispatchGroup(batch.subList(start, i));
+
+                start = i;
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("sent {} changes in {} ms; {}", batch.size(), System.currentTimeMillis() - now, this);
+        }
+    }
+
+    private void dispatchGroup(List<PendingChange> changes) {
+        PendingChange first = changes.get(0);
+
+        RequestContext.createContext();
+        RequestContextV1.get().setUser(first.user);
+        // listeners, like the audit listener, stamp the changes with the time of the request that made them
+        RequestContextV1.get().setRequestTime(first.requestTime);
+
+        try {
+            List<ITypedReferenceableInstance> instances = new ArrayList<>(changes.size());
+
+            for (PendingChange change : changes) {
+                ITypedReferenceableInstance instance = change.instance;
+
+                if (instance == null) {
+                    try {
+                        instance = instanceConverter.getITypedReferenceable(change.guid);
+                    } catch (AtlasBaseException e) {
+                        // the entity might have been deleted since the change was queued; the delete is queued too
+                        LOG.warn("EntityChangeDispatcher: failed to read entity {}; {} notification not sent", change.guid, change.operation, e);
+
+                        failedCount.incrementAndGet();
+
+                        continue;
+                    }
+                }
+
+                instances.add(instance);
+            }
+
+            if (instances.isEmpty()) {
+                return;
+            }
+
+            for (EntityChangeListener listener : entityChangeListeners) {
+                try {
+                    switch (first.operation) {
+                        case CREATE:
+                            listener.onEntitiesAdded(instances, first.isImport);
+                            break;
+                        case UPDATE:
+                        case PARTIAL_UPDATE:
+                            listener.onEntitiesUpdated(instances, first.isImport);
+                            break;
+                        case DELETE:
+                            listener.onEntitiesDeleted(instances, first.isImport);
+                            break;
+                    }
+                } catch (AtlasException | RuntimeException e) {
+                    LOG.error("EntityChangeDispatcher: {} failed to process {} {} notifications", listener.getClass().getSimpleName(), instances.size(), first.operation, e);
+
+                    failedCount.addAndGet(instances.size());
+                }
+            }
+
+            dispatchedCount.addAndGet(instances.size());
+        } finally {
+            RequestContext.clear();
+            RequestContextV1.clear();
+
+            // end the read transaction of this thread, so that the next group doesn't read a stale snapshot
+            try {
+                graph.rollback();
+            } catch (Throwable t) {
+                LOG.warn("EntityChangeDispatcher: failed to rollback graph transaction", t);
+            }
+        }
+    }
+
+    private static class PendingChange {
+        final String                guid;
+        final long                  enqueueTime;
+        EntityOperation             operation;
+        ITypedReferenceableInstance instance;
+        final boolean               isImport;
+        final String                user;
+        long                        requestTime;
+
+        PendingChange(String guid, EntityOperation operation, ITypedReferenceableInstance instance, boolean isImport, String user, long requestTime) {
+            this.guid        = guid;
+            this.enqueueTime = System.currentTimeMillis();
+            this.operation   = operation;
+            this.instance    = instance;
+            this.isImport    = isImport;
+            this.user        = user;
+            this.requestTime = requestTime;
+        }
+
+        /**
+         * Folds a later change to the same entity into this one: an update after a create or an update is sent as
+         * the earlier operation, as the entity is read when it is sent; a delete replaces an earlier update.
+         * A delete after a create is not folded, so that listeners that track entities see both - the create is sent
+         * with the instance given for the delete, as the entity might not be readable by then. Nothing is folded into
+         * a delete, so that a change after a delete is sent after it. A folded change keeps the request time of the
+         * earlier change, except for a delete, which is sent with its own.
+         */
+        boolean coalesce(EntityOperation laterOperation, ITypedReferenceableInstance laterInstance, boolean isImport, String user, long laterRequestTime) {
+            if (operation == EntityOperation.DELETE || this.isImport != isImport || !StringUtils.equals(this.user, user)) {
+                return false;
+            }
+
+            switch (laterOperation) {
+                case UPDATE:
+                case PARTIAL_UPDATE:
+                    if (operation == EntityOperation.PARTIAL_UPDATE) {
+                        operation = EntityOperation.UPDATE;
+                    }
+                    return true;
+
+                case DELETE:
+                    if (operation == EntityOperation.CREATE) {
+                        instance = laterInstance;
+
+                        return false;
+                    }
+
+                    operation   = EntityOperation.DELETE;
+                    instance    = laterInstance;
+                    requestTime = laterRequestTime;
+                    return true;
+
+                default:
+                    return false;
+            }
+        }
+
+        boolean isSameGroup(PendingChange other) {
+            return getListenerOperation(operation) == getListenerOperation(other.operation) &&
+                   isImport == other.isImport && StringUtils.equals(user, other.user) && requestTime == other.requestTime;
+        }
+
+        private static EntityOperation getListenerOperation(EntityOperation operation) {
+            return operation == EntityOperation.PARTIAL_UPDATE ? EntityOperation.UPDATE : operation;
+        }
+    }
+}
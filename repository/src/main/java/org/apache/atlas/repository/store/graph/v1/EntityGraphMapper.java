@@ -1412,36 +1412,15 @@ public class EntityGraphMapper {
         AtlasObjectId end2 = new AtlasObjectId(getIdFromVertex(end2Vertex), AtlasGraphUtilsV1.getTypeName(end2Vertex));
 
         AtlasRelationship relationship = relationshipStore.getOrCreate(new AtlasRelationship(relationshipName, end1, end2, relationshipAttributes));
-        // return newly created AtlasEdge
-        // if multiple edges are returned, compare using guid to pick the right one
-        Iterator<AtlasEdge> outEdges = graphHelper.getOutGoingEdgesByLabel(end1Vertex, relationship.getLabel());
-
-        while (outEdges.hasNext()) {
-            AtlasEdge edge = outEdges.next();
 
-            if (getIdFromVertex(end2Vertex).equals(getIdFromVertex(edge.getInVertex()))) {
-                ret = edge;
-                break;
-            }
-        }
+        // return newly created AtlasEdge
+        ret = graphHelper.getEdgeBetweenVertices(end1Vertex, end2Vertex, relationship.getLabel());
 
         return ret;
     }
 
     private boolean isRelationshipExists(AtlasVertex fromVertex, AtlasVertex toVertex, String edgeLabel) {
-        boolean             ret   = false;
-        Iterator<AtlasEdge> edges = graphHelper.getOutGoingEdgesByLabel(fromVertex, edgeLabel);
-
-        while (edges != null && edges.hasNext()) {
-            AtlasEdge   edge     = edges.next();
-            AtlasVertex inVertex = edge.getInVertex();
-
-            if (inVertex != null && StringUtils.equals(getIdFromVertex(inVertex), getIdFromVertex(toVertex))) {
-                ret = true;
-            }
-        }
-
-        return ret;
+        return graphHelper.getEdgeBetweenVertices(fromVertex, toVertex, edgeLabel) != null;
     }
 
     private void recordEntityUpdate(AtlasVertex vertex) {
@@ -83,9 +83,18 @@ public final class EntityGraphRetriever {
     private static final GraphHelper graphHelper = GraphHelper.getInstance();
 
     private final AtlasTypeRegistry typeRegistry;
+    private final EntityCache       entityCache;
 
     public EntityGraphRetriever(AtlasTypeRegistry typeRegistry) {
+        this(typeRegistry, null);
+    }
+
+    /**
+     * @param entityCache cache of entity headers and entities with extended info; null to read from the graph always
+     */
+    public EntityGraphRetriever(AtlasTypeRegistry typeRegistry, EntityCache entityCache) {
         this.typeRegistry = typeRegistry;
+        this.entityCache  = entityCache;
     }
 
     public AtlasEntity toAtlasEntity(String guid) throws AtlasBaseException {
@@ -109,6 +118,10 @@ public final class EntityGraphRetriever {
     }
 
     public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(AtlasVertex entityVertex) throws AtlasBaseException {
+        return entityCache != null ? entityCache.getEntityWithExtInfo(entityVertex, this) : mapVertexToAtlasEntityWithExtInfo(entityVertex);
+    }
+
+    AtlasEntityWithExtInfo mapVertexToAtlasEntityWithExtInfo(AtlasVertex entityVertex) throws AtlasBaseException {
         AtlasEntityExtInfo     entityExtInfo = new AtlasEntityExtInfo();
         AtlasEntity            entity        = mapVertexToAtlasEntity(entityVertex, entityExtInfo);
         AtlasEntityWithExtInfo ret           = new AtlasEntityWithExtInfo(entity, entityExtInfo);
@@ -206,11 +219,33 @@ public final class EntityGraphRetriever {
         return entity;
     }
 
-    private AtlasEntityHeader mapVertexToAtlasEntityHeader(AtlasVertex entityVertex) throws AtlasBaseException {
-        return mapVertexToAtlasEntityHeader(entityVertex, Collections.<String>emptySet());
+    private AtlasEntityHeader mapVertexToAtlasEntityHeader(AtlasVertex entityVertex, Set<String> attributes) throws AtlasBaseException {
+        AtlasEntityHeader ret = entityCache != null ? entityCache.getEntityHeader(entityVertex, this) : mapVertexToAtlasEntityHeader(entityVertex);
+
+        if (CollectionUtils.isNotEmpty(attributes)) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(ret.getTypeName());
+
+            if (entityType != null) {
+                for (String attrName : attributes) {
+                    String nonQualifiedAttrName = toNonQualifiedName(attrName);
+                    if (ret.hasAttribute(attrName)) {
+                        continue;
+                    }
+
+                    Object attrValue = getVertexAttribute(entityVertex, entityType.getAttribute(nonQualifiedAttrName));
+
+                    if (attrValue != null) {
+                        ret.setAttribute(nonQualifiedAttrName, attrValue);
+                    }
+                }
+            }
+        }
+
+        return ret;
     }
 
-    private AtlasEntityHeader mapVertexToAtlasEntityHeader(AtlasVertex entityVertex, Set<String> attributes) throws AtlasBaseException {
+    // header with the default attributes, which is what entityCache caches
+    AtlasEntityHeader mapVertexToAtlasEntityHeader(AtlasVertex entityVertex) throws AtlasBaseException {
         AtlasEntityHeader ret = new AtlasEntityHeader();
 
         String typeName = entityVertex.getProperty(Constants.TYPE_NAME_PROPERTY_KEY, String.class);
@@ -246,21 +281,6 @@ public final class EntityGraphRetriever {
             if (displayText != null) {
                 ret.setDisplayText(displayText.toString());
             }
-
-            if (CollectionUtils.isNotEmpty(attributes)) {
-                for (String attrName : attributes) {
-                    String nonQualifiedAttrName = toNonQualifiedName(attrName);
-                    if (ret.hasAttribute(attrName)) {
-                        continue;
-                    }
-
-                    Object attrValue = getVertexAttribute(entityVertex, entityType.getAttribute(nonQualifiedAttrName));
-
-                    if (attrValue != null) {
-                        ret.setAttribute(nonQualifiedAttrName, attrValue);
-                    }
-                }
-            }
         }
 
         return ret;
@@ -620,7 +640,7 @@ public final class EntityGraphRetriever {
         return ret;
     }
 
-    private Object getVertexAttribute(AtlasVertex vertex, AtlasAttribute attribute) throws AtlasBaseException {
+    public Object getVertexAttribute(AtlasVertex vertex, AtlasAttribute attribute) throws AtlasBaseException {
         return vertex != null && attribute != null ? mapVertexToAttribute(vertex, attribute, null) : null;
     }
 
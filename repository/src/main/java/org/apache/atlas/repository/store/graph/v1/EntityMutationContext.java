@@ -65,6 +65,19 @@ public class EntityMutationContext {
         }
     }
 
+    /**
+     * Records an entity that resolved to an existing vertex but has nothing to update; it is not mapped to the graph.
+     */
+    public void addUnchanged(String internalGuid, AtlasEntity entity, AtlasEntityType type, AtlasVertex atlasVertex) {
+        entityVsType.put(entity.getGuid(), type);
+        entityVsVertex.put(entity.getGuid(), atlasVertex);
+
+        if (!StringUtils.equals(internalGuid, entity.getGuid())) {
+            guidAssignments.put(internalGuid, entity.getGuid());
+            entityVsVertex.put(internalGuid, atlasVertex);
+        }
+    }
+
     public EntityGraphDiscoveryContext getDiscoveryContext() {
         return this.context;
     }
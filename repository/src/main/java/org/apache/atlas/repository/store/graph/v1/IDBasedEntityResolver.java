@@ -30,6 +30,11 @@ import org.apache.atlas.type.AtlasTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 
 public class IDBasedEntityResolver implements EntityResolver {
     private static final Logger LOG = LoggerFactory.getLogger(IDBasedEntityResolver.class);
@@ -45,32 +50,75 @@ public class IDBasedEntityResolver implements EntityResolver {
             throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "IDBasedEntityResolver.resolveEntityReferences(): context is null");
         }
 
-        EntityStream entityStream = context.getEntityStream();
+        EntityStream              entityStream  = context.getEntityStream();
+        boolean                   isImport      = entityStream instanceof EntityImportStream;
+        List<String>              assignedGuids = new ArrayList<>();
+        Map<String, List<String>> guidsByType   = new HashMap<>();
 
         for (String guid : context.getReferencedGuids()) {
-            boolean isAssignedGuid = AtlasTypeUtil.isAssignedGuid(guid);
-            AtlasVertex vertex = isAssignedGuid ? AtlasGraphUtilsV1.findByGuid(guid) : null;
+            if (AtlasTypeUtil.isAssignedGuid(guid)) {
+                assignedGuids.add(guid);
+            }
+        }
 
-            if (vertex == null && !(entityStream instanceof EntityImportStream)) { // if not found in the store, look if the entity is present in the stream
-                AtlasEntity entity = entityStream.getByGuid(guid);
+        // look up the assigned guids with a query per chunk of guids
+        Map<String, AtlasVertex> resolvedVertices = AtlasGraphUtilsV1.findByGuids(assignedGuids);
 
-                if (entity != null) { // look for the entity in the store using unique-attributes
-                    AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+        for (String guid : context.getReferencedGuids()) {
+            if (resolvedVertices.containsKey(guid) || isImport) {
+                continue;
+            }
 
-                    if (entityType == null) {
-                        throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), entity.getTypeName());
-                    }
+            // if not found in the store, look if the entity is present in the stream
+            AtlasEntity entity = entityStream.getByGuid(guid);
 
-                    vertex = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, entity.getAttributes());
-                } else if (!isAssignedGuid) { // for local-guids, entity must be in the stream
-                    throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, guid);
+            if (entity != null) { // look for the entity in the store using unique-attributes
+                AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+                if (entityType == null) {
+                    throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), entity.getTypeName());
+                }
+
+                List<String> guids = guidsByType.get(entityType.getTypeName());
+
+                if (guids == null) {
+                    guids = new ArrayList<>();
+
+                    guidsByType.put(entityType.getTypeName(), guids);
                 }
+
+                guids.add(guid);
+            } else if (!AtlasTypeUtil.isAssignedGuid(guid)) { // for local-guids, entity must be in the stream
+                throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, guid);
             }
+        }
+
+        // look up entities by unique-attributes, a query per type and unique attribute
+        for (Map.Entry<String, List<String>> e : guidsByType.entrySet()) {
+            AtlasEntityType           entityType     = typeRegistry.getEntityTypeByName(e.getKey());
+            List<String>              guids          = e.getValue();
+            List<Map<String, Object>> attrValuesList = new ArrayList<>(guids.size());
+
+            for (String guid : guids) {
+                attrValuesList.add(entityStream.getByGuid(guid).getAttributes());
+            }
+
+            List<AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, attrValuesList);
+
+            for (int i = 0; i < guids.size(); i++) {
+                if (vertices.get(i) != null) {
+                    resolvedVertices.put(guids.get(i), vertices.get(i));
+                }
+            }
+        }
+
+        for (String guid : context.getReferencedGuids()) {
+            AtlasVertex vertex = resolvedVertices.get(guid);
 
             if (vertex != null) {
                 context.addResolvedGuid(guid, vertex);
             } else {
-                if (isAssignedGuid && !(entityStream instanceof EntityImportStream)) {
+                if (AtlasTypeUtil.isAssignedGuid(guid) && !isImport) {
                     throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, guid);
                 } else {
                     context.addLocalGuidReference(guid);
@@ -30,7 +30,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class UniqAttrBasedEntityResolver implements EntityResolver {
@@ -48,24 +50,47 @@ public class UniqAttrBasedEntityResolver implements EntityResolver {
             throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "UniqAttrBasedEntityResolver.resolveEntityReferences(): context is null");
         }
 
-        //Resolve attribute references
-        List<AtlasObjectId> resolvedReferences = new ArrayList<>();
+        //Resolve attribute references, with a query per type and unique attribute
+        Map<String, List<AtlasObjectId>> objIdsByType = new LinkedHashMap<>();
 
         for (AtlasObjectId objId : context.getReferencedByUniqAttribs()) {
+            List<AtlasObjectId> objIds = objIdsByType.get(objId.getTypeName());
+
+            if (objIds == null) {
+                objIds = new ArrayList<>();
+
+                objIdsByType.put(objId.getTypeName(), objIds);
+            }
+
+            objIds.add(objId);
+        }
+
+        for (Map.Entry<String, List<AtlasObjectId>> e : objIdsByType.entrySet()) {
             //query in graph repo that given unique attribute - check for deleted also?
-            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(objId.getTypeName());
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(e.getKey());
 
             if (entityType == null) {
-                throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), objId.getTypeName());
+                throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), e.getKey());
             }
 
-            AtlasVertex vertex = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, objId.getUniqueAttributes());
+            List<AtlasObjectId>       objIds         = e.getValue();
+            List<Map<String, Object>> attrValuesList = new ArrayList<>(objIds.size());
+
+            for (AtlasObjectId objId : objIds) {
+                attrValuesList.add(objId.getUniqueAttributes());
+            }
+
+            List<AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, attrValuesList);
+
+            for (int i = 0; i < objIds.size(); i++) {
+                AtlasObjectId objId  = objIds.get(i);
+                AtlasVertex   vertex = vertices.get(i);
 
-            if (vertex != null) {
-                context.addResolvedIdByUniqAttribs(objId, vertex);
-                resolvedReferences.add(objId);
-            } else {
-                throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, objId.toString());
+                if (vertex != null) {
+                    context.addResolvedIdByUniqAttribs(objId, vertex);
+                } else {
+                    throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, objId.toString());
+                }
             }
         }
 
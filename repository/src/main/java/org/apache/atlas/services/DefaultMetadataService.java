@@ -36,6 +36,7 @@ import org.apache.atlas.listener.TypesChangeListener;
 import org.apache.atlas.model.legacy.EntityResult;
 import org.apache.atlas.repository.MetadataRepository;
 import org.apache.atlas.repository.RepositoryException;
+import org.apache.atlas.repository.audit.EntityAuditQuery;
 import org.apache.atlas.repository.audit.EntityAuditRepository;
 import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.typestore.ITypeStore;
@@ -57,6 +58,7 @@ import org.apache.atlas.typesystem.types.*;
 import org.apache.atlas.typesystem.types.cache.TypeCache;
 import org.apache.atlas.utils.ParamChecker;
 import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.slf4j.Logger;
@@ -741,6 +743,27 @@ public class DefaultMetadataService implements MetadataService, ActiveStateChang
         return auditRepository.listEvents(guid, startKey, count);
     }
 
+    @Override
+    public List<EntityAuditEvent> getAuditEvents(long fromTime, long toTime, String user, String action, String typeName,
+                                                 String startKey, short count) throws AtlasException {
+        startKey = ParamChecker.notEmptyIfNotNull(startKey, "start key");
+        ParamChecker.lessThan(count, maxAuditResults, "count");
+        if (toTime < fromTime) {
+            throw new IllegalArgumentException("toTime should be >= fromTime " + fromTime + ", current value " + toTime);
+        }
+
+        EntityAuditEvent.EntityAuditAction auditAction = null;
+        if (StringUtils.isNotEmpty(action)) {
+            try {
+                auditAction = EntityAuditEvent.EntityAuditAction.valueOf(action);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid audit action " + action);
+            }
+        }
+
+        return auditRepository.listEvents(new EntityAuditQuery(fromTime, toTime, user, auditAction, typeName), startKey, count);
+    }
+
     /* (non-Javadoc)
      * @see org.apache.atlas.services.MetadataService#deleteEntities(java.lang.String)
      */
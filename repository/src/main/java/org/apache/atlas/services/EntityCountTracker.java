@@ -0,0 +1,780 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.EntityChangeListener;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.typesystem.IStruct;
+import org.apache.atlas.typesystem.ITypedReferenceableInstance;
+import org.apache.atlas.typesystem.persistence.Id;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.annotate.JsonAutoDetect;
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+import org.codehaus.jackson.map.annotate.JsonSerialize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.codehaus.jackson.annotate.JsonAutoDetect.Visibility.NONE;
+import static org.codehaus.jackson.annotate.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * Counts entities by type and status, and classifications by type, for the metrics service - instead of counting
+ * them with full graph scans.
+ *
+ * Counts are updated with the changes notified to entity change listeners - once the transaction that made them
+ * commits, when notified within a transaction - and are saved in a vertex of the graph every persistIntervalMs, from
+ * a background thread on the active instance. As changes since the last save are lost on a restart or fail-over,
+ * the counts are recomputed from the graph: once, if no counts have been saved yet, and every reconcileIntervalMs,
+ * if set. Such a scan visits at most maxVerticesPerSec vertices per second. The vertices of a type are read from
+ * one query, in a read transaction that ends with the type: committing it earlier would end the query. The
+ * transaction keeps no more vertices than its cache holds (cache.tx-cache-size), as the scan modifies none.
+ *
+ * Counts are not available until they are loaded or recounted - see isLoaded().
+ */
+@Component
+@Order(6)
+public class EntityCountTracker implements EntityChangeListener, Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityCountTracker.class);
+
+    public static final String COUNTS_VERTEX_TYPE   = "entityCounts";
+    public static final String COUNTS_PROPERTY_KEY  = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "entityCounts.counts";
+    public static final String COUNTS_TIME_PROPERTY = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "entityCounts.timestamp";
+
+    private final AtlasGraph                        graph;
+    private final AtlasTypeRegistry                 typeRegistry;
+    private final Configuration                     configuration;
+    private final boolean                           isEnabled;
+    private final long                              persistIntervalMs;
+    private final long                              reconcileIntervalMs;
+    private final int                               maxVerticesPerSec;
+    private final ConcurrentMap<String, AtomicLong> activeCounts         = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> deletedCounts        = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> classificationCounts = new ConcurrentHashMap<>();
+    private final AtomicLong                        classifiedCount      = new AtomicLong();
+
+    private volatile boolean                  isLoaded    = false;
+    private          ScanChanges              scanChanges = null; // changes made while the graph is scanned; guarded by this
+    private          ScheduledExecutorService executor;
+
+    @Inject
+    public EntityCountTracker(AtlasGraph graph, AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(graph, typeRegistry, ApplicationProperties.get(), AtlasConfiguration.METRICS_ENTITY_COUNTS_ENABLED.getBoolean(),
+             AtlasConfiguration.METRICS_ENTITY_COUNTS_PERSIST_INTERVAL_MS.getLong(),
+             AtlasConfiguration.METRICS_ENTITY_COUNTS_RECONCILE_INTERVAL_MS.getLong(),
+             AtlasConfiguration.METRICS_ENTITY_COUNTS_RECONCILE_MAX_VERTICES_PER_SEC.getInt());
+    }
+
+    @VisibleForTesting
+    EntityCountTracker(AtlasGraph graph, AtlasTypeRegistry typeRegistry, Configuration configuration, boolean isEnabled,
+                       long persistIntervalMs, long reconcileIntervalMs, int maxVerticesPerSec) {
+        this.graph               = graph;
+        this.typeRegistry        = typeRegistry;
+        this.configuration       = configuration;
+        this.isEnabled           = isEnabled;
+        this.persistIntervalMs   = Math.max(persistIntervalMs, 1000);
+        this.reconcileIntervalMs = reconcileIntervalMs;
+        this.maxVerticesPerSec   = maxVerticesPerSec;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @return true once the saved counts are loaded, or the entities in the graph are counted. Until then, the counts
+     * only include the changes made since the tracker started
+     */
+    public boolean isLoaded() {
+        return isLoaded;
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            startWorker();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopWorker(true);
+    }
+
+    @Override
+    public void instanceIsActive() {
+        LOG.info("Reacting to active state: loading entity counts");
+
+        startWorker();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        LOG.info("Reacting to passive state: stopping entity count updates");
+
+        // counts are not saved, as the new active instance might have loaded them already
+        stopWorker(false);
+    }
+
+    @Override
+    public void onEntitiesAdded(Collection<ITypedReferenceableInstance> entities, boolean isImport) {
+        if (!isEnabled) {
+            return;
+        }
+
+        CountChanges changes = new CountChanges();
+
+        for (ITypedReferenceableInstance entity : entities) {
+            EntityChange change = changes.get(entity);
+
+            change.active++;
+            change.isCreated = true;
+
+            change.addClassifications(entity.getTraits(), 1);
+        }
+
+        apply(changes);
+    }
+
+    @Override
+    public void onEntitiesUpdated(Collection<ITypedReferenceableInstance> entities, boolean isImport) {
+        // updates change neither the type nor the status of entities
+    }
+
+    @Override
+    public void onTraitsAdded(ITypedReferenceableInstance entity, Collection<? extends IStruct> traits) {
+        if (!isEnabled || CollectionUtils.isEmpty(traits)) {
+            return;
+        }
+
+        CountChanges changes = new CountChanges();
+        EntityChange change  = changes.get(entity);
+
+        for (IStruct trait : traits) {
+            change.addClassification(trait.getTypeName(), 1);
+        }
+
+        // the entity was not classified before, if it has only the added classifications now
+        List<String> classificationNames = getClassificationNames(entity);
+
+        if (classificationNames != null && classificationNames.size() == traits.size()) {
+            change.classified++;
+        }
+
+        apply(changes);
+    }
+
+    @Override
+    public void onTraitsDeleted(ITypedReferenceableInstance entity, Collection<String> traitNames) {
+        if (!isEnabled || CollectionUtils.isEmpty(traitNames)) {
+            return;
+        }
+
+        CountChanges changes = new CountChanges();
+        EntityChange change  = changes.get(entity);
+
+        for (String traitName : traitNames) {
+            change.addClassification(traitName, -1);
+        }
+
+        List<String> classificationNames = getClassificationNames(entity);
+
+        if (classificationNames != null && classificationNames.isEmpty()) {
+            change.classified--;
+        }
+
+        apply(changes);
+    }
+
+    @Override
+    public void onTraitsUpdated(ITypedReferenceableInstance entity, Collection<? extends IStruct> traits) {
+        // updates don't change the classifications of entities
+    }
+
+    @Override
+    public void onEntitiesDeleted(Collection<ITypedReferenceableInstance> entities, boolean isImport) {
+        if (!isEnabled) {
+            return;
+        }
+
+        CountChanges changes = new CountChanges();
+
+        for (ITypedReferenceableInstance entity : entities) {
+            EntityChange change = changes.get(entity);
+
+            change.active--;
+
+            // a soft-deleted entity stays in the graph, with its classifications
+            AtlasVertex vertex = AtlasGraphUtilsV1.findByGuid(entity.getId()._getId());
+
+            if (vertex != null && GraphHelper.getState(vertex) == Id.EntityState.DELETED) {
+                change.deleted++;
+            } else {
+                change.isRemoved = true;
+
+                change.addClassifications(entity.getTraits(), -1);
+            }
+        }
+
+        apply(changes);
+    }
+
+    public EntityCounts getCounts() {
+        EntityCounts ret = new EntityCounts();
+
+        ret.setActiveEntities(toMap(activeCounts));
+        ret.setDeletedEntities(toMap(deletedCounts));
+        ret.setClassifiedEntities(toMap(classificationCounts));
+        ret.setClassifiedEntityCount(classifiedCount.get());
+
+        return ret;
+    }
+
+    /**
+     * Loads the saved counts, and adds them to the changes counted since the worker started - as the load runs
+     * after listeners are notified of changes. Recounts entities in the graph if no counts were saved.
+     */
+    @VisibleForTesting
+    void load() {
+        try {
+            AtlasVertex  countsVertex = findCountsVertex();
+            String       countsJson   = countsVertex != null ? countsVertex.getProperty(COUNTS_PROPERTY_KEY, String.class) : null;
+            EntityCounts counts       = StringUtils.isNotEmpty(countsJson) ? AtlasType.fromJson(countsJson, EntityCounts.class) : null;
+
+            graph.commit();
+
+            if (counts != null) {
+                addCounts(counts);
+
+                isLoaded = true;
+
+                LOG.info("Loaded entity counts saved at {}", countsVertex.getProperty(COUNTS_TIME_PROPERTY, Long.class));
+            } else {
+                reconcile();
+            }
+        } catch (Throwable t) {
+            LOG.error("Failed to load entity counts", t);
+
+            graph.rollback();
+        }
+    }
+
+    @VisibleForTesting
+    void persist() {
+        if (!isLoaded) { // would save only the changes since the start
+            return;
+        }
+
+        try {
+            AtlasVertex countsVertex = findCountsVertex();
+
+            if (countsVertex == null) {
+                countsVertex = graph.addVertex();
+
+                countsVertex.setProperty(Constants.VERTEX_TYPE_PROPERTY_KEY, COUNTS_VERTEX_TYPE);
+            }
+
+            countsVertex.setProperty(COUNTS_PROPERTY_KEY, AtlasType.toJson(getCounts()));
+            countsVertex.setProperty(COUNTS_TIME_PROPERTY, System.currentTimeMillis());
+
+            graph.commit();
+        } catch (Throwable t) {
+            LOG.error("Failed to save entity counts", t);
+
+            graph.rollback();
+        }
+    }
+
+    /**
+     * Recounts entities and classifications in the graph. The scan counts each entity as of its visit, so changes
+     * made during the scan are added to its counts only for entities it visited before the change, or not at all.
+     */
+    @VisibleForTesting
+    void reconcile() {
+        LOG.info("Counting entities in the graph");
+
+        RateLimiter rateLimiter = maxVerticesPerSec > 0 ? RateLimiter.create(maxVerticesPerSec) : null;
+        ScanCounts  scanned     = new ScanCounts();
+        long        vertexCount = 0;
+
+        synchronized (this) {
+            scanChanges = new ScanChanges();
+        }
+
+        try {
+            for (String typeName : typeRegistry.getAllEntityDefNames()) {
+                synchronized (this) {
+                    scanChanges.scannedTypes.add(typeName);
+                }
+
+                Iterator<AtlasVertex> vertices = graph.query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, typeName).vertices().iterator();
+
+                while (vertices.hasNext()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        LOG.info("Entity count stopped after {} vertices", vertexCount);
+
+                        graph.rollback();
+
+                        return;
+                    }
+
+                    if (rateLimiter != null) {
+                        rateLimiter.acquire();
+                    }
+
+                    AtlasVertex  vertex              = vertices.next();
+                    String       guid                = GraphHelper.getGuid(vertex);
+                    boolean      isDeleted           = GraphHelper.getState(vertex) == Id.EntityState.DELETED;
+                    List<String> classificationNames = GraphHelper.getTraitNames(vertex);
+
+                    // the scan sees the changes made to the entity so far
+                    synchronized (this) {
+                        scanChanges.changes.remove(guid);
+                    }
+
+                    add(isDeleted ? scanned.deleted : scanned.active, typeName, 1);
+
+                    if (CollectionUtils.isNotEmpty(classificationNames)) {
+                        for (String classificationName : classificationNames) {
+                            add(scanned.classifications, classificationName, 1);
+                        }
+
+                        scanned.classified.incrementAndGet();
+                    }
+
+                    vertexCount++;
+                }
+
+                // ends the read transaction of the type
+                graph.commit();
+            }
+
+            synchronized (this) {
+                for (EntityChange change : scanChanges.changes.values()) {
+                    if (!scanChanges.isSeenByScan(change)) {
+                        change.addTo(scanned);
+                    }
+                }
+
+                set(activeCounts, scanned.active);
+                set(deletedCounts, scanned.deleted);
+                set(classificationCounts, scanned.classifications);
+
+                classifiedCount.set(scanned.classified.get());
+            }
+
+            isLoaded = true;
+        } catch (Throwable t) {
+            LOG.error("Failed to count entities in the graph", t);
+
+            graph.rollback();
+
+            return;
+        } finally {
+            synchronized (this) {
+                scanChanges = null;
+            }
+        }
+
+        LOG.info("Counted {} entities in the graph", vertexCount);
+    }
+
+    private synchronized void startWorker() {
+        if (!isEnabled || executor != null) {
+            return;
+        }
+
+        // changes counted from now on are added to the loaded counts
+        clearCounts();
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-entity-counts-%d")
+                                                                                         .setDaemon(true).build());
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                persist();
+            }
+        }, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+
+        if (reconcileIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    reconcile();
+                    persist();
+                }
+            }, reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void stopWorker(boolean persistCounts) {
+        if (executor != null) {
+            executor.shutdownNow();
+
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOG.warn("Timed out waiting for the entity count updates to stop");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            executor = null;
+
+            if (persistCounts) {
+                persist();
+            }
+
+            isLoaded = false;
+        }
+    }
+
+    /**
+     * @return classifications of the entity in the graph; the notified instance might have been read before the change
+     */
+    private List<String> getClassificationNames(ITypedReferenceableInstance entity) {
+        AtlasVertex vertex = AtlasGraphUtilsV1.findByGuid(entity.getId()._getId());
+
+        return vertex != null ? GraphHelper.getTraitNames(vertex) : null;
+    }
+
+    private AtlasVertex findCountsVertex() {
+        Iterator<AtlasVertex> vertices = graph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, COUNTS_VERTEX_TYPE).vertices().iterator();
+
+        return vertices.hasNext() ? vertices.next() : null;
+    }
+
+    private synchronized void clearCounts() {
+        activeCounts.clear();
+        deletedCounts.clear();
+        classificationCounts.clear();
+        classifiedCount.set(0);
+    }
+
+    private synchronized void addCounts(EntityCounts counts) {
+        addAll(activeCounts, counts.getActiveEntities());
+        addAll(deletedCounts, counts.getDeletedEntities());
+        addAll(classificationCounts, counts.getClassifiedEntities());
+
+        classifiedCount.addAndGet(counts.getClassifiedEntityCount());
+    }
+
+    /**
+     * Changes notified within a graph transaction are counted once it commits, so that changes rolled back are not.
+     */
+    private void apply(CountChanges changes) {
+        if (GraphTransactionInterceptor.isInTransaction()) {
+            new CountChangesHook(changes);
+        } else {
+            changes.apply();
+        }
+    }
+
+    private static void add(ConcurrentMap<String, AtomicLong> counts, String name, long delta) {
+        AtomicLong count = counts.get(name);
+
+        if (count == null) {
+            AtomicLong existing = counts.putIfAbsent(name, count = new AtomicLong());
+
+            if (existing != null) {
+                count = existing;
+            }
+        }
+
+        count.addAndGet(delta);
+    }
+
+    private static void set(ConcurrentMap<String, AtomicLong> counts, Map<String, AtomicLong> values) {
+        counts.clear();
+
+        for (Map.Entry<String, AtomicLong> entry : values.entrySet()) {
+            add(counts, entry.getKey(), entry.getValue().get());
+        }
+    }
+
+    private static void addAll(ConcurrentMap<String, AtomicLong> counts, Map<String, Long> values) {
+        if (values != null) {
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                add(counts, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static Map<String, Long> toMap(Map<String, AtomicLong> counts) {
+        Map<String, Long> ret = new HashMap<>();
+
+        for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+            long count = entry.getValue().get();
+
+            if (count != 0) {
+                ret.put(entry.getKey(), count);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Counts of a scan of the graph.
+     */
+    private static class ScanCounts {
+        private final ConcurrentMap<String, AtomicLong> active          = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, AtomicLong> deleted         = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, AtomicLong> classifications = new ConcurrentHashMap<>();
+        private final AtomicLong                        classified      = new AtomicLong();
+    }
+
+    /**
+     * Changes made while the graph is scanned, by guid. A visit of an entity drops the changes made to it so far,
+     * so that only the changes the scan does not see remain.
+     */
+    private static class ScanChanges {
+        private final Map<String, EntityChange> changes      = new HashMap<>();
+        private final Set<String>               scannedTypes = new HashSet<>();
+
+        void add(EntityChange change) {
+            EntityChange existing = changes.get(change.guid);
+
+            if (existing == null) {
+                existing = new EntityChange(change.guid, change.typeName);
+
+                existing.isRemovedBeforeScan = change.isRemoved && !scannedTypes.contains(change.typeName);
+
+                changes.put(change.guid, existing);
+            } else if (change.isRemoved && !scannedTypes.contains(change.typeName)) {
+                existing.isRemovedBeforeScan = true;
+            }
+
+            existing.add(change);
+        }
+
+        /**
+         * An entity that is not visited is either created after the scan passed its position, or removed from the
+         * graph. The scan does not count entities removed before the scan of their type, so their removal is already
+         * in its counts - unless they were created during the scan. An entity removed while its type is scanned is
+         * taken as removed after its visit.
+         */
+        boolean isSeenByScan(EntityChange change) {
+            return change.isRemovedBeforeScan && !change.isCreated;
+        }
+    }
+
+    /**
+     * Changes to the counts, from a notification of entity changes.
+     */
+    private class CountChanges {
+        private final Map<String, EntityChange> changes = new HashMap<>();
+
+        EntityChange get(ITypedReferenceableInstance entity) {
+            String       guid = entity.getId()._getId();
+            EntityChange ret  = changes.get(guid);
+
+            if (ret == null) {
+                ret = new EntityChange(guid, entity.getTypeName());
+
+                changes.put(guid, ret);
+            }
+
+            return ret;
+        }
+
+        void apply() {
+            synchronized (EntityCountTracker.this) {
+                for (EntityChange change : changes.values()) {
+                    change.addTo(activeCounts, deletedCounts, classificationCounts, classifiedCount);
+
+                    if (scanChanges != null) {
+                        scanChanges.add(change);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes to the counts by an entity.
+     */
+    private static class EntityChange {
+        private final String            guid;
+        private final String            typeName;
+        private final Map<String, Long> classifications = new HashMap<>();
+        private       long              active;
+        private       long              deleted;
+        private       long              classified;
+        private       boolean           isCreated;
+        private       boolean           isRemoved;           // removed from the graph, not soft-deleted
+        private       boolean           isRemovedBeforeScan; // removed before the scan of its type started
+
+        EntityChange(String guid, String typeName) {
+            this.guid     = guid;
+            this.typeName = typeName;
+        }
+
+        void addClassification(String classificationName, long delta) {
+            Long change = classifications.get(classificationName);
+
+            classifications.put(classificationName, (change != null ? change : 0) + delta);
+        }
+
+        void addClassifications(List<String> classificationNames, int delta) {
+            if (CollectionUtils.isEmpty(classificationNames)) {
+                return;
+            }
+
+            for (String classificationName : classificationNames) {
+                addClassification(classificationName, delta);
+            }
+
+            classified += delta;
+        }
+
+        void add(EntityChange other) {
+            active     += other.active;
+            deleted    += other.deleted;
+            classified += other.classified;
+            isCreated  |= other.isCreated;
+            isRemoved  |= other.isRemoved;
+
+            for (Map.Entry<String, Long> entry : other.classifications.entrySet()) {
+                addClassification(entry.getKey(), entry.getValue());
+            }
+        }
+
+        void addTo(ScanCounts counts) {
+            addTo(counts.active, counts.deleted, counts.classifications, counts.classified);
+        }
+
+        void addTo(ConcurrentMap<String, AtomicLong> activeCounts, ConcurrentMap<String, AtomicLong> deletedCounts,
+                   ConcurrentMap<String, AtomicLong> classificationCounts, AtomicLong classifiedCount) {
+            if (active != 0) {
+                EntityCountTracker.add(activeCounts, typeName, active);
+            }
+
+            if (deleted != 0) {
+                EntityCountTracker.add(deletedCounts, typeName, deleted);
+            }
+
+            for (Map.Entry<String, Long> entry : classifications.entrySet()) {
+                EntityCountTracker.add(classificationCounts, entry.getKey(), entry.getValue());
+            }
+
+            classifiedCount.addAndGet(classified);
+        }
+    }
+
+    private class CountChangesHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final CountChanges changes;
+
+        private CountChangesHook(CountChanges changes) {
+            super();
+
+            this.changes = changes;
+        }
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            if (isSuccess) {
+                changes.apply();
+            }
+        }
+    }
+
+    /**
+     * Number of entities by type and status, and of entities by classification. Deleted entities keep their
+     * classifications, and are included in the classification counts.
+     */
+    @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+    @JsonSerialize(include=JsonSerialize.Inclusion.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown=true)
+    public static class EntityCounts {
+        private Map<String, Long> activeEntities     = new HashMap<>();
+        private Map<String, Long> deletedEntities    = new HashMap<>();
+        private Map<String, Long> classifiedEntities = new HashMap<>();
+        private long              classifiedEntityCount;
+
+        public Map<String, Long> getActiveEntities() { return activeEntities; }
+
+        public void setActiveEntities(Map<String, Long> activeEntities) { this.activeEntities = activeEntities; }
+
+        public Map<String, Long> getDeletedEntities() { return deletedEntities; }
+
+        public void setDeletedEntities(Map<String, Long> deletedEntities) { this.deletedEntities = deletedEntities; }
+
+        /**
+         * @return number of entities by classification
+         */
+        public Map<String, Long> getClassifiedEntities() { return classifiedEntities; }
+
+        public void setClassifiedEntities(Map<String, Long> classifiedEntities) { this.classifiedEntities = classifiedEntities; }
+
+        /**
+         * @return number of entities with at least one classification
+         */
+        public long getClassifiedEntityCount() { return classifiedEntityCount; }
+
+        public void setClassifiedEntityCount(long classifiedEntityCount) { this.classifiedEntityCount = classifiedEntityCount; }
+
+        @Override
+        public String toString() {
+            return "EntityCounts{activeEntities=" + activeEntities + ", deletedEntities=" + deletedEntities +
+                   ", classifiedEntities=" + classifiedEntities + ", classifiedEntityCount=" + classifiedEntityCount + "}";
+        }
+    }
+}
@@ -20,10 +20,18 @@ package org.apache.atlas.services;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.GraphTransactionInterceptor.ObjectUpdateSynchronizer;
 import org.apache.atlas.annotation.AtlasService;
+import org.apache.atlas.discovery.SearchPlanCache;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.metrics.AtlasMetrics;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v1.AtlasEntityChangeNotifier;
+import org.apache.atlas.repository.store.graph.v1.EntityCache;
+import org.apache.atlas.repository.store.graph.v1.EntityChangeDispatcher;
+import org.apache.atlas.services.EntityCountTracker.EntityCounts;
+import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.commons.configuration.Configuration;
@@ -31,6 +39,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,10 +48,14 @@ public class MetricsService {
     private static final Logger LOG = LoggerFactory.getLogger(MetricsService.class);
 
     // Query Category constants
-    public static final String TYPE    = "type";
-    public static final String ENTITY  = "entity";
-    public static final String TAG     = "tag";
-    public static final String GENERAL = "general";
+    public static final String TYPE         = "type";
+    public static final String ENTITY       = "entity";
+    public static final String TAG          = "tag";
+    public static final String GENERAL      = "general";
+    public static final String NOTIFICATION = "notification";
+    public static final String SEARCH       = "search";
+    public static final String TRANSACTION  = "transaction";
+    public static final String ENTITY_CACHE = "entityCache";
 
     // Query names
     protected static final String METRIC_TYPE_COUNT        = TYPE + "Count";
@@ -63,26 +76,71 @@ public class MetricsService {
 
     public static final String METRIC_COLLECTION_TIME = "collectionTime";
 
+    protected static final String METRIC_NOTIFICATION_QUEUE_DEPTH  = NOTIFICATION + "QueueDepth";
+    protected static final String METRIC_NOTIFICATION_QUEUE_LAG    = NOTIFICATION + "QueueLagMs";
+    protected static final String METRIC_NOTIFICATION_DISPATCH_LAG = NOTIFICATION + "DispatchLagMs";
+    protected static final String METRIC_NOTIFICATION_ENQUEUED     = NOTIFICATION + "Enqueued";
+    protected static final String METRIC_NOTIFICATION_COALESCED    = NOTIFICATION + "Coalesced";
+    protected static final String METRIC_NOTIFICATION_DISPATCHED   = NOTIFICATION + "Dispatched";
+    protected static final String METRIC_NOTIFICATION_FAILED       = NOTIFICATION + "Failed";
+    protected static final String METRIC_NOTIFICATION_REJECTED     = NOTIFICATION + "Rejected";
+
+    protected static final String METRIC_SEARCH_PLAN_CACHE_SIZE     = SEARCH + "PlanCacheSize";
+    protected static final String METRIC_SEARCH_PLAN_CACHE_HITS     = SEARCH + "PlanCacheHits";
+    protected static final String METRIC_SEARCH_PLAN_CACHE_MISSES   = SEARCH + "PlanCacheMisses";
+    protected static final String METRIC_SEARCH_PLAN_CACHE_HIT_RATE = SEARCH + "PlanCacheHitRate";
+
+    protected static final String METRIC_TRANSACTION_LOCKS          = TRANSACTION + "Locks";
+    protected static final String METRIC_TRANSACTION_LOCK_WAITS     = TRANSACTION + "LockWaits";
+    protected static final String METRIC_TRANSACTION_LOCK_WAIT_TIME = TRANSACTION + "LockWaitTimeMs";
+    protected static final String METRIC_TRANSACTION_LOCK_WAIT_MAX  = TRANSACTION + "LockWaitMaxMs";
+    protected static final String METRIC_TRANSACTION_LOCK_TIMEOUTS  = TRANSACTION + "LockTimeouts";
+    protected static final String METRIC_TRANSACTION_LOCK_DEADLOCKS = TRANSACTION + "LockDeadlocks";
+
+    protected static final String METRIC_ENTITY_CACHE_HEADERS  = "headers";
+    protected static final String METRIC_ENTITY_CACHE_ENTITIES = "entities";
+
     private static Configuration            configuration = null;
     private static AtlasGremlinQueryProvider gremlinQueryProvider = null;
 
     private final AtlasGraph                atlasGraph;
+    private final AtlasEntityChangeNotifier entityChangeNotifier;
+    private final SearchPlanCache           searchPlanCache;
+    private final EntityCache               entityCache;
+    private final EntityCountTracker        entityCountTracker;
+    private final AtlasTypeRegistry         typeRegistry;
     private final int                       cacheTTLInSecs;
 
-    private AtlasMetrics cachedMetrics       = null;
-    private long         cacheExpirationTime = 0;
+    private volatile AtlasMetrics cachedMetrics       = null; // not modified once cached
+    private volatile long         cacheExpirationTime = 0;
 
 
     @Inject
-    public MetricsService(AtlasGraph atlasGraph) throws AtlasException {
-        this(ApplicationProperties.get(), atlasGraph);
+    public MetricsService(AtlasGraph atlasGraph, AtlasEntityChangeNotifier entityChangeNotifier, SearchPlanCache searchPlanCache,
+                          EntityCache entityCache, EntityCountTracker entityCountTracker, AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(ApplicationProperties.get(), atlasGraph, entityChangeNotifier, searchPlanCache, entityCache, entityCountTracker, typeRegistry);
     }
 
     @VisibleForTesting
     MetricsService(Configuration configuration, AtlasGraph graph) {
+        this(configuration, graph, null, null, null, null, null);
+    }
+
+    @VisibleForTesting
+    MetricsService(Configuration configuration, AtlasGraph graph, EntityCountTracker entityCountTracker, AtlasTypeRegistry typeRegistry) {
+        this(configuration, graph, null, null, null, entityCountTracker, typeRegistry);
+    }
+
+    private MetricsService(Configuration configuration, AtlasGraph graph, AtlasEntityChangeNotifier entityChangeNotifier, SearchPlanCache searchPlanCache,
+                           EntityCache entityCache, EntityCountTracker entityCountTracker, AtlasTypeRegistry typeRegistry) {
         MetricsService.configuration = configuration;
 
-        atlasGraph        = graph;
+        atlasGraph                = graph;
+        this.entityChangeNotifier = entityChangeNotifier;
+        this.searchPlanCache      = searchPlanCache;
+        this.entityCache          = entityCache;
+        this.entityCountTracker   = entityCountTracker;
+        this.typeRegistry         = typeRegistry;
         cacheTTLInSecs    = configuration != null ? configuration.getInt(METRIC_QUERY_CACHE_TTL, DEFAULT_CACHE_TTL_IN_SECS)
                 : DEFAULT_CACHE_TTL_IN_SECS;
         gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
@@ -90,33 +148,172 @@ public class MetricsService {
 
     @SuppressWarnings("unchecked")
     public AtlasMetrics getMetrics(boolean ignoreCache) {
-        if (ignoreCache || !isCacheValid()) {
-            AtlasMetrics metrics = new AtlasMetrics();
+        AtlasMetrics ret;
 
-            for (MetricQuery metricQuery : MetricQuery.values()) {
-                try {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Executing query: {}", metricQuery);
-                    }
-                    executeGremlinQuery(metrics, metricQuery.group, metricQuery.name, metricQuery.query);
-                } catch (AtlasBaseException e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Gremlin execution failed for metric {}", metricQuery, e);
-                    } else {
-                        LOG.warn("Gremlin execution failed for metric {}", metricQuery);
+        if (isEntityCountTrackerEnabled()) {
+            // entity counts are read from memory, and are not cached
+            ret = new AtlasMetrics();
+
+            addEntityCountMetrics(ret);
+
+            ret.addData(GENERAL, METRIC_COLLECTION_TIME, System.currentTimeMillis());
+        } else {
+            if (ignoreCache || !isCacheValid()) {
+                AtlasMetrics metrics = new AtlasMetrics();
+
+                for (MetricQuery metricQuery : MetricQuery.values()) {
+                    try {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Executing query: {}", metricQuery);
+                        }
+                        executeGremlinQuery(metrics, metricQuery.group, metricQuery.name, metricQuery.query);
+                    } catch (AtlasBaseException e) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Gremlin execution failed for metric {}", metricQuery, e);
+                        } else {
+                            LOG.warn("Gremlin execution failed for metric {}", metricQuery);
+                        }
                     }
                 }
+
+                long collectionTime = System.currentTimeMillis();
+
+                metrics.addData(GENERAL, METRIC_COLLECTION_TIME, collectionTime);
+
+                this.cachedMetrics       = metrics;
+                this.cacheExpirationTime = (collectionTime + cacheTTLInSecs * 1000);
+            }
+
+            // the cached metrics are shared by concurrent requests
+            ret = copyOf(cachedMetrics);
+        }
+
+        // not cached, as these are read from memory
+        addNotificationMetrics(ret);
+        addSearchMetrics(ret);
+        addTransactionMetrics(ret);
+        addEntityCacheMetrics(ret);
+
+        return ret;
+    }
+
+    private static AtlasMetrics copyOf(AtlasMetrics metrics) {
+        Map<String, Map<String, Number>> data = new HashMap<>();
+
+        if (metrics != null && metrics.getData() != null) {
+            for (Map.Entry<String, Map<String, Number>> entry : metrics.getData().entrySet()) {
+                data.put(entry.getKey(), new HashMap<>(entry.getValue()));
+            }
+        }
+
+        return new AtlasMetrics(data);
+    }
+
+    // until the tracker has loaded its counts, they include only the changes since the start: counts are queried then
+    private boolean isEntityCountTrackerEnabled() {
+        return entityCountTracker != null && entityCountTracker.isEnabled() && entityCountTracker.isLoaded() && typeRegistry != null;
+    }
+
+    private void addEntityCountMetrics(AtlasMetrics metrics) {
+        EntityCounts counts          = entityCountTracker.getCounts();
+        long         entityCount     = 0;
+        long         deletedCount    = 0;
+        int          unusedTypeCount = 0;
+
+        for (String typeName : typeRegistry.getAllEntityDefNames()) {
+            Long activeCount      = counts.getActiveEntities().get(typeName);
+            Long typeDeletedCount = counts.getDeletedEntities().get(typeName);
+            long typeCount        = (activeCount != null ? activeCount : 0) + (typeDeletedCount != null ? typeDeletedCount : 0);
+
+            if (typeCount > 0) {
+                metrics.addData(ENTITY, typeName, typeCount);
+            } else {
+                unusedTypeCount++;
+            }
+
+            entityCount  += typeCount;
+            deletedCount += typeDeletedCount != null ? typeDeletedCount : 0;
+        }
+
+        for (Map.Entry<String, Long> entry : counts.getClassifiedEntities().entrySet()) {
+            if (entry.getValue() > 0 && typeRegistry.getClassificationDefByName(entry.getKey()) != null) {
+                metrics.addData(TAG, entry.getKey(), entry.getValue());
             }
+        }
+
+        int typeCount = typeRegistry.getAllEntityDefNames().size() + typeRegistry.getAllStructDefNames().size() + typeRegistry.getAllEnumDefNames().size();
+
+        metrics.addData(GENERAL, METRIC_TYPE_COUNT, typeCount);
+        metrics.addData(GENERAL, METRIC_TYPE_UNUSED_COUNT, unusedTypeCount);
+        metrics.addData(GENERAL, METRIC_ENTITY_COUNT, entityCount);
+        metrics.addData(GENERAL, METRIC_TAG_COUNT, typeRegistry.getAllClassificationDefNames().size());
+        metrics.addData(GENERAL, METRIC_ENTITY_DELETED, deletedCount);
+        metrics.addData(ENTITY, METRIC_TAGGED_ENTITIES, counts.getClassifiedEntityCount());
+    }
+
+    private void addNotificationMetrics(AtlasMetrics metrics) {
+        EntityChangeDispatcher changeDispatcher = entityChangeNotifier != null ? entityChangeNotifier.getChangeDispatcher() : null;
+
+        if (changeDispatcher == null) {
+            return;
+        }
+
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_QUEUE_DEPTH, changeDispatcher.getQueueDepth());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_QUEUE_LAG, changeDispatcher.getQueueLagMs());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_DISPATCH_LAG, changeDispatcher.getLastDispatchLagMs());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_ENQUEUED, changeDispatcher.getEnqueuedCount());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_COALESCED, changeDispatcher.getCoalescedCount());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_DISPATCHED, changeDispatcher.getDispatchedCount());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_FAILED, changeDispatcher.getFailedCount());
+        metrics.addData(NOTIFICATION, METRIC_NOTIFICATION_REJECTED, changeDispatcher.getRejectedCount());
+    }
 
-            long collectionTime = System.currentTimeMillis();
+    private void addSearchMetrics(AtlasMetrics metrics) {
+        if (searchPlanCache == null) {
+            return;
+        }
+
+        long hitCount    = searchPlanCache.getHitCount();
+        long missCount   = searchPlanCache.getMissCount();
+        long lookupCount = hitCount + missCount;
+
+        metrics.addData(SEARCH, METRIC_SEARCH_PLAN_CACHE_SIZE, searchPlanCache.getSize());
+        metrics.addData(SEARCH, METRIC_SEARCH_PLAN_CACHE_HITS, hitCount);
+        metrics.addData(SEARCH, METRIC_SEARCH_PLAN_CACHE_MISSES, missCount);
+        metrics.addData(SEARCH, METRIC_SEARCH_PLAN_CACHE_HIT_RATE, lookupCount > 0 ? (double) hitCount / lookupCount : 0d);
+    }
 
-            metrics.addData(GENERAL, METRIC_COLLECTION_TIME, collectionTime);
+    private void addTransactionMetrics(AtlasMetrics metrics) {
+        ObjectUpdateSynchronizer synchronizer = GraphTransactionInterceptor.getObjectUpdateSynchronizer();
+
+        metrics.addData(TRANSACTION, METRIC_TRANSACTION_LOCKS, synchronizer.getLockCount());
+        metrics.addData(TRANSACTION, METRIC_TRANSACTION_LOCK_WAITS, synchronizer.getLockWaitCount());
+        metrics.addData(TRANSACTION, METRIC_TRANSACTION_LOCK_WAIT_TIME, synchronizer.getLockWaitTimeMs());
+        metrics.addData(TRANSACTION, METRIC_TRANSACTION_LOCK_WAIT_MAX, synchronizer.getMaxLockWaitMs());
+        metrics.addData(TRANSACTION, METRIC_TRANSACTION_LOCK_TIMEOUTS, synchronizer.getTimeoutCount());
+        metrics.addData(TRANSACTION, METRIC_TRANSACTION_LOCK_DEADLOCKS, synchronizer.getDeadlockCount());
+    }
+
+    private void addEntityCacheMetrics(AtlasMetrics metrics) {
+        if (entityCache == null) {
+            return;
+        }
+
+        addEntityCacheMetrics(metrics, METRIC_ENTITY_CACHE_HEADERS, entityCache.getHeaderStats());
+        addEntityCacheMetrics(metrics, METRIC_ENTITY_CACHE_ENTITIES, entityCache.getEntityStats());
+    }
 
-            this.cachedMetrics       = metrics;
-            this.cacheExpirationTime = (collectionTime + cacheTTLInSecs * 1000);
+    private void addEntityCacheMetrics(AtlasMetrics metrics, String prefix, EntityCache.Stats stats) {
+        if (stats == null) { // disabled by configuration
+            return;
         }
 
-        return cachedMetrics;
+        metrics.addData(ENTITY_CACHE, prefix + "Size", stats.getSize());
+        metrics.addData(ENTITY_CACHE, prefix + "Weight", stats.getWeight());
+        metrics.addData(ENTITY_CACHE, prefix + "Hits", stats.getHitCount());
+        metrics.addData(ENTITY_CACHE, prefix + "Misses", stats.getMissCount());
+        metrics.addData(ENTITY_CACHE, prefix + "Evictions", stats.getEvictionCount());
+        metrics.addData(ENTITY_CACHE, prefix + "HitRate", stats.getHitRate());
     }
 
     private void executeGremlinQuery(AtlasMetrics metrics, String type, String name, String query) throws AtlasBaseException {
@@ -21,12 +21,23 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.Predicate;
+import org.apache.commons.collections.functors.AllPredicate;
+import org.apache.commons.collections.functors.AndPredicate;
+import org.apache.commons.collections.functors.AnyPredicate;
+import org.apache.commons.collections.functors.NotPredicate;
+import org.apache.commons.collections.functors.OrPredicate;
+import org.apache.commons.collections.functors.PredicateDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class SearchPredicateUtil {
     private static final Logger LOG = LoggerFactory.getLogger(SearchPredicateUtil.class);
@@ -38,6 +49,31 @@ public class SearchPredicateUtil {
         }
     };
 
+    /**
+     * Removes the vertices that don't satisfy the predicate from the given list, evaluating the predicate over the
+     * whole list at once; see {@link VertexPageFilter}.
+     */
+    public static void filter(List<AtlasVertex> vertices, Predicate predicate) {
+        if (predicate == null || CollectionUtils.isEmpty(vertices)) {
+            return;
+        }
+
+        boolean[]         selected = new VertexPageFilter(vertices).evaluate(predicate);
+        List<AtlasVertex> matched  = new ArrayList<>(vertices.size());
+        int               idx      = 0;
+
+        for (AtlasVertex vertex : vertices) {
+            if (selected[idx++]) {
+                matched.add(vertex);
+            }
+        }
+
+        if (matched.size() != vertices.size()) {
+            vertices.clear();
+            vertices.addAll(matched);
+        }
+    }
+
     public static VertexAttributePredicateGenerator getLTPredicateGenerator() {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> getLTPredicateGenerator");
@@ -561,12 +597,7 @@ public class SearchPredicateUtil {
             AtlasVertex vertex = (object instanceof AtlasVertex) ? (AtlasVertex)object : null;
 
             if (vertex != null) {
-                Object attrValue;
-                if (Collection.class.isAssignableFrom(attrClass)) {
-                    attrValue = vertex.getPropertyValues(attrName, attrClass);
-                } else {
-                    attrValue = AtlasGraphUtilsV1.getProperty(vertex, attrName, attrClass);
-                }
+                Object attrValue = getAttributeValue(vertex);
 
                 ret = attrValue != null && compareValue(attrValue);
             } else {
@@ -576,9 +607,141 @@ public class SearchPredicateUtil {
             return ret;
         }
 
+        Object getAttributeValue(AtlasVertex vertex) {
+            final Object ret;
+
+            if (Collection.class.isAssignableFrom(attrClass)) {
+                ret = vertex.getPropertyValues(attrName, attrClass);
+            } else {
+                ret = AtlasGraphUtilsV1.getProperty(vertex, attrName, attrClass);
+            }
+
+            return ret;
+        }
+
+        // predicates on the same attribute and class read the same value from a vertex
+        String getValueKey() {
+            return attrName + ":" + attrClass.getName();
+        }
+
         protected abstract boolean compareValue(Object value);
     }
 
+    /**
+     * Evaluates the given predicate over a page of vertices. The predicate is applied one attribute predicate at a
+     * time across the page: the value of an attribute is read at most once per vertex, into an array shared by all
+     * predicates on that attribute, and only for the vertices that have not been filtered out by earlier predicates.
+     */
+    static class VertexPageFilter {
+        private static final Object NOT_LOADED = new Object();
+
+        private final AtlasVertex[]         vertices;
+        private final Map<String, Object[]> attributeValues = new HashMap<>();
+        private       int                   valueReadCount  = 0;
+
+        VertexPageFilter(List<AtlasVertex> vertices) {
+            this.vertices = vertices.toArray(new AtlasVertex[vertices.size()]);
+        }
+
+        boolean[] evaluate(Predicate predicate) {
+            boolean[] ret = new boolean[vertices.length];
+
+            Arrays.fill(ret, true);
+
+            evaluate(predicate, ret);
+
+            return ret;
+        }
+
+        int getValueReadCount() {
+            return valueReadCount;
+        }
+
+        // clears the entries in 'selected' of the vertices that don't satisfy the predicate
+        private void evaluate(Predicate predicate, boolean[] selected) {
+            if (predicate instanceof VertexAttributePredicate) {
+                VertexAttributePredicate attrPredicate = (VertexAttributePredicate) predicate;
+                Object[]                 values        = getAttributeValues(attrPredicate);
+
+                for (int i = 0; i < vertices.length; i++) {
+                    if (selected[i]) {
+                        Object value = getAttributeValue(attrPredicate, values, i);
+
+                        selected[i] = value != null && attrPredicate.compareValue(value);
+                    }
+                }
+            } else if (predicate instanceof AndPredicate || predicate instanceof AllPredicate) {
+                for (Predicate child : ((PredicateDecorator) predicate).getPredicates()) {
+                    evaluate(child, selected);
+                }
+            } else if (predicate instanceof OrPredicate || predicate instanceof AnyPredicate) {
+                boolean[] matched = new boolean[vertices.length];
+
+                for (Predicate child : ((PredicateDecorator) predicate).getPredicates()) {
+                    boolean[] candidates = new boolean[vertices.length];
+
+                    // vertices matched by an earlier alternative need not be evaluated again
+                    for (int i = 0; i < vertices.length; i++) {
+                        candidates[i] = selected[i] && !matched[i];
+                    }
+
+                    evaluate(child, candidates);
+
+                    for (int i = 0; i < vertices.length; i++) {
+                        matched[i] = matched[i] || candidates[i];
+                    }
+                }
+
+                System.arraycopy(matched, 0, selected, 0, vertices.length);
+            } else if (predicate instanceof NotPredicate) {
+                boolean[] matched = Arrays.copyOf(selected, vertices.length);
+
+                evaluate(((NotPredicate) predicate).getPredicates()[0], matched);
+
+                for (int i = 0; i < vertices.length; i++) {
+                    selected[i] = selected[i] && !matched[i];
+                }
+            } else if (predicate == ALWAYS_FALSE) {
+                Arrays.fill(selected, false);
+            } else if (predicate != null) {
+                for (int i = 0; i < vertices.length; i++) {
+                    if (selected[i]) {
+                        selected[i] = predicate.evaluate(vertices[i]);
+                    }
+                }
+            }
+        }
+
+        private Object[] getAttributeValues(VertexAttributePredicate predicate) {
+            String   key = predicate.getValueKey();
+            Object[] ret = attributeValues.get(key);
+
+            if (ret == null) {
+                ret = new Object[vertices.length];
+
+                Arrays.fill(ret, NOT_LOADED);
+
+                attributeValues.put(key, ret);
+            }
+
+            return ret;
+        }
+
+        private Object getAttributeValue(VertexAttributePredicate predicate, Object[] values, int idx) {
+            Object ret = values[idx];
+
+            if (ret == NOT_LOADED) {
+                ret = vertices[idx] != null ? predicate.getAttributeValue(vertices[idx]) : null;
+
+                values[idx] = ret;
+
+                valueReadCount++;
+            }
+
+            return ret;
+        }
+    }
+
     static abstract class BooleanPredicate extends VertexAttributePredicate {
         final Boolean value;
 
@@ -47,6 +47,7 @@ import org.apache.atlas.repository.typestore.ITypeStore;
 import org.apache.atlas.repository.typestore.StoreBackedTypeCache;
 import org.apache.atlas.service.Service;
 import org.apache.atlas.services.DefaultMetadataService;
+import org.apache.atlas.services.EntityCountTracker;
 import org.apache.atlas.services.MetadataService;
 import org.apache.atlas.store.AtlasTypeDefStore;
 import org.apache.atlas.type.AtlasTypeRegistry;
@@ -136,8 +137,12 @@ public class TestModules {
                     Multibinder.newSetBinder(binder(), TypeDefChangeListener.class);
             typeDefChangeListenerMultibinder.addBinding().to(DefaultMetadataService.class);
             typeDefChangeListenerMultibinder.addBinding().to(GraphBackedSearchIndexer.class).asEagerSingleton();
+            typeDefChangeListenerMultibinder.addBinding().to(SearchPlanCache.class);
+            typeDefChangeListenerMultibinder.addBinding().to(EntityCache.class);
 
             bind(SearchTracker.class).asEagerSingleton();
+            bind(SearchPlanCache.class).asEagerSingleton();
+            bind(EntityCache.class).asEagerSingleton();
 
             bind(AtlasEntityStore.class).to(AtlasEntityStoreV1.class);
             bind(AtlasRelationshipStore.class).to(AtlasRelationshipStoreV1.class);
@@ -154,10 +159,14 @@ public class TestModules {
 
             bindTypeCache();
 
-            //Add EntityAuditListener as EntityChangeListener
+            //Add EntityAuditListener, EntityCountTracker and EntityCache as EntityChangeListeners
             Multibinder<EntityChangeListener> entityChangeListenerBinder =
                     Multibinder.newSetBinder(binder(), EntityChangeListener.class);
             entityChangeListenerBinder.addBinding().to(EntityAuditListener.class);
+            entityChangeListenerBinder.addBinding().to(EntityCountTracker.class);
+            entityChangeListenerBinder.addBinding().to(EntityCache.class);
+
+            bind(EntityCountTracker.class).asEagerSingleton();
 
             final GraphTransactionInterceptor graphTransactionInterceptor = new GraphTransactionInterceptor(new AtlasGraphProvider().get());
             requestInjection(graphTransactionInterceptor);
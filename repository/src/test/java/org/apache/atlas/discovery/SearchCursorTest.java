@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v1.AtlasEntityStream;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class SearchCursorTest {
+    private static final long INDEX_WAIT_TIMEOUT_MS = 30000;
+    private static final int  DB_COUNT              = 7;
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @Inject
+    private AtlasDiscoveryService discoveryService;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+
+        for (int i = 0; i < DB_COUNT; i++) {
+            AtlasEntity db = TestUtilsV2.createDBEntity();
+
+            entityStore.createOrUpdate(new AtlasEntityStream(db), false);
+        }
+
+        waitForIndex();
+    }
+
+    @AfterClass
+    public void clear() {
+        AtlasGraphProvider.cleanup();
+    }
+
+    @Test
+    public void testPagingWithContinuationToken() throws Exception {
+        List<String> expected = getGuids(discoveryService.searchWithParameters(getSearchParameters(DB_COUNT + 10, 0)));
+        List<String> actual   = new ArrayList<>();
+        String       token    = null;
+
+        for (int i = 0; i < DB_COUNT; i++) {
+            SearchParameters params = getSearchParameters(3, 0);
+
+            params.setContinuationToken(token);
+
+            AtlasSearchResult result = discoveryService.searchWithParameters(params);
+
+            actual.addAll(getGuids(result));
+
+            token = result.getContinuationToken();
+
+            if (token == null) {
+                break;
+            }
+        }
+
+        assertEquals(expected.size(), DB_COUNT);
+        assertEquals(actual, expected);
+
+        // pages with a token are the same as pages with offset
+        SearchParameters params = getSearchParameters(3, 0);
+
+        params.setContinuationToken(discoveryService.searchWithParameters(getSearchParameters(3, 0)).getContinuationToken());
+
+        assertEquals(getGuids(discoveryService.searchWithParameters(params)), getGuids(discoveryService.searchWithParameters(getSearchParameters(3, 3))));
+    }
+
+    @Test
+    public void testCursorEncoding() throws AtlasBaseException {
+        SearchParameters params = getSearchParameters(3, 0);
+        SearchCursor     cursor = new SearchCursor(SearchCursor.getParamsHash(params), 3, 10, "4128");
+        SearchCursor     copy   = SearchCursor.decode(cursor.encode(), params);
+
+        assertEquals(copy.getResultOffset(), 3);
+        assertEquals(copy.getQueryOffset(), 10);
+        assertEquals(copy.getLastVertexId(), "4128");
+
+        copy = SearchCursor.decode(new SearchCursor(SearchCursor.getParamsHash(params), 6, -1, null).encode(), params);
+
+        assertEquals(copy.getResultOffset(), 6);
+        assertEquals(copy.getQueryOffset(), -1);
+        assertNull(copy.getLastVertexId());
+
+        // limit and offset are not part of the search identity
+        assertNotNull(SearchCursor.decode(cursor.encode(), getSearchParameters(5, 2)));
+
+        SearchParameters otherParams = getSearchParameters(3, 0);
+
+        otherParams.setTypeName(TestUtilsV2.TABLE_TYPE);
+
+        assertInvalidToken(cursor.encode(), otherParams);
+        assertInvalidToken("not-a-token", params);
+        assertInvalidToken("", params);
+    }
+
+    private void assertInvalidToken(String token, SearchParameters params) {
+        try {
+            SearchCursor.decode(token, params);
+
+            fail("token should be rejected: " + token);
+        } catch (AtlasBaseException e) {
+            // expected
+        }
+    }
+
+    // entities are visible to index queries only after the index is refreshed
+    private void waitForIndex() throws Exception {
+        long endTime = System.currentTimeMillis() + INDEX_WAIT_TIMEOUT_MS;
+
+        while (getGuids(discoveryService.searchWithParameters(getSearchParameters(DB_COUNT + 10, 0))).size() < DB_COUNT && System.currentTimeMillis() < endTime) {
+            Thread.sleep(100);
+        }
+    }
+
+    private SearchParameters getSearchParameters(int limit, int offset) {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName(TestUtilsV2.DATABASE_TYPE);
+        ret.setExcludeDeletedEntities(true);
+        ret.setLimit(limit);
+        ret.setOffset(offset);
+
+        return ret;
+    }
+
+    private List<String> getGuids(AtlasSearchResult result) {
+        List<String> ret = new ArrayList<>();
+
+        if (result.getEntities() != null) {
+            for (AtlasEntityHeader entity : result.getEntities()) {
+                ret.add(entity.getGuid());
+            }
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v1.AtlasEntityStream;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class SearchPlanCacheTest {
+    private static final long INDEX_WAIT_TIMEOUT_MS = 30000;
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @Inject
+    private AtlasDiscoveryService discoveryService;
+
+    @Inject
+    private SearchPlanCache searchPlanCache;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+    }
+
+    @AfterClass
+    public void clear() {
+        AtlasGraphProvider.cleanup();
+    }
+
+    @Test
+    public void testPlanSharedBySearchesOfSameShape() throws Exception {
+        AtlasEntity db1 = TestUtilsV2.createDBEntity();
+        AtlasEntity db2 = TestUtilsV2.createDBEntity();
+
+        entityStore.createOrUpdate(new AtlasEntityStream(db1), false);
+        entityStore.createOrUpdate(new AtlasEntityStream(db2), false);
+
+        long missCount = searchPlanCache.getMissCount();
+
+        waitForIndex(db2);
+
+        assertEquals(searchPlanCache.getMissCount(), missCount + 1);
+
+        long hitCount = searchPlanCache.getHitCount();
+
+        AtlasSearchResult result1 = discoveryService.searchWithParameters(getSearchParameters(db1));
+        AtlasSearchResult result2 = discoveryService.searchWithParameters(getSearchParameters(db2));
+
+        assertEquals(getNames(result1), Collections.singletonList(db1.getAttribute("name")));
+        assertEquals(getNames(result2), Collections.singletonList(db2.getAttribute("name")));
+        assertEquals(searchPlanCache.getMissCount(), missCount + 1);
+        assertEquals(searchPlanCache.getHitCount(), hitCount + 2);
+    }
+
+    @Test
+    public void testShape() {
+        SearchParameters params1 = getSearchParameters("db1");
+        SearchParameters params2 = getSearchParameters("db2");
+
+        assertEquals(SearchPlan.getShape(params1), SearchPlan.getShape(params2));
+
+        params2.getEntityFilters().setOperator(SearchParameters.Operator.NEQ);
+
+        assertNotSameShape(params1, params2);
+
+        params2 = getSearchParameters("db1");
+        params2.getEntityFilters().setAttributeName("description");
+
+        assertNotSameShape(params1, params2);
+
+        params2 = getSearchParameters("db1");
+        params2.setExcludeDeletedEntities(false);
+
+        assertNotSameShape(params1, params2);
+
+        params2 = getSearchParameters("db1");
+        params2.setEntityFilters(new FilterCriteria());
+        params2.getEntityFilters().setCondition(FilterCriteria.Condition.AND);
+        params2.getEntityFilters().setCriterion(Arrays.asList(params1.getEntityFilters()));
+
+        assertNotSameShape(params1, params2);
+    }
+
+    @Test
+    public void testPlanInvalidation() throws Exception {
+        SearchPlanCache  cache      = new SearchPlanCache(10);
+        SearchParameters params     = getSearchParameters("db1");
+        AtlasEntityType  entityType = typeRegistry.getEntityTypeByName(TestUtilsV2.DATABASE_TYPE);
+        SearchPlan       plan       = cache.getPlan(params, entityType, null, Collections.<String>emptySet());
+
+        assertSame(cache.getPlan(getSearchParameters("db2"), entityType, null, Collections.<String>emptySet()), plan);
+
+        // new set of indexed keys
+        SearchPlan plan2 = cache.getPlan(params, entityType, null, Collections.singleton("name"));
+
+        assertNotSame(plan2, plan);
+
+        // typedef change
+        cache.onChange(null);
+
+        assertEquals(cache.getSize(), 0);
+        assertNotSame(cache.getPlan(params, entityType, null, Collections.singleton("name")), plan2);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 3);
+    }
+
+    // entities are visible to index queries only after the index is refreshed
+    private void waitForIndex(AtlasEntity db) throws Exception {
+        long endTime = System.currentTimeMillis() + INDEX_WAIT_TIMEOUT_MS;
+
+        while (getNames(discoveryService.searchWithParameters(getSearchParameters(db))).isEmpty() && System.currentTimeMillis() < endTime) {
+            Thread.sleep(100);
+        }
+    }
+
+    private void assertNotSameShape(SearchParameters params1, SearchParameters params2) {
+        assertFalse(SearchPlan.getShape(params1).equals(SearchPlan.getShape(params2)));
+    }
+
+    private SearchParameters getSearchParameters(AtlasEntity db) {
+        return getSearchParameters((String) db.getAttribute("name"));
+    }
+
+    private SearchParameters getSearchParameters(String dbName) {
+        SearchParameters ret    = new SearchParameters();
+        FilterCriteria   filter = new FilterCriteria();
+
+        filter.setAttributeName("name");
+        filter.setOperator(SearchParameters.Operator.EQ);
+        filter.setAttributeValue(dbName);
+
+        ret.setTypeName(TestUtilsV2.DATABASE_TYPE);
+        ret.setEntityFilters(filter);
+        ret.setExcludeDeletedEntities(true);
+        ret.setLimit(10);
+
+        return ret;
+    }
+
+    private List<Object> getNames(AtlasSearchResult result) {
+        List<Object> ret = new ArrayList<>();
+
+        if (result.getEntities() != null) {
+            for (AtlasEntityHeader entity : result.getEntities()) {
+                ret.add(entity.getAttribute("name"));
+            }
+        }
+
+        return ret;
+    }
+}
@@ -247,6 +247,20 @@ public class EntityLineageServiceTest extends BaseRepositoryTest {
         return lineageService.getAtlasLineageInfo(guid, AtlasLineageInfo.LineageDirection.BOTH, depth);
     }
 
+    @Test
+    public void testEntityWithoutLineage() throws Exception {
+        TestUtils.skipForGremlin3EnabledGraphDb();
+        String tableName = "table" + random();
+        createTable(tableName, 3, false);
+        String entityGuid = getEntityId(HIVE_TABLE_TYPE, "name", tableName);
+
+        AtlasLineageInfo bothLineage = getBothLineageInfo(entityGuid, 5);
+        assertNotNull(bothLineage);
+        assertTrue(bothLineage.getGuidEntityMap().isEmpty());
+        assertTrue(bothLineage.getRelations().isEmpty());
+        assertEquals(bothLineage.getBaseEntityGuid(), entityGuid);
+    }
+
     @Test
     public void testNewLineageWithDelete() throws Exception {
         TestUtils.skipForGremlin3EnabledGraphDb();
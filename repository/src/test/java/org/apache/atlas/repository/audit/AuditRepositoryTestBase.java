@@ -98,6 +98,60 @@ public class AuditRepositoryTestBase {
         assertEquals(events.size(), 0);
     }
 
+    @Test
+    public void testListEventsByTime() throws Exception {
+        TestUtils.skipForGremlin3EnabledGraphDb();
+        String user = "user" + rand();
+        String type1 = "type1" + rand();
+        String type2 = "type2" + rand();
+        long ts = System.currentTimeMillis();
+        List<EntityAuditEvent> expectedEvents = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 3; j++) {
+                EntityAuditEvent event = new EntityAuditEvent("id" + j + rand(), ts + i * 3 + j, user,
+                        i % 2 == 0 ? EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE : EntityAuditEvent.EntityAuditAction.TAG_ADD,
+                        "details" + i + j, new Referenceable(j < 2 ? type1 : type2));
+                eventRepository.putEvents(event);
+                expectedEvents.add(0, event);
+            }
+        }
+        // same timestamp as another event, but by a different user
+        eventRepository.putEvents(new EntityAuditEvent(rand(), ts + 5, "other" + user,
+                EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "details", new Referenceable(type1)));
+
+        //Page through all events of the user; startKey is inclusive
+        List<EntityAuditEvent> events = new ArrayList<>();
+        String startKey = null;
+        while (true) {
+            List<EntityAuditEvent> page = eventRepository.listEvents(new EntityAuditQuery(ts, ts + 100, user, null, null), startKey, (short) 5);
+            if (startKey != null) {
+                assertEquals(page.get(0).getEventKey(), startKey);
+                page = page.subList(1, page.size());
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+            events.addAll(page);
+            startKey = page.get(page.size() - 1).getEventKey();
+        }
+        assertEquals(events.size(), expectedEvents.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEventEquals(events.get(i), expectedEvents.get(i));
+        }
+
+        events = eventRepository.listEvents(new EntityAuditQuery(ts, ts + 100, user, null, type2), null, (short) 10);
+        assertEquals(events.size(), 4);
+        assertEventEquals(events.get(0), expectedEvents.get(0));
+
+        events = eventRepository.listEvents(new EntityAuditQuery(ts + 3, ts + 8, user, EntityAuditEvent.EntityAuditAction.TAG_ADD, type1), null, (short) 10);
+        assertEquals(events.size(), 2);
+        assertEquals(events.get(0).getTimestamp(), ts + 4);
+        assertEquals(events.get(1).getTimestamp(), ts + 3);
+
+        events = eventRepository.listEvents(new EntityAuditQuery(ts + 200, ts + 300, user, null, null), null, (short) 10);
+        assertEquals(events.size(), 0);
+    }
+
     protected void assertEventEquals(EntityAuditEvent actual, EntityAuditEvent expected) {
         if (expected != null) {
             assertNotNull(actual);
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.AtlasException;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class EntityAuditPayloadCodecTest {
+    private static final String BASE_TEXT = "Updated: {\"jsonClass\":\"org.apache.atlas.typesystem.json.InstanceSerialization$_Reference\"," +
+                                            "\"id\":{\"jsonClass\":\"org.apache.atlas.typesystem.json.InstanceSerialization$_Id\",\"id\":\"guid1\"," +
+                                            "\"version\":0,\"typeName\":\"hive_table\",\"state\":\"ACTIVE\"},\"typeName\":\"hive_table\"," +
+                                            "\"values\":{\"name\":\"table1\",\"description\":\"first\",\"owner\":\"admin\"},\"traitNames\":[],\"traits\":{}}";
+
+    @Test
+    public void testSnapshot() throws Exception {
+        byte[] value = EntityAuditPayloadCodec.encodeSnapshot(BASE_TEXT);
+
+        assertTrue(EntityAuditPayloadCodec.isEncoded(value));
+        assertFalse(EntityAuditPayloadCodec.isDelta(value));
+        assertTrue(value.length < BASE_TEXT.length() / 2);
+        assertEquals(EntityAuditPayloadCodec.decode(value, null), BASE_TEXT);
+    }
+
+    @Test
+    public void testDelta() throws Exception {
+        String text  = BASE_TEXT.replace("\"first\"", "\"second description\"");
+        byte[] value = EntityAuditPayloadCodec.encodeDelta(text, "guid1:1000", BASE_TEXT);
+
+        assertTrue(EntityAuditPayloadCodec.isDelta(value));
+        assertTrue(value.length < EntityAuditPayloadCodec.encodeSnapshot(text).length);
+        assertEquals(EntityAuditPayloadCodec.getBaseKey(value), "guid1:1000");
+        assertEquals(EntityAuditPayloadCodec.decode(value, BASE_TEXT), text);
+    }
+
+    @Test(expectedExceptions = AtlasException.class)
+    public void testDeltaWithChangedBase() throws Exception {
+        byte[] value = EntityAuditPayloadCodec.encodeDelta(BASE_TEXT + " ", "guid1:1000", BASE_TEXT);
+
+        EntityAuditPayloadCodec.decode(value, BASE_TEXT.replace("admin", "user1"));
+    }
+
+    @Test
+    public void testUnencodedValue() throws Exception {
+        byte[] value = BASE_TEXT.getBytes(StandardCharsets.UTF_8);
+
+        assertFalse(EntityAuditPayloadCodec.isEncoded(value));
+        assertEquals(EntityAuditPayloadCodec.decode(value, null), BASE_TEXT);
+    }
+}
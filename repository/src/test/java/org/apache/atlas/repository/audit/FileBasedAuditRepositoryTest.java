@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.EntityAuditEvent;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FileBasedAuditRepositoryTest extends AuditRepositoryTestBase {
+    private File directory;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        directory       = Files.createTempDirectory("atlas-audit").toFile();
+        eventRepository = createRepository(new File(directory, "default"), 1024 * 1024, 0);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        ((FileBasedAuditRepository) eventRepository).stop();
+
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void testEventsAreLoadedOnRestart() throws Exception {
+        File                     dir        = new File(directory, "restart");
+        FileBasedAuditRepository repository = createRepository(dir, 1024, 0);
+        long                     ts         = System.currentTimeMillis();
+
+        for (int i = 0; i < 50; i++) {
+            repository.putEvents(new EntityAuditEvent("id" + (i % 2), ts + i, "user", EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "details" + i, null));
+        }
+
+        assertTrue(repository.getSegmentCount() > 1);
+
+        repository.stop();
+
+        FileBasedAuditRepository restarted = createRepository(dir, 1024, 0);
+        List<EntityAuditEvent>   events    = restarted.listEvents("id1", null, (short) 100);
+
+        assertEquals(events.size(), 25);
+        assertEquals(events.get(0).getDetails(), "details49");
+        assertEquals(events.get(24).getDetails(), "details1");
+
+        // new events are added after the loaded ones
+        restarted.putEvents(new EntityAuditEvent("id1", ts + 100, "user", EntityAuditEvent.EntityAuditAction.ENTITY_DELETE, "deleted", null));
+
+        events = restarted.listEvents("id1", null, (short) 2);
+
+        assertEquals(events.get(0).getAction(), EntityAuditEvent.EntityAuditAction.ENTITY_DELETE);
+        assertEquals(events.get(1).getDetails(), "details49");
+
+        events = restarted.listEvents("id1", events.get(1).getEventKey(), (short) 2);
+
+        assertEquals(events.get(0).getDetails(), "details49");
+        assertEquals(events.get(1).getDetails(), "details47");
+
+        restarted.stop();
+    }
+
+    @Test
+    public void testUnwrittenRecordsAreSkippedOnRestart() throws Exception {
+        File                     dir        = new File(directory, "unwritten");
+        FileBasedAuditRepository repository = createRepository(dir, 1024 * 1024, 0);
+        long                     ts         = System.currentTimeMillis();
+
+        for (int i = 0; i < 3; i++) {
+            repository.putEvents(new EntityAuditEvent("id", ts + i, "user", EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "details" + i, null));
+        }
+
+        repository.stop();
+
+        // the second record is reserved, but not written
+        File[] files = dir.listFiles();
+
+        assertEquals(files.length, 1);
+
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            int firstLength = file.readInt();
+
+            file.seek(firstLength);
+
+            int secondLength = file.readInt();
+
+            file.seek(firstLength);
+            file.write(new byte[secondLength]);
+        }
+
+        FileBasedAuditRepository restarted = createRepository(dir, 1024 * 1024, 0);
+        List<EntityAuditEvent>   events    = restarted.listEvents("id", null, (short) 10);
+
+        assertEquals(events.size(), 2);
+        assertEquals(events.get(0).getDetails(), "details2");
+        assertEquals(events.get(1).getDetails(), "details0");
+
+        // new events are added after the last written record
+        restarted.putEvents(new EntityAuditEvent("id", ts + 3, "user", EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "details3", null));
+        restarted.stop();
+
+        restarted = createRepository(dir, 1024 * 1024, 0);
+        events    = restarted.listEvents("id", null, (short) 10);
+
+        assertEquals(events.size(), 3);
+        assertEquals(events.get(0).getDetails(), "details3");
+        assertEquals(events.get(1).getDetails(), "details2");
+
+        restarted.stop();
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        File                           dir        = new File(directory, "concurrent");
+        final FileBasedAuditRepository repository = createRepository(dir, 4096, 0);
+        final long                     ts         = System.currentTimeMillis();
+        final int                      numThreads = 8;
+        final int                      numEvents  = 200;
+        final CountDownLatch           start      = new CountDownLatch(1);
+        ExecutorService                executor   = Executors.newFixedThreadPool(numThreads);
+        List<Future<?>>                results    = new ArrayList<>();
+
+        for (int t = 0; t < numThreads; t++) {
+            final String entityId = "id" + t;
+
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+
+                    for (int i = 0; i < numEvents; i++) {
+                        repository.putEvents(new EntityAuditEvent(entityId, ts + i, "user", EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, entityId + ":" + i, null));
+                    }
+
+                    return null;
+                }
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        executor.shutdown();
+
+        assertTrue(repository.getSegmentCount() > 1);
+
+        verifyConcurrentAppends(repository, numThreads, numEvents);
+
+        repository.stop();
+
+        FileBasedAuditRepository restarted = createRepository(dir, 4096, 0);
+
+        verifyConcurrentAppends(restarted, numThreads, numEvents);
+
+        restarted.stop();
+    }
+
+    private void verifyConcurrentAppends(FileBasedAuditRepository repository, int numThreads, int numEvents) throws Exception {
+        Set<String> eventKeys = new HashSet<>();
+
+        for (int t = 0; t < numThreads; t++) {
+            List<EntityAuditEvent> events = repository.listEvents("id" + t, null, Short.MAX_VALUE);
+
+            assertEquals(events.size(), numEvents);
+
+            for (int i = 0; i < numEvents; i++) {
+                assertEquals(events.get(i).getDetails(), "id" + t + ":" + (numEvents - 1 - i));
+                assertTrue(eventKeys.add(events.get(i).getEventKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testOldestSegmentsAreRemoved() throws Exception {
+        FileBasedAuditRepository repository = createRepository(new File(directory, "retention"), 1024, 3 * 1024);
+        long                     ts         = System.currentTimeMillis();
+
+        for (int i = 0; i < 200; i++) {
+            repository.putEvents(new EntityAuditEvent("id", ts + i, "user", EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "details" + i, null));
+        }
+
+        assertTrue(repository.getSegmentCount() <= 4);
+
+        List<EntityAuditEvent> events = repository.listEvents("id", null, Short.MAX_VALUE);
+
+        assertTrue(events.size() < 200);
+        assertEquals(events.get(0).getDetails(), "details199");
+
+        repository.stop();
+    }
+
+    private FileBasedAuditRepository createRepository(File dir, int segmentSize, long retentionMaxSize) throws Exception {
+        Configuration            configuration = new PropertiesConfiguration();
+        FileBasedAuditRepository ret           = new FileBasedAuditRepository();
+
+        configuration.setProperty(FileBasedAuditRepository.CONFIG_DIRECTORY, dir.getAbsolutePath());
+        configuration.setProperty(FileBasedAuditRepository.CONFIG_SEGMENT_SIZE, segmentSize);
+        configuration.setProperty(FileBasedAuditRepository.CONFIG_RETENTION_MAX_SIZE, retentionMaxSize);
+
+        ret.startInternal(configuration);
+
+        return ret;
+    }
+}
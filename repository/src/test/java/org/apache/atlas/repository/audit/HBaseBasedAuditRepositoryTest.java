@@ -25,10 +25,18 @@ import org.apache.commons.configuration.Configuration;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
@@ -64,6 +72,91 @@ public class HBaseBasedAuditRepositoryTest extends AuditRepositoryTestBase {
         assertTrue(admin.tableExists(tableName));
     }
 
+    @Test
+    public void testEncodedPayloadsAcrossPages() throws Exception {
+        TestUtils.skipForGremlin3EnabledGraphDb();
+        String id = "encoded" + System.currentTimeMillis();
+        long ts = System.currentTimeMillis();
+        List<EntityAuditEvent> expectedEvents = new ArrayList<>();
+        // more events than the snapshot interval, so that pages start in the middle of delta chains
+        for (int i = 0; i < 25; i++) {
+            EntityAuditEvent event = new EntityAuditEvent(id, ts + i, "user",
+                    EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "Updated: {\"name\":\"table\",\"description\":\"update " + i + "\"}", null);
+            eventRepository.putEvents(event);
+            expectedEvents.add(0, event);
+        }
+
+        String startKey = null;
+        for (int i = 0; i < 25; i += 7) {
+            List<EntityAuditEvent> events = eventRepository.listEvents(id, startKey, (short) 8);
+            for (int j = 0; j < 7 && i + j < 25; j++) {
+                assertEventEquals(events.get(j), expectedEvents.get(i + j));
+            }
+            startKey = events.get(events.size() - 1).getEventKey();
+        }
+    }
+
+    @Test
+    public void testReadUnencodedPayload() throws Exception {
+        TestUtils.skipForGremlin3EnabledGraphDb();
+        String id = "unencoded" + System.currentTimeMillis();
+        long ts = System.currentTimeMillis();
+        Put put = new Put(Bytes.toBytes(id + ":" + ts));
+        put.addColumn(HBaseBasedAuditRepository.COLUMN_FAMILY, HBaseBasedAuditRepository.COLUMN_ACTION, Bytes.toBytes("ENTITY_CREATE"));
+        put.addColumn(HBaseBasedAuditRepository.COLUMN_FAMILY, HBaseBasedAuditRepository.COLUMN_USER, Bytes.toBytes("user"));
+        put.addColumn(HBaseBasedAuditRepository.COLUMN_FAMILY, HBaseBasedAuditRepository.COLUMN_DETAIL, Bytes.toBytes("Created: {}"));
+        try (Table table = HBaseTestUtils.getConnection().getTable(tableName)) {
+            table.put(put);
+        }
+
+        EntityAuditEvent update = new EntityAuditEvent(id, ts + 1, "user",
+                EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "Updated: {}", null);
+        eventRepository.putEvents(update);
+
+        List<EntityAuditEvent> events = eventRepository.listEvents(id, null, (short) 10);
+        assertEquals(events.size(), 2);
+        assertEventEquals(events.get(0), update);
+        assertEquals(events.get(1).getDetails(), "Created: {}");
+    }
+
+    @Test
+    public void testReadDeltaWithMissingBase() throws Exception {
+        TestUtils.skipForGremlin3EnabledGraphDb();
+        String id = "missingbase" + System.currentTimeMillis();
+        long ts = System.currentTimeMillis();
+        EntityAuditEvent create = new EntityAuditEvent(id, ts - 2, "user",
+                EntityAuditEvent.EntityAuditAction.ENTITY_CREATE, "Created: {}", null);
+        eventRepository.putEvents(create);
+        // random column names, which don't compress, so that the delta is smaller than a snapshot
+        StringBuilder columns = new StringBuilder();
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            columns.append("\"").append(Long.toHexString(random.nextLong())).append("\",");
+        }
+        byte[] delta = EntityAuditPayloadCodec.encodeDelta("Updated: {" + columns + "\"description\":\"updated\"}",
+                id + ":" + (ts - 1), "Updated: {" + columns + "\"description\":\"created\"}");
+        assertTrue(EntityAuditPayloadCodec.isDelta(delta));
+        Put put = new Put(Bytes.toBytes(id + ":" + ts));
+        put.addColumn(HBaseBasedAuditRepository.COLUMN_FAMILY, HBaseBasedAuditRepository.COLUMN_ACTION, Bytes.toBytes("ENTITY_UPDATE"));
+        put.addColumn(HBaseBasedAuditRepository.COLUMN_FAMILY, HBaseBasedAuditRepository.COLUMN_USER, Bytes.toBytes("user"));
+        put.addColumn(HBaseBasedAuditRepository.COLUMN_FAMILY, HBaseBasedAuditRepository.COLUMN_DETAIL, delta);
+        try (Table table = HBaseTestUtils.getConnection().getTable(tableName)) {
+            table.put(put);
+        }
+
+        EntityAuditEvent update = new EntityAuditEvent(id, ts + 1, "user",
+                EntityAuditEvent.EntityAuditAction.ENTITY_UPDATE, "Updated: {}", null);
+        eventRepository.putEvents(update);
+
+        // the base event isn't in the table: the event is returned without details, along with the other events
+        List<EntityAuditEvent> events = eventRepository.listEvents(id, null, (short) 10);
+        assertEquals(events.size(), 3);
+        assertEventEquals(events.get(0), update);
+        assertEquals(events.get(1).getEventKey(), id + ":" + ts);
+        assertNull(events.get(1).getDetails());
+        assertEventEquals(events.get(2), create);
+    }
+
     @Override
     protected void assertEventEquals(EntityAuditEvent actual, EntityAuditEvent expected) {
         super.assertEventEquals(actual, expected);
@@ -31,6 +31,8 @@ import java.util.Iterator;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class GraphHelperMockTest {
 
@@ -118,4 +120,87 @@ public class GraphHelperMockTest {
         AtlasEdge redge = graphHelperInstance.getOrCreateEdge(v1, v2, edgeLabel);
         assertEquals(edge, redge);
     }
+
+    @Test
+    public void testGetEdgeBetweenVerticesScansSmallerDegreeVertex() {
+        final String edgeLabel   = "testLabel";
+        final int    superDegree = 100000;
+        AtlasVertex  table       = mock(AtlasVertex.class);
+        AtlasVertex  db          = mock(AtlasVertex.class);
+        AtlasVertex  otherTable  = mock(AtlasVertex.class);
+        AtlasEdge    tableEdge   = mock(AtlasEdge.class);
+        AtlasEdge    otherEdge   = mock(AtlasEdge.class);
+
+        when(tableEdge.getLabel()).thenReturn(edgeLabel);
+        when(otherEdge.getLabel()).thenReturn(edgeLabel);
+        when(tableEdge.getOutVertex()).thenReturn(table);
+        when(tableEdge.getInVertex()).thenReturn(db);
+        when(otherEdge.getOutVertex()).thenReturn(otherTable);
+        when(otherEdge.getInVertex()).thenReturn(db);
+
+        // db has 100k incoming edges, with the edge from table being the last one
+        CountingIterable dbEdges = new CountingIterable(otherEdge, superDegree - 1, tableEdge);
+
+        when(db.getEdges(AtlasEdgeDirection.IN)).thenReturn(dbEdges);
+        when(table.getEdges(AtlasEdgeDirection.OUT)).thenReturn(new CountingIterable(tableEdge, 1, null));
+
+        long      startTime = System.currentTimeMillis();
+        AtlasEdge edge      = graphHelperInstance.getEdgeBetweenVertices(table, db, edgeLabel);
+        long      elapsed   = System.currentTimeMillis() - startTime;
+
+        assertEquals(edge, tableEdge);
+        assertTrue(dbEdges.getNextCount() <= 1, "edges read from the supernode: " + dbEdges.getNextCount() + ", in " + elapsed + "ms");
+
+        // no edge between the vertices: the scan stops when the smaller side is exhausted
+        AtlasVertex newTable = mock(AtlasVertex.class);
+
+        dbEdges = new CountingIterable(otherEdge, superDegree, null);
+
+        when(db.getEdges(AtlasEdgeDirection.IN)).thenReturn(dbEdges);
+        when(newTable.getEdges(AtlasEdgeDirection.OUT)).thenReturn(new CountingIterable(null, 0, null));
+
+        assertNull(graphHelperInstance.getEdgeBetweenVertices(newTable, db, edgeLabel));
+        assertEquals(dbEdges.getNextCount(), 0);
+    }
+
+    /**
+     * Returns the given edge 'count' times, followed by lastEdge if not null; keeps track of the edges read.
+     */
+    private static class CountingIterable implements Iterable<AtlasEdge> {
+        private final AtlasEdge edge;
+        private final int       count;
+        private final AtlasEdge lastEdge;
+        private       int       nextCount = 0;
+
+        CountingIterable(AtlasEdge edge, int count, AtlasEdge lastEdge) {
+            this.edge     = edge;
+            this.count    = count;
+            this.lastEdge = lastEdge;
+        }
+
+        int getNextCount() { return nextCount; }
+
+        @Override
+        public Iterator<AtlasEdge> iterator() {
+            final int total = lastEdge != null ? count + 1 : count;
+
+            return new Iterator<AtlasEdge>() {
+                @Override
+                public boolean hasNext() {
+                    return nextCount < total;
+                }
+
+                @Override
+                public AtlasEdge next() {
+                    nextCount++;
+
+                    return nextCount <= count ? edge : lastEdge;
+                }
+
+                @Override
+                public void remove() {
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graph;
+
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtils;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasCardinality;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphManagement;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.lang.RandomStringUtils;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class ReindexServiceTest {
+    private static final long TIMEOUT_MS = 60000;
+
+    @Test
+    public void testReindexTask() throws Exception {
+        AtlasGraph   graph        = TestUtils.getGraph();
+        String       typeName     = "reindex_" + RandomStringUtils.randomAlphanumeric(10);
+        String       propertyName = typeName + ".name";
+        List<String> vertexIds    = createVertices(graph, typeName, propertyName, 5);
+
+        ReindexService.addTasks(graph, Collections.singletonMap(propertyName, typeName));
+        graph.commit();
+
+        ReindexService.ReindexTask task = runTasks(graph, typeName);
+
+        assertEquals(task.getProcessedCount(), Long.valueOf(5));
+        assertEquals(task.getTotalCount(), Long.valueOf(5));
+        assertEquals(task.getLastVertexId(), vertexIds.get(vertexIds.size() - 1));
+        assertNull(task.getLastError());
+
+        for (int i = 0; i < vertexIds.size(); i++) {
+            assertEquals(graph.getVertex(vertexIds.get(i)).getProperty(propertyName, String.class), "name" + i);
+        }
+
+        // adding the task again restarts it
+        ReindexService.addTasks(graph, Collections.singletonMap(propertyName, typeName));
+        graph.commit();
+
+        assertEquals(getTask(new ReindexService(graph, new AtlasTypeRegistry(), new PropertiesConfiguration(), true, 2, 0, 1000), typeName).getStatus(),
+                     ReindexService.Status.PENDING.name());
+    }
+
+    @Test
+    public void testReindexTaskResumesAfterCheckpoint() throws Exception {
+        AtlasGraph   graph        = TestUtils.getGraph();
+        String       typeName     = "reindex_" + RandomStringUtils.randomAlphanumeric(10);
+        String       propertyName = typeName + ".name";
+        List<String> vertexIds    = createVertices(graph, typeName, propertyName, 5);
+
+        ReindexService.addTasks(graph, Collections.singletonMap(propertyName, typeName));
+
+        AtlasVertex taskVertex = (AtlasVertex) graph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, ReindexService.TASK_VERTEX_TYPE)
+                                                            .has(ReindexService.TASK_TYPE_NAME_PROPERTY_KEY, typeName)
+                                                            .vertices().iterator().next();
+
+        // as if the task was stopped after the 3rd vertex
+        taskVertex.setProperty(ReindexService.TASK_LAST_ID_PROPERTY_KEY, vertexIds.get(2));
+        taskVertex.setProperty(ReindexService.TASK_PROCESSED_PROPERTY_KEY, 3L);
+        graph.commit();
+
+        ReindexService.ReindexTask task = runTasks(graph, typeName);
+
+        assertEquals(task.getProcessedCount(), Long.valueOf(5));
+        assertEquals(task.getTotalCount(), Long.valueOf(5));
+        assertEquals(task.getLastVertexId(), vertexIds.get(vertexIds.size() - 1));
+    }
+
+    @Test
+    public void testReindexedVerticesAreFoundByIndexQuery() throws Exception {
+        AtlasGraph           graph        = TestUtils.getGraph();
+        String               typeName     = "reindex_" + RandomStringUtils.randomAlphanumeric(10);
+        String               propertyName = typeName + ".name";
+        AtlasGraphManagement management   = graph.getManagementSystem();
+
+        management.makePropertyKey(propertyName, String.class, AtlasCardinality.SINGLE);
+        management.commit();
+
+        List<String> vertexIds = createVertices(graph, typeName, propertyName, 3);
+
+        // as if the vertex was updated by a user request after the task started: only the timestamp is written
+        AtlasVertex modifiedVertex = graph.getVertex(vertexIds.get(2));
+
+        modifiedVertex.setProperty(Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.MAX_VALUE);
+        graph.commit();
+
+        // index added after the vertices were written, as by GraphBackedSearchIndexer for an attribute made indexable
+        management = graph.getManagementSystem();
+
+        management.createExactMatchIndex(propertyName + Constants.ENTITY_TYPE_PROPERTY_KEY, false,
+                                         Arrays.asList(management.getPropertyKey(propertyName), management.getPropertyKey(Constants.ENTITY_TYPE_PROPERTY_KEY)));
+        management.commit();
+
+        ReindexService.addTasks(graph, Collections.singletonMap(propertyName, typeName));
+        graph.commit();
+
+        runTasks(graph, typeName);
+
+        // the query is served by the new index, now enabled: the modified vertex is re-indexed as well
+        assertEquals(findByIndex(graph, typeName, propertyName, "name0"), Collections.singletonList(vertexIds.get(0)));
+        assertEquals(findByIndex(graph, typeName, propertyName, "name1"), Collections.singletonList(vertexIds.get(1)));
+        assertEquals(findByIndex(graph, typeName, propertyName, "name2"), Collections.singletonList(vertexIds.get(2)));
+    }
+
+    private List<String> findByIndex(AtlasGraph graph, String typeName, String propertyName, String value) {
+        List<String> ret = new ArrayList<>();
+
+        for (Object vertex : graph.query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, typeName).has(propertyName, value).vertices()) {
+            ret.add(((AtlasVertex) vertex).getIdForDisplay());
+        }
+
+        graph.commit();
+
+        return ret;
+    }
+
+    private List<String> createVertices(AtlasGraph graph, String typeName, String propertyName, int count) {
+        List<AtlasVertex> vertices = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            AtlasVertex vertex = graph.addVertex();
+
+            vertex.setProperty(Constants.ENTITY_TYPE_PROPERTY_KEY, typeName);
+            vertex.setProperty(propertyName, "name" + i);
+
+            vertices.add(vertex);
+        }
+
+        graph.commit();
+
+        List<String> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(vertex.getIdForDisplay());
+        }
+
+        Collections.sort(ret, new Comparator<String>() {
+            @Override
+            public int compare(String id1, String id2) {
+                return Long.compare(Long.parseLong(id1), Long.parseLong(id2));
+            }
+        });
+
+        return ret;
+    }
+
+    private ReindexService.ReindexTask runTasks(AtlasGraph graph, String typeName) throws Exception {
+        ReindexService service = new ReindexService(graph, new AtlasTypeRegistry(), new PropertiesConfiguration(), true, 2, 0, 1000);
+
+        service.instanceIsActive();
+
+        try {
+            long                       endTime = System.currentTimeMillis() + TIMEOUT_MS;
+            ReindexService.ReindexTask task    = getTask(service, typeName);
+
+            while (!ReindexService.Status.COMPLETE.name().equals(task.getStatus()) && System.currentTimeMillis() < endTime) {
+                Thread.sleep(100);
+
+                task = getTask(service, typeName);
+            }
+
+            assertEquals(task.getStatus(), ReindexService.Status.COMPLETE.name());
+
+            return task;
+        } finally {
+            service.stop();
+        }
+    }
+
+    private ReindexService.ReindexTask getTask(ReindexService service, String typeName) {
+        ReindexService.ReindexTask ret = null;
+
+        for (ReindexService.ReindexTask task : service.getTasks()) {
+            if (typeName.equals(task.getTypeName())) {
+                ret = task;
+            }
+        }
+
+        TestUtils.getGraph().commit();
+
+        assertNotNull(ret);
+
+        return ret;
+    }
+}
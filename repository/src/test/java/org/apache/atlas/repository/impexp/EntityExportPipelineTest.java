@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class EntityExportPipelineTest {
+    @Test
+    public void testEntitiesAreWrittenInOrder() throws Exception {
+        ZipSink            sink    = mock(ZipSink.class);
+        final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+        List<String>       added   = new ArrayList<>();
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                written.add((String) invocation.getArguments()[0]);
+
+                return null;
+            }
+        }).when(sink).addEntityJson(anyString(), anyString());
+
+        try (EntityExportPipeline pipeline = new EntityExportPipeline(null, null, sink, 4)) {
+            for (int i = 0; i < 100; i++) {
+                String guid = "guid-" + i;
+
+                pipeline.add(getEntity(guid));
+
+                added.add(guid);
+            }
+
+            pipeline.finish();
+        }
+
+        assertEquals(written, added);
+    }
+
+    @Test
+    public void testWriteErrorIsReported() throws Exception {
+        ZipSink sink = mock(ZipSink.class);
+
+        doThrow(new AtlasBaseException("write failed")).when(sink).addEntityJson(eq("guid-1"), anyString());
+
+        try (EntityExportPipeline pipeline = new EntityExportPipeline(null, null, sink, 2)) {
+            for (int i = 0; i < 10; i++) {
+                pipeline.add(getEntity("guid-" + i));
+            }
+
+            pipeline.finish();
+
+            fail("expected the write error to be reported");
+        } catch (AtlasBaseException e) {
+            assertTrue(e.getCause() instanceof AtlasBaseException);
+            assertEquals(e.getCause().getMessage(), "write failed");
+        }
+    }
+
+    @Test
+    public void testCloseWaitsForWriteInProgress() throws Exception {
+        ZipSink                    sink          = mock(ZipSink.class);
+        final CountDownLatch       writeStarted  = new CountDownLatch(1);
+        final AtomicBoolean        writeFinished = new AtomicBoolean();
+        final EntityExportPipeline pipeline      = new EntityExportPipeline(null, null, sink, 2);
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                writeStarted.countDown();
+
+                // a write that doesn't respond to interrupts
+                long end = System.currentTimeMillis() + 500;
+
+                while (System.currentTimeMillis() < end) {
+                    Thread.yield();
+                }
+
+                writeFinished.set(true);
+
+                return null;
+            }
+        }).when(sink).addEntityJson(anyString(), anyString());
+
+        pipeline.add(getEntity("guid-0"));
+
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        pipeline.close();
+
+        assertTrue(writeFinished.get());
+    }
+
+    private static AtlasEntityWithExtInfo getEntity(String guid) {
+        AtlasEntity entity = new AtlasEntity("hive_table");
+
+        entity.setGuid(guid);
+
+        return new AtlasEntityWithExtInfo(entity);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class GuidStateMapTest {
+    @Test
+    public void statesAreRetainedAcrossGrowth() throws AtlasBaseException {
+        List<String> guids = new ArrayList<>();
+
+        try (GuidStateMap stateMap = new GuidStateMap()) {
+            for (int i = 0; i < 100000; i++) {
+                String guid = UUID.randomUUID().toString();
+
+                guids.add(guid);
+                stateMap.setState(guid, i & 0xffff);
+            }
+
+            assertEquals(stateMap.size(), guids.size());
+
+            for (int i = 0; i < guids.size(); i++) {
+                assertEquals(stateMap.getState(guids.get(i)), i & 0xffff);
+            }
+
+            assertEquals(stateMap.getState(UUID.randomUUID().toString()), 0);
+        }
+    }
+
+    @Test
+    public void addAndRemoveState() throws AtlasBaseException {
+        try (GuidStateMap stateMap = new GuidStateMap()) {
+            String guid = UUID.randomUUID().toString();
+
+            stateMap.addState(guid, 0x01);
+            stateMap.addState(guid, 0x04);
+
+            assertTrue(stateMap.hasState(guid, 0x01));
+            assertTrue(stateMap.hasState(guid, 0x04));
+            assertFalse(stateMap.hasState(guid, 0x02));
+
+            stateMap.removeState(guid, 0x01);
+
+            assertFalse(stateMap.hasState(guid, 0x01));
+            assertEquals(stateMap.getState(guid), 0x04);
+            assertEquals(stateMap.size(), 1);
+        }
+    }
+
+    @Test
+    public void nonUuidGuids() throws AtlasBaseException {
+        String upperCaseGuid = UUID.randomUUID().toString().toUpperCase();
+
+        assertNull(GuidStateMap.toUuid("-1234"));
+        assertNull(GuidStateMap.toUuid(upperCaseGuid));
+        assertNotNull(GuidStateMap.toUuid(upperCaseGuid.toLowerCase()));
+
+        try (GuidStateMap stateMap = new GuidStateMap()) {
+            stateMap.setState("-1234", 0x02);
+            stateMap.setState(upperCaseGuid, 0x08);
+            stateMap.setState(upperCaseGuid.toLowerCase(), 0x10);
+
+            assertEquals(stateMap.getState("-1234"), 0x02);
+            assertEquals(stateMap.getState(upperCaseGuid), 0x08);
+            assertEquals(stateMap.getState(upperCaseGuid.toLowerCase()), 0x10);
+            assertEquals(stateMap.size(), 3);
+        }
+    }
+}
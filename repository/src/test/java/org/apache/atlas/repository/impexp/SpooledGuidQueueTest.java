@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class SpooledGuidQueueTest {
+    @Test
+    public void orderIsRetainedWhenSpilled() throws AtlasBaseException {
+        try (SpooledGuidQueue queue = new SpooledGuidQueue(3)) {
+            int added  = 0;
+            int polled = 0;
+
+            // interleave adds and polls, so that guids are added while the spilled guids are being read
+            for (int i = 0; i < 10; i++) {
+                for (int j = 0; j < 5; j++) {
+                    queue.add("guid-" + added++);
+                }
+
+                for (int j = 0; j < 3; j++) {
+                    assertEquals(queue.poll(), "guid-" + polled++);
+                }
+
+                assertEquals(queue.size(), added - polled);
+            }
+
+            while (!queue.isEmpty()) {
+                assertEquals(queue.poll(), "guid-" + polled++);
+            }
+
+            assertEquals(polled, added);
+            assertNull(queue.poll());
+
+            // the queue is usable after being drained
+            queue.add("guid-x");
+
+            assertEquals(queue.poll(), "guid-x");
+            assertTrue(queue.isEmpty());
+        }
+    }
+}
@@ -26,6 +26,8 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
@@ -56,13 +58,11 @@ public class ZipSourceTest {
         return getZipSource("sales-v1-full.zip");
     }
 
-    @Test
-    public void improperInit_ReturnsNullCreationOrder() throws IOException, AtlasBaseException {
+    @Test(expectedExceptions = IOException.class)
+    public void improperInit_ThrowsException() throws IOException {
         byte bytes[] = new byte[10];
         ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-        ZipSource zs = new ZipSource(bais);
-        List<String> s = zs.getCreationOrder();
-        Assert.assertNull(s);
+        new ZipSource(bais);
     }
 
     @Test(dataProvider = "zipFileStocks")
@@ -111,6 +111,45 @@ public class ZipSourceTest {
         }
     }
 
+    @Test
+    public void fileBasedSource_ReadsEntitiesOnDemand() throws IOException, AtlasBaseException {
+        File      file      = new File(System.getProperty("user.dir") + "/src/test/resources/stocks.zip");
+        ZipSource zipSource = new ZipSource(file, null);
+
+        List<String> creationOrder = zipSource.getCreationOrder();
+
+        assertNotNull(creationOrder);
+        assertEquals(creationOrder.size(), 4);
+
+        String      guid   = creationOrder.get(0);
+        AtlasEntity entity = zipSource.getByGuid(guid);
+
+        assertNotNull(entity);
+        assertEquals(entity.getGuid(), guid);
+
+        // callers get their own copy of the entity, which they can change
+        entity.setAttribute("name", "changed by caller");
+
+        AtlasEntity entityAgain = zipSource.getByGuid(guid);
+
+        Assert.assertNotSame(entityAgain, entity);
+        Assert.assertNotEquals(entityAgain.getAttribute("name"), "changed by caller");
+
+        zipSource.onImportComplete(guid);
+
+        Assert.assertNull(zipSource.getByGuid(guid));
+        assertNotNull(zipSource.getByGuid(creationOrder.get(1)));
+
+        zipSource.close();
+
+        assertTrue(file.exists());
+    }
+
+    @Test(expectedExceptions = FileNotFoundException.class)
+    public void fileBasedSource_NonExistentFile() throws IOException {
+        new ZipSource(new File("non-existent-file.zip"), null);
+    }
+
     @Test(dataProvider = "zipFileStocks")
     public void iteratorBehavor_WorksAsExpected(ZipSource zipSource) throws IOException, AtlasBaseException {
         Assert.assertTrue(zipSource.hasNext());
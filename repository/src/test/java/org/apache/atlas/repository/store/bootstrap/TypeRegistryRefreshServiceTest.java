@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.bootstrap;
+
+import org.apache.atlas.TestModules;
+import org.apache.atlas.discovery.SearchPlanCache;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.model.typedef.AtlasClassificationDef;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.AtlasTypeDefGraphStore;
+import org.apache.atlas.repository.store.graph.v1.AtlasTypeDefGraphStoreV1;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeRegistry.AtlasTransientTypeRegistry;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.lang.RandomStringUtils;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class TypeRegistryRefreshServiceTest {
+    private static final long TIMEOUT_MS = 60000;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasGraph graph;
+
+    @Inject
+    private SearchPlanCache searchPlanCache;
+
+    @Test
+    public void testTypeDefUpdateUpdatesVersion() throws Exception {
+        AtlasTypeDefGraphStore store   = (AtlasTypeDefGraphStore) typeDefStore;
+        long                   version = store.getTypeDefsVersion();
+
+        createClassification();
+
+        assertEquals(store.getTypeDefsVersion(), version + 1);
+        assertEquals(store.getLoadedTypeDefsVersion(), version + 1);
+    }
+
+    @Test
+    public void testRefreshLoadsTypeDefsUpdatedByOtherInstance() throws Exception {
+        AtlasTypeDefGraphStore     store   = (AtlasTypeDefGraphStore) typeDefStore;
+        TypeRegistryRefreshService service = new TypeRegistryRefreshService(store, graph, searchPlanCache, getHAConfiguration());
+
+        String typeName = createClassification();
+
+        // nothing to load when the version didn't change
+        long version = store.getLoadedTypeDefsVersion();
+
+        service.refresh();
+
+        assertEquals(store.getLoadedTypeDefsVersion(), version);
+
+        // as if the classification was added by the active instance: not in the type registry of this instance
+        simulateUpdateByOtherInstance(typeName);
+
+        assertNull(typeRegistry.getClassificationDefByName(typeName));
+
+        service.refresh();
+
+        assertNotNull(typeRegistry.getClassificationDefByName(typeName));
+        assertEquals(store.getLoadedTypeDefsVersion(), version + 1);
+        assertEquals(store.getLoadedTypeDefsVersion(), store.getTypeDefsVersion());
+    }
+
+    @Test
+    public void testStaleness() throws Exception {
+        TypeRegistryRefreshService service = new TypeRegistryRefreshService((AtlasTypeDefGraphStore) typeDefStore, graph, searchPlanCache, getHAConfiguration());
+
+        assertEquals(service.getStalenessMs(), 0);
+
+        service.start();
+
+        try {
+            long endTime = System.currentTimeMillis() + TIMEOUT_MS;
+
+            while (service.getStalenessMs() == Long.MAX_VALUE && System.currentTimeMillis() < endTime) {
+                Thread.sleep(100);
+            }
+
+            assertTrue(service.getStalenessMs() < TIMEOUT_MS);
+        } finally {
+            service.stop();
+        }
+
+        assertEquals(service.getStalenessMs(), 0);
+    }
+
+    private String createClassification() throws Exception {
+        AtlasClassificationDef classificationDef = new AtlasClassificationDef("refresh_" + RandomStringUtils.randomAlphanumeric(10));
+        AtlasTypesDef          typesDef          = new AtlasTypesDef();
+
+        typesDef.setClassificationDefs(Collections.singletonList(classificationDef));
+
+        typeDefStore.createTypesDef(typesDef);
+
+        return classificationDef.getName();
+    }
+
+    private void simulateUpdateByOtherInstance(String typeName) throws Exception {
+        AtlasTransientTypeRegistry ttr = typeRegistry.lockTypeRegistryForUpdate();
+
+        ttr.removeTypeByName(typeName);
+
+        typeRegistry.releaseTypeRegistryForUpdate(ttr, true);
+
+        AtlasVertex versionVertex = (AtlasVertex) graph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, AtlasTypeDefGraphStoreV1.TYPEDEFS_VERSION_VERTEX_TYPE)
+                                                               .vertices().iterator().next();
+        Long        version       = versionVertex.getProperty(AtlasTypeDefGraphStoreV1.TYPEDEFS_VERSION_PROPERTY_KEY, Long.class);
+
+        versionVertex.setProperty(AtlasTypeDefGraphStoreV1.TYPEDEFS_VERSION_PROPERTY_KEY, version + 1);
+
+        graph.commit();
+    }
+
+    private PropertiesConfiguration getHAConfiguration() {
+        PropertiesConfiguration ret = new PropertiesConfiguration();
+
+        ret.setProperty(HAConfiguration.ATLAS_SERVER_HA_ENABLED_KEY, true);
+        ret.setProperty(HAConfiguration.HA_PASSIVE_READS_ENABLED, true);
+
+        return ret;
+    }
+}
@@ -343,7 +343,9 @@ public abstract class AtlasDeleteHandlerV1Test {
         final AtlasEntityHeader maxEmployeeCreated = hrDeptCreationResponse.getCreatedEntityByTypeNameAndAttribute(TestUtilsV2.EMPLOYEE_TYPE, NAME, "Max");
         final AtlasEntityHeader johnEmployeeCreated = hrDeptCreationResponse.getUpdatedEntityByTypeNameAndAttribute(TestUtilsV2.EMPLOYEE_TYPE, NAME, "John");
         final AtlasEntityHeader janeEmployeeCreated = hrDeptCreationResponse.getCreatedEntityByTypeNameAndAttribute(TestUtilsV2.MANAGER_TYPE, NAME, "Jane");
-        final AtlasEntityHeader juliusEmployeeCreated = hrDeptCreationResponse.getUpdatedEntityByTypeNameAndAttribute(TestUtilsV2.MANAGER_TYPE, NAME, "Julius");
+        // julius is not among the mutated entities when an earlier test already created him unchanged
+        final AtlasEntity       juliusEmployee        = getEmployeeByName(hrDept, "Julius");
+        final AtlasEntityHeader juliusEmployeeCreated = new AtlasEntityHeader(juliusEmployee.getTypeName(), juliusEmployee.getGuid(), juliusEmployee.getAttributes());
 
         ITypedReferenceableInstance max = metadataService.getEntityDefinition(maxEmployeeCreated.getGuid());
         String maxGuid = max.getId()._getId();
@@ -1059,11 +1061,11 @@ public abstract class AtlasDeleteHandlerV1Test {
         EntityMutationResponse updateEntitiesResult = entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
 
         String mapValueReferencerContainerGuid = updateEntitiesResult.getCreatedEntitiesByTypeName("MapValueReferencerContainer").get(0).getGuid();
-        String mapValueReferencerGuid = updateEntitiesResult.getUpdatedEntitiesByTypeName("MapValueReferencer").get(0).getGuid();
+        String mapValueReferencerGuid = createEntitiesResult.get(0).getGuid();
 
+        // mapValueReferencer is unchanged, so it is not updated
         Assert.assertEquals(updateEntitiesResult.getCreatedEntities().size(), 1);
-        Assert.assertEquals(updateEntitiesResult.getUpdatedEntities().size(), 1);
-        Assert.assertEquals(updateEntitiesResult.getUpdatedEntities().get(0).getGuid(), mapValueReferencerGuid);
+        Assert.assertNull(updateEntitiesResult.getUpdatedEntities());
 
 
         // Delete map owner and map referencer container.  A total of 4 entities should be deleted,
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.typedef.AtlasClassificationDef;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.FullTextMapperV2;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class AtlasEntityChangeNotifierTest {
+    private static final String TAG1 = "fullTextTag1";
+    private static final String TAG2 = "fullTextTag2";
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private DeleteHandlerV1 deleteHandler;
+
+    @Inject
+    private EntityGraphMapper graphMapper;
+
+    @Inject
+    private AtlasEntityChangeNotifier entityChangeNotifier;
+
+    @Inject
+    private FullTextMapperV2 fullTextMapper;
+
+    private AtlasEntityStore entityStore;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+
+        new GraphBackedSearchIndexer(typeRegistry);
+
+        AtlasTypesDef tagsDef = new AtlasTypesDef();
+
+        tagsDef.setClassificationDefs(Arrays.asList(
+                new AtlasClassificationDef(TAG1, "", "1.0", Arrays.asList(AtlasTypeUtil.createOptionalAttrDef("level", "string"))),
+                new AtlasClassificationDef(TAG2, "", "1.0", Arrays.asList(AtlasTypeUtil.createOptionalAttrDef("owner", "string")))));
+
+        for (AtlasTypesDef typesDef : new AtlasTypesDef[] { TestUtilsV2.defineHiveTypes(), tagsDef }) {
+            AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(typesDef, typeRegistry);
+
+            if (!typesToCreate.isEmpty()) {
+                typeDefStore.createTypesDef(typesToCreate);
+            }
+        }
+
+        entityStore = new AtlasEntityStoreV1(deleteHandler, typeRegistry, entityChangeNotifier, graphMapper);
+    }
+
+    @AfterClass
+    public void clear() {
+        AtlasGraphProvider.cleanup();
+    }
+
+    @Test
+    public void testClassificationFullTextSegments() throws Exception {
+        AtlasEntity            dbEntity = TestUtilsV2.createDBEntity();
+        EntityMutationResponse response = entityStore.createOrUpdate(new AtlasEntityStream(dbEntity), false);
+        String                 guid     = response.getCreatedEntities().get(0).getGuid();
+
+        assertFullText(guid);
+
+        entityStore.addClassifications(guid, Arrays.asList(new AtlasClassification(TAG1, "level", "confidential"),
+                                                           new AtlasClassification(TAG2, "owner", "etl-team")));
+
+        String fullText = assertFullText(guid);
+
+        assertTrue(fullText.contains("confidential"));
+        assertTrue(fullText.contains("etl-team"));
+
+        entityStore.updateClassifications(guid, Collections.singletonList(new AtlasClassification(TAG1, "level", "restricted")));
+
+        fullText = assertFullText(guid);
+
+        assertFalse(fullText.contains("confidential"));
+        assertTrue(fullText.contains("restricted"));
+
+        entityStore.deleteClassifications(guid, Collections.singletonList(TAG2));
+
+        fullText = assertFullText(guid);
+
+        assertFalse(fullText.contains(TAG2));
+        assertFalse(fullText.contains("etl-team"));
+        assertTrue(fullText.contains(TAG1));
+    }
+
+    @Test
+    public void testClassificationFullTextWithoutSegments() throws Exception {
+        AtlasEntity            dbEntity = TestUtilsV2.createDBEntity();
+        EntityMutationResponse response = entityStore.createOrUpdate(new AtlasEntityStream(dbEntity), false);
+        String                 guid     = response.getCreatedEntities().get(0).getGuid();
+        AtlasVertex            vertex   = AtlasGraphUtilsV1.findByGuid(guid);
+
+        // as if the full text was written by an earlier version
+        vertex.removeProperty(Constants.ENTITY_TEXT_SEGMENTS_PROPERTY_KEY);
+        vertex.setProperty(Constants.ENTITY_TEXT_PROPERTY_KEY, "stale");
+
+        RequestContext.clear();
+
+        entityStore.addClassifications(guid, Collections.singletonList(new AtlasClassification(TAG1, "level", "public")));
+
+        String fullText = assertFullText(guid);
+
+        assertFalse(fullText.contains("stale"));
+        assertTrue(fullText.contains("public"));
+    }
+
+    // the incrementally maintained full text must match the full text mapped from the whole entity
+    private String assertFullText(String guid) throws Exception {
+        AtlasVertex vertex   = AtlasGraphUtilsV1.findByGuid(guid);
+        String      fullText = vertex.getProperty(Constants.ENTITY_TEXT_PROPERTY_KEY, String.class);
+
+        RequestContext.clear();
+
+        assertNotNull(fullText);
+        assertNotNull(vertex.getProperty(Constants.ENTITY_TEXT_SEGMENTS_PROPERTY_KEY, String.class));
+        assertEquals(fullText, fullTextMapper.getIndexTextForEntity(guid));
+
+        return fullText;
+    }
+}
@@ -308,6 +308,45 @@ public class AtlasEntityStoreV1Test {
         assertEquals(response.getEntitiesByOperation(EntityMutations.EntityOperation.DELETE).size(), 2);
     }
 
+    @Test(dependsOnMethods = "testCreate")
+    public void testUpdateSkipsUnchangedEntities() throws Exception {
+        AtlasEntity dbEntity = TestUtilsV2.createDBEntity();
+
+        dbEntity.setAttribute("parameters", Collections.singletonMap("key1", "value1"));
+
+        init();
+        EntityMutationResponse response  = entityStore.createOrUpdate(new AtlasEntityStream(dbEntity), false);
+        AtlasEntityHeader      dbCreated = response.getFirstCreatedEntityByTypeName(TestUtilsV2.DATABASE_TYPE);
+
+        //Resubmit the entity without any change
+        AtlasEntity sameDbEntity = new AtlasEntity(dbEntity);
+
+        sameDbEntity.setGuid("-1");
+
+        init();
+        response = entityStore.createOrUpdate(new AtlasEntityStream(sameDbEntity), false);
+
+        Assert.assertTrue(CollectionUtils.isEmpty(response.getUpdatedEntities()));
+        assertEquals(response.getGuidAssignments().get("-1"), dbCreated.getGuid());
+
+        //Change only the description
+        AtlasEntity updatedDbEntity = new AtlasEntity(dbEntity);
+
+        updatedDbEntity.setAttribute("description", "updated description");
+
+        init();
+        response = entityStore.createOrUpdate(new AtlasEntityStream(updatedDbEntity), false);
+
+        validateMutationResponse(response, EntityOperation.UPDATE, 1);
+
+        AtlasEntity dbUpdated = getEntityFromStore(response.getFirstUpdatedEntityByTypeName(TestUtilsV2.DATABASE_TYPE));
+
+        assertEquals(dbUpdated.getGuid(), dbCreated.getGuid());
+        assertEquals(dbUpdated.getAttribute("description"), "updated description");
+        assertEquals(dbUpdated.getAttribute(NAME), dbEntity.getAttribute(NAME));
+        assertEquals(dbUpdated.getAttribute("parameters"), dbEntity.getAttribute("parameters"));
+    }
+
     @Test(dependsOnMethods = "testCreate")
     public void testUpdateEntityWithMap() throws Exception {
         AtlasEntity              tableEntity  = new AtlasEntity(tblEntity.getEntity());
@@ -425,6 +464,8 @@ public class AtlasEntityStoreV1Test {
         //Drop the first key and change the class type as well to col0
         columnsMap.clear();
         columnsMap.put("col0", AtlasTypeUtil.getAtlasObjectId(col0));
+
+        tableEntity.setAttribute(TestUtils.COLUMNS_MAP, columnsMap);
         init();
 
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
@@ -457,6 +498,7 @@ public class AtlasEntityStoreV1Test {
 
         //Remove an entry
         paramsMap.remove("key1");
+        tableEntity.setAttribute("parametersMap", paramsMap);
         init();
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
         validateMutationResponse(response, EntityMutations.EntityOperation.UPDATE, 1);
@@ -483,6 +525,7 @@ public class AtlasEntityStoreV1Test {
 
         //add a new element to array of struct
         partitions.add(new AtlasStruct(TestUtils.PARTITION_STRUCT_TYPE, TestUtilsV2.NAME, "part3"));
+        tableEntity.setAttribute("partitions", partitions);
         init();
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
         updatedTable = response.getFirstUpdatedEntityByTypeName(TABLE_TYPE);
@@ -491,6 +534,7 @@ public class AtlasEntityStoreV1Test {
         //remove one of the struct values
         init();
         partitions.remove(1);
+        tableEntity.setAttribute("partitions", partitions);
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
         updatedTable = response.getFirstUpdatedEntityByTypeName(TABLE_TYPE);
         validateEntity(entitiesInfo, getEntityFromStore(updatedTable));
@@ -498,6 +542,7 @@ public class AtlasEntityStoreV1Test {
         //Update struct value within array of struct
         init();
         partitions.get(0).setAttribute(TestUtilsV2.NAME, "part4");
+        tableEntity.setAttribute("partitions", partitions);
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
         updatedTable = response.getFirstUpdatedEntityByTypeName(TABLE_TYPE);
         validateEntity(entitiesInfo, getEntityFromStore(updatedTable));
@@ -505,6 +550,7 @@ public class AtlasEntityStoreV1Test {
 
         //add a repeated element to array of struct
         partitions.add(new AtlasStruct(TestUtils.PARTITION_STRUCT_TYPE, TestUtilsV2.NAME, "part4"));
+        tableEntity.setAttribute("partitions", partitions);
         init();
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
         updatedTable = response.getFirstUpdatedEntityByTypeName(TABLE_TYPE);
@@ -512,6 +558,7 @@ public class AtlasEntityStoreV1Test {
 
         // Remove all elements. Should set array attribute to null
         partitions.clear();
+        tableEntity.setAttribute("partitions", partitions);
         init();
         response = entityStore.createOrUpdate(new AtlasEntityStream(entitiesInfo), false);
         updatedTable = response.getFirstUpdatedEntityByTypeName(TABLE_TYPE);
@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
+import org.apache.atlas.typesystem.ITypedReferenceableInstance;
+import org.apache.atlas.typesystem.persistence.Id;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityCacheTest {
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @Inject
+    private EntityCache entityCache;
+
+    private AtlasEntity dbEntity;
+    private AtlasEntity tableEntity;
+    private AtlasEntity columnEntity;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+
+        setUpContext();
+
+        dbEntity     = TestUtilsV2.createDBEntity();
+        tableEntity  = TestUtilsV2.createTableEntity(dbEntity);
+        columnEntity = TestUtilsV2.createColumnEntity(tableEntity);
+
+        tableEntity.setAttribute(TestUtilsV2.COLUMNS_ATTR_NAME, Collections.singletonList(AtlasTypeUtil.getAtlasObjectId(columnEntity)));
+
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo(Arrays.asList(dbEntity, tableEntity, columnEntity));
+        EntityMutationResponse   response = entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+
+        dbEntity.setGuid(response.getFirstCreatedEntityByTypeName(TestUtilsV2.DATABASE_TYPE).getGuid());
+        tableEntity.setGuid(response.getFirstCreatedEntityByTypeName(TestUtilsV2.TABLE_TYPE).getGuid());
+        columnEntity.setGuid(response.getFirstCreatedEntityByTypeName(TestUtilsV2.COLUMN_TYPE).getGuid());
+    }
+
+    @BeforeMethod
+    public void setUpContext() {
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+    }
+
+    @AfterClass
+    public void clear() {
+        AtlasGraphProvider.cleanup();
+    }
+
+    @Test
+    public void testRepeatedReadIsCached() throws Exception {
+        AtlasEntityWithExtInfo first    = entityStore.getById(tableEntity.getGuid());
+        long                   hitCount = entityCache.getEntityStats().getHitCount();
+        AtlasEntityWithExtInfo second   = entityStore.getById(tableEntity.getGuid());
+
+        assertEquals(entityCache.getEntityStats().getHitCount(), hitCount + 1);
+        assertEquals(second.getEntity().getAttributes(), first.getEntity().getAttributes());
+        assertNotNull(second.getReferredEntity(columnEntity.getGuid()));
+
+        // cached entries are copied out: changes by callers don't affect later reads
+        second.getEntity().setAttribute("description", "changed by caller");
+
+        assertEquals(entityStore.getById(tableEntity.getGuid()).getEntity().getAttribute("description"), first.getEntity().getAttribute("description"));
+    }
+
+    @Test(dependsOnMethods = "testRepeatedReadIsCached")
+    public void testUpdatesAreVisible() throws Exception {
+        entityStore.getById(tableEntity.getGuid());
+
+        entityStore.updateEntityAttributeByGuid(tableEntity.getGuid(), "description", "updated table");
+
+        assertEquals(entityStore.getById(tableEntity.getGuid()).getEntity().getAttribute("description"), "updated table");
+
+        // update of a referred entity
+        entityStore.updateEntityAttributeByGuid(columnEntity.getGuid(), "type", "VARCHAR(64)");
+
+        AtlasEntity referredColumn = entityStore.getById(tableEntity.getGuid()).getReferredEntity(columnEntity.getGuid());
+
+        assertEquals(referredColumn.getAttribute("type"), "VARCHAR(64)");
+
+        entityStore.addClassifications(tableEntity.getGuid(), Collections.singletonList(new AtlasClassification(TestUtilsV2.PII)));
+
+        AtlasEntity table = entityStore.getById(tableEntity.getGuid()).getEntity();
+
+        assertEquals(table.getClassifications().size(), 1);
+        assertEquals(table.getClassifications().get(0).getTypeName(), TestUtilsV2.PII);
+
+        entityStore.deleteClassifications(tableEntity.getGuid(), Collections.singletonList(TestUtilsV2.PII));
+
+        assertTrue(entityStore.getById(tableEntity.getGuid()).getEntity().getClassifications().isEmpty());
+    }
+
+    @Test
+    public void testExcludedTypes() throws Exception {
+        EntityCache          cache     = new EntityCache(typeRegistry, 100000, 100000, new String[] { TestUtilsV2.COLUMN_TYPE }, true);
+        EntityGraphRetriever retriever = new EntityGraphRetriever(typeRegistry, cache);
+
+        retriever.toAtlasEntityWithExtInfo(columnEntity.getGuid());
+        retriever.toAtlasEntityWithExtInfo(columnEntity.getGuid());
+
+        // the table refers to an excluded entity
+        retriever.toAtlasEntityWithExtInfo(tableEntity.getGuid());
+
+        assertEquals(cache.getEntityStats().getSize(), 0);
+        assertEquals(cache.getEntityStats().getHitCount(), 0);
+
+        AtlasEntityHeader header = retriever.toAtlasEntityHeader(tableEntity.getGuid());
+
+        assertEquals(retriever.toAtlasEntityHeader(tableEntity.getGuid()).getAttributes(), header.getAttributes());
+        assertEquals(cache.getHeaderStats().getSize(), 1);
+        assertEquals(cache.getHeaderStats().getHitCount(), 1);
+    }
+
+    @Test
+    public void testWeightIsBounded() throws Exception {
+        EntityCache          cache     = new EntityCache(typeRegistry, 1, 0, null, true);
+        EntityGraphRetriever retriever = new EntityGraphRetriever(typeRegistry, cache);
+
+        retriever.toAtlasEntityHeader(dbEntity.getGuid());
+        retriever.toAtlasEntityHeader(tableEntity.getGuid());
+
+        EntityCache.Stats stats = cache.getHeaderStats();
+
+        assertTrue(stats.getWeight() <= 1, stats.toString());
+        assertEquals(stats.getMissCount(), 2);
+        assertEquals(stats.getEvictionCount(), 2);
+    }
+
+    @Test
+    public void testReplacedEntryDropsStaleReferences() throws Exception {
+        EntityCache          cache     = new EntityCache(typeRegistry, 100000, 100000, null, true);
+        EntityGraphRetriever retriever = new EntityGraphRetriever(typeRegistry, cache);
+        AtlasEntity          table     = TestUtilsV2.createTableEntity(dbEntity);
+
+        table.setGuid(entityStore.createOrUpdate(new AtlasEntityStream(table), false).getFirstCreatedEntityByTypeName(TestUtilsV2.TABLE_TYPE).getGuid());
+
+        retriever.toAtlasEntityWithExtInfo(table.getGuid());
+
+        // the table no longer refers to the database: the entry read next replaces the one referring to the database
+        AtlasEntity newDb = TestUtilsV2.createDBEntity();
+
+        table.setAttribute("database", AtlasTypeUtil.getAtlasObjectId(newDb));
+
+        // a new request, with a later modification time
+        Thread.sleep(1);
+        setUpContext();
+
+        entityStore.createOrUpdate(new AtlasEntityStream(new AtlasEntitiesWithExtInfo(Arrays.asList(newDb, table))), false);
+
+        AtlasObjectId database = (AtlasObjectId) retriever.toAtlasEntityWithExtInfo(table.getGuid()).getEntity().getAttribute("database");
+
+        assertNotEquals(database.getGuid(), dbEntity.getGuid());
+
+        ITypedReferenceableInstance updatedDb = mock(ITypedReferenceableInstance.class);
+
+        when(updatedDb.getId()).thenReturn(new Id(dbEntity.getGuid(), 0, TestUtilsV2.DATABASE_TYPE));
+
+        cache.onEntitiesUpdated(Collections.singletonList(updatedDb), false);
+
+        long hitCount = cache.getEntityStats().getHitCount();
+
+        retriever.toAtlasEntityWithExtInfo(table.getGuid());
+
+        assertEquals(cache.getEntityStats().getHitCount(), hitCount + 1);
+    }
+}
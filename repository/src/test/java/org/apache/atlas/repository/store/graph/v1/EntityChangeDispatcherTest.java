@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.listener.EntityChangeListener;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.converters.AtlasInstanceConverter;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.typesystem.ITypedReferenceableInstance;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class EntityChangeDispatcherTest {
+    private static final long REQUEST_TIME = 1000L;
+
+    private EntityChangeListener   listener;
+    private AtlasInstanceConverter instanceConverter;
+    private AtlasGraph             graph;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        listener          = mock(EntityChangeListener.class);
+        instanceConverter = mock(AtlasInstanceConverter.class);
+        graph             = mock(AtlasGraph.class);
+
+        for (String guid : new String[] { "guid1", "guid2", "guid3" }) {
+            ITypedReferenceableInstance instance = mock(ITypedReferenceableInstance.class);
+
+            when(instanceConverter.getITypedReferenceable(guid)).thenReturn(instance);
+        }
+    }
+
+    @Test
+    public void testChangesToSameEntityAreCoalesced() throws Exception {
+        EntityChangeDispatcher dispatcher = createDispatcher(100, 100, 60000, 0);
+
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.UPDATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.PARTIAL_UPDATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid2", EntityOperation.UPDATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid3", EntityOperation.UPDATE, null, false, "user", REQUEST_TIME));
+
+        assertEquals(dispatcher.getQueueDepth(), 3);
+        assertEquals(dispatcher.getCoalescedCount(), 2);
+
+        dispatcher.stop();
+
+        ArgumentCaptor<Collection> updated = ArgumentCaptor.forClass(Collection.class);
+
+        verify(listener, times(1)).onEntitiesAdded(anyCollection(), anyBoolean());
+        verify(listener, times(1)).onEntitiesUpdated(updated.capture(), anyBoolean());
+        verify(instanceConverter, times(1)).getITypedReferenceable("guid1");
+
+        // both updates are sent in one call
+        assertEquals(updated.getValue().size(), 2);
+        assertEquals(dispatcher.getDispatchedCount(), 3);
+        assertEquals(dispatcher.getQueueDepth(), 0);
+
+        // the read transaction is ended after each group sent
+        verify(graph, times(2)).rollback();
+    }
+
+    @Test
+    public void testDeleteReplacesEarlierChange() throws Exception {
+        EntityChangeDispatcher      dispatcher      = createDispatcher(100, 100, 60000, 0);
+        ITypedReferenceableInstance deletedInstance = mock(ITypedReferenceableInstance.class);
+
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.UPDATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.DELETE, deletedInstance, false, "user", REQUEST_TIME));
+        // a change after the delete is not folded into it
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+
+        assertEquals(dispatcher.getQueueDepth(), 2);
+
+        dispatcher.stop();
+
+        verify(listener, never()).onEntitiesUpdated(anyCollection(), anyBoolean());
+        verify(listener).onEntitiesDeleted(Collections.singletonList(deletedInstance), false);
+        verify(listener).onEntitiesAdded(anyCollection(), anyBoolean());
+    }
+
+    @Test
+    public void testCreateAndDeleteAreBothSent() throws Exception {
+        EntityChangeDispatcher      dispatcher      = createDispatcher(1, 100, 60000, 0);
+        ITypedReferenceableInstance deletedInstance = mock(ITypedReferenceableInstance.class);
+
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+        // queued after the create, even though the queue is full
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.DELETE, deletedInstance, false, "user", REQUEST_TIME));
+
+        assertEquals(dispatcher.getQueueDepth(), 2);
+
+        dispatcher.stop();
+
+        InOrder inOrder = inOrder(listener);
+
+        // the create is sent with the instance given for the delete, as the entity might not be readable any more
+        inOrder.verify(listener).onEntitiesAdded(Collections.singletonList(deletedInstance), false);
+        inOrder.verify(listener).onEntitiesDeleted(Collections.singletonList(deletedInstance), false);
+        verify(instanceConverter, never()).getITypedReferenceable("guid1");
+    }
+
+    @Test
+    public void testEnqueueFailsWhenQueueStaysFull() throws Exception {
+        EntityChangeDispatcher dispatcher = createDispatcher(1, 100, 60000, 10);
+
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+        assertFalse(dispatcher.enqueue("guid2", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+
+        // a change to a queued entity needs no space in the queue
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.UPDATE, null, false, "user", REQUEST_TIME));
+
+        assertEquals(dispatcher.getRejectedCount(), 1);
+
+        dispatcher.stop();
+
+        assertEquals(dispatcher.getDispatchedCount(), 1);
+        assertFalse(dispatcher.enqueue("guid3", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+    }
+
+    @Test
+    public void testListenersGetRequestTimeOfChanges() throws Exception {
+        EntityChangeDispatcher dispatcher   = createDispatcher(100, 100, 60000, 0);
+        final List<Long>       requestTimes = new ArrayList<>();
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                requestTimes.add(RequestContextV1.get().getRequestTime());
+
+                return null;
+            }
+        }).when(listener).onEntitiesAdded(anyCollection(), anyBoolean());
+
+        assertTrue(dispatcher.enqueue("guid1", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid2", EntityOperation.CREATE, null, false, "user", REQUEST_TIME));
+        assertTrue(dispatcher.enqueue("guid3", EntityOperation.CREATE, null, false, "user", REQUEST_TIME + 1));
+
+        dispatcher.stop();
+
+        // changes of different requests are sent in separate calls, each with the time of its request
+        assertEquals(requestTimes, Arrays.asList(REQUEST_TIME, REQUEST_TIME + 1));
+    }
+
+    private EntityChangeDispatcher createDispatcher(int queueSize, int batchSize, long coalesceWindowMs, long enqueueTimeoutMs) {
+        return new EntityChangeDispatcher(Collections.singleton(listener), instanceConverter, graph, queueSize, batchSize, coalesceWindowMs, enqueueTimeoutMs);
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
+import org.apache.commons.lang.RandomStringUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityResolverTest {
+    private static final String BASE_TYPE = "resolver_base";
+    private static final String SUB_TYPE  = "resolver_sub";
+
+    private static final String QUALIFIED_NAME = "qualifiedName";
+    private static final String NUMBER         = "number";
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    private long nextNumber = 1;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        AtlasEntityDef baseDef = AtlasTypeUtil.createClassTypeDef(BASE_TYPE, ImmutableSet.<String>of(),
+                                                                  AtlasTypeUtil.createUniqueRequiredAttrDef(QUALIFIED_NAME, "string"),
+                                                                  AtlasTypeUtil.createUniqueRequiredAttrDef(NUMBER, "long"));
+        AtlasEntityDef subDef  = AtlasTypeUtil.createClassTypeDef(SUB_TYPE, ImmutableSet.of(BASE_TYPE));
+        AtlasTypesDef  typesDef = new AtlasTypesDef();
+
+        typesDef.setEntityDefs(Arrays.asList(baseDef, subDef));
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(typesDef, typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+    }
+
+    @BeforeMethod
+    public void setUpContext() {
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+    }
+
+    @AfterClass
+    public void clear() {
+        AtlasGraphProvider.cleanup();
+    }
+
+    @Test
+    public void testFindByGuidsSkipsMissingGuids() throws Exception {
+        List<AtlasEntity> entities = createEntities(BASE_TYPE, 2);
+        String            guid1    = entities.get(0).getGuid();
+        String            guid2    = entities.get(1).getGuid();
+        String            missing  = UUID.randomUUID().toString();
+
+        Map<String, AtlasVertex> vertices = AtlasGraphUtilsV1.findByGuids(Arrays.asList(guid1, missing, guid2));
+
+        assertEquals(vertices.size(), 2);
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(guid1)), guid1);
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(guid2)), guid2);
+    }
+
+    @Test
+    public void testFindByGuidsLargerThanInQuery() throws Exception {
+        List<AtlasEntity> entities = createEntities(BASE_TYPE, AtlasGraphUtilsV1.IN_QUERY_MAX_VALUES + 10);
+        List<String>      guids    = new ArrayList<>();
+
+        for (AtlasEntity entity : entities) {
+            guids.add(entity.getGuid());
+        }
+
+        Map<String, AtlasVertex> vertices = AtlasGraphUtilsV1.findByGuids(guids);
+
+        assertEquals(vertices.keySet(), new HashSet<>(guids));
+    }
+
+    @Test
+    public void testFindByUniqueAttributesOfSubTypes() throws Exception {
+        AtlasEntity     base       = createEntities(BASE_TYPE, 1).get(0);
+        AtlasEntity     sub        = createEntities(SUB_TYPE, 1).get(0);
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(BASE_TYPE);
+
+        List<AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(entityType,
+                Arrays.asList(qualifiedNameOf(sub), qualifiedNameOf(base), uniqueAttributes(QUALIFIED_NAME, "missing"), null));
+
+        assertEquals(vertices.size(), 4);
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(0)), sub.getGuid());
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(1)), base.getGuid());
+        assertNull(vertices.get(2));
+        assertNull(vertices.get(3));
+    }
+
+    @Test
+    public void testFindByUniqueAttributesLargerThanInQuery() throws Exception {
+        List<AtlasEntity>         entities       = createEntities(SUB_TYPE, AtlasGraphUtilsV1.IN_QUERY_MAX_VALUES + 10);
+        List<Map<String, Object>> attrValuesList = new ArrayList<>();
+
+        for (AtlasEntity entity : entities) {
+            attrValuesList.add(qualifiedNameOf(entity));
+        }
+
+        // a value given twice resolves to the same vertex
+        attrValuesList.add(qualifiedNameOf(entities.get(0)));
+
+        List<AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(typeRegistry.getEntityTypeByName(BASE_TYPE), attrValuesList);
+
+        for (int i = 0; i < entities.size(); i++) {
+            assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(i)), entities.get(i).getGuid());
+        }
+
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(entities.size())), entities.get(0).getGuid());
+    }
+
+    @Test
+    public void testFindByUniqueAttributesNormalizesValues() throws Exception {
+        AtlasEntity entity = createEntities(BASE_TYPE, 1).get(0);
+        long        number = ((Number) entity.getAttribute(NUMBER)).longValue();
+
+        // the graph has a long: values given as a string or an int are looked up as a long
+        List<AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(typeRegistry.getEntityTypeByName(BASE_TYPE),
+                Arrays.asList(uniqueAttributes(NUMBER, String.valueOf(number)), uniqueAttributes(NUMBER, (int) number)));
+
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(0)), entity.getGuid());
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(1)), entity.getGuid());
+    }
+
+    @Test
+    public void testIDBasedResolverResolvesFoundGuidsAndEntitiesInStream() throws Exception {
+        AtlasEntity existing = createEntities(BASE_TYPE, 1).get(0);
+        AtlasEntity sub      = createEntities(SUB_TYPE, 1).get(0);
+        AtlasEntity inStream = new AtlasEntity(SUB_TYPE);
+        AtlasEntity created  = newEntity(SUB_TYPE);
+
+        // an entity of the stream, with the unique attribute value of an existing entity
+        inStream.setAttribute(QUALIFIED_NAME, sub.getAttribute(QUALIFIED_NAME));
+        inStream.setAttribute(NUMBER, sub.getAttribute(NUMBER));
+
+        AtlasEntitiesWithExtInfo    entities = new AtlasEntitiesWithExtInfo(Arrays.asList(inStream, created), null);
+        EntityGraphDiscoveryContext context  = new EntityGraphDiscoveryContext(typeRegistry, new AtlasEntityStream(entities));
+
+        context.addReferencedGuid(existing.getGuid());
+        context.addReferencedGuid(inStream.getGuid());
+        context.addReferencedGuid(created.getGuid());
+
+        new IDBasedEntityResolver(typeRegistry).resolveEntityReferences(context);
+
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(context.getResolvedEntityVertex(existing.getGuid())), existing.getGuid());
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(context.getResolvedEntityVertex(inStream.getGuid())), sub.getGuid());
+        assertEquals(context.getLocalGuids(), Collections.singleton(created.getGuid()));
+
+        // an assigned guid that is in neither the graph nor the stream
+        context = new EntityGraphDiscoveryContext(typeRegistry, new AtlasEntityStream(entities));
+
+        context.addReferencedGuid(existing.getGuid());
+        context.addReferencedGuid(UUID.randomUUID().toString());
+
+        try {
+            new IDBasedEntityResolver(typeRegistry).resolveEntityReferences(context);
+
+            fail("missing guid should fail the resolution");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND);
+        }
+    }
+
+    @Test
+    public void testUniqAttrBasedResolverResolvesSubTypes() throws Exception {
+        AtlasEntity   sub     = createEntities(SUB_TYPE, 1).get(0);
+        AtlasEntity   base    = createEntities(BASE_TYPE, 1).get(0);
+        AtlasObjectId subId   = new AtlasObjectId(BASE_TYPE, qualifiedNameOf(sub));
+        AtlasObjectId baseId  = new AtlasObjectId(BASE_TYPE, NUMBER, String.valueOf(base.getAttribute(NUMBER)));
+        AtlasObjectId missing = new AtlasObjectId(BASE_TYPE, QUALIFIED_NAME, "missing");
+
+        EntityGraphDiscoveryContext context = new EntityGraphDiscoveryContext(typeRegistry, new AtlasEntityStream(new AtlasEntitiesWithExtInfo()));
+
+        context.addReferencedByUniqAttribs(subId);
+        context.addReferencedByUniqAttribs(baseId);
+
+        new UniqAttrBasedEntityResolver(typeRegistry).resolveEntityReferences(context);
+
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(context.getResolvedEntityVertex(subId)), sub.getGuid());
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(context.getResolvedEntityVertex(baseId)), base.getGuid());
+
+        context.addReferencedByUniqAttribs(missing);
+
+        try {
+            new UniqAttrBasedEntityResolver(typeRegistry).resolveEntityReferences(context);
+
+            fail("missing entity should fail the resolution");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND);
+        }
+    }
+
+    private List<AtlasEntity> createEntities(String typeName, int count) throws AtlasBaseException {
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+
+        for (int i = 0; i < count; i++) {
+            entities.addEntity(newEntity(typeName));
+        }
+
+        EntityMutationResponse response = entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+        List<AtlasEntity>      ret      = new ArrayList<>();
+
+        assertEquals(response.getCreatedEntities().size(), count);
+
+        for (AtlasEntity entity : entities.getEntities()) {
+            entity.setGuid(response.getGuidAssignments().get(entity.getGuid()));
+
+            ret.add(entity);
+        }
+
+        return ret;
+    }
+
+    private AtlasEntity newEntity(String typeName) {
+        AtlasEntity ret = new AtlasEntity(typeName);
+
+        ret.setAttribute(QUALIFIED_NAME, typeName + "-" + RandomStringUtils.randomAlphanumeric(10));
+        ret.setAttribute(NUMBER, nextNumber++);
+
+        return ret;
+    }
+
+    private static Map<String, Object> qualifiedNameOf(AtlasEntity entity) {
+        return uniqueAttributes(QUALIFIED_NAME, entity.getAttribute(QUALIFIED_NAME));
+    }
+
+    private static Map<String, Object> uniqueAttributes(String attrName, Object attrValue) {
+        Map<String, Object> ret = new HashMap<>();
+
+        ret.put(attrName, attrValue);
+
+        return ret;
+    }
+}
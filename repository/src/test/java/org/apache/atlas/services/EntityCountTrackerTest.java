@@ -0,0 +1,298 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.metrics.AtlasMetrics;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v1.AtlasEntityStream;
+import org.apache.atlas.services.EntityCountTracker.EntityCounts;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.typesystem.ITypedReferenceableInstance;
+import org.apache.atlas.typesystem.persistence.Id;
+import org.aopalliance.intercept.MethodInvocation;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityCountTrackerTest {
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @Inject
+    private AtlasGraph graph;
+
+    @Inject
+    private EntityCountTracker entityCountTracker;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+    }
+
+    @BeforeMethod
+    public void setUpContext() {
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+    }
+
+    @AfterClass
+    public void clear() {
+        AtlasGraphProvider.cleanup();
+    }
+
+    @Test
+    public void testCountsFollowChanges() throws Exception {
+        EntityCounts before = entityCountTracker.getCounts();
+        String       dbGuid = createDB();
+
+        assertEquals(getCount(entityCountTracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE),
+                     getCount(before.getActiveEntities(), TestUtilsV2.DATABASE_TYPE) + 1);
+
+        entityStore.addClassifications(dbGuid, Collections.singletonList(new AtlasClassification(TestUtilsV2.PII)));
+
+        EntityCounts afterClassification = entityCountTracker.getCounts();
+
+        assertEquals(getCount(afterClassification.getClassifiedEntities(), TestUtilsV2.PII), getCount(before.getClassifiedEntities(), TestUtilsV2.PII) + 1);
+        assertEquals(afterClassification.getClassifiedEntityCount(), before.getClassifiedEntityCount() + 1);
+
+        entityStore.deleteClassifications(dbGuid, Collections.singletonList(TestUtilsV2.PII));
+
+        EntityCounts afterClassificationDelete = entityCountTracker.getCounts();
+
+        assertEquals(getCount(afterClassificationDelete.getClassifiedEntities(), TestUtilsV2.PII), getCount(before.getClassifiedEntities(), TestUtilsV2.PII));
+        assertEquals(afterClassificationDelete.getClassifiedEntityCount(), before.getClassifiedEntityCount());
+
+        EntityMutationResponse response    = entityStore.deleteById(dbGuid);
+        EntityCounts           afterDelete = entityCountTracker.getCounts();
+        long                   deleted     = getCount(afterDelete.getDeletedEntities(), TestUtilsV2.DATABASE_TYPE) - getCount(before.getDeletedEntities(), TestUtilsV2.DATABASE_TYPE);
+
+        assertEquals(response.getDeletedEntities().size(), 1);
+        assertEquals(getCount(afterDelete.getActiveEntities(), TestUtilsV2.DATABASE_TYPE), getCount(before.getActiveEntities(), TestUtilsV2.DATABASE_TYPE));
+        assertEquals(deleted, isSoftDeleted(response.getDeletedEntities().get(0)) ? 1 : 0);
+    }
+
+    @Test(dependsOnMethods = "testCountsFollowChanges")
+    public void testReconcileAndPersist() throws Exception {
+        createDB();
+        createDB();
+
+        // counts from the graph: counts of earlier tests might have been of a different graph
+        entityCountTracker.reconcile();
+
+        EntityCounts reconciled = entityCountTracker.getCounts();
+        long         dbCount    = getCount(reconciled.getActiveEntities(), TestUtilsV2.DATABASE_TYPE);
+
+        assertEquals(dbCount, 2);
+
+        entityCountTracker.persist();
+
+        createDB();
+
+        assertEquals(getCount(entityCountTracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE), dbCount + 1);
+
+        entityCountTracker.reconcile();
+
+        assertEquals(getCount(entityCountTracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE), dbCount + 1);
+    }
+
+    @Test(dependsOnMethods = "testReconcileAndPersist")
+    public void testLoadKeepsCountedChanges() throws Exception {
+        entityCountTracker.persist();
+
+        long                        dbCount = getCount(entityCountTracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE);
+        EntityCountTracker          tracker = new EntityCountTracker(graph, typeRegistry, ApplicationProperties.get(), true, 60000, 0, 0);
+        ITypedReferenceableInstance db      = mock(ITypedReferenceableInstance.class);
+
+        when(db.getTypeName()).thenReturn(TestUtilsV2.DATABASE_TYPE);
+        when(db.getId()).thenReturn(new Id(UUID.randomUUID().toString(), 0, TestUtilsV2.DATABASE_TYPE));
+
+        // a change counted before the saved counts are loaded
+        tracker.onEntitiesAdded(Collections.singletonList(db), false);
+
+        assertFalse(tracker.isLoaded());
+
+        tracker.load();
+
+        assertTrue(tracker.isLoaded());
+
+        assertEquals(getCount(tracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE), dbCount + 1);
+
+        tracker.reconcile();
+
+        EntityCounts counts      = tracker.getCounts();
+        EntityCounts graphCounts = entityCountTracker.getCounts();
+
+        assertEquals(counts.getActiveEntities(), graphCounts.getActiveEntities());
+        assertEquals(counts.getDeletedEntities(), graphCounts.getDeletedEntities());
+        assertEquals(counts.getClassifiedEntities(), graphCounts.getClassifiedEntities());
+        assertEquals(counts.getClassifiedEntityCount(), graphCounts.getClassifiedEntityCount());
+    }
+
+    @Test
+    public void testChangesOfRolledBackTransactionsAreNotCounted() throws Throwable {
+        final EntityCountTracker          tracker     = new EntityCountTracker(graph, typeRegistry, ApplicationProperties.get(), true, 60000, 0, 0);
+        final ITypedReferenceableInstance db          = mock(ITypedReferenceableInstance.class);
+        final AtomicBoolean               failCommit  = new AtomicBoolean(false);
+        GraphTransactionInterceptor       interceptor = new GraphTransactionInterceptor(graph);
+        MethodInvocation                  invocation  = mock(MethodInvocation.class);
+
+        when(db.getTypeName()).thenReturn(TestUtilsV2.DATABASE_TYPE);
+        when(db.getId()).thenReturn(new Id(UUID.randomUUID().toString(), 0, TestUtilsV2.DATABASE_TYPE));
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        when(invocation.proceed()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) {
+                tracker.onEntitiesAdded(Collections.singletonList(db), false);
+
+                // not counted until the transaction commits
+                assertEquals(getCount(tracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE), failCommit.get() ? 1 : 0);
+
+                if (failCommit.get()) {
+                    throw new RuntimeException("Simulating failure after the change was notified");
+                }
+
+                return null;
+            }
+        });
+
+        interceptor.invoke(invocation);
+
+        assertEquals(getCount(tracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE), 1);
+
+        failCommit.set(true);
+
+        try {
+            interceptor.invoke(invocation);
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertEquals(getCount(tracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE), 1);
+    }
+
+    @Test(dependsOnMethods = "testLoadKeepsCountedChanges")
+    public void testChangesDuringReconcileAreCountedOnce() throws Exception {
+        final EntityCountTracker tracker = new EntityCountTracker(graph, typeRegistry, ApplicationProperties.get(), true, 60000, 0, 20);
+        Thread                   scan    = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                tracker.reconcile();
+            }
+        });
+
+        scan.start();
+
+        // entities created while the graph is scanned: the scan might or might not visit them
+        for (int i = 0; i < 3; i++) {
+            String                      dbGuid = createDB();
+            ITypedReferenceableInstance db     = mock(ITypedReferenceableInstance.class);
+
+            when(db.getTypeName()).thenReturn(TestUtilsV2.DATABASE_TYPE);
+            when(db.getId()).thenReturn(new Id(dbGuid, 0, TestUtilsV2.DATABASE_TYPE));
+
+            tracker.onEntitiesAdded(Collections.singletonList(db), false);
+
+            Thread.sleep(100);
+        }
+
+        scan.join();
+
+        entityCountTracker.reconcile();
+
+        assertTrue(tracker.isLoaded());
+        assertEquals(getCount(tracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE),
+                     getCount(entityCountTracker.getCounts().getActiveEntities(), TestUtilsV2.DATABASE_TYPE));
+    }
+
+    @Test(dependsOnMethods = "testChangesDuringReconcileAreCountedOnce")
+    public void testMetricsFromCounts() throws Exception {
+        MetricsService metricsService = new MetricsService(ApplicationProperties.get(), graph, entityCountTracker, typeRegistry);
+        AtlasMetrics   metrics        = metricsService.getMetrics(false);
+        EntityCounts   counts         = entityCountTracker.getCounts();
+        long           dbCount        = getCount(counts.getActiveEntities(), TestUtilsV2.DATABASE_TYPE) + getCount(counts.getDeletedEntities(), TestUtilsV2.DATABASE_TYPE);
+
+        assertEquals(metrics.getMetric(MetricsService.ENTITY, TestUtilsV2.DATABASE_TYPE).longValue(), dbCount);
+        assertEquals(metrics.getMetric(MetricsService.GENERAL, MetricsService.METRIC_TAG_COUNT).intValue(), typeRegistry.getAllClassificationDefNames().size());
+
+        createDB();
+
+        // counts are not cached
+        assertEquals(metricsService.getMetrics(false).getMetric(MetricsService.ENTITY, TestUtilsV2.DATABASE_TYPE).longValue(), dbCount + 1);
+    }
+
+    private String createDB() throws Exception {
+        EntityMutationResponse response = entityStore.createOrUpdate(new AtlasEntityStream(TestUtilsV2.createDBEntity()), false);
+
+        return response.getCreatedEntities().get(0).getGuid();
+    }
+
+    private boolean isSoftDeleted(AtlasEntityHeader header) {
+        try {
+            return entityStore.getById(header.getGuid()) != null;
+        } catch (AtlasBaseException e) {
+            return false;
+        }
+    }
+
+    private static long getCount(Map<String, Long> counts, String name) {
+        Long ret = counts.get(name);
+
+        return ret != null ? ret : 0;
+    }
+}
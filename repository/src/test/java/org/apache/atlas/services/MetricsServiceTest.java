@@ -115,6 +115,11 @@ public class MetricsServiceTest {
         metricsService.getMetrics(false);
         verifyZeroInteractions(mockGraph);
 
+        // each call gets its own copy of the cached metrics
+        metricsService.getMetrics(false).addData("entity", "a", 10);
+        assertEquals(metricsService.getMetrics(false).getMetric("entity", "a"), 1);
+        verifyZeroInteractions(mockGraph);
+
         // Now test the cache refresh
         Thread.sleep(6000);
         metricsService.getMetrics(true);
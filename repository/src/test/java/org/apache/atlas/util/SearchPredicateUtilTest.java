@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.util;
+
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.Predicate;
+import org.apache.commons.collections.PredicateUtils;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class SearchPredicateUtilTest {
+    private final List<AtlasVertex> createdVertices = new ArrayList<>();
+
+    @Test
+    public void testFilterMatchesPerVertexEvaluation() {
+        List<AtlasVertex> vertices = createVertices();
+
+        Predicate nameStartsWith = SearchPredicateUtil.getStartsWithPredicateGenerator().generatePredicate("name", "table", String.class);
+        Predicate ownerIsAdmin   = SearchPredicateUtil.getEQPredicateGenerator().generatePredicate("owner", "admin", String.class);
+        Predicate nameEndsWith1  = SearchPredicateUtil.getEndsWithPredicateGenerator().generatePredicate("name", "1", String.class);
+        Predicate predicate      = PredicateUtils.andPredicate(nameStartsWith,
+                                                               PredicateUtils.orPredicate(ownerIsAdmin, PredicateUtils.notPredicate(nameEndsWith1)));
+
+        List<AtlasVertex> expected = new ArrayList<>(vertices);
+        List<AtlasVertex> actual   = new ArrayList<>(vertices);
+
+        CollectionUtils.filter(expected, predicate);
+        SearchPredicateUtil.filter(actual, predicate);
+
+        assertEquals(actual, expected);
+        assertEquals(actual.size(), 3);
+    }
+
+    @Test
+    public void testFilterReadsAttributeOncePerVertex() {
+        List<AtlasVertex> vertices = createVertices();
+
+        Predicate nameStartsWith = SearchPredicateUtil.getStartsWithPredicateGenerator().generatePredicate("name", "table", String.class);
+        Predicate nameContains   = SearchPredicateUtil.getContainsPredicateGenerator().generatePredicate("name", "_", String.class);
+        Predicate ownerIsAdmin   = SearchPredicateUtil.getEQPredicateGenerator().generatePredicate("owner", "admin", String.class);
+
+        SearchPredicateUtil.filter(vertices, PredicateUtils.allPredicate(new Predicate[] { nameStartsWith, nameContains, ownerIsAdmin }));
+
+        assertEquals(vertices.size(), 2);
+
+        for (AtlasVertex vertex : createdVertices) {
+            verify(vertex, times(1)).getProperty("name", String.class);
+        }
+
+        // owner is read only for the vertices that passed the filters on name
+        verify(createdVertices.get(0), times(1)).getProperty("owner", String.class);
+        verify(createdVertices.get(3), times(0)).getProperty("owner", String.class);
+    }
+
+    private List<AtlasVertex> createVertices() {
+        createdVertices.clear();
+
+        createdVertices.addAll(Arrays.asList(createVertex("table_1", "admin"),
+                                             createVertex("table_2", "user"),
+                                             createVertex("table_3", "admin"),
+                                             createVertex("column1", "admin"),
+                                             createVertex("table1", "user")));
+
+        return new ArrayList<>(createdVertices);
+    }
+
+    private AtlasVertex createVertex(String name, String owner) {
+        AtlasVertex vertex = mock(AtlasVertex.class);
+
+        when(vertex.getId()).thenReturn(name);
+        when(vertex.getProperty("name", String.class)).thenReturn(name);
+        when(vertex.getProperty("owner", String.class)).thenReturn(owner);
+
+        return vertex;
+    }
+}
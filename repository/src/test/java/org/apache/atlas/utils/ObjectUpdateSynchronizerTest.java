@@ -17,7 +17,9 @@
  */
 package org.apache.atlas.utils;
 
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.springframework.util.CollectionUtils;
@@ -25,10 +27,16 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class ObjectUpdateSynchronizerTest {
     private static final GraphTransactionInterceptor.ObjectUpdateSynchronizer objectUpdateSynchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer();
@@ -48,7 +56,12 @@ public class ObjectUpdateSynchronizerTest {
         }
 
         public void run() {
-            objectUpdateSynchronizer.lockObject(CollectionUtils.arrayToList(ids));
+            try {
+                objectUpdateSynchronizer.lockObject(CollectionUtils.arrayToList(ids));
+            } catch (AtlasBaseException e) {
+                throw new RuntimeException(e);
+            }
+
             for (int i = 0; i < MAX_COUNT; i++) {
                 outputList.add(i);
                 RandomStringUtils.randomAlphabetic(20);
@@ -166,6 +179,89 @@ public class ObjectUpdateSynchronizerTest {
         assertArrayEquals(populateExpectedArrayOutput(th.length));
     }
 
+    @Test(timeOut = 30000)
+    public void lockTimesOut() throws Exception {
+        final GraphTransactionInterceptor.ObjectUpdateSynchronizer synchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer(100);
+        final CountDownLatch                                       locked       = new CountDownLatch(1);
+        final CountDownLatch                                       done         = new CountDownLatch(1);
+
+        Thread holder = new Thread() {
+            public void run() {
+                try {
+                    synchronizer.lockObject(Arrays.asList("1"));
+                    locked.countDown();
+                    done.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    synchronizer.releaseLockedObjects();
+                }
+            }
+        };
+
+        holder.start();
+        locked.await();
+
+        try {
+            synchronizer.lockObject(new ArrayList<>(Arrays.asList("1")));
+            fail("lock should time out");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK);
+        } finally {
+            done.countDown();
+            holder.join();
+        }
+
+        assertEquals(synchronizer.getTimeoutCount(), 1);
+        assertEquals(synchronizer.getLockWaitCount(), 1);
+
+        // the lock is available once released by the holder
+        synchronizer.lockObject(new ArrayList<>(Arrays.asList("1")));
+        synchronizer.releaseLockedObjects();
+    }
+
+    @Test(timeOut = 30000)
+    public void deadlockIsDetected() throws Exception {
+        final GraphTransactionInterceptor.ObjectUpdateSynchronizer synchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer(0);
+        final CyclicBarrier                                        barrier      = new CyclicBarrier(2);
+        final AtomicInteger                                        failedCount  = new AtomicInteger();
+
+        class LockingThread extends Thread {
+            private final String first;
+            private final String second;
+
+            LockingThread(String first, String second) {
+                this.first  = first;
+                this.second = second;
+            }
+
+            public void run() {
+                try {
+                    synchronizer.lockObject(new ArrayList<>(Arrays.asList(first)));
+                    barrier.await();
+                    synchronizer.lockObject(new ArrayList<>(Arrays.asList(second)));
+                } catch (AtlasBaseException e) {
+                    failedCount.incrementAndGet();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    synchronizer.releaseLockedObjects();
+                }
+            }
+        }
+
+        Thread th1 = new LockingThread("1", "2");
+        Thread th2 = new LockingThread("2", "1");
+
+        th1.start();
+        th2.start();
+        th1.join();
+        th2.join();
+
+        assertTrue(failedCount.get() >= 1);
+        assertEquals(synchronizer.getDeadlockCount(), failedCount.get());
+    }
+
     private void verifyMultipleThreadRun(int limit) throws InterruptedException {
         CounterThread[] th = getCounterThreads(limit);
         startCounterThreads(th);
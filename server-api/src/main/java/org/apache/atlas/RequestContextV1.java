@@ -38,7 +38,7 @@ public class RequestContextV1 {
     private Set<AtlasObjectId> deletedEntityIds = new LinkedHashSet<>();
 
     private String user;
-    private final long requestTime;
+    private long requestTime;
 
     TypeSystem typeSystem = TypeSystem.getInstance();
     private Metrics metrics = new Metrics();
@@ -107,6 +107,13 @@ public class RequestContextV1 {
         return requestTime;
     }
 
+    /**
+     * For work done on behalf of a request from another thread, like sending its entity change notifications.
+     */
+    public void setRequestTime(long requestTime) {
+        this.requestTime = requestTime;
+    }
+
     public boolean isDeletedEntity(AtlasObjectId entityId) {
         return deletedEntityIds.contains(entityId);
     }
@@ -18,12 +18,18 @@
 
 package org.apache.atlas.metrics;
 
+import org.apache.atlas.utils.AtlasPerfMetrics;
+
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Metrics of a request. Recorded timings are also added to the process-wide latency histograms in AtlasPerfMetrics.
+ */
 public class Metrics {
     public static class Counters {
-        private short invocations = 0;
+        private long invocations = 0;
         private long totalTimeMSecs = 0;
 
         @Override
@@ -31,7 +37,7 @@ public class Metrics {
             return "[count=" + invocations + ", totalTimeMSec=" + totalTimeMSecs + "]";
         }
 
-        public short getInvocations() {
+        public long getInvocations() {
             return invocations;
         }
 
@@ -51,6 +57,8 @@ public class Metrics {
 
         counter.invocations++;
         counter.totalTimeMSecs += timeMsecs;
+
+        AtlasPerfMetrics.record(name, TimeUnit.MILLISECONDS.toNanos(timeMsecs));
     }
 
     @Override
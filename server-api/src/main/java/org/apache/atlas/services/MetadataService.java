@@ -304,6 +304,20 @@ public interface MetadataService {
      */
     List<EntityAuditEvent> getAuditEvents(String guid, String startKey, short count) throws AtlasException;
 
+    /**
+     * Returns audit events of all entities in the given time range, in the decreasing order of timestamp
+     * @param fromTime start of the time range, inclusive
+     * @param toTime end of the time range, inclusive
+     * @param user user who made the changes; null for all users
+     * @param action action of the events; null for all actions
+     * @param typeName type of the entities; null for all types
+     * @param startKey key for the first event, used for pagination
+     * @param count number of events to be returned
+     * @return
+     */
+    List<EntityAuditEvent> getAuditEvents(long fromTime, long toTime, String user, String action, String typeName,
+                                          String startKey, short count) throws AtlasException;
+
     /**
      * Deserializes entity instances into ITypedReferenceableInstance array.
      * @param entityInstanceDefinition
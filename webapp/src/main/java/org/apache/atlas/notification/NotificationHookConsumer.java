@@ -29,6 +29,9 @@ import org.apache.atlas.ha.HAConfiguration;
 import org.apache.atlas.kafka.AtlasKafkaMessage;
 import org.apache.atlas.listener.ActiveStateChangeHandler;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasStruct;
 import org.apache.atlas.notification.hook.HookNotification.EntityCreateRequest;
 import org.apache.atlas.notification.hook.HookNotification.EntityDeleteRequest;
 import org.apache.atlas.notification.hook.HookNotification.EntityPartialUpdateRequest;
@@ -40,13 +43,17 @@ import org.apache.atlas.repository.store.graph.v1.AtlasEntityStream;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.atlas.service.Service;
 import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.typesystem.Referenceable;
 import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.atlas.web.filters.AuditFilter;
 import org.apache.atlas.web.service.ServiceState;
 import org.apache.atlas.web.util.DateTimeHelper;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,9 +63,16 @@ import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -86,7 +100,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     public static final String CONSUMER_RETRY_INTERVAL = "atlas.notification.consumer.retry.interval";
     public static final String CONSUMER_MIN_RETRY_INTERVAL = "atlas.notification.consumer.min.retry.interval";
     public static final String CONSUMER_MAX_RETRY_INTERVAL = "atlas.notification.consumer.max.retry.interval";
-
+    public static final String CONSUMER_BATCH_ENABLED = "atlas.notification.hook.batch.enabled";
+    public static final String CONSUMER_BATCH_MAX_MESSAGES = "atlas.notification.hook.batch.max.messages";
+    public static final String CONSUMER_BATCH_MAX_ENTITIES = "atlas.notification.hook.batch.max.entities";
 
     public static final int SERVER_READY_WAIT_TIME_MS = 1000;
     private final AtlasEntityStore atlasEntityStore;
@@ -100,6 +116,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     final int consumerRetryInterval;
     private final int minWaitDuration;
     private final int maxWaitDuration;
+    private final boolean batchEnabled;
+    private final int batchMaxMessages;
+    private final int batchMaxEntities;
 
     private NotificationInterface notificationInterface;
     private ExecutorService executors;
@@ -125,6 +144,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         consumerRetryInterval = applicationProperties.getInt(CONSUMER_RETRY_INTERVAL, 500);
         minWaitDuration = applicationProperties.getInt(CONSUMER_MIN_RETRY_INTERVAL, consumerRetryInterval); // 500 ms  by default
         maxWaitDuration = applicationProperties.getInt(CONSUMER_MAX_RETRY_INTERVAL, minWaitDuration * 60);  //  30 sec by default
+        batchEnabled = applicationProperties.getBoolean(CONSUMER_BATCH_ENABLED, false);
+        batchMaxMessages = applicationProperties.getInt(CONSUMER_BATCH_MAX_MESSAGES, 100);
+        batchMaxEntities = applicationProperties.getInt(CONSUMER_BATCH_MAX_ENTITIES, 1000);
     }
 
     @Override
@@ -299,8 +321,13 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                 while (shouldRun.get()) {
                     try {
                         List<AtlasKafkaMessage<HookNotificationMessage>> messages = consumer.receive();
-                        for (AtlasKafkaMessage<HookNotificationMessage> msg : messages) {
-                            handleMessage(msg);
+
+                        if (batchEnabled) {
+                            handleMessages(messages);
+                        } else {
+                            for (AtlasKafkaMessage<HookNotificationMessage> msg : messages) {
+                                handleMessage(msg);
+                            }
                         }
                     } catch (IllegalStateException ex) {
                         adaptiveWaiter.pause(ex);
@@ -325,14 +352,134 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
         @VisibleForTesting
         void handleMessage(AtlasKafkaMessage<HookNotificationMessage> kafkaMsg) throws AtlasServiceException, AtlasException {
+            if (processMessage(kafkaMsg)) {
+                commit(kafkaMsg);
+            }
+        }
+
+        /**
+         * Handles all messages received in one poll. Consecutive ENTITY_CREATE/ENTITY_FULL_UPDATE messages are
+         * folded into batches that are written in a single graph transaction; the highest offset of each
+         * partition is committed once, after all the messages have been handled.
+         */
+        @VisibleForTesting
+        void handleMessages(List<AtlasKafkaMessage<HookNotificationMessage>> kafkaMsgs) throws AtlasServiceException, AtlasException {
+            Map<Integer, Long> partitionOffsets = new HashMap<>();
+            HookMessageBatch   batch            = new HookMessageBatch();
+
+            for (AtlasKafkaMessage<HookNotificationMessage> kafkaMsg : kafkaMsgs) {
+                AtlasEntitiesWithExtInfo entities = getBatchableEntities(kafkaMsg.getMessage());
+
+                if (entities == null) {
+                    processBatch(batch);
+                    processMessage(kafkaMsg);
+                } else {
+                    if (!batch.canAdd(kafkaMsg, entities)) {
+                        processBatch(batch);
+                    }
+
+                    batch.add(kafkaMsg, entities);
+                }
+
+                Long offset = partitionOffsets.get(kafkaMsg.getPartition());
+
+                if (offset == null || offset < kafkaMsg.getOffset()) {
+                    partitionOffsets.put(kafkaMsg.getPartition(), kafkaMsg.getOffset());
+                }
+            }
+
+            processBatch(batch);
+
+            commit(partitionOffsets);
+        }
+
+        private AtlasEntitiesWithExtInfo getBatchableEntities(HookNotificationMessage message) {
+            AtlasEntitiesWithExtInfo ret = null;
+
+            try {
+                switch (message.getType()) {
+                    case ENTITY_CREATE:
+                        ret = instanceConverter.toAtlasEntities(((EntityCreateRequest) message).getEntities());
+                        break;
+
+                    case ENTITY_FULL_UPDATE:
+                        ret = instanceConverter.toAtlasEntities(((EntityUpdateRequest) message).getEntities());
+                        break;
+
+                    default:
+                        break;
+                }
+            } catch (Throwable e) {
+                LOG.warn("Failed to convert entities in message; it will be processed individually", e);
+
+                ret = null;
+            }
+
+            return ret;
+        }
+
+        private void processBatch(HookMessageBatch batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "batch");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("batch(messages=" + batch.getMessages().size() + ", entities=" + batch.getEntityCount() + ")");
+            }
+
+            boolean isSuccess = false;
+
+            try {
+                RequestContext requestContext = RequestContext.createContext();
+                requestContext.setUser(batch.getUser());
+
+                atlasEntityStore.createOrUpdate(new AtlasEntityStream(batch.getEntities()), false);
+
+                isSuccess = true;
+            } catch (Throwable e) {
+                LOG.warn("Error handling batch of {} messages; processing them individually", batch.getMessages().size(), e);
+            } finally {
+                RequestContext.clear();
+                RequestContextV1.clear();
+
+                AtlasPerfTracer.log(perf);
+            }
+
+            if (isSuccess) {
+                for (AtlasKafkaMessage<HookNotificationMessage> kafkaMsg : batch.getMessages()) {
+                    HookNotificationMessage message = kafkaMsg.getMessage();
+
+                    switch (message.getType()) {
+                        case ENTITY_CREATE:
+                            audit(message.getUser(), CREATE_ENTITY.getMethod(), CREATE_ENTITY.getPath());
+                            break;
+
+                        case ENTITY_FULL_UPDATE:
+                            audit(message.getUser(), UPDATE_ENTITY.getMethod(), UPDATE_ENTITY.getPath());
+                            break;
+
+                        default:
+                            break;
+                    }
+                }
+            } else {
+                for (AtlasKafkaMessage<HookNotificationMessage> kafkaMsg : batch.getMessages()) {
+                    processMessage(kafkaMsg);
+                }
+            }
+
+            batch.clear();
+        }
+
+        private boolean processMessage(AtlasKafkaMessage<HookNotificationMessage> kafkaMsg) {
             AtlasPerfTracer perf = null;
 
             HookNotificationMessage message = kafkaMsg.getMessage();
             String messageUser = message.getUser();
 
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, message.getType().name());
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, message.getType().name());
 
             try {
                 // Used for intermediate conversions during create and update
@@ -432,14 +579,15 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                             if (failedMessages.size() >= failedMsgCacheSize) {
                                 recordFailedMessages();
                             }
-                            return;
+                            return false;
                         }
                     } finally {
                         RequestContext.clear();
                         RequestContextV1.clear();
                     }
                 }
-                commit(kafkaMsg);
+
+                return true;
             } finally {
                 AtlasPerfTracer.log(perf);
             }
@@ -459,6 +607,15 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             consumer.commit(partition, kafkaMessage.getOffset() + 1);
         }
 
+        private void commit(Map<Integer, Long> partitionOffsets) {
+            recordFailedMessages();
+
+            for (Map.Entry<Integer, Long> entry : partitionOffsets.entrySet()) {
+                TopicPartition partition = new TopicPartition("ATLAS_HOOK", entry.getKey());
+                consumer.commit(partition, entry.getValue() + 1);
+            }
+        }
+
         boolean serverAvailable(Timer timer) {
             try {
                 while (serviceState.getState() != ServiceState.ServiceStateValue.ACTIVE) {
@@ -503,6 +660,361 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
     }
 
+    /**
+     * Consecutive create/full-update messages that are written to the graph in a single createOrUpdate() call.
+     * An entity of a message that has the same guid or unique attribute value as an entity already in the batch, with
+     * the same content, is merged with it: references to it are updated to the entity of the batch. A message that
+     * has such an entity with a different content is not added to the batch, so that the order in which the messages
+     * update an entity is preserved.
+     */
+    private class HookMessageBatch {
+        private final List<AtlasKafkaMessage<HookNotificationMessage>> messages      = new ArrayList<>();
+        private final Map<String, AtlasEntity>                         entitiesByKey  = new HashMap<>();
+        private final Map<String, AtlasEntity>                         entitiesByGuid = new HashMap<>();
+        private       AtlasEntitiesWithExtInfo                         entities       = new AtlasEntitiesWithExtInfo();
+        private       String                                           user           = null;
+        private       int                                              entityCount    = 0;
+
+        public boolean isEmpty() { return messages.isEmpty(); }
+
+        public List<AtlasKafkaMessage<HookNotificationMessage>> getMessages() { return messages; }
+
+        public AtlasEntitiesWithExtInfo getEntities() { return entities; }
+
+        public String getUser() { return user; }
+
+        public int getEntityCount() { return entityCount; }
+
+        public boolean canAdd(AtlasKafkaMessage<HookNotificationMessage> kafkaMsg, AtlasEntitiesWithExtInfo msgEntities) {
+            if (isEmpty()) {
+                return true;
+            }
+
+            if (messages.size() >= batchMaxMessages || entityCount + getEntityCount(msgEntities) > batchMaxEntities) {
+                return false;
+            }
+
+            if (!StringUtils.equals(user, kafkaMsg.getMessage().getUser())) {
+                return false;
+            }
+
+            Map<String, AtlasEntity> msgEntitiesByGuid = getEntitiesByGuid(msgEntities);
+
+            for (AtlasEntity entity : msgEntitiesByGuid.values()) {
+                AtlasEntity batchEntity;
+
+                try {
+                    batchEntity = findBatchEntity(entity);
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+
+                if (batchEntity != null && !isSameEntity(batchEntity, entitiesByGuid, entity, msgEntitiesByGuid)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        public void add(AtlasKafkaMessage<HookNotificationMessage> kafkaMsg, AtlasEntitiesWithExtInfo msgEntities) {
+            if (isEmpty()) {
+                user = kafkaMsg.getMessage().getUser();
+            }
+
+            messages.add(kafkaMsg);
+
+            List<AtlasEntity>   addedEntities = new ArrayList<>();
+            Map<String, String> guidAliases   = new HashMap<>();
+
+            if (CollectionUtils.isNotEmpty(msgEntities.getEntities())) {
+                for (AtlasEntity entity : msgEntities.getEntities()) {
+                    AtlasEntity batchEntity = findBatchEntity(entity);
+
+                    if (batchEntity == null) {
+                        entities.addEntity(entity);
+                        addBatchEntity(entity, addedEntities);
+                    } else {
+                        // merged with an entity referred to by earlier messages: it is now to be written as well
+                        if (entities.removeReferredEntity(batchEntity.getGuid()) != null) {
+                            entities.addEntity(batchEntity);
+                        }
+
+                        addGuidAlias(entity, batchEntity, guidAliases);
+                    }
+                }
+            }
+
+            if (MapUtils.isNotEmpty(msgEntities.getReferredEntities())) {
+                for (Map.Entry<String, AtlasEntity> entry : msgEntities.getReferredEntities().entrySet()) {
+                    AtlasEntity entity      = entry.getValue();
+                    AtlasEntity batchEntity = findBatchEntity(entity);
+
+                    if (batchEntity == null) {
+                        entities.addReferredEntity(entry.getKey(), entity);
+                        addBatchEntity(entity, addedEntities);
+                    } else {
+                        addGuidAlias(entity, batchEntity, guidAliases);
+                    }
+                }
+            }
+
+            if (!guidAliases.isEmpty()) {
+                for (AtlasEntity entity : addedEntities) {
+                    replaceGuids(entity.getAttributes(), guidAliases);
+                    replaceGuids(entity.getRelationshipAttributes(), guidAliases);
+                }
+            }
+        }
+
+        public void clear() {
+            messages.clear();
+            entitiesByKey.clear();
+            entitiesByGuid.clear();
+
+            entities    = new AtlasEntitiesWithExtInfo();
+            user        = null;
+            entityCount = 0;
+        }
+
+        private void addBatchEntity(AtlasEntity entity, List<AtlasEntity> addedEntities) {
+            for (String key : getEntityKeys(entity)) {
+                entitiesByKey.put(key, entity);
+            }
+
+            if (entity.getGuid() != null) {
+                entitiesByGuid.put(entity.getGuid(), entity);
+            }
+
+            addedEntities.add(entity);
+            entityCount++;
+        }
+
+        private void addGuidAlias(AtlasEntity entity, AtlasEntity batchEntity, Map<String, String> guidAliases) {
+            if (entity.getGuid() != null && !entity.getGuid().equals(batchEntity.getGuid())) {
+                guidAliases.put(entity.getGuid(), batchEntity.getGuid());
+            }
+        }
+
+        /**
+         * @return the entity of the batch with the same guid or unique attribute value as the given entity, if any
+         * @throws IllegalStateException if the keys of the given entity match more than one entity of the batch
+         */
+        private AtlasEntity findBatchEntity(AtlasEntity entity) {
+            AtlasEntity ret = null;
+
+            for (String key : getEntityKeys(entity)) {
+                AtlasEntity batchEntity = entitiesByKey.get(key);
+
+                if (batchEntity != null) {
+                    if (ret != null && ret != batchEntity) {
+                        throw new IllegalStateException("entity matches more than one entity of the batch");
+                    }
+
+                    ret = batchEntity;
+                }
+            }
+
+            return ret;
+        }
+
+        private int getEntityCount(AtlasEntitiesWithExtInfo msgEntities) {
+            int ret = 0;
+
+            if (msgEntities.getEntities() != null) {
+                ret += msgEntities.getEntities().size();
+            }
+
+            if (msgEntities.getReferredEntities() != null) {
+                ret += msgEntities.getReferredEntities().size();
+            }
+
+            return ret;
+        }
+
+        private Map<String, AtlasEntity> getEntitiesByGuid(AtlasEntitiesWithExtInfo msgEntities) {
+            Map<String, AtlasEntity> ret = new HashMap<>();
+
+            if (CollectionUtils.isNotEmpty(msgEntities.getEntities())) {
+                for (AtlasEntity entity : msgEntities.getEntities()) {
+                    ret.put(entity.getGuid(), entity);
+                }
+            }
+
+            if (MapUtils.isNotEmpty(msgEntities.getReferredEntities())) {
+                for (AtlasEntity entity : msgEntities.getReferredEntities().values()) {
+                    ret.put(entity.getGuid(), entity);
+                }
+            }
+
+            ret.remove(null);
+
+            return ret;
+        }
+
+        private Set<String> getEntityKeys(AtlasEntity entity) {
+            Set<String> ret = getUniqueKeys(entity);
+
+            if (entity != null && entity.getGuid() != null) {
+                ret.add(entity.getGuid());
+            }
+
+            return ret;
+        }
+
+        private TreeSet<String> getUniqueKeys(AtlasEntity entity) {
+            TreeSet<String> ret = new TreeSet<>();
+
+            if (entity == null) {
+                return ret;
+            }
+
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+            if (entityType != null && MapUtils.isNotEmpty(entityType.getUniqAttributes())) {
+                for (AtlasAttribute attribute : entityType.getUniqAttributes().values()) {
+                    Object value = entity.getAttribute(attribute.getName());
+
+                    if (value != null) {
+                        ret.add(attribute.getQualifiedName() + "=" + value);
+                    }
+                }
+            }
+
+            return ret;
+        }
+
+        /**
+         * Entities of different messages are the same when they have the same type, status, classifications and
+         * attribute values; references are compared by the unique attribute value of the referred entity, as the
+         * guids assigned by hooks are different in each message.
+         */
+        private boolean isSameEntity(AtlasEntity entity1, Map<String, AtlasEntity> entitiesByGuid1,
+                                     AtlasEntity entity2, Map<String, AtlasEntity> entitiesByGuid2) {
+            return StringUtils.equals(entity1.getTypeName(), entity2.getTypeName()) &&
+                   entity1.getStatus() == entity2.getStatus() &&
+                   Objects.equals(entity1.getClassifications(), entity2.getClassifications()) &&
+                   isSameValue(entity1.getAttributes(), entitiesByGuid1, entity2.getAttributes(), entitiesByGuid2) &&
+                   isSameValue(entity1.getRelationshipAttributes(), entitiesByGuid1, entity2.getRelationshipAttributes(), entitiesByGuid2);
+        }
+
+        private boolean isSameValue(Object value1, Map<String, AtlasEntity> entitiesByGuid1,
+                                    Object value2, Map<String, AtlasEntity> entitiesByGuid2) {
+            if (value1 instanceof AtlasObjectId && value2 instanceof AtlasObjectId) {
+                return StringUtils.equals(getReferenceKey((AtlasObjectId) value1, entitiesByGuid1),
+                                          getReferenceKey((AtlasObjectId) value2, entitiesByGuid2));
+            } else if (value1 instanceof Collection && value2 instanceof Collection) {
+                Collection<?> values1 = (Collection<?>) value1;
+                Collection<?> values2 = (Collection<?>) value2;
+
+                if (values1.size() != values2.size()) {
+                    return false;
+                }
+
+                Iterator<?> iter1 = values1.iterator();
+                Iterator<?> iter2 = values2.iterator();
+
+                while (iter1.hasNext()) {
+                    if (!isSameValue(iter1.next(), entitiesByGuid1, iter2.next(), entitiesByGuid2)) {
+                        return false;
+                    }
+                }
+
+                return true;
+            } else if (value1 instanceof Map && value2 instanceof Map) {
+                Map<?, ?> map1 = (Map<?, ?>) value1;
+                Map<?, ?> map2 = (Map<?, ?>) value2;
+
+                if (!map1.keySet().equals(map2.keySet())) {
+                    return false;
+                }
+
+                for (Map.Entry<?, ?> entry : map1.entrySet()) {
+                    if (!isSameValue(entry.getValue(), entitiesByGuid1, map2.get(entry.getKey()), entitiesByGuid2)) {
+                        return false;
+                    }
+                }
+
+                return true;
+            } else if (value1 instanceof AtlasStruct && value2 instanceof AtlasStruct) {
+                AtlasStruct struct1 = (AtlasStruct) value1;
+                AtlasStruct struct2 = (AtlasStruct) value2;
+
+                return StringUtils.equals(struct1.getTypeName(), struct2.getTypeName()) &&
+                       isSameValue(struct1.getAttributes(), entitiesByGuid1, struct2.getAttributes(), entitiesByGuid2);
+            } else if (value1 == null || value2 == null) {
+                // a null attribute map and an empty one are the same
+                return isEmptyValue(value1) && isEmptyValue(value2);
+            }
+
+            return value1.equals(value2);
+        }
+
+        private boolean isEmptyValue(Object value) {
+            return value == null || (value instanceof Map && ((Map<?, ?>) value).isEmpty());
+        }
+
+        private String getReferenceKey(AtlasObjectId objectId, Map<String, AtlasEntity> entitiesByGuid) {
+            String      guid   = objectId.getGuid();
+            AtlasEntity entity = guid != null ? entitiesByGuid.get(guid) : null;
+
+            if (entity != null) {
+                TreeSet<String> uniqueKeys = getUniqueKeys(entity);
+
+                if (!uniqueKeys.isEmpty()) {
+                    return uniqueKeys.first();
+                }
+            }
+
+            return guid != null ? guid : objectId.getTypeName() + objectId.getUniqueAttributes();
+        }
+
+        private void replaceGuids(Map<String, Object> attributes, Map<String, String> guidAliases) {
+            if (MapUtils.isNotEmpty(attributes)) {
+                for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                    entry.setValue(replaceGuids(entry.getValue(), guidAliases));
+                }
+            }
+        }
+
+        private Object replaceGuids(Object value, Map<String, String> guidAliases) {
+            if (value instanceof AtlasObjectId) {
+                AtlasObjectId objectId = (AtlasObjectId) value;
+                String        alias    = objectId.getGuid() != null ? guidAliases.get(objectId.getGuid()) : null;
+
+                return alias != null ? new AtlasObjectId(alias, objectId.getTypeName(), objectId.getUniqueAttributes()) : objectId;
+            } else if (value instanceof List) {
+                List<Object> ret = new ArrayList<>();
+
+                for (Object element : (List<?>) value) {
+                    ret.add(replaceGuids(element, guidAliases));
+                }
+
+                return ret;
+            } else if (value instanceof Set) {
+                Set<Object> ret = new HashSet<>();
+
+                for (Object element : (Set<?>) value) {
+                    ret.add(replaceGuids(element, guidAliases));
+                }
+
+                return ret;
+            } else if (value instanceof Map) {
+                Map<Object, Object> ret = new HashMap<>();
+
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    ret.put(entry.getKey(), replaceGuids(entry.getValue(), guidAliases));
+                }
+
+                return ret;
+            } else if (value instanceof AtlasStruct) {
+                replaceGuids(((AtlasStruct) value).getAttributes(), guidAliases);
+            }
+
+            return value;
+        }
+    }
+
     private void audit(String messageUser, String method, String path) {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> audit({},{}, {})", messageUser, method, path);
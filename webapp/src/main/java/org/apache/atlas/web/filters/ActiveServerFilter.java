@@ -18,8 +18,12 @@
 
 package org.apache.atlas.web.filters;
 
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.repository.store.bootstrap.TypeRegistryRefreshService;
 import org.apache.atlas.web.service.ActiveInstanceState;
 import org.apache.atlas.web.service.ServiceState;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -45,18 +49,48 @@ import java.net.URLEncoder;
  * by identifying the currently active server. Requests to servers which are in transition are returned with
  * an error SERVICE_UNAVAILABLE. Identification of this state is carried out using
  * {@link ServiceState} and {@link ActiveInstanceState}.
+ *
+ * When passive reads are enabled, a passive instance serves read-only (GET/HEAD) requests of the v2 entity, search,
+ * lineage and types APIs - and basic search requests, sent with POST - from the shared graph, as long as its type
+ * registry is not older than
+ * atlas.server.ha.passive.reads.max.staleness.ms; see {@link TypeRegistryRefreshService}.
  */
 @Component
 public class ActiveServerFilter implements Filter {
 
     private static final Logger LOG = LoggerFactory.getLogger(ActiveServerFilter.class);
+
+    public static final String STALENESS_HEADER = "X-Atlas-Staleness-Ms";
+
+    private static final String[] PASSIVE_READ_URIS          = { "/v2/entity/", "/v2/search/", "/v2/lineage/", "/v2/types/" };
+    private static final String[] PASSIVE_READ_URIS_EXCLUDED = { "/v2/search/dsl" }; // DSL search needs the v1 type system, not loaded in passive instances
+    private static final String[] PASSIVE_READ_POST_URIS     = { "/v2/search/basic" }; // read-only requests sent with POST, for their parameters in the body
+
     private final ActiveInstanceState activeInstanceState;
     private ServiceState serviceState;
+    private final TypeRegistryRefreshService typeRegistryRefreshService;
+    private final boolean isPassiveReadsEnabled;
+    private final long maxStalenessMs;
 
-    @Inject
     public ActiveServerFilter(ActiveInstanceState activeInstanceState, ServiceState serviceState) {
+        this(activeInstanceState, serviceState, null, false, 0);
+    }
+
+    @Inject
+    public ActiveServerFilter(ActiveInstanceState activeInstanceState, ServiceState serviceState,
+                              TypeRegistryRefreshService typeRegistryRefreshService, Configuration configuration) {
+        this(activeInstanceState, serviceState, typeRegistryRefreshService, typeRegistryRefreshService.isEnabled(),
+             configuration.getLong(HAConfiguration.HA_PASSIVE_READS_MAX_STALENESS_MS,
+                                   HAConfiguration.DEFAULT_PASSIVE_READS_MAX_STALENESS_MS));
+    }
+
+    ActiveServerFilter(ActiveInstanceState activeInstanceState, ServiceState serviceState,
+                       TypeRegistryRefreshService typeRegistryRefreshService, boolean isPassiveReadsEnabled, long maxStalenessMs) {
         this.activeInstanceState = activeInstanceState;
         this.serviceState = serviceState;
+        this.typeRegistryRefreshService = typeRegistryRefreshService;
+        this.isPassiveReadsEnabled = isPassiveReadsEnabled;
+        this.maxStalenessMs = maxStalenessMs;
     }
 
     @Override
@@ -87,17 +121,73 @@ public class ActiveServerFilter implements Filter {
             HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
             LOG.error("Instance in transition. Service may not be ready to return a result");
             httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
-        } else {
-            HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
-            String activeServerAddress = activeInstanceState.getActiveServerAddress();
-            if (activeServerAddress == null) {
-                LOG.error("Could not retrieve active server address as it is null. Cannot redirect request {}",
-                        ((HttpServletRequest)servletRequest).getRequestURI());
-                httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        } else if (isPassiveRead((HttpServletRequest) servletRequest)) {
+            long stalenessMs = typeRegistryRefreshService.getStalenessMs();
+
+            if (stalenessMs <= maxStalenessMs) {
+                LOG.debug("Passive. Serving read-only request {}", ((HttpServletRequest) servletRequest).getRequestURI());
+                ((HttpServletResponse) servletResponse).setHeader(STALENESS_HEADER, String.valueOf(stalenessMs));
+                filterChain.doFilter(servletRequest, servletResponse);
             } else {
-                handleRedirect((HttpServletRequest) servletRequest, httpServletResponse, activeServerAddress);
+                LOG.debug("Passive. Type registry last refreshed {}ms ago; redirecting read-only request", stalenessMs);
+                redirectToActiveServer((HttpServletRequest) servletRequest, (HttpServletResponse) servletResponse);
             }
+        } else {
+            redirectToActiveServer((HttpServletRequest) servletRequest, (HttpServletResponse) servletResponse);
+        }
+    }
+
+    private void redirectToActiveServer(HttpServletRequest servletRequest, HttpServletResponse httpServletResponse)
+            throws IOException {
+        String activeServerAddress = activeInstanceState.getActiveServerAddress();
+        if (activeServerAddress == null) {
+            LOG.error("Could not retrieve active server address as it is null. Cannot redirect request {}",
+                    servletRequest.getRequestURI());
+            httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        } else {
+            handleRedirect(servletRequest, httpServletResponse, activeServerAddress);
+        }
+    }
+
+    private boolean isPassiveRead(HttpServletRequest httpServletRequest) {
+        if (!isPassiveReadsEnabled || serviceState.getState() != ServiceState.ServiceStateValue.PASSIVE) {
+            return false;
         }
+
+        String method     = httpServletRequest.getMethod();
+        String requestURI = httpServletRequest.getRequestURI();
+
+        if (requestURI == null) {
+            return false;
+        }
+
+        if (HttpMethod.POST.equals(method)) {
+            for (String readURI : PASSIVE_READ_POST_URIS) {
+                if (StringUtils.removeEnd(requestURI, "/").endsWith(readURI)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return false;
+        }
+
+        for (String excludedURI : PASSIVE_READ_URIS_EXCLUDED) {
+            if (requestURI.contains(excludedURI)) {
+                return false;
+            }
+        }
+
+        for (String readURI : PASSIVE_READ_URIS) {
+            if (requestURI.contains(readURI)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     final String adminUriNotFiltered[] = { "/admin/export", "/admin/import", "/admin/importfile" };
@@ -32,13 +32,17 @@ import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.impexp.AtlasImportRequest;
 import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.model.metrics.AtlasMetrics;
+import org.apache.atlas.repository.graph.ReindexService;
 import org.apache.atlas.repository.impexp.ExportService;
 import org.apache.atlas.repository.impexp.ImportService;
 import org.apache.atlas.repository.impexp.ZipSink;
 import org.apache.atlas.repository.impexp.ZipSource;
+import org.apache.atlas.repository.store.bootstrap.TypeRegistryRefreshService;
 import org.apache.atlas.services.MetricsService;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.util.SearchTracker;
+import org.apache.atlas.utils.AtlasPerfMetrics;
+import org.apache.atlas.utils.LatencyHistogram;
 import org.apache.atlas.web.filters.AtlasCSRFPreventionFilter;
 import org.apache.atlas.web.service.ServiceState;
 import org.apache.atlas.web.util.Servlets;
@@ -76,6 +80,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -105,6 +111,7 @@ public class AdminResource {
     private static final String isEntityUpdateAllowed = "atlas.entity.update.allowed";
     private static final String isEntityCreateAllowed = "atlas.entity.create.allowed";
     private static final String editableEntityTypes = "atlas.ui.editable.entity.types";
+    private static final String TYPE_REGISTRY_STALENESS_MS = "typeRegistryStalenessMs";
     private static final String DEFAULT_EDITABLE_ENTITY_TYPES = "hdfs_path,hbase_table,hbase_column,hbase_column_family,kafka_topic";
     private Response version;
 
@@ -114,6 +121,8 @@ public class AdminResource {
     private final ExportService exportService;
     private final ImportService importService;
     private final SearchTracker activeSearches;
+    private final ReindexService reindexService;
+    private final TypeRegistryRefreshService typeRegistryRefreshService;
 
     static {
         try {
@@ -125,12 +134,15 @@ public class AdminResource {
 
     @Inject
     public AdminResource(ServiceState serviceState, MetricsService metricsService,
-                         ExportService exportService, ImportService importService, SearchTracker activeSearches) {
+                         ExportService exportService, ImportService importService, SearchTracker activeSearches,
+                         ReindexService reindexService, TypeRegistryRefreshService typeRegistryRefreshService) {
         this.serviceState               = serviceState;
         this.metricsService             = metricsService;
         this.exportService = exportService;
         this.importService = importService;
         this.activeSearches = activeSearches;
+        this.reindexService = reindexService;
+        this.typeRegistryRefreshService = typeRegistryRefreshService;
         importExportOperationLock = new ReentrantLock();
     }
 
@@ -219,8 +231,16 @@ public class AdminResource {
         Response response;
 
         try {
-            JSONObject responseData = new JSONObject();
-            responseData.put(AtlasClient.STATUS, serviceState.getState().toString());
+            ServiceState.ServiceStateValue state        = serviceState.getState();
+            JSONObject                     responseData = new JSONObject();
+
+            responseData.put(AtlasClient.STATUS, state.toString());
+
+            if (state == ServiceState.ServiceStateValue.PASSIVE
+                    && typeRegistryRefreshService != null && typeRegistryRefreshService.isEnabled()) {
+                responseData.put(TYPE_REGISTRY_STALENESS_MS, typeRegistryRefreshService.getStalenessMs());
+            }
+
             response = Response.ok(responseData).build();
         } catch (JSONException e) {
             throw new WebApplicationException(Servlets.getErrorResponse(e, Response.Status.INTERNAL_SERVER_ERROR));
@@ -438,6 +458,46 @@ public class AdminResource {
         return null != terminate;
     }
 
+    /**
+     * Returns the re-index tasks started by typedef updates, with their progress.
+     */
+    @GET
+    @Path("reindex")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public List<ReindexService.ReindexTask> getReindexTasks() {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.getReindexTasks()");
+        }
+
+        List<ReindexService.ReindexTask> ret = reindexService.getTasks();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.getReindexTasks(): {}", ret.size());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the latencies of REST operations, graph transactions and graph calls since the server started.
+     */
+    @GET
+    @Path("latency")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Map<String, LatencyHistogram.Snapshot> getLatencies() {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.getLatencies()");
+        }
+
+        Map<String, LatencyHistogram.Snapshot> ret = AtlasPerfMetrics.getSnapshots();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.getLatencies(): {}", ret.size());
+        }
+
+        return ret;
+    }
+
     private String getEditableEntityTypes(Configuration config) {
         String ret = DEFAULT_EDITABLE_ENTITY_TYPES;
 
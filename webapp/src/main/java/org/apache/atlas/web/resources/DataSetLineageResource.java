@@ -78,8 +78,10 @@ public class DataSetLineageResource {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.inputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.inputsGraph(tableName=" + tableName + ")");
+                perf.setTag("DataSetLineageResource.inputsGraph(tableName=" + tableName + ")");
             }
 
             final String jsonResult = lineageService.getInputsGraph(tableName);
@@ -124,8 +126,10 @@ public class DataSetLineageResource {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.outputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.outputsGraph(tableName=" + tableName + ")");
+                perf.setTag("DataSetLineageResource.outputsGraph(tableName=" + tableName + ")");
             }
 
             final String jsonResult = lineageService.getOutputsGraph(tableName);
@@ -170,8 +174,10 @@ public class DataSetLineageResource {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.schema");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.schema(tableName=" + tableName + ")");
+                perf.setTag("DataSetLineageResource.schema(tableName=" + tableName + ")");
             }
 
             final String jsonResult = lineageService.getSchema(tableName);
@@ -142,9 +142,7 @@ public class EntityResource {
         String entityJson = null;
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.submit()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.submit");
 
             String entities = Servlets.getRequestPayload(request);
 
@@ -265,9 +263,7 @@ public class EntityResource {
         String entityJson = null;
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntities()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntities");
 
             final String entities = Servlets.getRequestPayload(request);
 
@@ -357,8 +353,10 @@ public class EntityResource {
         AtlasPerfTracer perf = null;
         String entityJson = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateByUniqueAttribute");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateByUniqueAttribute(" + entityType + ", " + attribute + ", " + value + ")");
+                perf.setTag("EntityResource.updateByUniqueAttribute(" + entityType + ", " + attribute + ", " + value + ")");
             }
 
             entityJson = Servlets.getRequestPayload(request);
@@ -446,8 +444,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntityByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntityByGuid(" + guid + ", " + attribute + ")");
+                perf.setTag("EntityResource.updateEntityByGuid(" + guid + ", " + attribute + ")");
             }
 
             if (StringUtils.isEmpty(attribute)) {
@@ -583,8 +583,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteEntities");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteEntities(" + guids + ", " + entityType + ", " + attribute + ", " + value + ")");
+                perf.setTag("EntityResource.deleteEntities(" + guids + ", " + entityType + ", " + attribute + ", " + value + ")");
             }
 
             EntityResult entityResult;
@@ -657,8 +659,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntityDefinition");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntityDefinition(" + guid + ")");
+                perf.setTag("EntityResource.getEntityDefinition(" + guid + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -752,8 +756,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntity(" + entityType + ", " + attribute + ", " + value + ")");
+                perf.setTag("EntityResource.getEntity(" + entityType + ", " + attribute + ", " + value + ")");
             }
 
             if (StringUtils.isEmpty(attribute)) {
@@ -858,8 +864,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitNames");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitNames(" + guid + ")");
+                perf.setTag("EntityResource.getTraitNames(" + guid + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -914,8 +922,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionsForEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionsForEntity(" + guid + ")");
+                perf.setTag("EntityResource.getTraitDefinitionsForEntity(" + guid + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -973,8 +983,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionForEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionForEntity(" + guid + ", " + traitName + ")");
+                perf.setTag("EntityResource.getTraitDefinitionForEntity(" + guid + ", " + traitName + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -1030,8 +1042,10 @@ public class EntityResource {
         String traitDefinition = null;
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.addTrait");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.addTrait(" + guid + ")");
+                perf.setTag("EntityResource.addTrait(" + guid + ")");
             }
 
             traitDefinition = Servlets.getRequestPayload(request);
@@ -1098,8 +1112,10 @@ public class EntityResource {
         }
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteTrait");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteTrait(" + guid + ", " + traitName + ")");
+                perf.setTag("EntityResource.deleteTrait(" + guid + ", " + traitName + ")");
             }
 
             entitiesStore.deleteClassifications(guid, new ArrayList<String>() {{ add(traitName); }});
@@ -1156,8 +1172,10 @@ public class EntityResource {
         }
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getAuditEvents");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getAuditEvents(" + guid + ", " + startKey + ", " + count + ")");
+                perf.setTag("EntityResource.getAuditEvents(" + guid + ", " + startKey + ", " + count + ")");
             }
 
             List<EntityAuditEvent> events = metadataService.getAuditEvents(guid, startKey, count);
@@ -1184,6 +1202,68 @@ public class EntityResource {
         }
     }
 
+    /**
+     * Returns the audit events of all entities in the given time range. The events are returned in the decreasing order of timestamp.
+     * @param fromTime start of the time range in milliseconds, inclusive
+     * @param toTime end of the time range in milliseconds, inclusive; defaults to now
+     * @param user returns only the events of changes made by this user, if given
+     * @param action returns only the events with this action, if given
+     * @param typeName returns only the events of entities of this type, if given
+     * @param startKey used for pagination. Startkey is inclusive, the returned results contain the event with the given startkey.
+     *                  Next time getAuditEvents() is called for the same query, startKey should be equal to the eventKey
+     *                  of the last event returned in the previous call.
+     * @param count number of events required
+     * @return
+     */
+    @GET
+    @Path("audit")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Response getAuditEvents(@QueryParam("fromTime") @DefaultValue("0") long fromTime,
+                                   @QueryParam("toTime") @DefaultValue("-1") long toTime,
+                                   @QueryParam("user") String user, @QueryParam("action") String action,
+                                   @QueryParam("typeName") String typeName, @QueryParam("startKey") String startKey,
+                                   @QueryParam("count") @DefaultValue("100") short count) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> EntityResource.getAuditEvents({}, {}, {}, {}, {}, {}, {})", fromTime, toTime, user, action, typeName, startKey, count);
+        }
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getAuditEvents");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("EntityResource.getAuditEvents(" + fromTime + ", " + toTime + ", " + user + ", " + action + ", " + typeName + ", " + startKey + ", " + count + ")");
+            }
+
+            if (toTime < 0) {
+                toTime = System.currentTimeMillis();
+            }
+
+            List<EntityAuditEvent> events = metadataService.getAuditEvents(fromTime, toTime, user, action, typeName, startKey, count);
+
+            JSONObject response = new JSONObject();
+            response.put(AtlasClient.REQUEST_ID, Servlets.getRequestId());
+            response.put(AtlasClient.EVENTS, getJSONArray(events));
+            return Response.ok(response).build();
+        } catch (AtlasException | IllegalArgumentException e) {
+            LOG.error("Unable to get audit events fromTime={} toTime={} startKey={}", fromTime, toTime, startKey, e);
+            throw new WebApplicationException(Servlets.getErrorResponse(e, Response.Status.BAD_REQUEST));
+        } catch (WebApplicationException e) {
+            LOG.error("Unable to get audit events fromTime={} toTime={} startKey={}", fromTime, toTime, startKey, e);
+            throw e;
+        } catch (Throwable e) {
+            LOG.error("Unable to get audit events fromTime={} toTime={} startKey={}", fromTime, toTime, startKey, e);
+            throw new WebApplicationException(Servlets.getErrorResponse(e, Response.Status.INTERNAL_SERVER_ERROR));
+        } finally {
+            AtlasPerfTracer.log(perf);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("<== EntityResource.getAuditEvents({}, {}, {}, {}, {}, {}, {})", fromTime, toTime, user, action, typeName, startKey, count);
+            }
+        }
+    }
+
     private <T> JSONArray getJSONArray(Collection<T> elements) throws JSONException {
         JSONArray jsonArray = new JSONArray();
         for(T element : elements) {
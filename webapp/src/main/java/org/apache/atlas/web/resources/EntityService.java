@@ -77,9 +77,7 @@ public class EntityService extends BaseService {
     public Response getEntities(@Context HttpHeaders headers, @Context UriInfo ui) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntities()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntities");
 
             String queryString = decode(getQueryString(ui));
 
@@ -100,8 +98,10 @@ public class EntityService extends BaseService {
                               @PathParam("entityId") String entityId) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntity(" + entityId + ")");
+                perf.setTag("EntityService.getEntity(" + entityId + ")");
             }
 
             BaseRequest request = new InstanceRequest(Collections.<String, Object>singletonMap("id", entityId));
@@ -122,8 +122,10 @@ public class EntityService extends BaseService {
                                  @PathParam("tag") String tagName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntityTag");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntityTag(" + entityId + ", " + tagName + ")");
+                perf.setTag("EntityService.getEntityTag(" + entityId + ", " + tagName + ")");
             }
 
             Map<String, Object> properties = new HashMap<>();
@@ -145,8 +147,10 @@ public class EntityService extends BaseService {
                                   @PathParam("entityId") String entityGuid) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntityTags");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.getEntityTags(" + entityGuid + ")");
+                perf.setTag("EntityService.getEntityTags(" + entityGuid + ")");
             }
 
             BaseRequest request = new CollectionRequest(Collections.<String, Object>singletonMap("id", entityGuid),
@@ -169,8 +173,10 @@ public class EntityService extends BaseService {
                               @PathParam("tag") String tagName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.tagEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.tagEntity(" + entityId + ", " + tagName + ")");
+                perf.setTag("EntityService.tagEntity(" + entityId + ", " + tagName + ")");
             }
 
             Map<String, Object> properties = new HashMap<>();
@@ -192,9 +198,7 @@ public class EntityService extends BaseService {
                                 @Context UriInfo ui) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.tagEntities()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.tagEntities");
 
             Map<String, Object> properties = parsePayload(body);
 
@@ -229,9 +233,7 @@ public class EntityService extends BaseService {
                                     @PathParam("tag") String tagName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.deleteEntityTag()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityService.deleteEntityTag");
 
             Map<String, Object> properties = new HashMap<>();
             properties.put("id", entityId);
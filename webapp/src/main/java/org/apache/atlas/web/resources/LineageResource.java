@@ -88,8 +88,10 @@ public class LineageResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.inputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.inputsGraph(" + guid + ")");
+                perf.setTag("LineageResource.inputsGraph(" + guid + ")");
             }
 
             AtlasLineageInfo lineageInfo = atlasLineageService.getAtlasLineageInfo(guid, LineageDirection.INPUT, -1);
@@ -135,8 +137,10 @@ public class LineageResource {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.outputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.outputsGraph(" + guid + ")");
+                perf.setTag("LineageResource.outputsGraph(" + guid + ")");
             }
 
             AtlasLineageInfo lineageInfo = atlasLineageService.getAtlasLineageInfo(guid, LineageDirection.OUTPUT, -1);
@@ -181,8 +185,10 @@ public class LineageResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.schema");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.schema(" + guid + ")");
+                perf.setTag("LineageResource.schema(" + guid + ")");
             }
 
             final String jsonResult = lineageService.getSchemaForEntity(guid);
@@ -146,8 +146,10 @@ public class MetadataDiscoveryResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "MetadataDiscoveryResource.searchUsingQueryDSL");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "MetadataDiscoveryResource.searchUsingQueryDSL(" + dslQuery + ", " + limit + ", " + offset + ")");
+                perf.setTag("MetadataDiscoveryResource.searchUsingQueryDSL(" + dslQuery + ", " + limit + ", " + offset + ")");
             }
 
             dslQuery = ParamChecker.notEmpty(dslQuery, "dslQuery cannot be null");
@@ -215,8 +217,10 @@ public class MetadataDiscoveryResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "MetadataDiscoveryResource.searchUsingGremlinQuery");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "MetadataDiscoveryResource.searchUsingGremlinQuery(" + gremlinQuery + ")");
+                perf.setTag("MetadataDiscoveryResource.searchUsingGremlinQuery(" + gremlinQuery + ")");
             }
 
             if (!gremlinSearchEnabled) {
@@ -278,8 +282,10 @@ public class MetadataDiscoveryResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "MetadataDiscoveryResource.searchUsingFullText");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "MetadataDiscoveryResource.searchUsingFullText(" + query + ", " + limit + ", " + offset + ")");
+                perf.setTag("MetadataDiscoveryResource.searchUsingFullText(" + query + ", " + limit + ", " + offset + ")");
             }
 
             query = ParamChecker.notEmpty(query, "query cannot be null or empty");
@@ -73,8 +73,10 @@ public class TaxonomyService extends BaseService {
                                 @PathParam("taxonomyName") String taxonomyName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomy");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomy(" + taxonomyName + ")");
+                perf.setTag("TaxonomyService.getTaxonomy(" + taxonomyName + ")");
             }
 
             Map<String, Object> properties = new HashMap<>();
@@ -91,9 +93,7 @@ public class TaxonomyService extends BaseService {
     public Response getTaxonomies(@Context HttpHeaders headers, @Context UriInfo ui) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomies()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomies");
 
             String queryString = decode(getQueryString(ui));
             Request request = new CollectionRequest(Collections.<String, Object>emptyMap(), queryString);
@@ -113,8 +113,10 @@ public class TaxonomyService extends BaseService {
                                    @PathParam("taxonomyName") String taxonomyName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.createTaxonomy");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.createTaxonomy(" + taxonomyName + ")");
+                perf.setTag("TaxonomyService.createTaxonomy(" + taxonomyName + ")");
             }
 
             Map<String, Object> properties = parsePayload(body);
@@ -138,8 +140,10 @@ public class TaxonomyService extends BaseService {
                                    @PathParam("taxonomyName") String taxonomyName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.updateTaxonomy");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.updateTaxonomy(" + taxonomyName + ")");
+                perf.setTag("TaxonomyService.updateTaxonomy(" + taxonomyName + ")");
             }
 
             Map<String, Object> queryProperties = new HashMap<>();
@@ -162,8 +166,10 @@ public class TaxonomyService extends BaseService {
                                    @PathParam("taxonomyName") String taxonomyName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.deleteTaxonomy");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.deleteTaxonomy(" + taxonomyName + ")");
+                perf.setTag("TaxonomyService.deleteTaxonomy(" + taxonomyName + ")");
             }
 
             Map<String, Object> properties = new HashMap<>();
@@ -187,8 +193,10 @@ public class TaxonomyService extends BaseService {
                                     @PathParam("termName") String termName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomyTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomyTerm(" + taxonomyName + ", " + termName + ")");
+                perf.setTag("TaxonomyService.getTaxonomyTerm(" + taxonomyName + ", " + termName + ")");
             }
 
             TermPath termPath = new TermPath(taxonomyName, termName);
@@ -210,8 +218,10 @@ public class TaxonomyService extends BaseService {
                                      @PathParam("taxonomyName") String taxonomyName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomyTerms");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getTaxonomyTerms(" + taxonomyName + ")");
+                perf.setTag("TaxonomyService.getTaxonomyTerms(" + taxonomyName + ")");
             }
 
             String queryString = decode(getQueryString(ui));
@@ -236,8 +246,10 @@ public class TaxonomyService extends BaseService {
                             @PathParam("remainder") String remainder) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getSubTerms");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.getSubTerms(" + taxonomyName + ", " + rootTerm + ", " + remainder + ")");
+                perf.setTag("TaxonomyService.getSubTerms(" + taxonomyName + ", " + rootTerm + ", " + remainder + ")");
             }
 
             Result result;
@@ -274,8 +286,10 @@ public class TaxonomyService extends BaseService {
                                @PathParam("termName") String termName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.createTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.createTerm(" + taxonomyName + ", " + termName + ")");
+                perf.setTag("TaxonomyService.createTerm(" + taxonomyName + ", " + termName + ")");
             }
 
             Map<String, Object> properties = parsePayload(body);
@@ -301,8 +315,10 @@ public class TaxonomyService extends BaseService {
                                   @PathParam("remainder") String remainder) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.createSubTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.createSubTerm(" + taxonomyName + ", " + termName + ", " + remainder + ")");
+                perf.setTag("TaxonomyService.createSubTerm(" + taxonomyName + ", " + termName + ", " + remainder + ")");
             }
 
             Map<String, Object> properties = parsePayload(body);
@@ -329,8 +345,10 @@ public class TaxonomyService extends BaseService {
                                @PathParam("termName") String termName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.updateTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.updateTerm(" + taxonomyName + ", " + termName + ")");
+                perf.setTag("TaxonomyService.updateTerm(" + taxonomyName + ", " + termName + ")");
             }
 
             Map<String, Object> queryProperties = new HashMap<>();
@@ -357,8 +375,10 @@ public class TaxonomyService extends BaseService {
                                   @PathParam("remainder") String remainder) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.updateSubTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.updateSubTerm(" + taxonomyName + ", " + termName + ", " + remainder + ")");
+                perf.setTag("TaxonomyService.updateSubTerm(" + taxonomyName + ", " + termName + ", " + remainder + ")");
             }
 
             Map<String, Object> queryProperties = new HashMap<>();
@@ -384,8 +404,10 @@ public class TaxonomyService extends BaseService {
                                @PathParam("termName") String termName) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.deleteTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.deleteTerm(" + taxonomyName + ", " + termName + ")");
+                perf.setTag("TaxonomyService.deleteTerm(" + taxonomyName + ", " + termName + ")");
             }
 
             Map<String, Object> properties = new HashMap<>();
@@ -409,8 +431,10 @@ public class TaxonomyService extends BaseService {
                                   @PathParam("remainder") String remainder) throws CatalogException {
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.deleteSubTerm");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaxonomyService.deleteSubTerm(" + taxonomyName + ", " + termName + ", " + remainder + ")");
+                perf.setTag("TaxonomyService.deleteSubTerm(" + taxonomyName + ", " + termName + ", " + remainder + ")");
             }
 
             Map<String, Object> properties = new HashMap<>();
@@ -96,11 +96,7 @@ public class TypesResource {
             LOG.debug("==> TypesResource.submit()");
         }
 
-        AtlasPerfTracer perf = null;
-
-        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.submit()");
-        }
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.submit");
 
         JSONArray typesResponse = new JSONArray();
 
@@ -164,11 +160,7 @@ public class TypesResource {
             LOG.debug("==> TypesResource.update()");
         }
 
-        AtlasPerfTracer perf = null;
-
-        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.update()");
-        }
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.update");
 
         JSONArray typesResponse = new JSONArray();
         try {
@@ -227,10 +219,10 @@ public class TypesResource {
             LOG.debug("==> TypesResource.getDefinition({})", typeName);
         }
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getDefinition");
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getDefinition(" + typeName + ")");
+            perf.setTag("TypesResource.getDefinition(" + typeName + ")");
         }
 
         JSONObject response = new JSONObject();
@@ -286,10 +278,10 @@ public class TypesResource {
             LOG.debug("==> TypesResource.getTypesByFilter({}, {}, {})", typeCategory, supertype, notsupertype);
         }
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getTypesByFilter");
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getTypesByFilter(" + typeCategory + ", " + supertype + ", " + notsupertype + ")");
+            perf.setTag("TypesResource.getTypesByFilter(" + typeCategory + ", " + supertype + ", " + notsupertype + ")");
         }
 
         JSONObject response  = new JSONObject();
@@ -80,8 +80,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingDSL");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingDSL(" + query + "," + typeName
+                perf.setTag("DiscoveryREST.searchUsingDSL(" + query + "," + typeName
                                                             +  "," + classification + "," + limit + "," + offset + ")");
             }
 
@@ -126,8 +128,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingFullText");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingFullText(" + query + "," +
+                perf.setTag("DiscoveryREST.searchUsingFullText(" + query + "," +
                                                                limit + "," + offset + ")");
             }
 
@@ -144,6 +148,9 @@ public class DiscoveryREST {
      * @param classification limit the result to only entities tagged with the given classification or or its sub-types
      * @param limit limit the result set to only include the specified number of entries
      * @param offset start offset of the result set (useful for pagination)
+     * @param continuationToken continuationToken from the result of the previous page, to get the next page; offset is
+     *                          ignored when specified. The token holds the offset in the query
+     *                          results: it saves re-filtering earlier pages, but results deleted since can be missed
      * @return Search results
      * @throws AtlasBaseException
      * @HTTP 200 On successful FullText lookup with some results, might return an empty list if execution succeeded
@@ -159,12 +166,15 @@ public class DiscoveryREST {
                                               @QueryParam("classification")         String  classification,
                                               @QueryParam("excludeDeletedEntities") boolean excludeDeletedEntities,
                                               @QueryParam("limit")                  int     limit,
-                                              @QueryParam("offset")                 int     offset) throws AtlasBaseException {
+                                              @QueryParam("offset")                 int     offset,
+                                              @QueryParam("continuationToken")      String  continuationToken) throws AtlasBaseException {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingBasic");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingBasic(" + query + "," +
+                perf.setTag("DiscoveryREST.searchUsingBasic(" + query + "," +
                                                     typeName + "," + classification + "," + limit + "," + offset + ")");
             }
 
@@ -175,6 +185,7 @@ public class DiscoveryREST {
             searchParameters.setExcludeDeletedEntities(excludeDeletedEntities);
             searchParameters.setLimit(limit);
             searchParameters.setOffset(offset);
+            searchParameters.setContinuationToken(continuationToken);
 
             return atlasDiscoveryService.searchWithParameters(searchParameters);
         } finally {
@@ -207,8 +218,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingAttribute");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingAttribute(" + attrName + "," +
+                perf.setTag("DiscoveryREST.searchUsingAttribute(" + attrName + "," +
                         attrValuePrefix + "," + typeName + "," + limit + "," + offset + ")");
             }
 
@@ -225,7 +238,8 @@ public class DiscoveryREST {
     }
 
     /**
-     * Attribute based search for entities satisfying the search parameters
+     * Attribute based search for entities satisfying the search parameters. To page through results, set
+     * continuationToken in the parameters to the one in the result of the previous page
      * @param parameters Search parameters
      * @return Atlas search result
      * @throws AtlasBaseException
@@ -241,8 +255,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParameters");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParameters("+ parameters + ")");
+                perf.setTag("DiscoveryREST.searchWithParameters("+ parameters + ")");
             }
 
             if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
@@ -295,8 +311,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.relatedEntitiesSearchUsingGremlin");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.relatedEntitiesSearchUsingGremlin(" + guid +
+                perf.setTag("DiscoveryREST.relatedEntitiesSearchUsingGremlin(" + guid +
                         ", " + relation + ", " + sortByAttribute + ", " + sortOrder + ", " + excludeDeletedEntities + ", " + ", " + limit + ", " + offset + ")");
             }
 
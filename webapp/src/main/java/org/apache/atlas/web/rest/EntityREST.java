@@ -94,8 +94,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getById");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getById(" + guid + ")");
+                perf.setTag("EntityREST.getById(" + guid + ")");
             }
 
             return entitiesStore.getById(guid);
@@ -121,8 +123,10 @@ public class EntityREST {
         try {
             Map<String, Object> attributes = getAttributes(servletRequest);
 
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByUniqueAttributes");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByUniqueAttributes(" + typeName + "," + attributes + ")");
+                perf.setTag("EntityREST.getByUniqueAttributes(" + typeName + "," + attributes + ")");
             }
 
             AtlasEntityType entityType = ensureEntityType(typeName);
@@ -149,9 +153,7 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate");
 
             return entitiesStore.createOrUpdate(new AtlasEntityStream(entity), false);
         } finally {
@@ -176,8 +178,10 @@ public class EntityREST {
         try {
             Map<String, Object> uniqueAttributes = getAttributes(servletRequest);
 
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityByUniqueAttrs");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityByUniqueAttrs(" + typeName + "," + uniqueAttributes + ")");
+                perf.setTag("EntityREST.partialUpdateEntityByUniqueAttrs(" + typeName + "," + uniqueAttributes + ")");
             }
 
             AtlasEntityType entityType = ensureEntityType(typeName);
@@ -206,8 +210,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityAttrByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityAttrByGuid(" + guid + "," + attrName + ")");
+                perf.setTag("EntityREST.partialUpdateEntityAttrByGuid(" + guid + "," + attrName + ")");
             }
 
             return entitiesStore.updateEntityAttributeByGuid(guid, attrName, attrValue);
@@ -229,8 +235,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuid(" + guid + ")");
+                perf.setTag("EntityREST.deleteByGuid(" + guid + ")");
             }
 
             return entitiesStore.deleteById(guid);
@@ -256,8 +264,10 @@ public class EntityREST {
         try {
             Map<String, Object> attributes = getAttributes(servletRequest);
 
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByUniqueAttribute");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByUniqueAttribute(" + typeName + "," + attributes + ")");
+                perf.setTag("EntityREST.deleteByUniqueAttribute(" + typeName + "," + attributes + ")");
             }
 
             AtlasEntityType entityType = ensureEntityType(typeName);
@@ -280,8 +290,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassification(" + guid + "," + classificationName + ")");
+                perf.setTag("EntityREST.getClassification(" + guid + "," + classificationName + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -307,8 +319,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassifications");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassifications(" + guid + ")");
+                perf.setTag("EntityREST.getClassifications(" + guid + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -333,8 +347,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassifications");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassifications(" + guid + ")");
+                perf.setTag("EntityREST.addClassifications(" + guid + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -359,8 +375,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.updateClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.updateClassification(" + guid + ")");
+                perf.setTag("EntityREST.updateClassification(" + guid + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -387,8 +405,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteClassification(" + guid + "," + classificationName + ")");
+                perf.setTag("EntityREST.deleteClassification(" + guid + "," + classificationName + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -418,8 +438,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByGuids");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByGuids(" + guids + ")");
+                perf.setTag("EntityREST.getByGuids(" + guids + ")");
             }
 
             if (CollectionUtils.isEmpty(guids)) {
@@ -444,9 +466,11 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate(entityCount=" +
-                                                               (CollectionUtils.isEmpty(entities.getEntities()) ? 0 : entities.getEntities().size()) + ")");
+                perf.setTag("EntityREST.createOrUpdate(entityCount=" +
+                            (CollectionUtils.isEmpty(entities.getEntities()) ? 0 : entities.getEntities().size()) + ")");
             }
 
             EntityStream entityStream = new AtlasEntityStream(entities);
@@ -468,8 +492,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuids");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuids(" + guids  + ")");
+                perf.setTag("EntityREST.deleteByGuids(" + guids  + ")");
             }
 
             return entitiesStore.deleteByIds(guids);
@@ -489,8 +515,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassification(" + request  + ")");
+                perf.setTag("EntityREST.addClassification(" + request  + ")");
             }
 
             AtlasClassification classification = request == null ? null : request.getClassification();
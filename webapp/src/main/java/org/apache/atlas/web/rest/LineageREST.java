@@ -82,8 +82,10 @@ public class LineageREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageREST.getLineageGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageREST.getLineageGraph(" + guid + "," + direction +
+                perf.setTag("LineageREST.getLineageGraph(" + guid + "," + direction +
                                                                "," + depth + ")");
             }
 
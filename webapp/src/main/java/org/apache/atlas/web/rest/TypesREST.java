@@ -309,9 +309,11 @@ public class TypesREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesREST.createAtlasTypeDefs");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesREST.createAtlasTypeDefs(" +
-                                                               AtlasTypeUtil.toDebugString(typesDef) + ")");
+                perf.setTag("TypesREST.createAtlasTypeDefs(" +
+                            AtlasTypeUtil.toDebugString(typesDef) + ")");
             }
 
             return typeDefStore.createTypesDef(typesDef);
@@ -337,9 +339,11 @@ public class TypesREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesREST.updateAtlasTypeDefs");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesREST.updateAtlasTypeDefs(" +
-                                                               AtlasTypeUtil.toDebugString(typesDef) + ")");
+                perf.setTag("TypesREST.updateAtlasTypeDefs(" +
+                            AtlasTypeUtil.toDebugString(typesDef) + ")");
             }
 
             return typeDefStore.updateTypesDef(typesDef);
@@ -364,9 +368,11 @@ public class TypesREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesREST.deleteAtlasTypeDefs");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesREST.deleteAtlasTypeDefs(" +
-                                                               AtlasTypeUtil.toDebugString(typesDef) + ")");
+                perf.setTag("TypesREST.deleteAtlasTypeDefs(" +
+                            AtlasTypeUtil.toDebugString(typesDef) + ")");
             }
 
             typeDefStore.deleteTypesDef(typesDef);
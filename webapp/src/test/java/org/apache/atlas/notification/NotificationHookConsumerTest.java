@@ -17,17 +17,21 @@
  */
 package org.apache.atlas.notification;
 
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.AtlasServiceException;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.ha.HAConfiguration;
 import org.apache.atlas.kafka.AtlasKafkaMessage;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.notification.hook.HookNotification;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v1.EntityStream;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.typesystem.Referenceable;
@@ -43,10 +47,13 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -150,6 +157,191 @@ public class NotificationHookConsumerTest {
         verifyZeroInteractions(consumer);
     }
 
+    @Test
+    public void testBatchedMessagesAreWrittenInOneCallAndCommittedOnce() throws Exception {
+        NotificationConsumer consumer = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer = createBatchingHookConsumer(consumer);
+
+        when(instanceConverter.toAtlasEntities(anyList())).thenAnswer(new Answer<AtlasEntity.AtlasEntitiesWithExtInfo>() {
+            @Override
+            public AtlasEntity.AtlasEntitiesWithExtInfo answer(InvocationOnMock invocation) {
+                return new AtlasEntity.AtlasEntitiesWithExtInfo(new AtlasEntity("hive_table"));
+            }
+        });
+
+        hookConsumer.handleMessages(Arrays.asList(createRequestMessage(10, 0), createRequestMessage(11, 0), createRequestMessage(12, 0)));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(1)).commit(any(TopicPartition.class), anyLong());
+        verify(consumer).commit(new TopicPartition("ATLAS_HOOK", 0), 13);
+    }
+
+    @Test
+    public void testBatchedMessagesAreProcessedIndividuallyWhenBatchFails() throws Exception {
+        NotificationConsumer consumer = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer = createBatchingHookConsumer(consumer);
+
+        when(instanceConverter.toAtlasEntities(anyList())).thenAnswer(new Answer<AtlasEntity.AtlasEntitiesWithExtInfo>() {
+            @Override
+            public AtlasEntity.AtlasEntitiesWithExtInfo answer(InvocationOnMock invocation) {
+                return new AtlasEntity.AtlasEntitiesWithExtInfo(new AtlasEntity("hive_table"));
+            }
+        });
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean()))
+                .thenThrow(new RuntimeException("Simulating failure of the batch"))
+                .thenReturn(mock(EntityMutationResponse.class));
+
+        hookConsumer.handleMessages(Arrays.asList(createRequestMessage(20, 1), createRequestMessage(21, 1)));
+
+        verify(atlasEntityStore, times(3)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer).commit(new TopicPartition("ATLAS_HOOK", 1), 22);
+    }
+
+    @Test
+    public void testBatchIsSplitWhenMessagesUpdateAnEntityDifferently() throws Exception {
+        NotificationConsumer consumer = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer = createBatchingHookConsumer(consumer);
+        final List<Integer> batchSizes = new ArrayList<>();
+        final AtomicInteger messageCount = new AtomicInteger();
+
+        when(instanceConverter.toAtlasEntities(anyList())).thenAnswer(new Answer<AtlasEntity.AtlasEntitiesWithExtInfo>() {
+            @Override
+            public AtlasEntity.AtlasEntitiesWithExtInfo answer(InvocationOnMock invocation) {
+                AtlasEntity entity = new AtlasEntity("hive_table");
+
+                entity.setGuid("-1");
+                entity.setAttribute("owner", "owner" + messageCount.incrementAndGet());
+
+                return new AtlasEntity.AtlasEntitiesWithExtInfo(entity);
+            }
+        });
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean())).thenAnswer(new Answer<EntityMutationResponse>() {
+            @Override
+            public EntityMutationResponse answer(InvocationOnMock invocation) {
+                EntityStream stream = (EntityStream) invocation.getArguments()[0];
+                int          count  = 0;
+
+                while (stream.hasNext()) {
+                    stream.next();
+                    count++;
+                }
+
+                batchSizes.add(count);
+
+                return mock(EntityMutationResponse.class);
+            }
+        });
+
+        hookConsumer.handleMessages(Arrays.asList(createRequestMessage(30, 0), createRequestMessage(31, 0)));
+
+        assertEquals(batchSizes, Arrays.asList(1, 1));
+        verify(consumer, times(1)).commit(any(TopicPartition.class), anyLong());
+    }
+
+    @Test
+    public void testBatchMergesEntitiesSharedByMessages() throws Exception {
+        NotificationConsumer consumer = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer = createBatchingHookConsumer(consumer);
+        final List<List<AtlasEntity>> batches = new ArrayList<>();
+        final AtomicInteger messageCount = new AtomicInteger();
+
+        mockUniqueAttribute("hive_db");
+        mockUniqueAttribute("hive_table");
+
+        when(instanceConverter.toAtlasEntities(anyList())).thenAnswer(new Answer<AtlasEntity.AtlasEntitiesWithExtInfo>() {
+            @Override
+            public AtlasEntity.AtlasEntitiesWithExtInfo answer(InvocationOnMock invocation) {
+                int         i     = messageCount.incrementAndGet();
+                AtlasEntity db    = new AtlasEntity("hive_db");
+                AtlasEntity table = new AtlasEntity("hive_table");
+
+                // every message carries the same db, with a guid of its own
+                db.setGuid("-db" + i);
+                db.setAttribute("qualifiedName", "default@cl1");
+                db.setAttribute("name", "default");
+
+                table.setGuid("-table" + i);
+                table.setAttribute("qualifiedName", "default.table" + i + "@cl1");
+                table.setAttribute("db", new AtlasObjectId(db.getGuid(), db.getTypeName()));
+
+                AtlasEntity.AtlasEntitiesWithExtInfo ret = new AtlasEntity.AtlasEntitiesWithExtInfo(table);
+
+                ret.addEntity(db);
+
+                return ret;
+            }
+        });
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean())).thenAnswer(new Answer<EntityMutationResponse>() {
+            @Override
+            public EntityMutationResponse answer(InvocationOnMock invocation) {
+                EntityStream      stream   = (EntityStream) invocation.getArguments()[0];
+                List<AtlasEntity> entities = new ArrayList<>();
+
+                while (stream.hasNext()) {
+                    entities.add(stream.next());
+                }
+
+                batches.add(entities);
+
+                return mock(EntityMutationResponse.class);
+            }
+        });
+
+        hookConsumer.handleMessages(Arrays.asList(createRequestMessage(40, 0), createRequestMessage(41, 0), createRequestMessage(42, 0)));
+
+        assertEquals(batches.size(), 1);
+
+        List<AtlasEntity> entities = batches.get(0);
+
+        assertEquals(entities.size(), 4);
+
+        for (AtlasEntity entity : entities) {
+            if (entity.getTypeName().equals("hive_table")) {
+                assertEquals(((AtlasObjectId) entity.getAttribute("db")).getGuid(), "-db1");
+            } else {
+                assertEquals(entity.getGuid(), "-db1");
+            }
+        }
+
+        verify(consumer).commit(new TopicPartition("ATLAS_HOOK", 0), 43);
+    }
+
+    private void mockUniqueAttribute(String typeName) {
+        AtlasEntityType                entityType = mock(AtlasEntityType.class);
+        AtlasStructType.AtlasAttribute   attribute  = mock(AtlasStructType.AtlasAttribute.class);
+
+        when(attribute.getName()).thenReturn("qualifiedName");
+        when(attribute.getQualifiedName()).thenReturn(typeName + ".qualifiedName");
+        when(entityType.getUniqAttributes()).thenReturn(Collections.singletonMap("qualifiedName", attribute));
+        when(typeRegistry.getEntityTypeByName(typeName)).thenReturn(entityType);
+    }
+
+    private NotificationHookConsumer.HookConsumer createBatchingHookConsumer(NotificationConsumer consumer) throws AtlasException {
+        Configuration applicationProperties = ApplicationProperties.get();
+
+        applicationProperties.setProperty(NotificationHookConsumer.CONSUMER_BATCH_ENABLED, true);
+
+        try {
+            NotificationHookConsumer notificationHookConsumer =
+                    new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
+
+            return notificationHookConsumer.new HookConsumer(consumer);
+        } finally {
+            applicationProperties.clearProperty(NotificationHookConsumer.CONSUMER_BATCH_ENABLED);
+        }
+    }
+
+    private AtlasKafkaMessage<HookNotification.HookNotificationMessage> createRequestMessage(long offset, int partition) {
+        HookNotification.EntityCreateRequest message = new HookNotification.EntityCreateRequest("user",
+                new ArrayList<Referenceable>() {
+                    {
+                        add(mock(Referenceable.class));
+                    }
+                });
+
+        return new AtlasKafkaMessage<HookNotification.HookNotificationMessage>(message, offset, partition);
+    }
+
     @Test
     public void testConsumerProceedsWithFalseIfInterrupted() throws Exception {
         NotificationHookConsumer notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
@@ -18,6 +18,7 @@
 
 package org.apache.atlas.web.filters;
 
+import org.apache.atlas.repository.store.bootstrap.TypeRegistryRefreshService;
 import org.apache.atlas.web.service.ActiveInstanceState;
 import org.apache.atlas.web.service.ServiceState;
 import org.mockito.Mock;
@@ -33,6 +34,7 @@ import javax.ws.rs.HttpMethod;
 
 import java.io.IOException;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -55,6 +57,9 @@ public class ActiveServerFilterTest {
     @Mock
     private ServiceState serviceState;
 
+    @Mock
+    private TypeRegistryRefreshService typeRegistryRefreshService;
+
     @BeforeMethod
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -238,4 +243,94 @@ public class ActiveServerFilterTest {
         verify(filterChain).doFilter(servletRequest, servletResponse);
         verifyZeroInteractions(activeInstanceState);
     }
+
+    @Test
+    public void testShouldServeReadRequestsIfPassive() throws IOException, ServletException {
+        when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.PASSIVE);
+        when(typeRegistryRefreshService.getStalenessMs()).thenReturn(100L);
+        when(servletRequest.getMethod()).thenReturn(HttpMethod.GET);
+        when(servletRequest.getRequestURI()).thenReturn("/api/atlas/v2/entity/guid/6ebb039f-eaa5-4b9c-ae44-799c7910545d");
+
+        ActiveServerFilter activeServerFilter = new ActiveServerFilter(activeInstanceState, serviceState, typeRegistryRefreshService, true, 60000);
+
+        activeServerFilter.doFilter(servletRequest, servletResponse, filterChain);
+
+        verify(filterChain).doFilter(servletRequest, servletResponse);
+        verify(servletResponse).setHeader(ActiveServerFilter.STALENESS_HEADER, "100");
+        verifyZeroInteractions(activeInstanceState);
+    }
+
+    @Test
+    public void testShouldServeBasicSearchIfPassive() throws IOException, ServletException {
+        when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.PASSIVE);
+        when(typeRegistryRefreshService.getStalenessMs()).thenReturn(100L);
+        when(servletRequest.getMethod()).thenReturn(HttpMethod.POST);
+        when(servletRequest.getRequestURI()).thenReturn("/api/atlas/v2/search/basic");
+
+        ActiveServerFilter activeServerFilter = new ActiveServerFilter(activeInstanceState, serviceState, typeRegistryRefreshService, true, 60000);
+
+        activeServerFilter.doFilter(servletRequest, servletResponse, filterChain);
+
+        verify(filterChain).doFilter(servletRequest, servletResponse);
+        verify(servletResponse).setHeader(ActiveServerFilter.STALENESS_HEADER, "100");
+        verifyZeroInteractions(activeInstanceState);
+    }
+
+    @Test
+    public void testShouldRedirectOtherSearchPostsIfPassive() throws IOException, ServletException {
+        when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.PASSIVE);
+        when(typeRegistryRefreshService.getStalenessMs()).thenReturn(100L);
+        when(activeInstanceState.getActiveServerAddress()).thenReturn(ACTIVE_SERVER_ADDRESS);
+        when(servletRequest.getMethod()).thenReturn(HttpMethod.POST);
+        when(servletRequest.getRequestURI()).thenReturn("api/atlas/v2/search/saved");
+
+        ActiveServerFilter activeServerFilter = new ActiveServerFilter(activeInstanceState, serviceState, typeRegistryRefreshService, true, 60000);
+
+        activeServerFilter.doFilter(servletRequest, servletResponse, filterChain);
+
+        verify(servletResponse).setHeader("Location", ACTIVE_SERVER_ADDRESS + "api/atlas/v2/search/saved");
+        verify(servletResponse).setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        verify(filterChain, never()).doFilter(servletRequest, servletResponse);
+    }
+
+    @Test
+    public void testShouldRedirectReadRequestsIfTypeRegistryIsStale() throws IOException, ServletException {
+        when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.PASSIVE);
+        when(typeRegistryRefreshService.getStalenessMs()).thenReturn(Long.MAX_VALUE);
+        when(activeInstanceState.getActiveServerAddress()).thenReturn(ACTIVE_SERVER_ADDRESS);
+        when(servletRequest.getMethod()).thenReturn(HttpMethod.GET);
+        when(servletRequest.getRequestURI()).thenReturn("api/atlas/v2/search/basic");
+
+        ActiveServerFilter activeServerFilter = new ActiveServerFilter(activeInstanceState, serviceState, typeRegistryRefreshService, true, 60000);
+
+        activeServerFilter.doFilter(servletRequest, servletResponse, filterChain);
+
+        verify(servletResponse).sendRedirect(ACTIVE_SERVER_ADDRESS + "api/atlas/v2/search/basic");
+        verify(filterChain, never()).doFilter(servletRequest, servletResponse);
+    }
+
+    @Test
+    public void testShouldRedirectWriteAndDSLRequestsIfPassive() throws IOException, ServletException {
+        when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.PASSIVE);
+        when(typeRegistryRefreshService.getStalenessMs()).thenReturn(0L);
+        when(activeInstanceState.getActiveServerAddress()).thenReturn(ACTIVE_SERVER_ADDRESS);
+
+        ActiveServerFilter activeServerFilter = new ActiveServerFilter(activeInstanceState, serviceState, typeRegistryRefreshService, true, 60000);
+
+        when(servletRequest.getMethod()).thenReturn(HttpMethod.POST);
+        when(servletRequest.getRequestURI()).thenReturn("api/atlas/v2/entity");
+
+        activeServerFilter.doFilter(servletRequest, servletResponse, filterChain);
+
+        verify(servletResponse).setHeader("Location", ACTIVE_SERVER_ADDRESS + "api/atlas/v2/entity");
+        verify(servletResponse).setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+
+        when(servletRequest.getMethod()).thenReturn(HttpMethod.GET);
+        when(servletRequest.getRequestURI()).thenReturn("api/atlas/v2/search/dsl");
+
+        activeServerFilter.doFilter(servletRequest, servletResponse, filterChain);
+
+        verify(servletResponse).sendRedirect(ACTIVE_SERVER_ADDRESS + "api/atlas/v2/search/dsl");
+        verify(filterChain, never()).doFilter(servletRequest, servletResponse);
+    }
 }